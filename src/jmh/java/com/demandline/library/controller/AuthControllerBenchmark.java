@@ -0,0 +1,51 @@
+package com.demandline.library.controller;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AuthController benchmark
+ * Parsing of the role permissions JSON done on every login
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AuthControllerBenchmark {
+    // Same values as the seeded roles in V2__Insert_initial_roles_and_users.sql
+    private static final String ADMIN_PERMISSIONS =
+            "[\"ADMIN:CREATE\", \"ADMIN:READ\", \"ADMIN:UPDATE\", \"ADMIN:DELETE\", \"BOOK:CREATE\", "
+                    + "\"BOOK:READ\", \"BOOK:UPDATE\", \"BOOK:DELETE\", \"BORROW:READ\", \"BORROW:UPDATE\", "
+                    + "\"BORROW:DELETE\", \"MEMBER:READ\", \"MEMBER:UPDATE\"]";
+    private static final String MEMBER_PERMISSIONS = "[\"MEMBER:READ\"]";
+
+    private AuthController authController;
+
+    @Setup
+    public void setUp() {
+        authController = new AuthController(null, null, null, null);
+    }
+
+    @Benchmark
+    public List<String> parseAdminPermissions() {
+        return authController.parsePermissions(ADMIN_PERMISSIONS);
+    }
+
+    @Benchmark
+    public List<String> parseMemberPermissions() {
+        return authController.parsePermissions(MEMBER_PERMISSIONS);
+    }
+}
@@ -0,0 +1,65 @@
+package com.demandline.library.security;
+
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtFilter benchmark
+ * One full authenticated pass: header extraction, token validation, claim reads and
+ * SecurityContext population
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JwtFilterBenchmark {
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private JwtFilter jwtFilter;
+    private MockHttpServletRequest authenticatedRequest;
+    private MockHttpServletRequest anonymousRequest;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        var jwtUtil = JwtUtilBenchmark.newJwtUtil();
+        jwtFilter = new JwtFilter(jwtUtil);
+        String token = jwtUtil.generateToken(1, "admin@library.com", "ADMIN", JwtUtilBenchmark.ADMIN_PERMISSIONS);
+
+        authenticatedRequest = new MockHttpServletRequest("GET", "/api/books");
+        authenticatedRequest.addHeader("Authorization", "Bearer " + token);
+        anonymousRequest = new MockHttpServletRequest("GET", "/library/public/books");
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Authentication authenticatedRequest() throws Exception {
+        jwtFilter.doFilterInternal(authenticatedRequest, response, NO_OP_CHAIN);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    @Benchmark
+    public Authentication anonymousRequest() throws Exception {
+        jwtFilter.doFilterInternal(anonymousRequest, response, NO_OP_CHAIN);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
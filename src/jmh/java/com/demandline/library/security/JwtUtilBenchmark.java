@@ -0,0 +1,66 @@
+package com.demandline.library.security;
+
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtUtil benchmarks
+ * Token generation on login and the signature check/claim parsing done on every request
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JwtUtilBenchmark {
+    static final String SECRET = "benchmark-secret-key-that-is-long-enough-for-hmac-sha-256-signing";
+    static final List<String> ADMIN_PERMISSIONS = List.of(
+            "ADMIN:CREATE", "ADMIN:READ", "ADMIN:UPDATE", "ADMIN:DELETE",
+            "BOOK:CREATE", "BOOK:READ", "BOOK:UPDATE", "BOOK:DELETE",
+            "BORROW:READ", "BORROW:UPDATE", "BORROW:DELETE", "MEMBER:READ", "MEMBER:UPDATE");
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = newJwtUtil();
+        token = jwtUtil.generateToken(1, "admin@library.com", "ADMIN", ADMIN_PERMISSIONS);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(1, "admin@library.com", "ADMIN", ADMIN_PERMISSIONS);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtUtil.validateToken(token);
+    }
+
+    @Benchmark
+    public Claims getClaims() {
+        return jwtUtil.getClaims(token);
+    }
+
+    static JwtUtil newJwtUtil() {
+        var jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpiration", 86400000L);
+        return jwtUtil;
+    }
+}
@@ -0,0 +1,88 @@
+package com.demandline.library.security;
+
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.Signature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * PermissionCheckAspect benchmark
+ * The authority scan run before every @RequiresPermission controller method, for a permission
+ * early and late in the admin authority list
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PermissionCheckAspectBenchmark {
+    private PermissionCheckAspect aspect;
+    private JoinPoint joinPoint;
+    private RequiresPermission firstPermission;
+    private RequiresPermission lastPermission;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        aspect = new PermissionCheckAspect();
+
+        // Stub-only mocks do not record invocations, so they do not grow during the run
+        Signature signature = mock(Signature.class, withSettings().stubOnly());
+        when(signature.getName()).thenReturn("getAllBooks");
+        joinPoint = mock(JoinPoint.class, withSettings().stubOnly());
+        when(joinPoint.getSignature()).thenReturn(signature);
+
+        firstPermission = PermissionCheckAspectBenchmark.class
+                .getDeclaredMethod("requiresAdminCreate").getAnnotation(RequiresPermission.class);
+        lastPermission = PermissionCheckAspectBenchmark.class
+                .getDeclaredMethod("requiresMemberUpdate").getAnnotation(RequiresPermission.class);
+
+        var authorities = JwtUtilBenchmark.ADMIN_PERMISSIONS.stream()
+                .map(SimpleGrantedAuthority::new)
+                .toList();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("admin@library.com", null, authorities));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public void firstAuthorityMatches() {
+        aspect.checkPermission(joinPoint, firstPermission);
+    }
+
+    @Benchmark
+    public void lastAuthorityMatches() {
+        aspect.checkPermission(joinPoint, lastPermission);
+    }
+
+    @RequiresPermission("ADMIN:CREATE")
+    private void requiresAdminCreate() {
+    }
+
+    @RequiresPermission("MEMBER:UPDATE")
+    private void requiresMemberUpdate() {
+    }
+}
@@ -0,0 +1,50 @@
+package com.demandline.library.service;
+
+import com.demandline.library.repository.model.BookEntity;
+import com.demandline.library.service.model.Book;
+import com.demandline.library.service.model.input.BookInput;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BookService benchmarks
+ * Entity to model mapping used by every book response and the bulk import CSV line parser
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BookServiceBenchmark {
+    private static final String CSV_LINE = "The Pragmatic Programmer, Andrew Hunt, 978-0135957059, 12";
+
+    private BookService bookService;
+    private BookEntity bookEntity;
+
+    @Setup
+    public void setUp() {
+        bookService = new BookService(null, null, null, null, null, null);
+        bookEntity = LoanServiceBenchmark.bookEntity(1);
+    }
+
+    @Benchmark
+    public Book mapToBook() {
+        return bookService.mapToBook(bookEntity);
+    }
+
+    @Benchmark
+    public BookInput parseCsvLine() {
+        return BookService.parseCsvLine(CSV_LINE);
+    }
+}
@@ -0,0 +1,113 @@
+package com.demandline.library.service;
+
+import com.demandline.library.repository.model.BookEntity;
+import com.demandline.library.repository.model.LoanEntity;
+import com.demandline.library.repository.model.MemberEntity;
+import com.demandline.library.service.model.Loan;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LoanService benchmarks
+ * Mapping of a member's loans to the Loan model and the Jackson round trip used to cache
+ * loan/return results in Redis
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LoanServiceBenchmark {
+
+    @Param({"1", "5"})
+    private int booksPerLoan;
+
+    private LoanService loanService;
+    private ObjectMapper objectMapper;
+    private MemberEntity memberEntity;
+    private List<LoanEntity> loanEntities;
+    private Loan loan;
+    private String loanJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        // Same settings Spring Boot applies to the application ObjectMapper
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        loanService = new LoanService(null, null, null, null, null, null, null, null, objectMapper, null, null, null, null, null);
+
+        LocalDateTime now = LocalDateTime.of(2025, 1, 15, 10, 30);
+        memberEntity = MemberEntity.builder()
+                .id(42)
+                .address("1 Library Street")
+                .phoneNumber("+1-555-0100")
+                .isActive(true)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+
+        loanEntities = new ArrayList<>();
+        for (int i = 1; i <= booksPerLoan; i++) {
+            loanEntities.add(LoanEntity.builder()
+                    .id(i)
+                    .memberEntity(memberEntity)
+                    .bookEntity(bookEntity(i))
+                    .borrowDate(now)
+                    .dueDate(now.plusDays(14))
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build());
+        }
+
+        loan = loanService.mapEntitiesToLoan(memberEntity, loanEntities);
+        loanJson = objectMapper.writeValueAsString(loan);
+    }
+
+    @Benchmark
+    public Loan mapEntitiesToLoan() {
+        return loanService.mapEntitiesToLoan(memberEntity, loanEntities);
+    }
+
+    @Benchmark
+    public String serializeLoan() throws Exception {
+        return objectMapper.writeValueAsString(loan);
+    }
+
+    @Benchmark
+    public Loan deserializeLoan() throws Exception {
+        return objectMapper.readValue(loanJson, Loan.class);
+    }
+
+    static BookEntity bookEntity(int id) {
+        LocalDateTime now = LocalDateTime.of(2025, 1, 15, 10, 30);
+        return BookEntity.builder()
+                .id(id)
+                .title("The Pragmatic Programmer, Volume " + id)
+                .author("Andrew Hunt")
+                .isbn("978-01359570" + String.format("%02d", id))
+                .totalCopies(12)
+                .availableCopies(7)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+}
@@ -0,0 +1,26 @@
+package com.demandline.library.config;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.commonspool2.CommonsObjectPool2Metrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Connection pool metrics configuration
+ * Hikari pools are instrumented by Spring Boot (hikaricp.connections.*: active, idle, pending,
+ * usage, acquire and timeout). The Lettuce connection pool is a commons-pool2 pool registered
+ * over JMX, which this binder turns into commons.pool2.* meters (active, idle, waiters and
+ * mean/max borrow wait).
+ */
+@Configuration
+public class PoolMetricsConfig {
+
+    /**
+     * Bind every commons-pool2 pool, including pools created after startup
+     * @return meter binder for commons-pool2 pools
+     */
+    @Bean
+    public CommonsObjectPool2Metrics commonsObjectPool2Metrics() {
+        return new CommonsObjectPool2Metrics(Tags.of("pool", "redis"));
+    }
+}
@@ -0,0 +1,132 @@
+package com.demandline.library.config;
+
+import com.demandline.library.observability.MetricsService;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Startup check of pool sizes against the expected request concurrency
+ * Compares Jetty's maximum thread count, the Hikari maximum pool size and the Lettuce pool
+ * size, logs a warning for every combination that will queue or waste capacity, and exports
+ * the configured maxima as library.pool.max.size so dashboards can show usage against them.
+ */
+@Component
+@Slf4j
+public class PoolSizingSelfCheck {
+
+    @Value("${library.pools.selfCheck.enabled:true}")
+    private boolean enabled;
+
+    @Value("${library.pools.expectedConcurrency:100}")
+    private int expectedConcurrency;
+
+    @Value("${library.pools.selfCheck.maxRequestsPerConnection:4}")
+    private int maxRequestsPerConnection;
+
+    @Value("${server.jetty.threads.max:200}")
+    private int jettyMaxThreads;
+
+    @Value("${spring.data.redis.lettuce.pool.max-active:8}")
+    private int redisMaxActive;
+
+    @Value("${spring.data.redis.lettuce.pool.max-wait:-1ms}")
+    private Duration redisMaxWait;
+
+    private final DataSource dataSource;
+    private final MetricsService metricsService;
+
+    public PoolSizingSelfCheck(DataSource dataSource, MetricsService metricsService) {
+        this.dataSource = dataSource;
+        this.metricsService = metricsService;
+    }
+
+    /**
+     * Run the check once the application is ready to serve requests
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        Integer hikariMaxSize = hikariMaxPoolSize();
+        metricsService.registerPoolMaxSizeGauge("jetty", () -> jettyMaxThreads);
+        metricsService.registerPoolMaxSizeGauge("redis", () -> redisMaxActive);
+        if (hikariMaxSize != null) {
+            metricsService.registerPoolMaxSizeGauge("hikari", () -> hikariMaxSize);
+        }
+
+        if (!enabled) {
+            return;
+        }
+        if (hikariMaxSize == null) {
+            log.info("Pool sizing self-check skipped, the primary DataSource is not a Hikari pool");
+            return;
+        }
+
+        List<String> warnings = check(jettyMaxThreads, hikariMaxSize, redisMaxActive, redisMaxWait);
+        if (warnings.isEmpty()) {
+            log.info("Pool sizing self-check passed: concurrency={}, jettyThreads={}, hikari={}, redis={}",
+                    expectedConcurrency, jettyMaxThreads, hikariMaxSize, redisMaxActive);
+        } else {
+            warnings.forEach(warning -> log.warn("Pool sizing self-check: {}", warning));
+        }
+    }
+
+    /**
+     * Compare pool sizes with the expected concurrency
+     * @param jettyThreads Jetty maximum thread count
+     * @param hikariMaxSize Hikari maximum pool size
+     * @param redisMaxActive Lettuce pool maximum active connections
+     * @param redisMaxWait Lettuce pool borrow timeout (negative waits forever)
+     * @return one message per mismatch, empty when the sizes are consistent
+     */
+    List<String> check(int jettyThreads, int hikariMaxSize, int redisMaxActive, Duration redisMaxWait) {
+        List<String> warnings = new ArrayList<>();
+        if (expectedConcurrency > jettyThreads) {
+            warnings.add(String.format(
+                    "expected concurrency %d exceeds Jetty max threads %d, requests will queue before being handled",
+                    expectedConcurrency, jettyThreads));
+        }
+        if (hikariMaxSize > jettyThreads) {
+            warnings.add(String.format(
+                    "Hikari max pool size %d exceeds Jetty max threads %d, the extra connections can never be used by requests",
+                    hikariMaxSize, jettyThreads));
+        }
+
+        int requestConcurrency = Math.min(expectedConcurrency, jettyThreads);
+        if ((long) hikariMaxSize * maxRequestsPerConnection < requestConcurrency) {
+            warnings.add(String.format(
+                    "Hikari max pool size %d is too small for %d concurrent requests (more than %d requests per connection), "
+                            + "watch hikaricp.connections.pending and hikaricp.connections.timeout",
+                    hikariMaxSize, requestConcurrency, maxRequestsPerConnection));
+        }
+        if (redisMaxActive < Math.min(requestConcurrency, hikariMaxSize)) {
+            warnings.add(String.format(
+                    "Redis pool max-active %d is smaller than the Hikari pool size %d, loan locks and availability "
+                            + "counters will queue on Redis before the database is saturated",
+                    redisMaxActive, hikariMaxSize));
+        }
+        if (redisMaxWait.isNegative()) {
+            warnings.add("Redis pool max-wait is unbounded, an exhausted pool blocks request threads indefinitely");
+        }
+        return warnings;
+    }
+
+    private Integer hikariMaxPoolSize() {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (SQLException e) {
+            log.debug("Could not unwrap the primary DataSource: {}", e.getMessage());
+        }
+        return null;
+    }
+}
@@ -0,0 +1,89 @@
+package com.demandline.library.config;
+
+import com.demandline.library.observability.MetricsService;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read replica routing configuration
+ * Connections for read-only transactions (@Transactional(readOnly = true), including Spring Data's
+ * default read methods) go to a read replica; everything else stays on the primary configured in
+ * spring.datasource. The lazy proxy defers picking a target until the transaction has marked the
+ * connection read-only, which is how read-only work is recognised.
+ */
+@Configuration
+@ConditionalOnProperty(name = "library.datasource.replicas.enabled", havingValue = "true")
+public class ReadReplicaDataSourceConfig {
+
+    /**
+     * Primary connection pool, configured from spring.datasource
+     * @param properties datasource properties
+     * @return Hikari pool for the primary
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * Read-only DataSource balancing over replicas with lag-aware fallback to the primary
+     * @return routing DataSource for read-only connections
+     */
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            HikariDataSource primaryDataSource,
+            DataSourceProperties properties,
+            MetricsService metricsService,
+            MeterRegistry meterRegistry,
+            @Value("${library.datasource.replicas.urls}") List<String> urls,
+            @Value("${library.datasource.replicas.username:}") String username,
+            @Value("${library.datasource.replicas.password:}") String password,
+            @Value("${library.datasource.replicas.maximumPoolSize:10}") int maximumPoolSize,
+            @Value("${library.datasource.replicas.maxLagMillis:5000}") long maxLagMillis) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < urls.size(); i++) {
+            var config = new HikariConfig();
+            config.setPoolName("replica-" + i);
+            config.setJdbcUrl(urls.get(i).trim());
+            config.setUsername(username.isBlank() ? properties.determineUsername() : username);
+            config.setPassword(password.isBlank() ? properties.determinePassword() : password);
+            config.setDriverClassName(properties.determineDriverClassName());
+            config.setMaximumPoolSize(maximumPoolSize);
+            config.setReadOnly(true);
+            config.setConnectionTimeout(primaryDataSource.getConnectionTimeout());
+            // Replica pools are not beans, so register their hikaricp.* meters explicitly
+            config.setMetricRegistry(meterRegistry);
+            // Let the pool start even if a replica is down; the lag probe keeps it out of rotation
+            config.setInitializationFailTimeout(-1);
+            replicas.put(config.getPoolName(), new HikariDataSource(config));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, maxLagMillis, metricsService);
+    }
+
+    /**
+     * Application DataSource used by JPA, Flyway and JDBC templates
+     * @return proxy routing read-only connections to replicas and the rest to the primary
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaRoutingDataSource replicaRoutingDataSource) {
+        var proxy = new LazyConnectionDataSourceProxy(primaryDataSource);
+        proxy.setReadOnlyDataSource(replicaRoutingDataSource);
+        return proxy;
+    }
+}
@@ -0,0 +1,132 @@
+package com.demandline.library.config;
+
+import com.demandline.library.observability.MetricsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DataSource for read-only connections
+ * Hands out connections round-robin from the read replicas whose replication lag is within
+ * the configured limit, and falls back to the primary when none qualifies. Lag is probed on
+ * a schedule rather than per connection so routing stays a field read.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements InitializingBean, DisposableBean {
+    // Zero when the replica has replayed everything it received, otherwise time since the last replayed commit
+    private static final String LAG_QUERY =
+            "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0 " +
+            "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long maxLagMillis;
+    private final MetricsService metricsService;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary,
+                                    Map<String, DataSource> replicas,
+                                    long maxLagMillis,
+                                    MetricsService metricsService) {
+        this.primary = primary;
+        this.maxLagMillis = maxLagMillis;
+        this.metricsService = metricsService;
+        replicas.forEach((name, dataSource) -> {
+            var replica = new Replica(name, dataSource);
+            this.replicas.add(replica);
+            metricsService.registerReplicaLagGauge(name, () -> replica.lagSeconds);
+        });
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        checkReplicaLag();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return select().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return select().getConnection(username, password);
+    }
+
+    /**
+     * Probe every replica and mark it usable when its lag is within the limit
+     * Unreachable replicas are taken out of rotation until the next successful probe
+     */
+    @Scheduled(fixedDelayString = "${library.datasource.replicas.lagCheckIntervalMillis:5000}")
+    public void checkReplicaLag() {
+        for (Replica replica : replicas) {
+            boolean wasHealthy = replica.healthy;
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+                resultSet.next();
+                replica.lagSeconds = resultSet.getDouble(1);
+                replica.healthy = replica.lagSeconds * 1000 <= maxLagMillis;
+            } catch (SQLException e) {
+                replica.lagSeconds = Double.NaN;
+                replica.healthy = false;
+                log.warn("Read replica {} is unreachable: {}", replica.name, e.getMessage());
+            }
+
+            if (wasHealthy != replica.healthy) {
+                log.info("Read replica {} {} rotation (lag: {} s)",
+                        replica.name, replica.healthy ? "back in" : "taken out of", replica.lagSeconds);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private DataSource select() {
+        int size = replicas.size();
+        if (size > 0) {
+            int start = Math.floorMod(next.getAndIncrement(), size);
+            for (int i = 0; i < size; i++) {
+                Replica replica = replicas.get((start + i) % size);
+                if (replica.healthy) {
+                    metricsService.incrementReplicaRead();
+                    return replica.dataSource;
+                }
+            }
+        }
+        metricsService.incrementPrimaryFallbackRead();
+        return primary;
+    }
+
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy;
+        private volatile double lagSeconds = Double.NaN;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
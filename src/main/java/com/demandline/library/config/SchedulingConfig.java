@@ -0,0 +1,13 @@
+package com.demandline.library.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Scheduling Configuration
+ * Enables @Scheduled background jobs such as reconcilers and sweepers
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
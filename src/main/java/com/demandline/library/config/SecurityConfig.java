@@ -1,6 +1,7 @@
 package com.demandline.library.config;
 
 import com.demandline.library.security.JwtFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -44,6 +45,9 @@ public class SecurityConfig {
             
             // Configure endpoint authorization
             .authorizeHttpRequests(auth -> auth
+                // Async dispatches of streamed responses were authorized on the original request
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                 // Public endpoints - no authentication required (both /library and /api paths)
                 .requestMatchers("/api/auth/login").permitAll()
                 .requestMatchers("/api/auth/register/member").permitAll()
@@ -69,6 +73,9 @@ public class SecurityConfig {
                 // Member management - require authentication (both /library and /api paths)
                 .requestMatchers("/api/members/**").authenticated()
 
+                // Reporting exports - require authentication
+                .requestMatchers("/api/export/**").authenticated()
+
                 // Member self-service - require ROLE_MEMBER
                 .requestMatchers("/library/member/me/**").authenticated()
                 
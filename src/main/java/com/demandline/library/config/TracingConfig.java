@@ -0,0 +1,65 @@
+package com.demandline.library.config;
+
+import com.demandline.library.observability.MetricsService;
+import com.demandline.library.observability.RouteAwareSampler;
+import com.demandline.library.observability.SamplingRouteFilter;
+import com.demandline.library.observability.TailSamplingSpanProcessor;
+import com.demandline.library.observability.TraceSamplingSettings;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.util.function.SingletonSupplier;
+
+/**
+ * Trace sampling configuration
+ * Replaces Spring Boot's fixed-probability sampler with RouteAwareSampler, and adds a span
+ * processor that exports unsampled traces which turn out to fail or run slow. Rates are held
+ * in TraceSamplingSettings and can be changed at runtime through /api/admin/tracing/sampling.
+ */
+@Configuration
+public class TracingConfig {
+
+    /**
+     * Parent-based sampler with per-route rates, used by Spring Boot's SdkTracerProvider
+     * @return sampler for all spans
+     */
+    @Bean
+    public Sampler otelSampler(TraceSamplingSettings traceSamplingSettings) {
+        return new RouteAwareSampler(traceSamplingSettings);
+    }
+
+    /**
+     * Tail keeping for errors and slow requests, exporting through the same exporters as sampled spans
+     * @return span processor registered alongside the batch span processor
+     */
+    @Bean
+    public TailSamplingSpanProcessor tailSamplingSpanProcessor(
+            TraceSamplingSettings traceSamplingSettings,
+            MetricsService metricsService,
+            ObjectProvider<SpanExporter> spanExporters,
+            @Value("${library.tracing.sampling.tailKeep.maxBufferedTraces:2048}") int maxBufferedTraces,
+            @Value("${library.tracing.sampling.tailKeep.maxSpansPerTrace:64}") int maxSpansPerTrace) {
+        return new TailSamplingSpanProcessor(
+                traceSamplingSettings,
+                metricsService,
+                SingletonSupplier.of(() -> SpanExporter.composite(spanExporters.orderedStream().toList())),
+                maxBufferedTraces,
+                maxSpansPerTrace);
+    }
+
+    /**
+     * Register the route filter ahead of the HTTP observation filter, which starts the server span
+     * @return filter registration
+     */
+    @Bean
+    public FilterRegistrationBean<SamplingRouteFilter> samplingRouteFilter() {
+        var registration = new FilterRegistrationBean<>(new SamplingRouteFilter());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -155,7 +155,7 @@ public class AuthController {
      * Parse permissions from JSON string format
      * Example: ["ADMIN:CREATE","ADMIN:READ"] -> List<String>
      */
-    private java.util.List<String> parsePermissions(String permissionsJson) {
+    java.util.List<String> parsePermissions(String permissionsJson) {
         try {
             if (permissionsJson == null || permissionsJson.isEmpty()) {
                 return Arrays.asList();
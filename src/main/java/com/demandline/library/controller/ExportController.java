@@ -0,0 +1,99 @@
+package com.demandline.library.controller;
+
+import com.demandline.library.security.RequiresPermission;
+import com.demandline.library.service.ExportService;
+import com.demandline.library.service.model.ExportFormat;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Export Controller
+ * Streams full loan, book and member tables for reporting
+ * Rows are written to the response as they are read, nothing is buffered server side
+ */
+@RestController
+@RequestMapping("/api/export")
+@Tag(name = "Data Export", description = "Streaming CSV/NDJSON exports for reporting (Staff access)")
+@SecurityRequirement(name = "Bearer Authentication")
+public class ExportController {
+    private final ExportService exportService;
+
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    @GetMapping("/loans")
+    @RequiresPermission("BORROW:READ")
+    @Operation(
+        summary = "Export Loan History",
+        description = "Stream every loan (active and returned) with member and book details as CSV or NDJSON. " +
+                      "When loan archiving is enabled, loans from months older than the retention period are archived and not exported.",
+        security = @SecurityRequirement(name = "Bearer Authentication")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Export streamed successfully"),
+        @ApiResponse(responseCode = "400", description = "Unsupported export format"),
+        @ApiResponse(responseCode = "403", description = "Insufficient permissions (BORROW:READ required)")
+    })
+    public ResponseEntity<StreamingResponseBody> exportLoans(
+        @Parameter(description = "Output format: csv or ndjson") @RequestParam(defaultValue = "csv") String format) {
+        var exportFormat = ExportFormat.fromString(format);
+        return stream("loans", exportFormat, outputStream -> exportService.exportLoans(exportFormat, outputStream));
+    }
+
+    @GetMapping("/books")
+    @RequiresPermission("BOOK:READ")
+    @Operation(
+        summary = "Export Book Catalog",
+        description = "Stream the whole book catalog with inventory counts as CSV or NDJSON.",
+        security = @SecurityRequirement(name = "Bearer Authentication")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Export streamed successfully"),
+        @ApiResponse(responseCode = "400", description = "Unsupported export format"),
+        @ApiResponse(responseCode = "403", description = "Insufficient permissions (BOOK:READ required)")
+    })
+    public ResponseEntity<StreamingResponseBody> exportBooks(
+        @Parameter(description = "Output format: csv or ndjson") @RequestParam(defaultValue = "csv") String format) {
+        var exportFormat = ExportFormat.fromString(format);
+        return stream("books", exportFormat, outputStream -> exportService.exportBooks(exportFormat, outputStream));
+    }
+
+    @GetMapping("/members")
+    @RequiresPermission("MEMBER:READ")
+    @Operation(
+        summary = "Export Members",
+        description = "Stream all members with contact details as CSV or NDJSON. Passwords are never exported.",
+        security = @SecurityRequirement(name = "Bearer Authentication")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Export streamed successfully"),
+        @ApiResponse(responseCode = "400", description = "Unsupported export format"),
+        @ApiResponse(responseCode = "403", description = "Insufficient permissions (MEMBER:READ required)")
+    })
+    public ResponseEntity<StreamingResponseBody> exportMembers(
+        @Parameter(description = "Output format: csv or ndjson") @RequestParam(defaultValue = "csv") String format) {
+        var exportFormat = ExportFormat.fromString(format);
+        return stream("members", exportFormat, outputStream -> exportService.exportMembers(exportFormat, outputStream));
+    }
+
+    private ResponseEntity<StreamingResponseBody> stream(String name, ExportFormat format, StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + name + "." + format.getFileExtension() + "\"")
+                .body(body);
+    }
+}
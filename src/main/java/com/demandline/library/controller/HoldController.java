@@ -0,0 +1,113 @@
+package com.demandline.library.controller;
+
+import com.demandline.library.security.RequiresPermission;
+import com.demandline.library.service.HoldService;
+import com.demandline.library.service.model.Hold;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Hold Management Controller
+ * Handles holds on books with no available copies
+ * A returned copy is set aside for the oldest hold of its book until the member picks it up
+ */
+@RestController
+@RequestMapping("/api/loans/holds")
+@Tag(name = "Hold Management", description = "Holds on unavailable books (Front Desk Staff access)")
+@SecurityRequirement(name = "Bearer Authentication")
+public class HoldController {
+    private final HoldService holdService;
+
+    public HoldController(HoldService holdService) {
+        this.holdService = holdService;
+    }
+
+    @PostMapping
+    @RequiresPermission("BORROW:CREATE")
+    @Operation(
+        summary = "Place Hold",
+        description = "Queue a member for a book that has no available copies. " +
+                      "When a copy is returned it is set aside for the oldest hold and borrowing it fulfills the hold.",
+        security = @SecurityRequirement(name = "Bearer Authentication")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Hold placed"),
+        @ApiResponse(responseCode = "400", description = "Book available, member inactive, duplicate hold or too many holds"),
+        @ApiResponse(responseCode = "403", description = "Insufficient permissions (BORROW:CREATE required)")
+    })
+    public ResponseEntity<HoldResponse> placeHold(@RequestBody PlaceHoldRequest request) {
+        var hold = holdService.placeHold(request.memberId(), request.bookId());
+        return ResponseEntity.status(HttpStatus.CREATED).body(new HoldResponse(hold));
+    }
+
+    @DeleteMapping("/{holdId}")
+    @RequiresPermission("BORROW:UPDATE")
+    @Operation(
+        summary = "Cancel Hold",
+        description = "Cancel a waiting or ready hold. A copy set aside for it goes to the next hold or back on the shelf.",
+        security = @SecurityRequirement(name = "Bearer Authentication")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Hold cancelled"),
+        @ApiResponse(responseCode = "400", description = "Hold not found or no longer open"),
+        @ApiResponse(responseCode = "403", description = "Insufficient permissions (BORROW:UPDATE required)")
+    })
+    public ResponseEntity<HoldResponse> cancelHold(@Parameter(description = "Hold ID") @PathVariable Integer holdId) {
+        return ResponseEntity.ok(new HoldResponse(holdService.cancelHold(holdId)));
+    }
+
+    @GetMapping("/member/{memberId}")
+    @RequiresPermission("BORROW:READ")
+    @Operation(
+        summary = "View Member's Holds",
+        description = "Retrieve the open holds of a member with the queue position of each waiting hold.",
+        security = @SecurityRequirement(name = "Bearer Authentication")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Holds retrieved successfully"),
+        @ApiResponse(responseCode = "403", description = "Insufficient permissions (BORROW:READ required)")
+    })
+    public ResponseEntity<List<HoldResponse>> getMemberHolds(@Parameter(description = "Member ID") @PathVariable Integer memberId) {
+        return ResponseEntity.ok(holdService.getOpenHoldsByMemberId(memberId).stream().map(HoldResponse::new).toList());
+    }
+
+    // Request/Response DTOs
+    public record PlaceHoldRequest(
+        Integer memberId,
+        Integer bookId
+    ) {}
+
+    public record HoldResponse(
+        Integer holdId,
+        Integer memberId,
+        Integer bookId,
+        String status,
+        Long queuePosition,
+        LocalDateTime readyAt,
+        LocalDateTime expiresAt,
+        LocalDateTime createdAt
+    ) {
+        public HoldResponse(Hold hold) {
+            this(
+                hold.id(),
+                hold.memberId(),
+                hold.bookId(),
+                hold.status(),
+                hold.queuePosition(),
+                hold.readyAt(),
+                hold.expiresAt(),
+                hold.createdAt()
+            );
+        }
+    }
+}
@@ -1,11 +1,16 @@
 package com.demandline.library.controller;
 
 import com.demandline.library.security.RequiresPermission;
+import com.demandline.library.service.BulkReturnService;
+import com.demandline.library.service.LoanBatchExecutor;
 import com.demandline.library.service.LoanService;
+import com.demandline.library.service.OverdueLoanService;
+import com.demandline.library.service.model.BulkReturnItemResult;
 import com.demandline.library.service.model.Loan;
 import com.demandline.library.service.model.LoanBook;
 import com.demandline.library.service.model.LoanBookMember;
 import com.demandline.library.service.model.filter.LoanFilter;
+import com.demandline.library.service.model.input.BulkReturnItemInput;
 import com.demandline.library.service.model.input.LoanInput;
 import com.demandline.library.service.model.input.ReturnInput;
 import io.swagger.v3.oas.annotations.Operation;
@@ -14,10 +19,12 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -32,9 +39,18 @@ import java.util.List;
 @SecurityRequirement(name = "Bearer Authentication")
 public class LoanController {
     private final LoanService loanService;
+    private final LoanBatchExecutor loanBatchExecutor;
+    private final OverdueLoanService overdueLoanService;
+    private final BulkReturnService bulkReturnService;
 
-    public LoanController(LoanService loanService) {
+    public LoanController(LoanService loanService,
+                          LoanBatchExecutor loanBatchExecutor,
+                          OverdueLoanService overdueLoanService,
+                          BulkReturnService bulkReturnService) {
         this.loanService = loanService;
+        this.loanBatchExecutor = loanBatchExecutor;
+        this.overdueLoanService = overdueLoanService;
+        this.bulkReturnService = bulkReturnService;
     }
 
     @PostMapping("/borrow")
@@ -57,10 +73,13 @@ public class LoanController {
         if (loanResult != null) {
             return ResponseEntity.status(HttpStatus.CREATED).body(new LoanCreateResponse(loanResult));
         }
-        loanResult = loanService.loanBooks(new LoanInput(
+        loanResult = loanBatchExecutor.loanBooks(new LoanInput(
                 request.memberId,
                 request.bookIds
         ));
+        if (request.requestId() != null) {
+            loanService.cacheLoanResult(request.requestId(), loanResult);
+        }
         return ResponseEntity.status(HttpStatus.CREATED).body(new LoanCreateResponse(loanResult));
     }
 
@@ -91,14 +110,39 @@ public class LoanController {
                                 r.bookId()
                         )).toList()
         ));
+        if (request.requestId() != null) {
+            loanService.cacheReturnResult(request.requestId(), loanResult);
+        }
         return ResponseEntity.ok(new LoanReturnResponse(loanResult));
     }
 
+    @PostMapping("/return/bulk")
+    @RequiresPermission("BORROW:UPDATE")
+    @Operation(
+        summary = "Bulk Return Books",
+        description = "Return many copies at once, e.g. from a book drop, identified by book ID or ISBN. " +
+                      "Each copy closes the most overdue active loan of its book, across any number of members. " +
+                      "Every copy gets its own result; copies that cannot be returned do not affect the others.",
+        security = @SecurityRequirement(name = "Bearer Authentication")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Bulk return processed, see per-item results"),
+        @ApiResponse(responseCode = "400", description = "No items or too many items"),
+        @ApiResponse(responseCode = "403", description = "Insufficient permissions (BORROW:UPDATE required)")
+    })
+    public ResponseEntity<BulkReturnResponse> returnBooksBulk(@RequestBody BulkReturnRequest request) {
+        var results = bulkReturnService.returnBooks(request.items() == null ? null : request.items().stream()
+                .map(item -> new BulkReturnItemInput(item.bookId(), item.isbn()))
+                .toList());
+        return ResponseEntity.ok(new BulkReturnResponse(results));
+    }
+
     @GetMapping("/member/{memberId}")
     @RequiresPermission("BORROW:READ")
     @Operation(
         summary = "View Member's Borrowing History",
-        description = "Retrieve complete borrowing history for a specific member including active and returned books.",
+        description = "Retrieve the borrowing history for a specific member including active and returned books. " +
+                      "When loan archiving is enabled, loans from months older than the retention period are archived and not included.",
         security = @SecurityRequirement(name = "Bearer Authentication")
     )
     @ApiResponses(value = {
@@ -109,11 +153,14 @@ public class LoanController {
     public ResponseEntity<List<LoanHistoryResponse>> getMemberLoans(
         @Parameter(description = "Member ID") @PathVariable Integer memberId,
         @Parameter(description = "Filter: active loans only") @RequestParam(required = false) Boolean activeOnly,
-        @Parameter(description = "Days overdue") @RequestParam(defaultValue = "0") Integer daysOverdue) {
+        @Parameter(description = "Days overdue") @RequestParam(defaultValue = "0") Integer daysOverdue,
+        @Parameter(description = "Only loans borrowed on or after this date (ISO format, e.g. 2025-01-01)")
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate since) {
         var results = loanService.getLoansByMemberId(memberId, new LoanFilter(
                 activeOnly,
                 false,
-                daysOverdue
+                daysOverdue,
+                since == null ? null : since.atStartOfDay()
         ));
         return ResponseEntity.ok(results.stream().map(LoanHistoryResponse::new).toList());
     }
@@ -122,7 +169,7 @@ public class LoanController {
     @RequiresPermission("BORROW:READ")
     @Operation(
         summary = "List Overdue Loans",
-        description = "Retrieve list of all overdue loans (where return_date is null and due_date has passed).",
+        description = "Retrieve a page of overdue loans (where return_date is null and due_date has passed), oldest due date first. Use daysOverdue to only list loans at least that many days late.",
         security = @SecurityRequirement(name = "Bearer Authentication")
     )
     @ApiResponses(value = {
@@ -130,13 +177,10 @@ public class LoanController {
         @ApiResponse(responseCode = "403", description = "Insufficient permissions (BORROW:READ required)")
     })
     public ResponseEntity<List<OverdueLoanResponse>> getOverdueLoans(
+        @Parameter(description = "Minimum number of days past the due date") @RequestParam(defaultValue = "0") Integer daysOverdue,
         @Parameter(description = "Page number for pagination") @RequestParam(defaultValue = "0") Integer page,
         @Parameter(description = "Page size for pagination") @RequestParam(defaultValue = "20") Integer size) {
-        var results = loanService.getAllLoans(new LoanFilter(
-                true,
-                true,
-                0
-        ));
+        var results = overdueLoanService.getOverdueLoans(daysOverdue, page, size);
         return ResponseEntity.ok(results.stream().map(OverdueLoanResponse::new).toList());
     }
 
@@ -144,7 +188,8 @@ public class LoanController {
     @RequiresPermission("BORROW:READ")
     @Operation(
         summary = "View All Loans for a Book",
-        description = "Retrieve all loans (active and returned) for a specific book to track its borrowing history.",
+        description = "Retrieve all loans (active and returned) for a specific book to track its borrowing history. " +
+                      "When loan archiving is enabled, loans from months older than the retention period are archived and not included.",
         security = @SecurityRequirement(name = "Bearer Authentication")
     )
     @ApiResponses(value = {
@@ -181,6 +226,42 @@ public class LoanController {
         String requestId
     ) {}
 
+    public record BulkReturnItemRequest(
+        Integer bookId,
+        String isbn
+    ) {}
+
+    public record BulkReturnRequest(
+        List<BulkReturnItemRequest> items
+    ) {}
+
+    public record BulkReturnItemResponse(
+        Integer bookId,
+        String isbn,
+        Integer loanId,
+        Integer memberId,
+        Boolean returned,
+        String error
+    ) {
+        public BulkReturnItemResponse(BulkReturnItemResult result) {
+            this(result.bookId(), result.isbn(), result.loanId(), result.memberId(), result.returned(), result.error());
+        }
+    }
+
+    public record BulkReturnResponse(
+        Integer returned,
+        Integer failed,
+        List<BulkReturnItemResponse> items
+    ) {
+        public BulkReturnResponse(List<BulkReturnItemResult> results) {
+            this(
+                (int) results.stream().filter(BulkReturnItemResult::returned).count(),
+                (int) results.stream().filter(result -> !result.returned()).count(),
+                results.stream().map(BulkReturnItemResponse::new).toList()
+            );
+        }
+    }
+
     public record LoanBookResponse(
             Integer loanId,
             Integer bookId,
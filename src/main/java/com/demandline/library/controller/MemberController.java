@@ -1,8 +1,10 @@
 package com.demandline.library.controller;
 
 import com.demandline.library.security.RequiresPermission;
+import com.demandline.library.service.MemberEligibilityService;
 import com.demandline.library.service.MemberService;
 import com.demandline.library.service.model.Member;
+import com.demandline.library.service.model.MemberEligibility;
 import com.demandline.library.service.model.filter.MemberFilter;
 import com.demandline.library.service.model.input.MemberUpdateInput;
 import io.swagger.v3.oas.annotations.Operation;
@@ -28,16 +30,18 @@ import java.util.Optional;
 @SecurityRequirement(name = "Bearer Authentication")
 public class MemberController {
     private final MemberService memberService;
+    private final MemberEligibilityService memberEligibilityService;
 
-    public MemberController(MemberService memberService) {
+    public MemberController(MemberService memberService, MemberEligibilityService memberEligibilityService) {
         this.memberService = memberService;
+        this.memberEligibilityService = memberEligibilityService;
     }
 
     @GetMapping
     @RequiresPermission("MEMBER:READ")
     @Operation(
         summary = "List All Members",
-        description = "Retrieve list of all registered members with their details and membership status.",
+        description = "Retrieve list of active members with their details and membership status. Name and email filters are combined; pass afterId (the last id of the previous page) for keyset paging.",
         security = @SecurityRequirement(name = "Bearer Authentication")
     )
     @ApiResponses(value = {
@@ -48,11 +52,15 @@ public class MemberController {
         @Parameter(description = "Search term for name") @RequestParam(required = false) String searchName,
         @Parameter(description = "Search term for email") @RequestParam(required = false) String searchEmail,
         @Parameter(description = "Page number for pagination") @RequestParam(defaultValue = "0") Integer page,
-        @Parameter(description = "Page size for pagination") @RequestParam(defaultValue = "20") Integer size) {
-        var members = memberService.getAllMembers(new MemberFilter(
+        @Parameter(description = "Page size for pagination") @RequestParam(defaultValue = "20") Integer size,
+        @Parameter(description = "Id of the last member of the previous page; when set, page is ignored") @RequestParam(required = false) Integer afterId) {
+        var filter = new MemberFilter(
                 Optional.ofNullable(searchName),
                 Optional.ofNullable(searchEmail)
-        ), size, page * size);
+        );
+        var members = afterId != null
+                ? memberService.getMembersAfter(filter, afterId, size)
+                : memberService.getAllMembers(filter, size, page * size);
         return ResponseEntity.ok(members.stream().map(MemberResponse::new).toList());
     }
 
@@ -73,6 +81,24 @@ public class MemberController {
         return ResponseEntity.ok(new MemberResponse(member));
     }
 
+    @GetMapping("/{id}/eligibility")
+    @RequiresPermission("BORROW:READ")
+    @Operation(
+        summary = "Check Borrowing Eligibility",
+        description = "Return in one call whether a member can borrow: member status, active and overdue loan counts, remaining quota and the availability of the candidate books. Member status is cached for a few seconds; the loan itself is validated again on checkout.",
+        security = @SecurityRequirement(name = "Bearer Authentication")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Eligibility computed successfully"),
+        @ApiResponse(responseCode = "400", description = "Member not found"),
+        @ApiResponse(responseCode = "403", description = "Insufficient permissions (BORROW:READ required)")
+    })
+    public ResponseEntity<EligibilityResponse> getEligibility(
+        @Parameter(description = "Member ID") @PathVariable Integer id,
+        @Parameter(description = "Candidate book IDs") @RequestParam(required = false) List<Integer> bookIds) {
+        return ResponseEntity.ok(new EligibilityResponse(memberEligibilityService.checkEligibility(id, bookIds)));
+    }
+
     @PostMapping
     @RequiresPermission("MEMBER:CREATE")
     @Operation(
@@ -183,5 +209,41 @@ public class MemberController {
             );
         }
     }
-}
 
+    public record EligibilityResponse(
+        Integer memberId,
+        Boolean isActive,
+        Long activeLoans,
+        Long overdueLoans,
+        Integer maxBooksPerMember,
+        Integer remainingQuota,
+        Boolean canBorrow,
+        String reason,
+        List<BookAvailabilityResponse> books
+    ) {
+        public EligibilityResponse(MemberEligibility eligibility) {
+            this(
+                    eligibility.memberId(),
+                    eligibility.active(),
+                    eligibility.activeLoanCount(),
+                    eligibility.overdueLoanCount(),
+                    eligibility.maxBooksPerMember(),
+                    eligibility.remainingQuota(),
+                    eligibility.canBorrow(),
+                    eligibility.reason(),
+                    eligibility.books().stream()
+                            .map(book -> new BookAvailabilityResponse(
+                                    book.bookId(), book.found(), book.title(), book.availableCopies(), book.available()))
+                            .toList()
+            );
+        }
+    }
+
+    public record BookAvailabilityResponse(
+        Integer bookId,
+        Boolean found,
+        String title,
+        Integer availableCopies,
+        Boolean available
+    ) {}
+}
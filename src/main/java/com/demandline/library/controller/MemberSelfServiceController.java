@@ -39,7 +39,8 @@ public class MemberSelfServiceController {
     @RequiresPermission("MEMBER:READ")
     @Operation(
         summary = "View Own Borrowing History",
-        description = "Retrieve complete borrowing history for authenticated member including active and returned books.",
+        description = "Retrieve the borrowing history for authenticated member including active and returned books. " +
+                      "When loan archiving is enabled, loans from months older than the retention period are archived and not included.",
         security = @SecurityRequirement(name = "Bearer Authentication")
     )
     @ApiResponses(value = {
@@ -1,7 +1,10 @@
 package com.demandline.library.controller;
 
-import com.demandline.library.service.BookService;
+import com.demandline.library.service.BookCatalogIndex;
+import com.demandline.library.service.BookSearchCoalescer;
+import com.demandline.library.service.BookSuggestionIndex;
 import com.demandline.library.service.model.Book;
+import com.demandline.library.service.model.BookSuggestion;
 import com.demandline.library.service.model.filter.BookFilter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -24,17 +27,25 @@ import java.util.Optional;
 @RequestMapping("/library/public/books")
 @Tag(name = "Public Search", description = "Public book search endpoints (No authentication required)")
 public class PublicSearchController {
-    private final BookService bookService;
+    private final BookCatalogIndex bookCatalogIndex;
+    private final BookSearchCoalescer bookSearchCoalescer;
+    private final BookSuggestionIndex bookSuggestionIndex;
 
-    public PublicSearchController(BookService bookService) {
-        this.bookService = bookService;
+    public PublicSearchController(BookCatalogIndex bookCatalogIndex,
+                                  BookSearchCoalescer bookSearchCoalescer,
+                                  BookSuggestionIndex bookSuggestionIndex) {
+        this.bookCatalogIndex = bookCatalogIndex;
+        this.bookSearchCoalescer = bookSearchCoalescer;
+        this.bookSuggestionIndex = bookSuggestionIndex;
     }
 
     @GetMapping
     @Operation(
         summary = "Search and View Available Books",
         description = "Search for available books in the library by title, author, or ISBN. " +
-                      "Returns only books with available_copies > 0. No authentication required.",
+                      "Returns only books with available_copies > 0. No authentication required. " +
+                      "Identical searches arriving together share one query. With the in-memory catalog " +
+                      "enabled, availability may lag by up to one sync interval.",
         security = {} // Empty security requirement means no authentication needed
     )
     @ApiResponses(value = {
@@ -48,15 +59,36 @@ public class PublicSearchController {
             @Parameter(description = "Include all borrowed book") @RequestParam(required = false, defaultValue = "true") boolean showNotAvailable,
             @Parameter(description = "Page number for pagination") @RequestParam(defaultValue = "0") Integer page,
             @Parameter(description = "Page size for pagination") @RequestParam(defaultValue = "20") Integer size) {
-        var books = bookService.getAllBooks(new BookFilter(
+        var filter = new BookFilter(
                 bookName,
                 authorName,
                 isbn,
                 showNotAvailable
-        ), size, page);
+        );
+        // Served from the in-memory catalog when it is enabled and can answer the search
+        var books = bookCatalogIndex.search(filter, size, page)
+                .orElseGet(() -> bookSearchCoalescer.getAllBooks(filter, size, page));
         return ResponseEntity.ok(books.stream().map(PublicBookResponse::new).toList());
     }
 
+    @GetMapping("/suggest")
+    @Operation(
+        summary = "Suggest Books While Typing",
+        description = "Typeahead over book titles and authors. Every word of the query must start a word of the title " +
+                      "or author, ignoring case and accents. Served from memory; changes made through other " +
+                      "instances appear after the next index rebuild. No authentication required.",
+        security = {}
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Suggestions retrieved successfully")
+    })
+    public ResponseEntity<List<BookSuggestionResponse>> suggestBooks(
+            @Parameter(description = "Text typed so far") @RequestParam String q,
+            @Parameter(description = "Maximum number of suggestions") @RequestParam(defaultValue = "10") Integer limit) {
+        var suggestions = bookSuggestionIndex.suggest(q, limit);
+        return ResponseEntity.ok(suggestions.stream().map(BookSuggestionResponse::new).toList());
+    }
+
     // Response DTO
     public record PublicBookResponse(
         Integer id,
@@ -77,5 +109,14 @@ public class PublicSearchController {
             );
         }
     }
-}
 
+    public record BookSuggestionResponse(
+        Integer id,
+        String title,
+        String author
+    ) {
+        public BookSuggestionResponse(BookSuggestion suggestion) {
+            this(suggestion.bookId(), suggestion.title(), suggestion.author());
+        }
+    }
+}
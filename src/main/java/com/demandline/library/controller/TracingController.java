@@ -0,0 +1,124 @@
+package com.demandline.library.controller;
+
+import com.demandline.library.observability.TraceSamplingSettings;
+import com.demandline.library.observability.TraceSamplingStore;
+import com.demandline.library.security.RequiresPermission;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Admin Tracing Controller
+ * Reads and changes trace sampling rates at runtime, without a restart
+ * Changes are shared through Redis: they apply to new traces on the serving node immediately and on
+ * every other node within one sync interval. Reads report the settings of the serving node.
+ */
+@RestController
+@RequestMapping("/api/admin/tracing")
+@Tag(name = "Admin - Tracing", description = "Runtime trace sampling configuration (Admin only)")
+@SecurityRequirement(name = "Bearer Authentication")
+public class TracingController {
+    private final TraceSamplingSettings traceSamplingSettings;
+    private final TraceSamplingStore traceSamplingStore;
+
+    public TracingController(TraceSamplingSettings traceSamplingSettings, TraceSamplingStore traceSamplingStore) {
+        this.traceSamplingSettings = traceSamplingSettings;
+        this.traceSamplingStore = traceSamplingStore;
+    }
+
+    @GetMapping("/sampling")
+    @RequiresPermission("ADMIN:READ")
+    @Operation(
+        summary = "View Trace Sampling",
+        description = "Default and per-route sampling rates and the tail keeping settings applied by the node " +
+                      "serving the request, with its host name and when it last applied the shared settings.",
+        security = @SecurityRequirement(name = "Bearer Authentication")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Sampling settings retrieved"),
+        @ApiResponse(responseCode = "403", description = "Insufficient permissions (ADMIN:READ required)")
+    })
+    public ResponseEntity<SamplingResponse> getSampling() {
+        return ResponseEntity.ok(response());
+    }
+
+    @PutMapping("/sampling")
+    @RequiresPermission("ADMIN:UPDATE")
+    @Operation(
+        summary = "Update Trace Sampling",
+        description = "Change the default rate, set rates for route prefixes (e.g. /library/public/books) " +
+                      "and adjust tail keeping. Omitted fields are left unchanged. Rates are between 0.0 and 1.0. " +
+                      "Changes apply to every node within library.tracing.sampling.syncIntervalMillis.",
+        security = @SecurityRequirement(name = "Bearer Authentication")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Sampling settings updated"),
+        @ApiResponse(responseCode = "400", description = "Invalid rate, route or threshold"),
+        @ApiResponse(responseCode = "403", description = "Insufficient permissions (ADMIN:UPDATE required)")
+    })
+    public ResponseEntity<SamplingResponse> updateSampling(@RequestBody SamplingUpdateRequest request) {
+        if (request.defaultRate() != null) {
+            traceSamplingStore.setDefaultRate(request.defaultRate());
+        }
+        if (request.routeRates() != null) {
+            request.routeRates().forEach(traceSamplingStore::setRouteRate);
+        }
+        if (request.tailKeepEnabled() != null) {
+            traceSamplingStore.setTailKeepEnabled(request.tailKeepEnabled());
+        }
+        if (request.slowThresholdMillis() != null) {
+            traceSamplingStore.setSlowThresholdMillis(request.slowThresholdMillis());
+        }
+        return ResponseEntity.ok(response());
+    }
+
+    @DeleteMapping("/sampling/routes")
+    @RequiresPermission("ADMIN:UPDATE")
+    @Operation(
+        summary = "Remove Route Sampling Rate",
+        description = "Remove the rate of a route prefix so it falls back to the default rate, on every node " +
+                      "within library.tracing.sampling.syncIntervalMillis.",
+        security = @SecurityRequirement(name = "Bearer Authentication")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Route rate removed"),
+        @ApiResponse(responseCode = "400", description = "No rate configured for the route"),
+        @ApiResponse(responseCode = "403", description = "Insufficient permissions (ADMIN:UPDATE required)")
+    })
+    public ResponseEntity<SamplingResponse> removeRoute(
+        @Parameter(description = "Route prefix, e.g. /library/public/books") @RequestParam String route) {
+        traceSamplingStore.removeRoute(route);
+        return ResponseEntity.ok(response());
+    }
+
+    private SamplingResponse response() {
+        return new SamplingResponse(traceSamplingSettings.getDefaultRate(), traceSamplingSettings.getRouteRates(),
+                traceSamplingSettings.isTailKeepEnabled(), traceSamplingSettings.getSlowThresholdMillis(),
+                traceSamplingStore.getNode(), traceSamplingStore.getLastSyncedAt());
+    }
+
+    // Request/Response DTOs
+    public record SamplingUpdateRequest(
+        Double defaultRate,
+        Map<String, Double> routeRates,
+        Boolean tailKeepEnabled,
+        Long slowThresholdMillis
+    ) {}
+
+    public record SamplingResponse(
+        double defaultRate,
+        Map<String, Double> routeRates,
+        boolean tailKeepEnabled,
+        long slowThresholdMillis,
+        String node,
+        LocalDateTime lastSyncedAt
+    ) {}
+}
@@ -0,0 +1,59 @@
+package com.demandline.library.observability;
+
+import com.demandline.library.service.exception.LoanLockTimeoutException;
+import com.demandline.library.service.exception.LoanRejectedException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.PessimisticLockingFailureException;
+
+/**
+ * Bounded set of loan/return failure reasons, used as the reason tag of library.loan.failures
+ * Keeps ids, titles and raw messages out of metric labels.
+ */
+public enum FailureReason {
+    LOCK_TIMEOUT("lock_timeout"),
+    ROW_LOCK_TIMEOUT("row_lock_timeout"),
+    INVALID_REQUEST("invalid_request"),
+    MEMBER_NOT_FOUND("member_not_found"),
+    MEMBER_HAS_ACTIVE_LOANS("member_has_active_loans"),
+    BOOK_NOT_FOUND("book_not_found"),
+    BOOK_UNAVAILABLE("book_unavailable"),
+    LOAN_NOT_FOUND("loan_not_found"),
+    ALREADY_RETURNED("already_returned"),
+    DATABASE("database"),
+    INTERNAL("internal");
+
+    private final String tag;
+
+    FailureReason(String tag) {
+        this.tag = tag;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+
+    /**
+     * Classify an exception thrown by the loan or return pipeline
+     * Rejections carry their reason; messages are never parsed, so they can be reworded freely.
+     * @param failure the exception
+     * @return matching reason, INTERNAL when unknown
+     */
+    public static FailureReason of(Throwable failure) {
+        if (failure instanceof LoanRejectedException rejected) {
+            return rejected.getReason();
+        }
+        if (failure instanceof LoanLockTimeoutException) {
+            return LOCK_TIMEOUT;
+        }
+        if (failure instanceof PessimisticLockingFailureException) {
+            return ROW_LOCK_TIMEOUT;
+        }
+        if (failure instanceof DataAccessException) {
+            return DATABASE;
+        }
+        if (failure instanceof IllegalArgumentException) {
+            return INVALID_REQUEST;
+        }
+        return INTERNAL;
+    }
+}
@@ -0,0 +1,84 @@
+package com.demandline.library.observability;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Metrics for the asynchronous log pipeline
+ * Exposes queue depth and dropped events of every MeteredAsyncAppender and the events suppressed
+ * by LoggerRateLimitFilter, so the cost and losses of logging are visible next to the app metrics.
+ */
+@Component
+public class LogPipelineMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+            return;
+        }
+
+        Set<MeteredAsyncAppender> appenders = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Logger logger : context.getLoggerList()) {
+            Iterator<Appender<ILoggingEvent>> iterator = logger.iteratorForAppenders();
+            while (iterator.hasNext()) {
+                if (iterator.next() instanceof MeteredAsyncAppender appender) {
+                    appenders.add(appender);
+                }
+            }
+        }
+        appenders.forEach(appender -> bindAppender(appender, registry));
+
+        for (TurboFilter filter : context.getTurboFilterList()) {
+            if (filter instanceof LoggerRateLimitFilter rateLimitFilter) {
+                rateLimitFilter.getLimits().forEach((loggerName, limit) ->
+                        FunctionCounter.builder("library.logging.events.suppressed", limit, LoggerRateLimitFilter.Limit::getSuppressedCount)
+                                .description("Log events suppressed by the per-logger rate limit")
+                                .tag("service", "logging")
+                                .tag("logger", loggerName)
+                                .register(registry));
+            }
+        }
+    }
+
+    private static void bindAppender(MeteredAsyncAppender appender, MeterRegistry registry) {
+        FunctionCounter.builder("library.logging.events.dropped", appender, MeteredAsyncAppender::getDiscardedCount)
+                .description("Log events dropped by an async appender")
+                .tag("service", "logging")
+                .tag("appender", appender.getName())
+                .tag("reason", "discarded")
+                .register(registry);
+
+        FunctionCounter.builder("library.logging.events.dropped", appender, MeteredAsyncAppender::getQueueFullCount)
+                .description("Log events dropped by an async appender")
+                .tag("service", "logging")
+                .tag("appender", appender.getName())
+                .tag("reason", "queue_full")
+                .register(registry);
+
+        Gauge.builder("library.logging.queue.size", appender, MeteredAsyncAppender::getNumberOfElementsInQueue)
+                .description("Log events waiting in an async appender queue")
+                .tag("service", "logging")
+                .tag("appender", appender.getName())
+                .register(registry);
+
+        Gauge.builder("library.logging.queue.capacity", appender, MeteredAsyncAppender::getQueueSize)
+                .description("Queue capacity of an async appender")
+                .tag("service", "logging")
+                .tag("appender", appender.getName())
+                .register(registry);
+    }
+}
@@ -0,0 +1,98 @@
+package com.demandline.library.observability;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-logger rate limit for hot-path log statements
+ * Each configured logger may emit at most the given number of events per second; the rest are
+ * denied before an event is even created and counted as suppressed. Configured in logback-spring.xml:
+ * <pre>
+ * &lt;turboFilter class="com.demandline.library.observability.LoggerRateLimitFilter"&gt;
+ *     &lt;limit&gt;com.demandline.library.security.JwtFilter=20&lt;/limit&gt;
+ * &lt;/turboFilter&gt;
+ * </pre>
+ */
+public class LoggerRateLimitFilter extends TurboFilter {
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Map<String, Limit> limits = new ConcurrentHashMap<>();
+
+    /**
+     * Add a limit in the form logger.name=eventsPerSecond
+     * @param limit logger name and events per second
+     */
+    public void addLimit(String limit) {
+        int separator = limit.lastIndexOf('=');
+        if (separator <= 0) {
+            addError("Invalid log rate limit, expected <logger>=<events per second>: " + limit);
+            return;
+        }
+        try {
+            int eventsPerSecond = Integer.parseInt(limit.substring(separator + 1).trim());
+            limits.put(limit.substring(0, separator).trim(), new Limit(eventsPerSecond));
+        } catch (NumberFormatException e) {
+            addError("Invalid events per second in log rate limit: " + limit);
+        }
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // isXxxEnabled() checks pass no format and must not use up the budget
+        if (format == null || limits.isEmpty()) {
+            return FilterReply.NEUTRAL;
+        }
+        Limit limit = limits.get(logger.getName());
+        if (limit == null || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        return limit.tryAcquire(System.nanoTime()) ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    /**
+     * @return configured limits with their suppressed counts, by logger name
+     */
+    public Map<String, Limit> getLimits() {
+        return Collections.unmodifiableMap(limits);
+    }
+
+    /**
+     * Fixed one-second window; the window start is reset by whichever thread first sees it expired
+     */
+    public static final class Limit {
+        private final int eventsPerSecond;
+        private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+        private final AtomicLong eventsInWindow = new AtomicLong();
+        private final LongAdder suppressed = new LongAdder();
+
+        private Limit(int eventsPerSecond) {
+            this.eventsPerSecond = eventsPerSecond;
+        }
+
+        private boolean tryAcquire(long now) {
+            long start = windowStart.get();
+            if (now - start >= WINDOW_NANOS && windowStart.compareAndSet(start, now)) {
+                eventsInWindow.set(0);
+            }
+            if (eventsInWindow.incrementAndGet() <= eventsPerSecond) {
+                return true;
+            }
+            suppressed.increment();
+            return false;
+        }
+
+        public long getSuppressedCount() {
+            return suppressed.sum();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.demandline.library.observability;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * AsyncAppender that counts the events it drops
+ * Events are dropped either by the discarding policy (TRACE/DEBUG/INFO once the queue is past the
+ * discarding threshold) or because the queue is full and the appender is configured never to block.
+ * Counts are exported by LogPipelineMetrics.
+ */
+public class MeteredAsyncAppender extends AsyncAppender {
+    private final LongAdder discarded = new LongAdder();
+    private final LongAdder queueFull = new LongAdder();
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (!isStarted()) {
+            return;
+        }
+        if (isQueueBelowDiscardingThreshold() && isDiscardable(event)) {
+            discarded.increment();
+            return;
+        }
+        if (isNeverBlock() && getRemainingCapacity() == 0) {
+            queueFull.increment();
+            return;
+        }
+        super.append(event);
+    }
+
+    public long getDiscardedCount() {
+        return discarded.sum();
+    }
+
+    public long getQueueFullCount() {
+        return queueFull.sum();
+    }
+}
@@ -1,9 +1,21 @@
 package com.demandline.library.observability;
 
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * Centralized metrics service for library application
@@ -11,6 +23,17 @@ import org.springframework.stereotype.Service;
  */
 @Service
 public class MetricsService {
+    // SLO buckets: end-to-end loan/return requests and their individual stages
+    private static final Duration[] OPERATION_SLOS = {
+            Duration.ofMillis(50), Duration.ofMillis(100), Duration.ofMillis(250),
+            Duration.ofMillis(500), Duration.ofSeconds(1), Duration.ofSeconds(2)
+    };
+    private static final Duration[] STAGE_SLOS = {
+            Duration.ofMillis(1), Duration.ofMillis(5), Duration.ofMillis(10),
+            Duration.ofMillis(25), Duration.ofMillis(50), Duration.ofMillis(100), Duration.ofMillis(250)
+    };
+    
+    private final MeterRegistry meterRegistry;
     
     // Book metrics
     private final Counter booksCreatedCounter;
@@ -26,6 +49,73 @@ public class MetricsService {
     private final Counter returnFailureCounter;
     private final Timer loanOperationTimer;
     private final Timer returnOperationTimer;
+    private final DistributionSummary loanBatchSizeSummary;
+    private final Map<PipelineStage, Timer> loanStageTimers = new EnumMap<>(PipelineStage.class);
+    private final Map<PipelineStage, Timer> returnStageTimers = new EnumMap<>(PipelineStage.class);
+    private final Map<FailureReason, Counter> loanFailureReasonCounters = new EnumMap<>(FailureReason.class);
+    private final Map<FailureReason, Counter> returnFailureReasonCounters = new EnumMap<>(FailureReason.class);
+    
+    // Hot title availability metrics
+    private final Counter hotTitleReservedCounter;
+    private final Counter hotTitleRejectedCounter;
+    private final Counter hotTitleDriftCounter;
+    
+    // Fine accrual metrics
+    private final Counter fineLoansScannedCounter;
+    private final Counter fineAccruedCounter;
+    private final Timer fineChunkTimer;
+    private final Timer fineJobTimer;
+    
+    // Inventory consistency metrics
+    private final AtomicLong inventoryDriftedBooks = new AtomicLong();
+    private final AtomicLong inventoryDriftedCopies = new AtomicLong();
+    private final AtomicLong inventoryUnrepairableBooks = new AtomicLong();
+    private final Counter inventoryRepairedCounter;
+    private final Timer inventoryVerifyTimer;
+    
+    // Member loan counter metrics
+    private final AtomicLong loanCounterDriftedMembers = new AtomicLong();
+    private final AtomicLong loanCounterDriftedLoans = new AtomicLong();
+    private final Counter loanCounterRepairedCounter;
+    private final Timer loanCounterVerifyTimer;
+    
+    // Loan partition metrics
+    private final Counter loanPartitionsCreatedCounter;
+    private final Counter loanPartitionsArchivedCounter;
+    
+    // Book search coalescing metrics
+    private final Counter searchExecutedCounter;
+    private final Counter searchCoalescedCounter;
+    private final Counter searchCoalescingTimeoutCounter;
+    private final DistributionSummary searchFollowersSummary;
+    
+    // Book suggestion metrics
+    private final Timer suggestIndexRebuildTimer;
+    
+    // Book catalog index metrics
+    private final Counter catalogIndexServedCounter;
+    private final Counter catalogIndexFallbackCounter;
+    private final Timer catalogIndexSyncTimer;
+    
+    // Hold metrics
+    private final Counter holdsPlacedCounter;
+    private final Counter holdsReadyCounter;
+    private final Counter holdsFulfilledCounter;
+    private final Counter holdsCancelledCounter;
+    private final Counter holdsExpiredCounter;
+    
+    // Read replica routing metrics
+    private final Counter replicaReadCounter;
+    private final Counter primaryFallbackReadCounter;
+    
+    // Trace tail sampling metrics
+    private final Counter traceTailKeptErrorCounter;
+    private final Counter traceTailKeptSlowCounter;
+    private final Counter traceTailOverflowCounter;
+    
+    // Member eligibility metrics
+    private final Counter eligibilityCacheHitCounter;
+    private final Counter eligibilityCacheMissCounter;
     
     // User metrics
     private final Counter loginSuccessCounter;
@@ -33,6 +123,8 @@ public class MetricsService {
     private final Counter userRegistrationCounter;
     
     public MetricsService(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        
         // Initialize book metrics
         this.booksCreatedCounter = Counter.builder("library.books.created")
                 .description("Total number of books created")
@@ -87,11 +179,229 @@ public class MetricsService {
         this.loanOperationTimer = Timer.builder("library.loan.duration")
                 .description("Duration of loan operations")
                 .tag("service", "loan")
+                .publishPercentileHistogram()
+                .serviceLevelObjectives(OPERATION_SLOS)
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
                 .register(meterRegistry);
         
         this.returnOperationTimer = Timer.builder("library.return.duration")
                 .description("Duration of return operations")
                 .tag("service", "loan")
+                .publishPercentileHistogram()
+                .serviceLevelObjectives(OPERATION_SLOS)
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(meterRegistry);
+        
+        // Per-stage timers and failure reasons, registered up front for every tag combination
+        for (PipelineStage stage : PipelineStage.values()) {
+            loanStageTimers.put(stage, stageTimer("loan", stage, meterRegistry));
+            returnStageTimers.put(stage, stageTimer("return", stage, meterRegistry));
+        }
+        for (FailureReason reason : FailureReason.values()) {
+            loanFailureReasonCounters.put(reason, failureReasonCounter("loan", reason, meterRegistry));
+            returnFailureReasonCounters.put(reason, failureReasonCounter("return", reason, meterRegistry));
+        }
+        
+        this.loanBatchSizeSummary = DistributionSummary.builder("library.loan.batch.size")
+                .description("Number of loan requests group-committed in one transaction")
+                .tag("service", "loan")
+                .register(meterRegistry);
+        
+        // Initialize hot title availability metrics
+        this.hotTitleReservedCounter = Counter.builder("library.hot_title.reservations")
+                .description("Hot title reservations taken from the Redis availability counter")
+                .tag("service", "loan")
+                .tag("outcome", "reserved")
+                .register(meterRegistry);
+        
+        this.hotTitleRejectedCounter = Counter.builder("library.hot_title.reservations")
+                .description("Hot title reservations taken from the Redis availability counter")
+                .tag("service", "loan")
+                .tag("outcome", "rejected")
+                .register(meterRegistry);
+        
+        this.hotTitleDriftCounter = Counter.builder("library.hot_title.drift.corrections")
+                .description("Redis availability counters corrected from Postgres")
+                .tag("service", "loan")
+                .register(meterRegistry);
+        
+        // Initialize fine accrual metrics
+        this.fineLoansScannedCounter = Counter.builder("library.fines.loans.scanned")
+                .description("Overdue loans scanned by the fine accrual job")
+                .tag("service", "fine")
+                .register(meterRegistry);
+        
+        this.fineAccruedCounter = Counter.builder("library.fines.accrued")
+                .description("Fines created or increased by the fine accrual job")
+                .tag("service", "fine")
+                .register(meterRegistry);
+        
+        this.fineChunkTimer = Timer.builder("library.fines.chunk.duration")
+                .description("Duration of one fine accrual chunk")
+                .tag("service", "fine")
+                .register(meterRegistry);
+        
+        this.fineJobTimer = Timer.builder("library.fines.job.duration")
+                .description("Duration of a fine accrual job run")
+                .tag("service", "fine")
+                .register(meterRegistry);
+        
+        // Initialize inventory consistency metrics
+        Gauge.builder("library.inventory.drift.books", inventoryDriftedBooks, AtomicLong::get)
+                .description("Books whose available copies disagree with total copies minus active loans")
+                .tag("service", "inventory")
+                .register(meterRegistry);
+        
+        Gauge.builder("library.inventory.drift.copies", inventoryDriftedCopies, AtomicLong::get)
+                .description("Sum of absolute available-copies drift over all books")
+                .tag("service", "inventory")
+                .register(meterRegistry);
+        
+        Gauge.builder("library.inventory.unrepairable.books", inventoryUnrepairableBooks, AtomicLong::get)
+                .description("Books whose total copies are below active loans plus held copies")
+                .tag("service", "inventory")
+                .register(meterRegistry);
+        
+        this.inventoryRepairedCounter = Counter.builder("library.inventory.repaired")
+                .description("Books whose available copies were repaired")
+                .tag("service", "inventory")
+                .register(meterRegistry);
+        
+        this.inventoryVerifyTimer = Timer.builder("library.inventory.verify.duration")
+                .description("Duration of an inventory consistency check")
+                .tag("service", "inventory")
+                .register(meterRegistry);
+        
+        // Initialize member loan counter metrics
+        Gauge.builder("library.members.loan_counter.drift.members", loanCounterDriftedMembers, AtomicLong::get)
+                .description("Members whose active loan counter disagreed with their active loans at the last check")
+                .tag("service", "member")
+                .register(meterRegistry);
+        
+        Gauge.builder("library.members.loan_counter.drift.loans", loanCounterDriftedLoans, AtomicLong::get)
+                .description("Sum of absolute active loan counter drift at the last check")
+                .tag("service", "member")
+                .register(meterRegistry);
+        
+        this.loanCounterRepairedCounter = Counter.builder("library.members.loan_counter.repaired")
+                .description("Members whose active loan counter was repaired")
+                .tag("service", "member")
+                .register(meterRegistry);
+        
+        this.loanCounterVerifyTimer = Timer.builder("library.members.loan_counter.verify.duration")
+                .description("Duration of a member loan counter check")
+                .tag("service", "member")
+                .register(meterRegistry);
+        
+        // Initialize loan partition metrics
+        this.loanPartitionsCreatedCounter = Counter.builder("library.loans.partitions.created")
+                .description("Monthly loans partitions created ahead of time")
+                .tag("service", "loan")
+                .register(meterRegistry);
+        
+        this.loanPartitionsArchivedCounter = Counter.builder("library.loans.partitions.archived")
+                .description("Monthly loans partitions detached into the archive schema")
+                .tag("service", "loan")
+                .register(meterRegistry);
+        
+        // Initialize book search coalescing metrics
+        this.searchExecutedCounter = Counter.builder("library.books.search.requests")
+                .description("Book searches, by whether they ran the query or shared an identical one in flight")
+                .tag("service", "book")
+                .tag("execution", "executed")
+                .register(meterRegistry);
+        
+        this.searchCoalescedCounter = Counter.builder("library.books.search.requests")
+                .description("Book searches, by whether they ran the query or shared an identical one in flight")
+                .tag("service", "book")
+                .tag("execution", "coalesced")
+                .register(meterRegistry);
+        
+        this.searchCoalescingTimeoutCounter = Counter.builder("library.books.search.coalescing.timeouts")
+                .description("Coalesced book searches that stopped waiting and ran the query themselves")
+                .tag("service", "book")
+                .register(meterRegistry);
+        
+        this.searchFollowersSummary = DistributionSummary.builder("library.books.search.coalesced.per.query")
+                .description("Identical searches that shared the result of one book search query")
+                .tag("service", "book")
+                .register(meterRegistry);
+        
+        // Initialize book suggestion metrics
+        this.suggestIndexRebuildTimer = Timer.builder("library.books.suggest.rebuild.duration")
+                .description("Time taken to reload the book suggestion index")
+                .tag("service", "book")
+                .register(meterRegistry);
+        
+        // Initialize book catalog index metrics
+        this.catalogIndexServedCounter = Counter.builder("library.books.catalog.index.searches")
+                .description("Public book searches, by whether the in-memory catalog answered them or the database did")
+                .tag("service", "book")
+                .tag("result", "served")
+                .register(meterRegistry);
+        
+        this.catalogIndexFallbackCounter = Counter.builder("library.books.catalog.index.searches")
+                .description("Public book searches, by whether the in-memory catalog answered them or the database did")
+                .tag("service", "book")
+                .tag("result", "fallback")
+                .register(meterRegistry);
+        
+        this.catalogIndexSyncTimer = Timer.builder("library.books.catalog.index.sync.duration")
+                .description("Time taken to compare the in-memory catalog with the books table and re-read changed books")
+                .tag("service", "book")
+                .register(meterRegistry);
+        
+        // Initialize hold metrics
+        this.holdsPlacedCounter = holdCounter("placed");
+        this.holdsReadyCounter = holdCounter("ready");
+        this.holdsFulfilledCounter = holdCounter("fulfilled");
+        this.holdsCancelledCounter = holdCounter("cancelled");
+        this.holdsExpiredCounter = holdCounter("expired");
+        
+        // Initialize read replica routing metrics
+        this.replicaReadCounter = Counter.builder("library.datasource.reads")
+                .description("Read-only connections handed out, by target")
+                .tag("service", "datasource")
+                .tag("target", "replica")
+                .register(meterRegistry);
+        
+        this.primaryFallbackReadCounter = Counter.builder("library.datasource.reads")
+                .description("Read-only connections handed out, by target")
+                .tag("service", "datasource")
+                .tag("target", "primary_fallback")
+                .register(meterRegistry);
+        
+        // Initialize trace tail sampling metrics
+        this.traceTailKeptErrorCounter = Counter.builder("library.tracing.tail.kept")
+                .description("Unsampled traces exported after all because they failed or ran slow")
+                .tag("service", "tracing")
+                .tag("reason", "error")
+                .register(meterRegistry);
+        
+        this.traceTailKeptSlowCounter = Counter.builder("library.tracing.tail.kept")
+                .description("Unsampled traces exported after all because they failed or ran slow")
+                .tag("service", "tracing")
+                .tag("reason", "slow")
+                .register(meterRegistry);
+        
+        this.traceTailOverflowCounter = Counter.builder("library.tracing.tail.overflow")
+                .description("Traces not buffered for tail keeping because the buffer was full")
+                .tag("service", "tracing")
+                .register(meterRegistry);
+        
+        // Initialize member eligibility metrics
+        this.eligibilityCacheHitCounter = Counter.builder("library.member.eligibility.cache")
+                .description("Member eligibility lookups, by cache result")
+                .tag("service", "member")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        
+        this.eligibilityCacheMissCounter = Counter.builder("library.member.eligibility.cache")
+                .description("Member eligibility lookups, by cache result")
+                .tag("service", "member")
+                .tag("result", "miss")
                 .register(meterRegistry);
         
         // Initialize user metrics
@@ -135,28 +445,260 @@ public class MetricsService {
         booksReturnedCounter.increment(count);
     }
     
-    public void incrementLoanSuccess() {
-        loanSuccessCounter.increment();
+    /**
+     * Run a loan operation and record its duration and outcome exactly once
+     * Success and failure counters are only touched here, callers must not count outcomes themselves.
+     * Inside a transaction the outcome is recorded once it completes, so a failed commit counts as a
+     * failure and the commit is part of the duration.
+     * @param operation the loan operation
+     * @return the operation result
+     */
+    public <T> T recordLoan(Supplier<T> operation) {
+        return recordOutcome(operation, loanOperationTimer, loanSuccessCounter, loanFailureCounter, loanFailureReasonCounters);
+    }
+    
+    /**
+     * Run a return operation and record its duration and outcome exactly once
+     * @param operation the return operation
+     * @return the operation result
+     */
+    public <T> T recordReturn(Supplier<T> operation) {
+        return recordOutcome(operation, returnOperationTimer, returnSuccessCounter, returnFailureCounter, returnFailureReasonCounters);
+    }
+    
+    /**
+     * Record the outcome of a loan completed outside recordLoan, such as a group-committed batch entry
+     * @param duration end-to-end duration in nanoseconds
+     * @param failure the failure, or null on success
+     */
+    public void recordLoanOutcome(long duration, Throwable failure) {
+        loanOperationTimer.record(duration, TimeUnit.NANOSECONDS);
+        if (failure == null) {
+            loanSuccessCounter.increment();
+        } else {
+            loanFailureCounter.increment();
+            loanFailureReasonCounters.get(FailureReason.of(failure)).increment();
+        }
+    }
+    
+    public Timer getLoanStageTimer(PipelineStage stage) {
+        return loanStageTimers.get(stage);
+    }
+    
+    public Timer getReturnStageTimer(PipelineStage stage) {
+        return returnStageTimers.get(stage);
+    }
+    
+    public void recordLoanBatchSize(int size) {
+        loanBatchSizeSummary.record(size);
+    }
+    
+    // Hot title availability metrics methods
+    public void incrementHotTitleReserved() {
+        hotTitleReservedCounter.increment();
+    }
+    
+    public void incrementHotTitleRejected() {
+        hotTitleRejectedCounter.increment();
+    }
+    
+    public void incrementHotTitleDrift() {
+        hotTitleDriftCounter.increment();
+    }
+    
+    // Fine accrual metrics methods
+    public void incrementFineLoansScanned(int count) {
+        fineLoansScannedCounter.increment(count);
+    }
+    
+    public void incrementFinesAccrued(int count) {
+        fineAccruedCounter.increment(count);
+    }
+    
+    public Timer getFineChunkTimer() {
+        return fineChunkTimer;
+    }
+    
+    public Timer getFineJobTimer() {
+        return fineJobTimer;
+    }
+    
+    // Inventory consistency metrics methods
+    public void recordInventoryDrift(long driftedBooks, long driftedCopies, long unrepairableBooks) {
+        inventoryDriftedBooks.set(driftedBooks);
+        inventoryDriftedCopies.set(driftedCopies);
+        inventoryUnrepairableBooks.set(unrepairableBooks);
+    }
+    
+    public void incrementInventoryRepaired(int count) {
+        inventoryRepairedCounter.increment(count);
+    }
+    
+    public Timer getInventoryVerifyTimer() {
+        return inventoryVerifyTimer;
+    }
+    
+    // Member loan counter metrics methods
+    public void recordMemberLoanCounterDrift(long driftedMembers, long driftedLoans) {
+        loanCounterDriftedMembers.set(driftedMembers);
+        loanCounterDriftedLoans.set(driftedLoans);
+    }
+    
+    public void incrementMemberLoanCountersRepaired(int count) {
+        loanCounterRepairedCounter.increment(count);
+    }
+    
+    public Timer getMemberLoanCounterVerifyTimer() {
+        return loanCounterVerifyTimer;
+    }
+    
+    // Loan partition metrics methods
+    public void incrementLoanPartitionsCreated(int count) {
+        loanPartitionsCreatedCounter.increment(count);
+    }
+    
+    public void incrementLoanPartitionsArchived(int count) {
+        loanPartitionsArchivedCounter.increment(count);
+    }
+    
+    // Book search coalescing metrics methods
+    public void incrementSearchExecuted() {
+        searchExecutedCounter.increment();
+    }
+    
+    public void incrementSearchCoalesced() {
+        searchCoalescedCounter.increment();
+    }
+    
+    public void incrementSearchCoalescingTimeout() {
+        searchCoalescingTimeoutCounter.increment();
+    }
+    
+    public void recordSearchFollowers(int followers) {
+        searchFollowersSummary.record(followers);
+    }
+    
+    public void registerSearchInFlightGauge(Supplier<Number> inFlight) {
+        Gauge.builder("library.books.search.inflight", inFlight)
+                .description("Distinct book searches currently running")
+                .tag("service", "book")
+                .register(meterRegistry);
+    }
+    
+    // Book suggestion metrics methods
+    public Timer getSuggestIndexRebuildTimer() {
+        return suggestIndexRebuildTimer;
     }
     
-    public void incrementLoanFailure() {
-        loanFailureCounter.increment();
+    public void registerSuggestIndexGauge(Supplier<Number> indexedBooks) {
+        Gauge.builder("library.books.suggest.indexed", indexedBooks)
+                .description("Books in the in-memory suggestion index")
+                .tag("service", "book")
+                .register(meterRegistry);
+    }
+    
+    // Book catalog index metrics methods
+    public void incrementCatalogIndexServed() {
+        catalogIndexServedCounter.increment();
+    }
+    
+    public void incrementCatalogIndexFallback() {
+        catalogIndexFallbackCounter.increment();
+    }
+    
+    public Timer getCatalogIndexSyncTimer() {
+        return catalogIndexSyncTimer;
+    }
+    
+    public void registerCatalogIndexGauges(Supplier<Number> indexedBooks, Supplier<Number> estimatedBytes) {
+        Gauge.builder("library.books.catalog.index.books", indexedBooks)
+                .description("Books in the in-memory catalog index")
+                .tag("service", "book")
+                .register(meterRegistry);
+        
+        Gauge.builder("library.books.catalog.index.bytes", estimatedBytes)
+                .description("Estimated heap used by the in-memory catalog index")
+                .tag("service", "book")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+    
+    // Hold metrics methods
+    public void incrementHoldsPlaced() {
+        holdsPlacedCounter.increment();
     }
     
-    public void incrementReturnSuccess() {
-        returnSuccessCounter.increment();
+    public void incrementHoldsReady(int count) {
+        holdsReadyCounter.increment(count);
     }
     
-    public void incrementReturnFailure() {
-        returnFailureCounter.increment();
+    public void incrementHoldsFulfilled() {
+        holdsFulfilledCounter.increment();
     }
     
-    public Timer getLoanOperationTimer() {
-        return loanOperationTimer;
+    public void incrementHoldsCancelled() {
+        holdsCancelledCounter.increment();
     }
     
-    public Timer getReturnOperationTimer() {
-        return returnOperationTimer;
+    public void incrementHoldsExpired(int count) {
+        holdsExpiredCounter.increment(count);
+    }
+    
+    private Counter holdCounter(String transition) {
+        return Counter.builder("library.holds.transitions")
+                .description("Hold state transitions: placed, copy set aside (ready), picked up, cancelled, expired")
+                .tag("service", "hold")
+                .tag("transition", transition)
+                .register(meterRegistry);
+    }
+    
+    // Read replica routing metrics methods
+    public void incrementReplicaRead() {
+        replicaReadCounter.increment();
+    }
+    
+    public void incrementPrimaryFallbackRead() {
+        primaryFallbackReadCounter.increment();
+    }
+    
+    public void registerReplicaLagGauge(String replica, Supplier<Number> lagSeconds) {
+        Gauge.builder("library.datasource.replica.lag", lagSeconds)
+                .description("Replication lag of a read replica (NaN when unreachable)")
+                .baseUnit("seconds")
+                .tag("service", "datasource")
+                .tag("replica", replica)
+                .register(meterRegistry);
+    }
+    
+    // Trace tail sampling metrics methods
+    public void incrementTraceTailKept(String reason) {
+        if ("slow".equals(reason)) {
+            traceTailKeptSlowCounter.increment();
+        } else {
+            traceTailKeptErrorCounter.increment();
+        }
+    }
+    
+    public void incrementTraceTailOverflow() {
+        traceTailOverflowCounter.increment();
+    }
+    
+    // Pool sizing metrics methods
+    public void registerPoolMaxSizeGauge(String pool, Supplier<Number> maxSize) {
+        Gauge.builder("library.pool.max.size", maxSize)
+                .description("Configured maximum size of a thread or connection pool")
+                .tag("service", "pool")
+                .tag("pool", pool)
+                .register(meterRegistry);
+    }
+    
+    // Member eligibility metrics methods
+    public void incrementEligibilityCacheHit() {
+        eligibilityCacheHitCounter.increment();
+    }
+    
+    public void incrementEligibilityCacheMiss() {
+        eligibilityCacheMissCounter.increment();
     }
     
     // User metrics methods
@@ -171,5 +713,70 @@ public class MetricsService {
     public void incrementUserRegistration() {
         userRegistrationCounter.increment();
     }
+    
+    private static <T> T recordOutcome(Supplier<T> operation,
+                                       Timer timer,
+                                       Counter successCounter,
+                                       Counter failureCounter,
+                                       Map<FailureReason, Counter> failureReasonCounters) {
+        long start = System.nanoTime();
+        T result;
+        try {
+            result = operation.get();
+        } catch (RuntimeException e) {
+            FailureReason reason = FailureReason.of(e);
+            afterCompletion(committed -> {
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                failureCounter.increment();
+                failureReasonCounters.get(reason).increment();
+            });
+            throw e;
+        }
+        afterCompletion(committed -> {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (committed) {
+                successCounter.increment();
+            } else {
+                // The operation finished but its transaction failed to commit, e.g. a constraint violation at flush
+                failureCounter.increment();
+                failureReasonCounters.get(FailureReason.DATABASE).increment();
+            }
+        });
+        return result;
+    }
+    
+    private static void afterCompletion(Consumer<Boolean> callback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            callback.accept(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                callback.accept(status == STATUS_COMMITTED);
+            }
+        });
+    }
+    
+    private static Timer stageTimer(String operation, PipelineStage stage, MeterRegistry meterRegistry) {
+        return Timer.builder("library.loan.stage.duration")
+                .description("Duration of one loan/return pipeline stage")
+                .tag("service", "loan")
+                .tag("operation", operation)
+                .tag("stage", stage.getTag())
+                .publishPercentileHistogram()
+                .serviceLevelObjectives(STAGE_SLOS)
+                .minimumExpectedValue(Duration.ofNanos(100_000))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(meterRegistry);
+    }
+    
+    private static Counter failureReasonCounter(String operation, FailureReason reason, MeterRegistry meterRegistry) {
+        return Counter.builder("library.loan.failures")
+                .description("Failed loan/return requests by reason")
+                .tag("service", "loan")
+                .tag("operation", operation)
+                .tag("reason", reason.getTag())
+                .register(meterRegistry);
+    }
 }
-
@@ -0,0 +1,24 @@
+package com.demandline.library.observability;
+
+/**
+ * Stages of the loan and return pipelines, used as the stage tag of library.loan.stage.duration
+ */
+public enum PipelineStage {
+    LOCK_ACQUIRE("lock_acquire"),
+    ELIGIBILITY_CHECK("eligibility_check"),
+    BOOK_LOCK("book_lock"),
+    INVENTORY_UPDATE("inventory_update"),
+    LOAN_WRITE("loan_write"),
+    COMMIT("commit"),
+    CACHE_WRITE("cache_write");
+
+    private final String tag;
+
+    PipelineStage(String tag) {
+        this.tag = tag;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+}
@@ -0,0 +1,61 @@
+package com.demandline.library.observability;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.data.LinkData;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingDecision;
+import io.opentelemetry.sdk.trace.samplers.SamplingResult;
+
+import java.util.List;
+
+/**
+ * Parent-based sampler with per-route rates
+ * Child spans follow their parent. Root spans are sampled by trace id ratio using the rate of the
+ * request route. Roots that lose the ratio draw are still recorded (not exported) when tail keeping
+ * is enabled, so TailSamplingSpanProcessor can export them after all if they fail or run slow.
+ */
+public class RouteAwareSampler implements Sampler {
+    private static final SamplingResult RECORD_ONLY = SamplingResult.create(SamplingDecision.RECORD_ONLY);
+
+    private final TraceSamplingSettings settings;
+
+    public RouteAwareSampler(TraceSamplingSettings settings) {
+        this.settings = settings;
+    }
+
+    @Override
+    public SamplingResult shouldSample(Context parentContext,
+                                       String traceId,
+                                       String name,
+                                       SpanKind spanKind,
+                                       Attributes attributes,
+                                       List<LinkData> parentLinks) {
+        Span parentSpan = Span.fromContext(parentContext);
+        SpanContext parent = parentSpan.getSpanContext();
+        if (parent.isValid()) {
+            if (parent.isSampled()) {
+                return SamplingResult.recordAndSample();
+            }
+            // Respect an upstream decision not to sample; local unsampled parents are tail candidates
+            return !parent.isRemote() && parentSpan.isRecording() ? RECORD_ONLY : SamplingResult.drop();
+        }
+
+        TraceSamplingSettings.Rule rule = settings.ruleFor(SamplingRouteFilter.currentPath());
+        SamplingDecision decision = rule.sampler()
+                .shouldSample(parentContext, traceId, name, spanKind, attributes, parentLinks)
+                .getDecision();
+        if (decision == SamplingDecision.RECORD_AND_SAMPLE) {
+            return SamplingResult.create(SamplingDecision.RECORD_AND_SAMPLE, rule.attributes());
+        }
+        return settings.isTailKeepEnabled() ? RECORD_ONLY : SamplingResult.drop();
+    }
+
+    @Override
+    public String getDescription() {
+        return "RouteAwareSampler{default=" + settings.getDefaultRate() + ", routes=" + settings.getRouteRates() + "}";
+    }
+}
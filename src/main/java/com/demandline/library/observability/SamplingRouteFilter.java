@@ -0,0 +1,36 @@
+package com.demandline.library.observability;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Exposes the request path to the trace sampler
+ * The HTTP server span is started before Spring MVC resolves the route, so this filter runs
+ * ahead of the observation filter and keeps the path in a thread local for RouteAwareSampler.
+ */
+public class SamplingRouteFilter extends OncePerRequestFilter {
+    private static final ThreadLocal<String> CURRENT_PATH = new ThreadLocal<>();
+
+    /**
+     * @return path of the request being handled on this thread, or null outside of a request
+     */
+    public static String currentPath() {
+        return CURRENT_PATH.get();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        CURRENT_PATH.set(request.getRequestURI());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            CURRENT_PATH.remove();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.demandline.library.observability;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Tail keeping for traces the head sampler did not select
+ * Spans recorded but not sampled (see RouteAwareSampler) are buffered per trace until the local
+ * root span ends. The trace is exported if the root failed (5xx or error status) or ran longer
+ * than the slow threshold, otherwise it is discarded. Sampled spans are left to the regular
+ * batch processor. The buffer is bounded; traces that do not fit are dropped and counted.
+ */
+@Slf4j
+public class TailSamplingSpanProcessor implements SpanProcessor {
+    private static final AttributeKey<String> HTTP_STATUS = AttributeKey.stringKey("status");
+    private static final long STALE_TRACE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final TraceSamplingSettings settings;
+    private final MetricsService metricsService;
+    private final Supplier<SpanExporter> exporter;
+    private final int maxBufferedTraces;
+    private final int maxSpansPerTrace;
+    private final Map<String, PendingTrace> pendingTraces = new ConcurrentHashMap<>();
+
+    public TailSamplingSpanProcessor(TraceSamplingSettings settings,
+                                     MetricsService metricsService,
+                                     Supplier<SpanExporter> exporter,
+                                     int maxBufferedTraces,
+                                     int maxSpansPerTrace) {
+        this.settings = settings;
+        this.metricsService = metricsService;
+        this.exporter = exporter;
+        this.maxBufferedTraces = maxBufferedTraces;
+        this.maxSpansPerTrace = maxSpansPerTrace;
+    }
+
+    @Override
+    public void onStart(Context parentContext, ReadWriteSpan span) {
+    }
+
+    @Override
+    public boolean isStartRequired() {
+        return false;
+    }
+
+    @Override
+    public void onEnd(ReadableSpan span) {
+        SpanContext spanContext = span.getSpanContext();
+        if (spanContext.isSampled()) {
+            return;
+        }
+
+        String traceId = spanContext.getTraceId();
+        SpanContext parent = span.getParentSpanContext();
+        boolean localRoot = !parent.isValid() || parent.isRemote();
+        if (!localRoot) {
+            buffer(traceId, span);
+            return;
+        }
+
+        PendingTrace trace = pendingTraces.remove(traceId);
+        String reason = keepReason(span);
+        if (reason == null) {
+            return;
+        }
+
+        List<SpanData> spans = new ArrayList<>(trace == null ? 1 : trace.spans.size() + 1);
+        if (trace != null) {
+            synchronized (trace) {
+                trace.spans.forEach(buffered -> spans.add(buffered.toSpanData()));
+            }
+        }
+        spans.add(span.toSpanData());
+        exporter.get().export(spans);
+        metricsService.incrementTraceTailKept(reason);
+    }
+
+    @Override
+    public boolean isEndRequired() {
+        return true;
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        pendingTraces.clear();
+        return CompletableResultCode.ofSuccess();
+    }
+
+    private void buffer(String traceId, ReadableSpan span) {
+        PendingTrace trace = pendingTraces.get(traceId);
+        if (trace == null) {
+            if (pendingTraces.size() >= maxBufferedTraces) {
+                evictStaleTraces();
+                if (pendingTraces.size() >= maxBufferedTraces) {
+                    metricsService.incrementTraceTailOverflow();
+                    return;
+                }
+            }
+            trace = pendingTraces.computeIfAbsent(traceId, id -> new PendingTrace(System.nanoTime()));
+        }
+        synchronized (trace) {
+            if (trace.spans.size() < maxSpansPerTrace) {
+                trace.spans.add(span);
+            }
+        }
+    }
+
+    private String keepReason(ReadableSpan root) {
+        if (!settings.isTailKeepEnabled()) {
+            return null;
+        }
+        if (root.getLatencyNanos() >= settings.getSlowThresholdNanos()) {
+            return "slow";
+        }
+        // HTTP roots carry the response status; client errors are not worth keeping
+        String status = root.getAttribute(HTTP_STATUS);
+        if (status != null) {
+            return status.startsWith("5") ? "error" : null;
+        }
+        // Other roots (scheduled jobs) only report failures through the span status
+        return root.toSpanData().getStatus().getStatusCode() == StatusCode.ERROR ? "error" : null;
+    }
+
+    // Roots that never end locally (e.g. a child outliving its request) would otherwise pin the buffer
+    private void evictStaleTraces() {
+        long now = System.nanoTime();
+        int before = pendingTraces.size();
+        pendingTraces.values().removeIf(trace -> now - trace.createdAt > STALE_TRACE_NANOS);
+        if (pendingTraces.size() < before) {
+            log.debug("Evicted {} stale tail sampling buffers", before - pendingTraces.size());
+        }
+    }
+
+    private static final class PendingTrace {
+        private final long createdAt;
+        private final List<ReadableSpan> spans = new ArrayList<>();
+
+        private PendingTrace(long createdAt) {
+            this.createdAt = createdAt;
+        }
+    }
+}
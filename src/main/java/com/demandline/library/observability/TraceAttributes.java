@@ -0,0 +1,56 @@
+package com.demandline.library.observability;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Span enrichment for the hot loan and search paths
+ * Attributes go on the current span (normally the HTTP server span) and are skipped when the
+ * span is not recording, so unsampled requests pay nothing beyond a thread local read.
+ */
+public final class TraceAttributes {
+    private static final AttributeKey<Double> MEMBER_LOCK_WAIT = AttributeKey.doubleKey("library.lock.member.wait_ms");
+    private static final AttributeKey<Double> ROW_LOCK_WAIT = AttributeKey.doubleKey("library.lock.row.wait_ms");
+    private static final AttributeKey<Long> ROWS_READ = AttributeKey.longKey("library.db.rows_read");
+    private static final AttributeKey<Long> ROWS_WRITTEN = AttributeKey.longKey("library.db.rows_written");
+
+    private TraceAttributes() {
+    }
+
+    /**
+     * Record time spent waiting for the Redis member lock
+     * @param waitNanos wait time in nanoseconds
+     */
+    public static void recordMemberLockWait(long waitNanos) {
+        set(MEMBER_LOCK_WAIT, toMillis(waitNanos));
+    }
+
+    /**
+     * Record time spent acquiring pessimistic row locks on books
+     * @param waitNanos wait time in nanoseconds
+     */
+    public static void recordRowLockWait(long waitNanos) {
+        set(ROW_LOCK_WAIT, toMillis(waitNanos));
+    }
+
+    public static void recordRowsRead(long rows) {
+        set(ROWS_READ, rows);
+    }
+
+    public static void recordRowsWritten(long rows) {
+        set(ROWS_WRITTEN, rows);
+    }
+
+    private static <T> void set(AttributeKey<T> key, T value) {
+        Span span = Span.current();
+        if (span.isRecording()) {
+            span.setAttribute(key, value);
+        }
+    }
+
+    private static double toMillis(long nanos) {
+        return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
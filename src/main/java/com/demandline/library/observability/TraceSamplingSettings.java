@@ -0,0 +1,167 @@
+package com.demandline.library.observability;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trace sampling rates and tail-keeping thresholds
+ * Rates are chosen per route by longest path prefix, falling back to the default rate.
+ * Everything here can be changed while the application is running; rules are replaced
+ * copy-on-write so the sampler only does a volatile read per span. Runtime changes are shared
+ * between nodes by TraceSamplingStore.
+ */
+@Component
+public class TraceSamplingSettings {
+    static final AttributeKey<String> SAMPLING_RULE = AttributeKey.stringKey("library.sampling.rule");
+    private static final String DEFAULT_RULE = "default";
+
+    private volatile Rule defaultRule;
+    private volatile List<Rule> routeRules;
+    private volatile boolean tailKeepEnabled;
+    private volatile long slowThresholdNanos;
+
+    public TraceSamplingSettings(
+            @Value("${library.tracing.sampling.defaultRate:0.1}") double defaultRate,
+            @Value("${library.tracing.sampling.routes:}") List<String> routes,
+            @Value("${library.tracing.sampling.tailKeep.enabled:true}") boolean tailKeepEnabled,
+            @Value("${library.tracing.sampling.tailKeep.slowThresholdMillis:500}") long slowThresholdMillis) {
+        this.defaultRule = rule(DEFAULT_RULE, defaultRate);
+        this.routeRules = List.of();
+        for (String route : routes) {
+            if (route.isBlank()) {
+                continue;
+            }
+            String[] parts = route.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid sampling route, expected <path prefix>=<rate>: " + route);
+            }
+            setRouteRate(parts[0].trim(), Double.parseDouble(parts[1].trim()));
+        }
+        this.tailKeepEnabled = tailKeepEnabled;
+        setSlowThresholdMillis(slowThresholdMillis);
+    }
+
+    /**
+     * Find the sampling rule for a request path
+     * @param path request URI, or null outside of an HTTP request
+     * @return rule with the longest matching prefix, or the default rule
+     */
+    public Rule ruleFor(String path) {
+        if (path != null) {
+            for (Rule rule : routeRules) {
+                if (path.startsWith(rule.route())) {
+                    return rule;
+                }
+            }
+        }
+        return defaultRule;
+    }
+
+    public synchronized void setRouteRate(String route, double rate) {
+        checkRoute(route);
+        List<Rule> updated = new ArrayList<>(routeRules);
+        updated.removeIf(rule -> rule.route().equals(route));
+        updated.add(rule(route, rate));
+        routeRules = sorted(updated);
+    }
+
+    /**
+     * Replace all route rates at once
+     * @param routeRates rate by route prefix
+     */
+    public synchronized void replaceRouteRates(Map<String, Double> routeRates) {
+        List<Rule> updated = new ArrayList<>(routeRates.size());
+        routeRates.forEach((route, rate) -> {
+            checkRoute(route);
+            updated.add(rule(route, rate));
+        });
+        routeRules = sorted(updated);
+    }
+
+    public synchronized void removeRoute(String route) {
+        List<Rule> updated = new ArrayList<>(routeRules);
+        if (!updated.removeIf(rule -> rule.route().equals(route))) {
+            throw new IllegalArgumentException("No sampling rate configured for route: " + route);
+        }
+        routeRules = List.copyOf(updated);
+    }
+
+    public void setDefaultRate(double rate) {
+        defaultRule = rule(DEFAULT_RULE, rate);
+    }
+
+    public double getDefaultRate() {
+        return defaultRule.rate();
+    }
+
+    public Map<String, Double> getRouteRates() {
+        Map<String, Double> rates = new LinkedHashMap<>();
+        routeRules.forEach(rule -> rates.put(rule.route(), rule.rate()));
+        return rates;
+    }
+
+    public boolean isTailKeepEnabled() {
+        return tailKeepEnabled;
+    }
+
+    public void setTailKeepEnabled(boolean tailKeepEnabled) {
+        this.tailKeepEnabled = tailKeepEnabled;
+    }
+
+    public long getSlowThresholdMillis() {
+        return Duration.ofNanos(slowThresholdNanos).toMillis();
+    }
+
+    public long getSlowThresholdNanos() {
+        return slowThresholdNanos;
+    }
+
+    public void setSlowThresholdMillis(long slowThresholdMillis) {
+        checkSlowThresholdMillis(slowThresholdMillis);
+        this.slowThresholdNanos = Duration.ofMillis(slowThresholdMillis).toNanos();
+    }
+
+    static void checkRoute(String route) {
+        if (route == null || !route.startsWith("/")) {
+            throw new IllegalArgumentException("Sampling route must be a path prefix starting with '/'");
+        }
+    }
+
+    static void checkRate(double rate) {
+        if (rate < 0.0 || rate > 1.0) {
+            throw new IllegalArgumentException("Sampling rate must be between 0.0 and 1.0: " + rate);
+        }
+    }
+
+    static void checkSlowThresholdMillis(long slowThresholdMillis) {
+        if (slowThresholdMillis <= 0) {
+            throw new IllegalArgumentException("Slow trace threshold must be positive");
+        }
+    }
+
+    private static Rule rule(String route, double rate) {
+        checkRate(rate);
+        return new Rule(route, rate, Sampler.traceIdRatioBased(rate), Attributes.of(SAMPLING_RULE, route));
+    }
+
+    private static List<Rule> sorted(List<Rule> rules) {
+        // Longest prefix first so the most specific route wins
+        rules.sort(Comparator.comparingInt((Rule rule) -> rule.route().length()).reversed());
+        return List.copyOf(rules);
+    }
+
+    /**
+     * Sampling rate for one route prefix, with its ratio sampler and span attributes built once
+     */
+    public record Rule(String route, double rate, Sampler sampler, Attributes attributes) {}
+}
@@ -0,0 +1,166 @@
+package com.demandline.library.observability;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cluster-wide runtime changes to trace sampling
+ * Changes are stored in one Redis hash as overrides of the configured settings, one field per
+ * setting or route, so concurrent changes to different settings never overwrite each other. Every
+ * node re-applies the hash on a fixed delay, so a change made through any node reaches all of them
+ * within one sync interval and survives restarts.
+ */
+@Component
+@Slf4j
+public class TraceSamplingStore {
+    private static final String KEY = "tracing:sampling";
+    private static final String DEFAULT_RATE = "defaultRate";
+    private static final String TAIL_KEEP_ENABLED = "tailKeepEnabled";
+    private static final String SLOW_THRESHOLD_MILLIS = "slowThresholdMillis";
+    private static final String ROUTE_PREFIX = "route:";
+    // Route override that removes the route, including one from the configuration
+    private static final String REMOVED = "removed";
+
+    private final TraceSamplingSettings settings;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final String node;
+
+    // Configured settings, the base the overrides apply to
+    private final double configuredDefaultRate;
+    private final Map<String, Double> configuredRouteRates;
+    private final boolean configuredTailKeepEnabled;
+    private final long configuredSlowThresholdMillis;
+
+    private volatile LocalDateTime lastSyncedAt;
+
+    public TraceSamplingStore(TraceSamplingSettings settings, RedisTemplate<String, String> redisTemplate) {
+        this.settings = settings;
+        this.redisTemplate = redisTemplate;
+        this.node = hostName();
+        this.configuredDefaultRate = settings.getDefaultRate();
+        this.configuredRouteRates = settings.getRouteRates();
+        this.configuredTailKeepEnabled = settings.isTailKeepEnabled();
+        this.configuredSlowThresholdMillis = settings.getSlowThresholdMillis();
+    }
+
+    public void setDefaultRate(double rate) {
+        TraceSamplingSettings.checkRate(rate);
+        share(DEFAULT_RATE, String.valueOf(rate));
+    }
+
+    public void setRouteRate(String route, double rate) {
+        TraceSamplingSettings.checkRoute(route);
+        TraceSamplingSettings.checkRate(rate);
+        share(ROUTE_PREFIX + route, String.valueOf(rate));
+    }
+
+    public void removeRoute(String route) {
+        if (!settings.getRouteRates().containsKey(route)) {
+            throw new IllegalArgumentException("No sampling rate configured for route: " + route);
+        }
+        share(ROUTE_PREFIX + route, REMOVED);
+    }
+
+    public void setTailKeepEnabled(boolean tailKeepEnabled) {
+        share(TAIL_KEEP_ENABLED, String.valueOf(tailKeepEnabled));
+    }
+
+    public void setSlowThresholdMillis(long slowThresholdMillis) {
+        TraceSamplingSettings.checkSlowThresholdMillis(slowThresholdMillis);
+        share(SLOW_THRESHOLD_MILLIS, String.valueOf(slowThresholdMillis));
+    }
+
+    /**
+     * Apply the shared overrides to this node's settings
+     * A Redis failure keeps the settings last applied
+     */
+    @Scheduled(fixedDelayString = "${library.tracing.sampling.syncIntervalMillis:10000}")
+    public synchronized void sync() {
+        Map<Object, Object> overrides;
+        try {
+            overrides = redisTemplate.opsForHash().entries(KEY);
+        } catch (RuntimeException e) {
+            log.warn("Failed to read shared trace sampling settings, keeping the current ones", e);
+            return;
+        }
+
+        double defaultRate = configuredDefaultRate;
+        Map<String, Double> routeRates = new LinkedHashMap<>(configuredRouteRates);
+        boolean tailKeepEnabled = configuredTailKeepEnabled;
+        long slowThresholdMillis = configuredSlowThresholdMillis;
+        for (Map.Entry<Object, Object> override : overrides.entrySet()) {
+            String field = String.valueOf(override.getKey());
+            String value = String.valueOf(override.getValue());
+            try {
+                if (field.equals(DEFAULT_RATE)) {
+                    defaultRate = Double.parseDouble(value);
+                } else if (field.equals(TAIL_KEEP_ENABLED)) {
+                    tailKeepEnabled = Boolean.parseBoolean(value);
+                } else if (field.equals(SLOW_THRESHOLD_MILLIS)) {
+                    slowThresholdMillis = Long.parseLong(value);
+                } else if (field.startsWith(ROUTE_PREFIX)) {
+                    String route = field.substring(ROUTE_PREFIX.length());
+                    if (value.equals(REMOVED)) {
+                        routeRates.remove(route);
+                    } else {
+                        routeRates.put(route, Double.parseDouble(value));
+                    }
+                }
+            } catch (NumberFormatException e) {
+                log.warn("Ignoring invalid shared trace sampling setting {}={}", field, value);
+            }
+        }
+
+        try {
+            settings.setDefaultRate(defaultRate);
+            settings.replaceRouteRates(routeRates);
+            settings.setTailKeepEnabled(tailKeepEnabled);
+            settings.setSlowThresholdMillis(slowThresholdMillis);
+            lastSyncedAt = LocalDateTime.now();
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring invalid shared trace sampling settings: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return host name of this node, reported with its settings
+     */
+    public String getNode() {
+        return node;
+    }
+
+    /**
+     * @return when this node last applied the shared settings, null before the first sync
+     */
+    public LocalDateTime getLastSyncedAt() {
+        return lastSyncedAt;
+    }
+
+    /**
+     * Store one override and apply it here right away; other nodes pick it up on their next sync
+     */
+    private void share(String field, String value) {
+        try {
+            redisTemplate.opsForHash().put(KEY, field, value);
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Failed to share the trace sampling change, no node was changed", e);
+        }
+        sync();
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+}
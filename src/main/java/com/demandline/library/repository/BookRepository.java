@@ -1,15 +1,28 @@
 package com.demandline.library.repository;
 
 import com.demandline.library.repository.model.BookEntity;
+import com.demandline.library.repository.projection.BookAvailabilityView;
+import com.demandline.library.repository.projection.BookInventoryView;
+import com.demandline.library.repository.projection.BookIsbnView;
+import com.demandline.library.repository.projection.BookVersionView;
+import com.demandline.library.repository.projection.BookView;
 import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Book entity
@@ -56,13 +69,245 @@ public interface BookRepository extends JpaRepository<BookEntity, Integer> {
     List<BookEntity> searchBooks(@Param("searchTerm") String searchTerm);
 
     /**
-     * Find a book by ID with pessimistic write lock
-     * Prevents concurrent modifications to book availability
-     * @param bookId the book ID
-     * @return Optional containing the book if found
+     * Find books by IDs with pessimistic write lock, ordered by ID
+     * Rows are locked in ascending ID order so concurrent batches cannot deadlock
+     * @param bookIds the book IDs
+     * @return List of locked books ordered by ID
      */
     @Lock(LockModeType.PESSIMISTIC_WRITE)
-    @Query("SELECT b FROM BookEntity b WHERE b.id = :bookId")
-    Optional<BookEntity> findByIdWithLock(@Param("bookId") Integer bookId);
-}
+    @Query("SELECT b FROM BookEntity b WHERE b.id IN :bookIds ORDER BY b.id")
+    List<BookEntity> findAllByIdInWithLock(@Param("bookIds") Collection<Integer> bookIds);
+
+    /**
+     * Find the availability of several books without loading the entities
+     * @param bookIds the book IDs
+     * @return availability of the existing books
+     */
+    @Query("SELECT new com.demandline.library.repository.projection.BookAvailabilityView(b.id, b.title, b.availableCopies) " +
+           "FROM BookEntity b WHERE b.id IN :bookIds")
+    List<BookAvailabilityView> findAvailabilityByIdIn(@Param("bookIds") Collection<Integer> bookIds);
+
+    /**
+     * Atomically take one available copy of a book without a prior SELECT ... FOR UPDATE
+     * @param bookId the book ID
+     * @param now timestamp stored in updated_at
+     * @return number of rows updated, 0 if the book does not exist or has no available copies
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE BookEntity b SET b.availableCopies = b.availableCopies - 1, b.updatedAt = :now " +
+           "WHERE b.id = :bookId AND b.availableCopies > 0")
+    int decrementAvailableCopies(@Param("bookId") Integer bookId, @Param("now") LocalDateTime now);
+
+    /**
+     * Atomically take several available copies of a book
+     * @param bookId the book ID
+     * @param copies number of copies taken
+     * @param now timestamp stored in updated_at
+     * @return number of rows updated, 0 if the book does not exist or has fewer available copies
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE BookEntity b SET b.availableCopies = b.availableCopies - :copies, b.updatedAt = :now " +
+           "WHERE b.id = :bookId AND b.availableCopies >= :copies")
+    int takeAvailableCopies(@Param("bookId") Integer bookId,
+                            @Param("copies") int copies,
+                            @Param("now") LocalDateTime now);
+
+    /**
+     * Atomically give back copies of a book without reading it first
+     * Guarded so available copies never exceed total copies
+     * @param bookId the book ID
+     * @param copies number of copies given back
+     * @param now timestamp stored in updated_at
+     * @return number of rows updated, 0 if the book does not exist or the copies would exceed total copies
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE BookEntity b SET b.availableCopies = b.availableCopies + :copies, b.updatedAt = :now " +
+           "WHERE b.id = :bookId AND b.availableCopies + :copies <= b.totalCopies")
+    int incrementAvailableCopies(@Param("bookId") Integer bookId,
+                                 @Param("copies") int copies,
+                                 @Param("now") LocalDateTime now);
+
+    /**
+     * Atomically set the total copies of a book, shifting available copies by the same amount
+     * Guarded so total copies never drop below the copies currently loaned out.
+     * Clears the persistence context so the book is read back with its new counts
+     * @param bookId the book ID
+     * @param totalCopies the new total copies
+     * @param now timestamp stored in updated_at
+     * @return number of rows updated, 0 if the book does not exist or too many copies are loaned out
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE BookEntity b SET b.availableCopies = b.availableCopies + :totalCopies - b.totalCopies, " +
+           "b.totalCopies = :totalCopies, b.updatedAt = :now " +
+           "WHERE b.id = :bookId AND b.totalCopies - b.availableCopies <= :totalCopies")
+    int updateTotalCopies(@Param("bookId") Integer bookId,
+                          @Param("totalCopies") int totalCopies,
+                          @Param("now") LocalDateTime now);
+
+    /**
+     * Atomically add copies to a book, increasing total and available copies by the same amount
+     * Relative to the stored counts, so loans and returns committed meanwhile are never overwritten
+     * @param bookId the book ID
+     * @param copies number of copies added
+     * @param now timestamp stored in updated_at
+     * @return number of rows updated, 0 if the book does not exist
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE BookEntity b SET b.totalCopies = b.totalCopies + :copies, " +
+           "b.availableCopies = b.availableCopies + :copies, b.updatedAt = :now WHERE b.id = :bookId")
+    int addCopies(@Param("bookId") Integer bookId,
+                  @Param("copies") int copies,
+                  @Param("now") LocalDateTime now);
+
+    /**
+     * Stream all books
+     * Must be consumed inside a read-only transaction and closed afterwards
+     * @return stream of books ordered by id
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b FROM BookEntity b ORDER BY b.id")
+    Stream<BookEntity> streamAll();
+
+    /**
+     * Stream all books as read-only projections, nothing is kept in the persistence context
+     * Must be consumed inside a transaction and closed afterwards
+     * @return stream of books ordered by id
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.demandline.library.repository.projection.BookView(b.id, b.title, b.author, b.isbn, b.totalCopies, b.availableCopies, b.createdAt, b.updatedAt) " +
+           "FROM BookEntity b ORDER BY b.id")
+    Stream<BookView> streamAllViews();
+
+    /**
+     * Stream the ID and update time of all books
+     * Must be consumed inside a transaction and closed afterwards
+     * @return stream of versions ordered by id
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.demandline.library.repository.projection.BookVersionView(b.id, b.updatedAt) FROM BookEntity b ORDER BY b.id")
+    Stream<BookVersionView> streamVersions();
+
+    /**
+     * Find books by ID as read-only projections
+     * @param bookIds the book IDs
+     * @return books found, ordered by id
+     */
+    @Query("SELECT new com.demandline.library.repository.projection.BookView(b.id, b.title, b.author, b.isbn, b.totalCopies, b.availableCopies, b.createdAt, b.updatedAt) FROM BookEntity b " +
+           "WHERE b.id IN :bookIds ORDER BY b.id")
+    List<BookView> findBookViewsByIdIn(@Param("bookIds") Collection<Integer> bookIds);
+
+    /**
+     * Find a page of books as read-only projections
+     * @param includeUnavailable whether books without available copies are included
+     * @param pageable offset and limit
+     * @return books ordered by id
+     */
+    @Query("SELECT new com.demandline.library.repository.projection.BookView(b.id, b.title, b.author, b.isbn, b.totalCopies, b.availableCopies, b.createdAt, b.updatedAt) FROM BookEntity b " +
+           "WHERE (:includeUnavailable = TRUE OR b.availableCopies > 0) ORDER BY b.id")
+    List<BookView> findBookViews(@Param("includeUnavailable") boolean includeUnavailable, Pageable pageable);
+
+    /**
+     * Find a book by ISBN as a read-only projection
+     * @param isbn the book ISBN
+     * @param includeUnavailable whether a book without available copies is included
+     * @param pageable offset and limit
+     * @return the matching book, if any
+     */
+    @Query("SELECT new com.demandline.library.repository.projection.BookView(b.id, b.title, b.author, b.isbn, b.totalCopies, b.availableCopies, b.createdAt, b.updatedAt) FROM BookEntity b " +
+           "WHERE b.isbn = :isbn AND (:includeUnavailable = TRUE OR b.availableCopies > 0)")
+    List<BookView> findBookViewsByIsbn(@Param("isbn") String isbn,
+                                       @Param("includeUnavailable") boolean includeUnavailable,
+                                       Pageable pageable);
+
+    /**
+     * Find books by author (case-insensitive) as read-only projections
+     * @param author the author name
+     * @param includeUnavailable whether books without available copies are included
+     * @param pageable offset and limit
+     * @return books ordered by id
+     */
+    @Query("SELECT new com.demandline.library.repository.projection.BookView(b.id, b.title, b.author, b.isbn, b.totalCopies, b.availableCopies, b.createdAt, b.updatedAt) FROM BookEntity b " +
+           "WHERE LOWER(b.author) = LOWER(:author) AND (:includeUnavailable = TRUE OR b.availableCopies > 0) " +
+           "ORDER BY b.id")
+    List<BookView> findBookViewsByAuthor(@Param("author") String author,
+                                         @Param("includeUnavailable") boolean includeUnavailable,
+                                         Pageable pageable);
+
+    /**
+     * Search books by title or author as read-only projections
+     * @param searchTerm the search term
+     * @param includeUnavailable whether books without available copies are included
+     * @param pageable offset and limit
+     * @return books ordered by id
+     */
+    @Query("SELECT new com.demandline.library.repository.projection.BookView(b.id, b.title, b.author, b.isbn, b.totalCopies, b.availableCopies, b.createdAt, b.updatedAt) FROM BookEntity b " +
+           "WHERE (LOWER(b.title) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
+           "OR LOWER(b.author) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) " +
+           "AND (:includeUnavailable = TRUE OR b.availableCopies > 0) ORDER BY b.id")
+    List<BookView> searchBookViews(@Param("searchTerm") String searchTerm,
+                                   @Param("includeUnavailable") boolean includeUnavailable,
+                                   Pageable pageable);
+
+    /**
+     * Find every book whose available copies disagree with total copies minus active loans and copies on hold
+     * One aggregate over books and active loans, no per-book round trips
+     * @return drifted books ordered by id
+     */
+    @Query("SELECT new com.demandline.library.repository.projection.BookInventoryView(b.id, b.totalCopies, b.availableCopies, COUNT(l.id), " +
+           "(SELECT COUNT(h) FROM HoldEntity h WHERE h.bookId = b.id AND h.status = com.demandline.library.repository.model.HoldStatus.READY)) " +
+           "FROM BookEntity b LEFT JOIN LoanEntity l ON l.bookEntity = b AND l.returnDate IS NULL " +
+           "GROUP BY b.id, b.totalCopies, b.availableCopies " +
+           "HAVING b.availableCopies <> b.totalCopies - COUNT(l.id) - " +
+           "(SELECT COUNT(h) FROM HoldEntity h WHERE h.bookId = b.id AND h.status = com.demandline.library.repository.model.HoldStatus.READY) " +
+           "ORDER BY b.id")
+    List<BookInventoryView> findInventoryDrift();
 
+    /**
+     * Find the IDs of books by ISBN
+     * @param isbns the ISBNs
+     * @return ID and ISBN of each book found
+     */
+    @Query("SELECT new com.demandline.library.repository.projection.BookIsbnView(b.id, b.isbn) FROM BookEntity b WHERE b.isbn IN :isbns")
+    List<BookIsbnView> findIdsByIsbnIn(@Param("isbns") Collection<String> isbns);
+
+    /**
+     * Give back the copies of returned loans, one relative update per book, capped at total copies
+     * @param loanIds the returned loan IDs
+     * @param now timestamp stored in updated_at
+     * @return number of books updated
+     */
+    @Modifying
+    @Query(value = "UPDATE books b SET available_copies = LEAST(b.available_copies + r.returned, b.total_copies), updated_at = :now " +
+                   "FROM (SELECT book_id, COUNT(*) AS returned FROM loans WHERE id IN (:loanIds) GROUP BY book_id) r " +
+                   "WHERE b.id = r.book_id", nativeQuery = true)
+    int addReturnedCopies(@Param("loanIds") Collection<Integer> loanIds, @Param("now") LocalDateTime now);
+
+    /**
+     * Lock books by IDs in ascending order without loading entities
+     * @param bookIds the book IDs
+     * @return IDs of the locked books
+     */
+    @Query(value = "SELECT id FROM books WHERE id IN (:bookIds) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Integer> lockAllByIdIn(@Param("bookIds") Collection<Integer> bookIds);
+
+    /**
+     * Recompute available copies from total copies, active loans and copies set aside for ready holds
+     * Only rows that still drift are written; callers lock the rows first in a separate statement
+     * so the active loan count is read after any concurrent loan or return has committed.
+     * A book whose total copies fell below its loans and holds is set to 0, never below
+     * @param bookIds the book IDs
+     * @return number of books repaired
+     */
+    @Modifying
+    @Query(value = "UPDATE books b SET available_copies = GREATEST(0, b.total_copies - a.active - a.held), updated_at = now() " +
+                   "FROM (SELECT bk.id, COUNT(l.id) AS active, " +
+                   "             (SELECT COUNT(*) FROM holds h WHERE h.book_id = bk.id AND h.status = 'READY') AS held " +
+                   "      FROM books bk " +
+                   "      LEFT JOIN loans l ON l.book_id = bk.id AND l.return_date IS NULL " +
+                   "      WHERE bk.id IN (:bookIds) GROUP BY bk.id) a " +
+                   "WHERE b.id = a.id AND b.available_copies <> GREATEST(0, b.total_copies - a.active - a.held)", nativeQuery = true)
+    int repairAvailableCopies(@Param("bookIds") Collection<Integer> bookIds);
+}
@@ -0,0 +1,65 @@
+package com.demandline.library.repository;
+
+import com.demandline.library.repository.model.FineEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for Fine entity
+ * Provides database operations for fines on overdue loans
+ */
+@Repository
+public interface FineRepository extends JpaRepository<FineEntity, Integer> {
+
+    /**
+     * Find the fine for a loan
+     * @param loanId the loan id
+     * @return Optional containing the fine if one was accrued
+     */
+    Optional<FineEntity> findByLoanId(Integer loanId);
+
+    /**
+     * Find all fines for a member
+     * @param memberId the member id
+     * @return List of fines for the member
+     */
+    List<FineEntity> findByMemberId(Integer memberId);
+
+    /**
+     * Accrue fines for a chunk of active loans in one statement
+     * The fine is recomputed from the due date, so re-running a chunk for the same date is a no-op
+     * @param loanIds the loan ids in the chunk
+     * @param runDate date the fine is accrued through
+     * @param dailyRate fine per day overdue
+     * @param maxAmount cap on the fine per loan
+     * @return number of fines created or increased
+     */
+    @Modifying
+    @Query(value = "INSERT INTO fines (loan_id, member_id, days_overdue, amount, accrued_through, created_at, updated_at) " +
+                   "SELECT l.id, l.member_id, " +
+                   "       CAST(:runDate AS date) - CAST(l.due_date AS date), " +
+                   "       LEAST((CAST(:runDate AS date) - CAST(l.due_date AS date)) * :dailyRate, :maxAmount), " +
+                   "       :runDate, now(), now() " +
+                   "FROM loans l " +
+                   "WHERE l.id IN (:loanIds) AND l.return_date IS NULL AND CAST(l.due_date AS date) < :runDate " +
+                   "ON CONFLICT (loan_id) DO UPDATE SET " +
+                   "    days_overdue = EXCLUDED.days_overdue, " +
+                   "    amount = EXCLUDED.amount, " +
+                   "    accrued_through = EXCLUDED.accrued_through, " +
+                   "    updated_at = EXCLUDED.updated_at " +
+                   "WHERE fines.accrued_through < EXCLUDED.accrued_through",
+           nativeQuery = true)
+    int accrueFines(@Param("loanIds") Collection<Integer> loanIds,
+                    @Param("runDate") LocalDate runDate,
+                    @Param("dailyRate") BigDecimal dailyRate,
+                    @Param("maxAmount") BigDecimal maxAmount);
+}
@@ -0,0 +1,191 @@
+package com.demandline.library.repository;
+
+import com.demandline.library.repository.model.HoldEntity;
+import com.demandline.library.repository.model.HoldStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for Hold entity
+ * Provides database operations for the per-book hold queues
+ */
+@Repository
+public interface HoldRepository extends JpaRepository<HoldEntity, Integer> {
+
+    /**
+     * Find a hold by ID with pessimistic write lock
+     * @param holdId the hold ID
+     * @return Optional containing the locked hold if found
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM HoldEntity h WHERE h.id = :holdId")
+    Optional<HoldEntity> findByIdWithLock(@Param("holdId") Integer holdId);
+
+    /**
+     * Find the book of a hold without loading it
+     * @param holdId the hold ID
+     * @return Optional containing the book ID if the hold exists
+     */
+    @Query("SELECT h.bookId FROM HoldEntity h WHERE h.id = :holdId")
+    Optional<Integer> findBookIdById(@Param("holdId") Integer holdId);
+
+    /**
+     * Find the holds of a member in the given statuses
+     * @param memberId the member ID
+     * @param statuses the statuses
+     * @return holds ordered by ID
+     */
+    List<HoldEntity> findByMemberIdAndStatusInOrderById(Integer memberId, Collection<HoldStatus> statuses);
+
+    /**
+     * Count the holds of a member in the given statuses
+     * @param memberId the member ID
+     * @param statuses the statuses
+     * @return number of holds
+     */
+    long countByMemberIdAndStatusIn(Integer memberId, Collection<HoldStatus> statuses);
+
+    /**
+     * Check if a member has an open hold for a book
+     * @param memberId the member ID
+     * @param bookId the book ID
+     * @return true if a WAITING or READY hold exists
+     */
+    @Query("SELECT CASE WHEN COUNT(h) > 0 THEN TRUE ELSE FALSE END FROM HoldEntity h " +
+           "WHERE h.memberId = :memberId AND h.bookId = :bookId " +
+           "AND h.status IN (com.demandline.library.repository.model.HoldStatus.WAITING, " +
+           "com.demandline.library.repository.model.HoldStatus.READY)")
+    boolean hasOpenHold(@Param("memberId") Integer memberId, @Param("bookId") Integer bookId);
+
+    /**
+     * Count the waiting holds of a book placed up to and including the given hold
+     * @param bookId the book ID
+     * @param holdId the hold ID
+     * @return queue position of the hold, 1 for the head of the queue
+     */
+    @Query("SELECT COUNT(h) FROM HoldEntity h WHERE h.bookId = :bookId AND h.id <= :holdId " +
+           "AND h.status = com.demandline.library.repository.model.HoldStatus.WAITING")
+    long countWaitingUpTo(@Param("bookId") Integer bookId, @Param("holdId") Integer holdId);
+
+    /**
+     * Find the waiting holds of a book in queue order
+     * @param bookId the book ID
+     * @return hold IDs, head of the queue first
+     */
+    @Query("SELECT h.id FROM HoldEntity h WHERE h.bookId = :bookId " +
+           "AND h.status = com.demandline.library.repository.model.HoldStatus.WAITING ORDER BY h.id")
+    List<Integer> findWaitingIdsByBookId(@Param("bookId") Integer bookId);
+
+    /**
+     * Mark the Redis mirror of a book's queue as stale, visible to every node until it is rebuilt
+     * @param bookId the book ID
+     * @return number of rows inserted, 0 if already marked
+     */
+    @Modifying
+    @Query(value = "INSERT INTO hold_queue_rebuilds (book_id) VALUES (:bookId) ON CONFLICT (book_id) DO NOTHING", nativeQuery = true)
+    int markQueueStale(@Param("bookId") Integer bookId);
+
+    /**
+     * Find the books among the given ones whose queue mirror is stale
+     * @param bookIds the book IDs
+     * @return IDs of the books with a stale mirror
+     */
+    @Query(value = "SELECT book_id FROM hold_queue_rebuilds WHERE book_id IN (:bookIds)", nativeQuery = true)
+    List<Integer> findStaleQueueBookIds(@Param("bookIds") Collection<Integer> bookIds);
+
+    /**
+     * Find every book whose queue mirror is stale
+     * @return book IDs
+     */
+    @Query(value = "SELECT book_id FROM hold_queue_rebuilds ORDER BY book_id", nativeQuery = true)
+    List<Integer> findAllStaleQueueBookIds();
+
+    /**
+     * Clear the stale mark of a book's queue mirror
+     * @param bookId the book ID
+     * @return number of rows deleted
+     */
+    @Modifying
+    @Query(value = "DELETE FROM hold_queue_rebuilds WHERE book_id = :bookId", nativeQuery = true)
+    int clearQueueStale(@Param("bookId") Integer bookId);
+
+    /**
+     * Lock the oldest waiting holds of a book, skipping holds locked by a concurrent allocation or cancel
+     * @param bookId the book ID
+     * @param copies maximum number of holds
+     * @return IDs of the locked holds, oldest first
+     */
+    @Query(value = "SELECT id FROM holds WHERE book_id = :bookId AND status = 'WAITING' " +
+                   "ORDER BY id LIMIT :copies FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Integer> lockNextWaiting(@Param("bookId") Integer bookId, @Param("copies") int copies);
+
+    /**
+     * Set a copy aside for each of the given waiting holds
+     * @param holdIds the hold IDs
+     * @param now timestamp stored in ready_at and updated_at
+     * @param expiresAt end of the pickup window
+     * @return number of holds made ready
+     */
+    @Modifying
+    @Query(value = "UPDATE holds SET status = 'READY', ready_at = :now, expires_at = :expiresAt, updated_at = :now " +
+                   "WHERE id IN (:holdIds) AND status = 'WAITING'", nativeQuery = true)
+    int markReady(@Param("holdIds") Collection<Integer> holdIds,
+                  @Param("now") LocalDateTime now,
+                  @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Fulfill the ready hold of a member for a book, handing its copy to the loan
+     * @param memberId the member ID
+     * @param bookId the book ID
+     * @param now timestamp stored in updated_at
+     * @return number of holds fulfilled, 0 if the member has no ready hold for the book
+     */
+    @Modifying
+    @Query(value = "UPDATE holds SET status = 'FULFILLED', updated_at = :now " +
+                   "WHERE member_id = :memberId AND book_id = :bookId AND status = 'READY'", nativeQuery = true)
+    int fulfillReady(@Param("memberId") Integer memberId,
+                     @Param("bookId") Integer bookId,
+                     @Param("now") LocalDateTime now);
+
+    /**
+     * Find the books among the given ones with a copy set aside for a member
+     * @param memberId the member ID
+     * @param bookIds the book IDs
+     * @return IDs of the books with a ready hold
+     */
+    @Query("SELECT h.bookId FROM HoldEntity h WHERE h.memberId = :memberId AND h.bookId IN :bookIds " +
+           "AND h.status = com.demandline.library.repository.model.HoldStatus.READY")
+    List<Integer> findReadyBookIds(@Param("memberId") Integer memberId, @Param("bookIds") Collection<Integer> bookIds);
+
+    /**
+     * Find ready holds whose pickup window has passed
+     * @param now the current date/time
+     * @param pageable batch size
+     * @return hold IDs, earliest deadline first
+     */
+    @Query("SELECT h.id FROM HoldEntity h WHERE h.status = com.demandline.library.repository.model.HoldStatus.READY " +
+           "AND h.expiresAt <= :now ORDER BY h.expiresAt, h.id")
+    List<Integer> findExpiredReadyIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Find books that have available copies while members are still waiting for them
+     * Happens when copies are added or a hold is placed while a copy is being returned
+     * @param limit maximum number of books
+     * @return book IDs in ascending order
+     */
+    @Query(value = "SELECT b.id FROM books b WHERE b.available_copies > 0 " +
+                   "AND EXISTS (SELECT 1 FROM holds h WHERE h.book_id = b.id AND h.status = 'WAITING') " +
+                   "ORDER BY b.id LIMIT :limit", nativeQuery = true)
+    List<Integer> findBooksWithAvailableCopiesAndWaitingHolds(@Param("limit") int limit);
+}
@@ -0,0 +1,13 @@
+package com.demandline.library.repository;
+
+import com.demandline.library.repository.model.JobCheckpointEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for JobCheckpoint entity
+ * Stores resume positions of chunked batch jobs
+ */
+@Repository
+public interface JobCheckpointRepository extends JpaRepository<JobCheckpointEntity, String> {
+}
@@ -1,14 +1,25 @@
 package com.demandline.library.repository;
 
 import com.demandline.library.repository.model.LoanEntity;
+import com.demandline.library.repository.projection.ActiveLoanView;
+import com.demandline.library.repository.projection.LoanBookView;
+import com.demandline.library.repository.projection.LoanDueDateView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Loan entity
@@ -59,15 +70,6 @@ public interface LoanRepository extends JpaRepository<LoanEntity, Integer> {
            "FROM LoanEntity l WHERE l.memberEntity.id = :memberId AND l.bookEntity.id = :bookId AND l.returnDate IS NULL")
     boolean hasActiveLoan(@Param("memberId") Integer memberId, @Param("bookId") Integer bookId);
 
-    /**
-     * Check if a member has an active loan for a specific book
-     * @param memberId the member id
-     * @return true if member has active loan for this book
-     */
-    @Query("SELECT CASE WHEN COUNT(l) > 0 THEN TRUE ELSE FALSE END " +
-            "FROM LoanEntity l WHERE l.memberEntity.id = :memberId AND l.returnDate IS NULL")
-    boolean hasActiveLoan(@Param("memberId") Integer memberId);
-    
     /**
      * Find a specific active loan by member and book
      * @param memberId the member id
@@ -76,5 +78,146 @@ public interface LoanRepository extends JpaRepository<LoanEntity, Integer> {
      */
     @Query("SELECT l FROM LoanEntity l WHERE l.memberEntity.id = :memberId AND l.bookEntity.id = :bookId AND l.returnDate IS NULL")
     Optional<LoanEntity> findActiveLoan(@Param("memberId") Integer memberId, @Param("bookId") Integer bookId);
-}
 
+    /**
+     * Find all active (not returned) loans
+     * @return List of loans where return_date is null
+     */
+    @Query("SELECT l FROM LoanEntity l WHERE l.returnDate IS NULL")
+    List<LoanEntity> findAllActiveLoans();
+
+    /**
+     * Find the borrow date of the oldest active loan
+     * @return the oldest borrow date, or null when no loan is active
+     */
+    @Query("SELECT MIN(l.borrowDate) FROM LoanEntity l WHERE l.returnDate IS NULL")
+    LocalDateTime findOldestActiveBorrowDate();
+
+    /**
+     * Find a page of overdue loans with member, user and book fetched in the same query
+     * Backed by the partial index on (due_date, id) WHERE return_date IS NULL
+     * @param cutoff loans due before this date/time are returned
+     * @param oldestActive no active loan was borrowed before this; lets Postgres skip older monthly partitions
+     * @param pageable page to fetch
+     * @return overdue loans ordered by due date, oldest first
+     */
+    @Query("SELECT l FROM LoanEntity l JOIN FETCH l.memberEntity m JOIN FETCH m.userEntity JOIN FETCH l.bookEntity " +
+           "WHERE l.returnDate IS NULL AND l.dueDate < :cutoff AND l.borrowDate >= :oldestActive ORDER BY l.dueDate, l.id")
+    List<LoanEntity> findOverdueLoansPage(@Param("cutoff") LocalDateTime cutoff,
+                                          @Param("oldestActive") LocalDateTime oldestActive,
+                                          Pageable pageable);
+
+    /**
+     * Find loans by ids with member, user and book fetched in the same query
+     * @param ids the loan ids
+     * @return loans with their associations loaded
+     */
+    @Query("SELECT l FROM LoanEntity l JOIN FETCH l.memberEntity m JOIN FETCH m.userEntity JOIN FETCH l.bookEntity " +
+           "WHERE l.id IN :ids")
+    List<LoanEntity> findAllWithDetailsByIdIn(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Keyset scan over active loans by (due_date, id)
+     * @param afterDueDate due date of the last row of the previous chunk
+     * @param afterId id of the last row of the previous chunk
+     * @param dueBefore only loans due before this date/time
+     * @param pageable chunk size (page number must be 0)
+     * @return next chunk of active loans ordered by due date and id
+     */
+    @Query("SELECT new com.demandline.library.repository.projection.LoanDueDateView(l.id, l.dueDate) " +
+           "FROM LoanEntity l WHERE l.returnDate IS NULL AND l.dueDate < :dueBefore " +
+           "AND (l.dueDate > :afterDueDate OR (l.dueDate = :afterDueDate AND l.id > :afterId)) " +
+           "ORDER BY l.dueDate, l.id")
+    List<LoanDueDateView> findActiveLoansDueAfter(@Param("afterDueDate") LocalDateTime afterDueDate,
+                                                  @Param("afterId") Integer afterId,
+                                                  @Param("dueBefore") LocalDateTime dueBefore,
+                                                  Pageable pageable);
+
+    /**
+     * Stream all loans with member, user and book fetched in the same query
+     * Must be consumed inside a read-only transaction and closed afterwards
+     * @return stream of loans ordered by id
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT l FROM LoanEntity l JOIN FETCH l.memberEntity m JOIN FETCH m.userEntity JOIN FETCH l.bookEntity " +
+           "ORDER BY l.id")
+    Stream<LoanEntity> streamAllWithDetails();
+
+    /**
+     * Find loans for a member with their book as read-only projections
+     * @param memberId the member id
+     * @param onlyActive whether only loans that are not returned are included
+     * @param borrowedSince only loans borrowed at or after this time; lets Postgres skip older monthly partitions
+     * @return loans ordered by id
+     */
+    @Query("SELECT new com.demandline.library.repository.projection.LoanBookView(l.id, l.borrowDate, l.returnDate, l.dueDate, l.createdAt, l.updatedAt, b.id, b.title, b.author, b.isbn, b.totalCopies, b.availableCopies, b.createdAt, b.updatedAt) " +
+           "FROM LoanEntity l JOIN l.bookEntity b " +
+           "WHERE l.memberEntity.id = :memberId AND (:onlyActive = FALSE OR l.returnDate IS NULL) " +
+           "AND l.borrowDate >= :borrowedSince ORDER BY l.id")
+    List<LoanBookView> findLoanBookViewsByMemberId(@Param("memberId") Integer memberId,
+                                                   @Param("onlyActive") boolean onlyActive,
+                                                   @Param("borrowedSince") LocalDateTime borrowedSince);
+
+    /**
+     * Find the active loans of the given books, most overdue first
+     * @param bookIds the book IDs
+     * @param oldestActive no active loan was borrowed before this; lets Postgres skip older monthly partitions
+     * @return active loans ordered by due date, then id
+     */
+    @Query("SELECT new com.demandline.library.repository.projection.ActiveLoanView(l.id, l.memberEntity.id, l.bookEntity.id, l.dueDate) " +
+           "FROM LoanEntity l WHERE l.bookEntity.id IN :bookIds AND l.returnDate IS NULL AND l.borrowDate >= :oldestActive " +
+           "ORDER BY l.dueDate, l.id")
+    List<ActiveLoanView> findActiveLoansByBookIdIn(@Param("bookIds") Collection<Integer> bookIds,
+                                                   @Param("oldestActive") LocalDateTime oldestActive);
+
+    /**
+     * Lock loans that are still active, in ascending ID order, without loading entities
+     * @param loanIds the loan IDs
+     * @param oldestActive no active loan was borrowed before this; lets Postgres skip older monthly partitions
+     * @return IDs of the locked loans; loans returned in the meantime are left out
+     */
+    @Query(value = "SELECT id FROM loans WHERE id IN (:loanIds) AND return_date IS NULL AND borrow_date >= :oldestActive " +
+                   "ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Integer> lockActiveByIdIn(@Param("loanIds") Collection<Integer> loanIds,
+                                   @Param("oldestActive") LocalDateTime oldestActive);
+
+    /**
+     * Mark loans as returned in one statement
+     * @param loanIds the loan IDs, locked by the caller
+     * @param oldestActive no active loan was borrowed before this; lets Postgres skip older monthly partitions
+     * @param now return date and updated_at
+     * @return number of loans updated
+     */
+    @Modifying
+    @Query(value = "UPDATE loans SET return_date = :now, updated_at = :now " +
+                   "WHERE id IN (:loanIds) AND return_date IS NULL AND borrow_date >= :oldestActive",
+           nativeQuery = true)
+    int markReturned(@Param("loanIds") Collection<Integer> loanIds,
+                     @Param("oldestActive") LocalDateTime oldestActive,
+                     @Param("now") LocalDateTime now);
+
+    /**
+     * Create the monthly loans partition containing the given day, if it does not exist yet
+     * @param month any day of the month
+     * @return true if the partition was created
+     */
+    @Query(value = "SELECT ensure_loans_partition(CAST(:month AS date))", nativeQuery = true)
+    boolean ensurePartition(@Param("month") LocalDate month);
+
+    /**
+     * Detach monthly loans partitions that ended before the cutoff and hold no active loans,
+     * moving them to the loan_archive schema; their loans no longer appear in loan history or exports
+     * @param cutoff months ending on or before this day are eligible
+     * @param maxPartitions maximum number of partitions archived by this call
+     * @param lockTimeoutMillis how long to wait for the lock on loans before giving up
+     * @return names of the archived partitions
+     */
+    @Query(value = "SELECT archive_loans_partitions(CAST(:cutoff AS date), :maxPartitions, :lockTimeoutMillis)",
+           nativeQuery = true)
+    List<String> archivePartitions(@Param("cutoff") LocalDate cutoff,
+                                   @Param("maxPartitions") int maxPartitions,
+                                   @Param("lockTimeoutMillis") int lockTimeoutMillis);
+}
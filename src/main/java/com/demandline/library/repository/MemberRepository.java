@@ -1,13 +1,24 @@
 package com.demandline.library.repository;
 
 import com.demandline.library.repository.model.MemberEntity;
+import com.demandline.library.repository.projection.MemberEligibilityView;
+import com.demandline.library.repository.projection.MemberLoanCounterView;
+import com.demandline.library.repository.projection.MemberView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Member entity
@@ -15,6 +26,10 @@ import java.util.Optional;
  */
 @Repository
 public interface MemberRepository extends JpaRepository<MemberEntity, Integer> {
+    // Active member projections after a given member id; the search queries below add only the filters they need
+    String ACTIVE_MEMBER_VIEWS = "SELECT new com.demandline.library.repository.projection.MemberView(m.id, m.address, m.phoneNumber, m.createdAt, m.updatedAt, m.isActive, u.id, u.name, u.email, u.createdAt, u.updatedAt, u.active, r.id, r.name, r.permissions, r.createdAt, r.updatedAt) " +
+            "FROM MemberEntity m JOIN m.userEntity u JOIN u.roleEntity r " +
+            "WHERE m.isActive = TRUE AND m.id > :afterId ";
     
     /**
      * Find a member by user email
@@ -38,15 +53,175 @@ public interface MemberRepository extends JpaRepository<MemberEntity, Integer> {
     Optional<MemberEntity> findByUserEntityId(Integer userId);
 
     /**
-     * Search members by name or email
-     * @param searchTerm the search term
-     * @return List of members matching name or email
+     * Stream all members with their user fetched in the same query
+     * Must be consumed inside a read-only transaction and closed afterwards
+     * @return stream of members ordered by id
      */
-    @Query("SELECT m FROM MemberEntity m WHERE " +
-           "LOWER(m.userEntity.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
-           "OR LOWER(m.userEntity.email) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
-    List<MemberEntity> searchMembers(@Param("searchTerm") String searchTerm);
-}
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT m FROM MemberEntity m JOIN FETCH m.userEntity ORDER BY m.id")
+    Stream<MemberEntity> streamAllWithUser();
+
+    /**
+     * Find active members as read-only projections, after a given member id
+     * @param afterId id of the last member of the previous page, 0 for the first page
+     * @param pageable offset and limit
+     * @return active members ordered by id
+     */
+    @Query(ACTIVE_MEMBER_VIEWS + "ORDER BY m.id")
+    List<MemberView> findActiveMemberViews(@Param("afterId") Integer afterId, Pageable pageable);
+
+    /**
+     * Search active members by name as read-only projections, after a given member id
+     * The pattern is matched against the lower-cased column so the trigram index applies
+     * @param namePattern lower-case LIKE pattern for the user name
+     * @param afterId id of the last member of the previous page, 0 for the first page
+     * @param pageable offset and limit
+     * @return matching active members ordered by id
+     */
+    @Query(ACTIVE_MEMBER_VIEWS + "AND LOWER(u.name) LIKE :namePattern ESCAPE '\\' ORDER BY m.id")
+    List<MemberView> searchActiveMemberViewsByName(@Param("namePattern") String namePattern,
+                                                   @Param("afterId") Integer afterId,
+                                                   Pageable pageable);
+
+    /**
+     * Search active members by email as read-only projections, after a given member id
+     * The pattern is matched against the lower-cased column so the trigram index applies
+     * @param emailPattern lower-case LIKE pattern for the user email
+     * @param afterId id of the last member of the previous page, 0 for the first page
+     * @param pageable offset and limit
+     * @return matching active members ordered by id
+     */
+    @Query(ACTIVE_MEMBER_VIEWS + "AND LOWER(u.email) LIKE :emailPattern ESCAPE '\\' ORDER BY m.id")
+    List<MemberView> searchActiveMemberViewsByEmail(@Param("emailPattern") String emailPattern,
+                                                    @Param("afterId") Integer afterId,
+                                                    Pageable pageable);
 
+    /**
+     * Search active members by name and email as read-only projections, after a given member id
+     * Patterns are matched against the lower-cased columns so the trigram indexes apply
+     * @param namePattern lower-case LIKE pattern for the user name
+     * @param emailPattern lower-case LIKE pattern for the user email
+     * @param afterId id of the last member of the previous page, 0 for the first page
+     * @param pageable offset and limit
+     * @return matching active members ordered by id
+     */
+    @Query(ACTIVE_MEMBER_VIEWS + "AND LOWER(u.name) LIKE :namePattern ESCAPE '\\' " +
+           "AND LOWER(u.email) LIKE :emailPattern ESCAPE '\\' ORDER BY m.id")
+    List<MemberView> searchActiveMemberViews(@Param("namePattern") String namePattern,
+                                             @Param("emailPattern") String emailPattern,
+                                             @Param("afterId") Integer afterId,
+                                             Pageable pageable);
 
+    /**
+     * Member status, loan counters and the availability of candidate books in one primary-key read
+     * Returns one row per existing requested book, or a single row with null book fields when none match
+     * @param memberId the member id
+     * @param bookIds candidate book ids, may be empty
+     * @return eligibility rows, empty if the member does not exist
+     */
+    @Query("SELECT new com.demandline.library.repository.projection.MemberEligibilityView(m.id, m.isActive, u.active, " +
+           "m.activeLoanCount, m.overdueCount, b.id, b.title, b.availableCopies) " +
+           "FROM MemberEntity m JOIN m.userEntity u LEFT JOIN BookEntity b ON b.id IN :bookIds " +
+           "WHERE m.id = :memberId")
+    List<MemberEligibilityView> findEligibility(@Param("memberId") Integer memberId,
+                                                @Param("bookIds") Collection<Integer> bookIds);
 
+    /**
+     * Add to the active loan counter of a member who has no active loans
+     * Guarded update, so it doubles as the eligibility check: a concurrent loan that committed after
+     * the member was read makes it update nothing, and the row lock it takes serializes the member's
+     * loans until commit
+     * @param memberId the member id
+     * @param loans number of loans created
+     * @return number of rows updated, 0 if the member has active loans
+     */
+    @Modifying
+    @Query(value = "UPDATE members SET active_loan_count = active_loan_count + :loans " +
+                   "WHERE id = :memberId AND active_loan_count = 0", nativeQuery = true)
+    int addActiveLoans(@Param("memberId") Integer memberId, @Param("loans") int loans);
+
+    /**
+     * Subtract returned loans from the active loan counter and recompute the overdue count of a member
+     * Pending return dates are flushed first so the overdue count sees them. The counter stops at zero
+     * so a counter that drifted low cannot block the return; the verifier reports such drift
+     * @param memberId the member id
+     * @param returned number of loans returned
+     * @param now loans due before this instant count as overdue
+     * @return number of rows updated
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE members SET active_loan_count = GREATEST(0, active_loan_count - :returned), " +
+                   "overdue_count = (SELECT COUNT(*) FROM loans l WHERE l.member_id = :memberId " +
+                   "                 AND l.return_date IS NULL AND l.due_date < :now) " +
+                   "WHERE id = :memberId", nativeQuery = true)
+    int recordReturns(@Param("memberId") Integer memberId,
+                      @Param("returned") int returned,
+                      @Param("now") LocalDateTime now);
+
+    /**
+     * Subtract returned loans from the active loan counters and recompute the overdue counts of their members
+     * Set-based counterpart of recordReturns, clamped at zero the same way; must run after the loans are marked returned
+     * @param loanIds the returned loan IDs
+     * @param now loans due before this instant count as overdue
+     * @return number of members updated
+     */
+    @Modifying
+    @Query(value = "UPDATE members m SET active_loan_count = GREATEST(0, m.active_loan_count - r.returned), " +
+                   "overdue_count = (SELECT COUNT(*) FROM loans l WHERE l.member_id = m.id " +
+                   "                 AND l.return_date IS NULL AND l.due_date < :now) " +
+                   "FROM (SELECT member_id, COUNT(*) AS returned FROM loans WHERE id IN (:loanIds) GROUP BY member_id) r " +
+                   "WHERE m.id = r.member_id", nativeQuery = true)
+    int recordBulkReturns(@Param("loanIds") Collection<Integer> loanIds, @Param("now") LocalDateTime now);
+
+    /**
+     * Bring overdue counts up to date as loans fall due
+     * Only visits members with overdue loans or a non-zero count, and only writes rows that changed
+     * @param now loans due before this instant count as overdue
+     * @return number of members updated
+     */
+    @Modifying
+    @Query(value = "UPDATE members m SET overdue_count = COALESCE(o.overdue, 0) " +
+                   "FROM (SELECT id FROM members WHERE overdue_count > 0 " +
+                   "      UNION SELECT member_id FROM loans WHERE return_date IS NULL AND due_date < :now) c " +
+                   "LEFT JOIN (SELECT member_id, COUNT(*) AS overdue FROM loans " +
+                   "           WHERE return_date IS NULL AND due_date < :now GROUP BY member_id) o ON o.member_id = c.id " +
+                   "WHERE m.id = c.id AND m.overdue_count <> COALESCE(o.overdue, 0)", nativeQuery = true)
+    int refreshOverdueCounts(@Param("now") LocalDateTime now);
+
+    /**
+     * Find every member whose active loan counter disagrees with the active loans recorded
+     * One aggregate over members and active loans, no per-member round trips
+     * @return drifted members ordered by id
+     */
+    @Query("SELECT new com.demandline.library.repository.projection.MemberLoanCounterView(m.id, m.activeLoanCount, COUNT(l.id)) " +
+           "FROM MemberEntity m LEFT JOIN LoanEntity l ON l.memberEntity = m AND l.returnDate IS NULL " +
+           "GROUP BY m.id, m.activeLoanCount " +
+           "HAVING m.activeLoanCount <> COUNT(l.id) ORDER BY m.id")
+    List<MemberLoanCounterView> findLoanCounterDrift();
+
+    /**
+     * Lock members by IDs in ascending order without loading entities
+     * @param memberIds the member IDs
+     * @return IDs of the locked members
+     */
+    @Query(value = "SELECT id FROM members WHERE id IN (:memberIds) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Integer> lockAllByIdIn(@Param("memberIds") Collection<Integer> memberIds);
+
+    /**
+     * Recompute active loan counters from the active loans recorded
+     * Only rows that still drift are written; callers lock the rows first in a separate statement
+     * so the loans are counted after any concurrent loan or return holding the row has committed
+     * @param memberIds the member IDs
+     * @return number of members repaired
+     */
+    @Modifying
+    @Query(value = "UPDATE members m SET active_loan_count = a.active " +
+                   "FROM (SELECT mb.id, COUNT(l.id) AS active FROM members mb " +
+                   "      LEFT JOIN loans l ON l.member_id = mb.id AND l.return_date IS NULL " +
+                   "      WHERE mb.id IN (:memberIds) GROUP BY mb.id) a " +
+                   "WHERE m.id = a.id AND m.active_loan_count <> a.active", nativeQuery = true)
+    int repairActiveLoanCounts(@Param("memberIds") Collection<Integer> memberIds);
+}
@@ -0,0 +1,71 @@
+package com.demandline.library.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Pageable for arbitrary offset/limit pagination
+ * The service layer paginates by offset and limit, which PageRequest cannot express when
+ * the offset is not a multiple of the limit. Ordering comes from the query itself.
+ * A limit of 0 is not a page; callers answer it with an empty list without querying.
+ */
+public class OffsetLimitRequest implements Pageable {
+    private final long offset;
+    private final int limit;
+
+    public OffsetLimitRequest(long offset, int limit) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset must not be negative");
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+        this.offset = offset;
+        this.limit = limit;
+    }
+
+    @Override
+    public int getPageNumber() {
+        return (int) (offset / limit);
+    }
+
+    @Override
+    public int getPageSize() {
+        return limit;
+    }
+
+    @Override
+    public long getOffset() {
+        return offset;
+    }
+
+    @Override
+    public Sort getSort() {
+        return Sort.unsorted();
+    }
+
+    @Override
+    public Pageable next() {
+        return new OffsetLimitRequest(offset + limit, limit);
+    }
+
+    @Override
+    public Pageable previousOrFirst() {
+        return hasPrevious() ? new OffsetLimitRequest(Math.max(offset - limit, 0), limit) : first();
+    }
+
+    @Override
+    public Pageable first() {
+        return new OffsetLimitRequest(0, limit);
+    }
+
+    @Override
+    public Pageable withPage(int pageNumber) {
+        return new OffsetLimitRequest((long) pageNumber * limit, limit);
+    }
+
+    @Override
+    public boolean hasPrevious() {
+        return offset > 0;
+    }
+}
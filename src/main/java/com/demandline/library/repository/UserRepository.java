@@ -1,6 +1,8 @@
 package com.demandline.library.repository;
 
 import com.demandline.library.repository.model.UserEntity;
+import com.demandline.library.repository.projection.UserView;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -36,4 +38,15 @@ public interface UserRepository extends JpaRepository<UserEntity, Integer> {
      */
     @Query("SELECT u FROM UserEntity u WHERE u.roleEntity.name = :roleName AND u.active = TRUE")
     List<UserEntity> findByRoleNameAndActiveTrue(@Param("roleName") String roleName);
+
+    /**
+     * Find a page of active users as read-only projections
+     * @param includeMembers whether users with the MEMBER role are included
+     * @param pageable offset and limit
+     * @return active users ordered by id
+     */
+    @Query("SELECT new com.demandline.library.repository.projection.UserView(u.id, u.name, u.email, u.createdAt, u.updatedAt, u.active, r.id, r.name, r.permissions, r.createdAt, r.updatedAt) " +
+           "FROM UserEntity u JOIN u.roleEntity r " +
+           "WHERE u.active = TRUE AND (:includeMembers = TRUE OR LOWER(r.name) <> 'member') ORDER BY u.id")
+    List<UserView> findActiveUserViews(@Param("includeMembers") boolean includeMembers, Pageable pageable);
 }
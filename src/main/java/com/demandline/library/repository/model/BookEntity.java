@@ -5,15 +5,19 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDateTime;
 
 /**
  * Book Entity
  * Represents books in the library inventory
+ * Updates only write changed columns, so saving a book never overwrites copy counts
+ * adjusted concurrently by the atomic repository updates
  */
 @Entity
 @Table(name = "books")
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,61 @@
+package com.demandline.library.repository.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Fine Entity
+ * Represents the fine accrued on an overdue loan
+ * Written by the fine accrual job, one row per loan
+ */
+@Entity
+@Table(name = "fines")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FineEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(name = "loan_id", nullable = false, unique = true)
+    private Integer loanId;
+
+    @Column(name = "member_id", nullable = false)
+    private Integer memberId;
+
+    @Column(name = "days_overdue", nullable = false)
+    private Integer daysOverdue;
+
+    @Column(name = "amount", nullable = false, precision = 10, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "accrued_through", nullable = false)
+    private LocalDate accruedThrough;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,13 @@
+package com.demandline.library.repository.model;
+
+/**
+ * Hold Status
+ * WAITING and READY holds are open; the others are final
+ */
+public enum HoldStatus {
+    WAITING,
+    READY,
+    FULFILLED,
+    CANCELLED,
+    EXPIRED
+}
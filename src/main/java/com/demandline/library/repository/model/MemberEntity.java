@@ -43,6 +43,16 @@ public class MemberEntity {
     @Column(name = "is_active", nullable = false)
     private Boolean isActive;
     
+    // Maintained with relative UPDATEs in the loan/return transactions, never written from the entity;
+    // a new member starts at the column default of 0, also before it is refreshed from the database
+    @Column(name = "active_loan_count", nullable = false, insertable = false, updatable = false)
+    @Builder.Default
+    private Integer activeLoanCount = 0;
+    
+    @Column(name = "overdue_count", nullable = false, insertable = false, updatable = false)
+    @Builder.Default
+    private Integer overdueCount = 0;
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -50,6 +60,12 @@ public class MemberEntity {
         if (isActive == null) {
             isActive = true;
         }
+        if (activeLoanCount == null) {
+            activeLoanCount = 0;
+        }
+        if (overdueCount == null) {
+            overdueCount = 0;
+        }
     }
     
     @PreUpdate
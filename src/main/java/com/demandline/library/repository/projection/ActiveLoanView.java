@@ -0,0 +1,14 @@
+package com.demandline.library.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Active Loan Projection
+ * Minimal row used to match returned copies to the loans they close
+ */
+public record ActiveLoanView(
+        Integer loanId,
+        Integer memberId,
+        Integer bookId,
+        LocalDateTime dueDate
+) {}
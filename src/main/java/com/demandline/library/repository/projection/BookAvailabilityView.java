@@ -0,0 +1,11 @@
+package com.demandline.library.repository.projection;
+
+/**
+ * Book Availability Projection
+ * Just enough of a book to tell whether it can be borrowed
+ */
+public record BookAvailabilityView(
+        Integer bookId,
+        String title,
+        Integer availableCopies
+) {}
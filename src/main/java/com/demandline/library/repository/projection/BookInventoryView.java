@@ -0,0 +1,55 @@
+package com.demandline.library.repository.projection;
+
+/**
+ * Book Inventory Projection
+ * Stored copy counts of a book next to its number of active loans and copies set aside for ready holds
+ */
+public record BookInventoryView(
+        Integer bookId,
+        Integer totalCopies,
+        Integer availableCopies,
+        Long activeLoans,
+        Long heldCopies
+) implements DriftView {
+    @Override
+    public Integer rowId() {
+        return bookId;
+    }
+
+    /**
+     * @return available copies implied by total copies, active loans and held copies
+     */
+    public long expectedAvailableCopies() {
+        return totalCopies - activeLoans - heldCopies;
+    }
+
+    /**
+     * @return whether repair can fix the book; false when total copies are below active loans plus held copies
+     */
+    public boolean repairable() {
+        return expectedAvailableCopies() >= 0;
+    }
+
+    /**
+     * @return available copies a repair stores, never negative
+     */
+    public long repairedAvailableCopies() {
+        return Math.max(0, expectedAvailableCopies());
+    }
+
+    /**
+     * @return stored minus expected available copies, positive when copies were over-counted
+     */
+    @Override
+    public long drift() {
+        return availableCopies - expectedAvailableCopies();
+    }
+
+    /**
+     * @return whether a repair changes the book; one already at 0 that cannot be repaired is left alone
+     */
+    @Override
+    public boolean needsRepair() {
+        return availableCopies != repairedAvailableCopies();
+    }
+}
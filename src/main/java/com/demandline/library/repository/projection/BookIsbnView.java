@@ -0,0 +1,10 @@
+package com.demandline.library.repository.projection;
+
+/**
+ * Book ISBN Projection
+ * Resolves ISBNs to book IDs without loading entities
+ */
+public record BookIsbnView(
+        Integer bookId,
+        String isbn
+) {}
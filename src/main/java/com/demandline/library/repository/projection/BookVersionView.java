@@ -0,0 +1,12 @@
+package com.demandline.library.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Book Version Projection
+ * Book ID and last update time, for finding rows that changed since they were cached
+ */
+public record BookVersionView(
+        Integer bookId,
+        LocalDateTime updatedAt
+) {}
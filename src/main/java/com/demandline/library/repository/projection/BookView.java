@@ -0,0 +1,18 @@
+package com.demandline.library.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Book Projection
+ * Read-only book row for list endpoints, selected without hydrating BookEntity
+ */
+public record BookView(
+        Integer id,
+        String title,
+        String author,
+        String isbn,
+        Integer totalCopies,
+        Integer availableCopies,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt
+) {}
@@ -0,0 +1,24 @@
+package com.demandline.library.repository.projection;
+
+/**
+ * Drift Projection
+ * A row whose stored counter disagrees with the value recomputed from the rows it counts
+ */
+public interface DriftView {
+    /**
+     * @return id of the drifted row
+     */
+    Integer rowId();
+
+    /**
+     * @return stored minus recomputed value
+     */
+    long drift();
+
+    /**
+     * @return whether repairing the row would change it
+     */
+    default boolean needsRepair() {
+        return drift() != 0;
+    }
+}
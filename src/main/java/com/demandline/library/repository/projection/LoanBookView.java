@@ -0,0 +1,24 @@
+package com.demandline.library.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Loan Book Projection
+ * Read-only loan row with its book, selected without hydrating LoanEntity
+ */
+public record LoanBookView(
+        Integer id,
+        LocalDateTime borrowDate,
+        LocalDateTime returnDate,
+        LocalDateTime dueDate,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        Integer bookId,
+        String title,
+        String author,
+        String isbn,
+        Integer totalCopies,
+        Integer availableCopies,
+        LocalDateTime bookCreatedAt,
+        LocalDateTime bookUpdatedAt
+) {}
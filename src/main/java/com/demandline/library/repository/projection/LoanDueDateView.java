@@ -0,0 +1,12 @@
+package com.demandline.library.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Loan Due Date Projection
+ * Minimal loan row used for keyset scans over active loans
+ */
+public record LoanDueDateView(
+        Integer id,
+        LocalDateTime dueDate
+) {}
@@ -0,0 +1,17 @@
+package com.demandline.library.repository.projection;
+
+/**
+ * Member Eligibility Projection
+ * Member status and loan counters, repeated on one row per requested book (book fields are null
+ * when no books were requested or the book does not exist)
+ */
+public record MemberEligibilityView(
+        Integer memberId,
+        Boolean memberActive,
+        Boolean userActive,
+        Integer activeLoanCount,
+        Integer overdueCount,
+        Integer bookId,
+        String bookTitle,
+        Integer availableCopies
+) {}
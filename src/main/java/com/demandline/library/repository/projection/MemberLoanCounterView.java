@@ -0,0 +1,24 @@
+package com.demandline.library.repository.projection;
+
+/**
+ * Member Loan Counter Projection
+ * Stored active loan counter of a member next to the number of active loans actually recorded
+ */
+public record MemberLoanCounterView(
+        Integer memberId,
+        Integer activeLoanCount,
+        Long activeLoans
+) implements DriftView {
+    @Override
+    public Integer rowId() {
+        return memberId;
+    }
+
+    /**
+     * @return stored minus actual active loans, positive when loans were over-counted
+     */
+    @Override
+    public long drift() {
+        return activeLoanCount - activeLoans;
+    }
+}
@@ -0,0 +1,28 @@
+package com.demandline.library.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Member Projection
+ * Read-only member row with its user and role, selected without hydrating MemberEntity
+ * The password hash is deliberately not selected
+ */
+public record MemberView(
+        Integer id,
+        String address,
+        String phoneNumber,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        Boolean isActive,
+        Integer userId,
+        String name,
+        String email,
+        LocalDateTime userCreatedAt,
+        LocalDateTime userUpdatedAt,
+        Boolean userActive,
+        Integer roleId,
+        String roleName,
+        String rolePermissions,
+        LocalDateTime roleCreatedAt,
+        LocalDateTime roleUpdatedAt
+) {}
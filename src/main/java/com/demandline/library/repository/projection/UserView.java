@@ -0,0 +1,22 @@
+package com.demandline.library.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * User Projection
+ * Read-only user row with its role, selected without hydrating UserEntity
+ * The password hash is deliberately not selected
+ */
+public record UserView(
+        Integer id,
+        String name,
+        String email,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        Boolean active,
+        Integer roleId,
+        String roleName,
+        String rolePermissions,
+        LocalDateTime roleCreatedAt,
+        LocalDateTime roleUpdatedAt
+) {}
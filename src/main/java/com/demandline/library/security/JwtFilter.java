@@ -63,7 +63,8 @@ public class JwtFilter extends OncePerRequestFilter {
                     
                     log.debug("User authenticated: {} with authorities: {}", email, authorities.size());
                 } else {
-                    log.warn("Invalid JWT token");
+                    // JwtUtil already logged why the token was rejected
+                    log.debug("Invalid JWT token");
                 }
             }
         } catch (Exception e) {
@@ -69,7 +69,8 @@ public class JwtUtil {
                     .parseSignedClaims(token);
             return true;
         } catch (Exception e) {
-            logger.error("JWT validation failed: {}", e.getMessage());
+            // A bad token is a client error, not a server fault
+            logger.warn("JWT validation failed: {}", e.getMessage());
             return false;
         }
     }
@@ -0,0 +1,55 @@
+package com.demandline.library.service;
+
+import com.demandline.library.repository.LoanRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lower bound on the borrow date of every active loan
+ * Active-loan and return queries add borrow_date >= oldestActive so Postgres only scans the monthly
+ * partitions that can still hold active loans. A fixed horizon (loan period plus some overdue
+ * allowance) is not safe: a loan that is never returned stays active indefinitely. Instead the
+ * bound is the oldest borrow date of an active loan, refreshed periodically. The application only
+ * creates loans borrowed now and loans only ever stop being active, so a bound read earlier stays
+ * valid and only moves forward. Loans inserted with an older borrow date outside the application
+ * are seen after the next refresh.
+ */
+@Service
+@Slf4j
+public class ActiveLoanWindow {
+    private static final LocalDateTime ALL_LOANS_SINCE = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final LoanRepository loanRepository;
+
+    private volatile LocalDateTime oldestActive = ALL_LOANS_SINCE;
+
+    public ActiveLoanWindow(LoanRepository loanRepository) {
+        this.loanRepository = loanRepository;
+    }
+
+    /**
+     * @return no active loan was borrowed before this date/time
+     */
+    public LocalDateTime oldestActive() {
+        return oldestActive;
+    }
+
+    /**
+     * Re-read the oldest active borrow date; runs at startup and then every refreshIntervalMillis
+     * With no active loans the bound stays open, so loans inserted later with any borrow date are found
+     */
+    @Scheduled(fixedDelayString = "${library.loans.activeWindow.refreshIntervalMillis:3600000}")
+    public void refresh() {
+        try {
+            LocalDateTime oldest = loanRepository.findOldestActiveBorrowDate();
+            oldestActive = oldest == null ? ALL_LOANS_SINCE : oldest;
+            log.debug("Active loans were borrowed on or after {}", oldestActive);
+        } catch (DataAccessException e) {
+            log.warn("Failed to refresh the oldest active borrow date, keeping {}", oldestActive, e);
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package com.demandline.library.service;
+
+import com.demandline.library.observability.MetricsService;
+import com.demandline.library.repository.BookRepository;
+import com.demandline.library.repository.projection.BookVersionView;
+import com.demandline.library.repository.projection.BookView;
+import com.demandline.library.service.model.Book;
+import com.demandline.library.service.model.filter.BookFilter;
+import com.demandline.library.service.util.PackedBookCatalog;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Optional in-memory copy of the book catalog for public search
+ * Books are held in a PackedBookCatalog (primitive arrays, a UTF-8 text arena and trigram postings),
+ * so public searches, availability filtering and pagination run without touching Postgres. Searches
+ * the catalog cannot answer, such as terms shorter than three characters, return empty and go to
+ * the database as before.
+ * The catalog is loaded at startup. Books changed through BookService on this node are re-read once
+ * the transaction commits; every syncIntervalMillis the ID and updated_at of all books are compared
+ * with the primary and changed, new or deleted books re-read, which picks up loans, returns and
+ * changes made through other nodes. Results can therefore lag availability by up to one sync interval.
+ */
+@Service
+@Slf4j
+public class BookCatalogIndex {
+
+    @Value("${library.search.catalogIndex.enabled:false}")
+    private boolean enabled;
+
+    @Value("${library.search.catalogIndex.batchSize:1000}")
+    private int batchSize;
+
+    private final BookRepository bookRepository;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final TransactionTemplate primaryTransactionTemplate;
+    private final MetricsService metricsService;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private PackedBookCatalog catalog = new PackedBookCatalog();
+    private volatile boolean loaded;
+    private volatile long footprintBytes;
+
+    public BookCatalogIndex(BookRepository bookRepository,
+                            TransactionTemplate transactionTemplate,
+                            MetricsService metricsService) {
+        this.bookRepository = bookRepository;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        // Read-write so changes are read from the primary; a new transaction because refreshes run after commit
+        this.primaryTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.primaryTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.metricsService = metricsService;
+        metricsService.registerCatalogIndexGauges(this::size, () -> footprintBytes);
+    }
+
+    /**
+     * Load all books, then catch up with changes committed while loading
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        PackedBookCatalog loadedCatalog = new PackedBookCatalog((int) Math.min(Integer.MAX_VALUE / 4, bookRepository.count()));
+        try {
+            readOnlyTransactionTemplate.executeWithoutResult(status -> {
+                try (Stream<BookView> views = bookRepository.streamAllViews()) {
+                    views.forEach(view -> put(loadedCatalog, view));
+                }
+            });
+        } catch (DataAccessException e) {
+            log.error("Failed to load the book catalog index, public search stays on the database", e);
+            return;
+        }
+        loadedCatalog.trimToSize();
+
+        lock.writeLock().lock();
+        try {
+            catalog = loadedCatalog;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        sync();
+        loaded = true;
+
+        int books = size();
+        log.info("Loaded {} books into the catalog index in {} ms, about {} MB ({} MB per million books)",
+                books, (System.nanoTime() - start) / 1_000_000, footprintBytes >> 20,
+                books == 0 ? 0 : footprintBytes * 1_000_000 / books >> 20);
+    }
+
+    @Scheduled(fixedDelayString = "${library.search.catalogIndex.syncIntervalMillis:10000}")
+    public void syncOnSchedule() {
+        if (enabled && loaded) {
+            sync();
+        }
+    }
+
+    /**
+     * Re-read every book whose updated_at differs from the catalog, and drop deleted books
+     * @return number of books re-read or dropped
+     */
+    public int sync() {
+        Timer.Sample sample = Timer.start();
+        VersionBuffer versions = new VersionBuffer();
+        try {
+            primaryTransactionTemplate.executeWithoutResult(status -> {
+                try (Stream<BookVersionView> stream = bookRepository.streamVersions()) {
+                    stream.forEach(versions::add);
+                }
+            });
+        } catch (DataAccessException e) {
+            log.warn("Failed to read book versions for the catalog index, retrying next sync", e);
+            return 0;
+        }
+
+        List<Integer> changed = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            // Both sides are ordered by ID: walk them together
+            int cursor = 0;
+            for (int i = 0; i < versions.size; i++) {
+                int id = versions.ids[i];
+                while (cursor < catalog.size() && catalog.idAt(cursor) < id) {
+                    changed.add(catalog.idAt(cursor++));
+                }
+                if (cursor < catalog.size() && catalog.idAt(cursor) == id) {
+                    cursor++;
+                    if (catalog.updatedAtMicros(id) != versions.updatedAt[i]) {
+                        changed.add(id);
+                    }
+                } else {
+                    changed.add(id);
+                }
+            }
+            while (cursor < catalog.size()) {
+                changed.add(catalog.idAt(cursor++));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        for (int from = 0; from < changed.size(); from += batchSize) {
+            refresh(changed.subList(from, Math.min(changed.size(), from + batchSize)));
+        }
+        long bytes = estimatedBytes();
+        footprintBytes = bytes;
+        sample.stop(metricsService.getCatalogIndexSyncTimer());
+        if (!changed.isEmpty()) {
+            log.debug("Catalog index sync re-read {} books", changed.size());
+        }
+        return changed.size();
+    }
+
+    /**
+     * Search the in-memory catalog the way BookService.getAllBooks searches the database
+     * @param filter search filter
+     * @param limit page size
+     * @param offset page offset
+     * @return matching books, or empty when the index is off, not loaded or cannot answer this search
+     */
+    public Optional<List<Book>> search(BookFilter filter, int limit, int offset) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        if (!loaded || limit < 1 || offset < 0) {
+            metricsService.incrementCatalogIndexFallback();
+            return Optional.empty();
+        }
+
+        lock.readLock().lock();
+        try {
+            boolean includeUnavailable = filter.showNotAvailable();
+            int[] slots;
+            if (filter.isbn().isPresent()) {
+                slots = catalog.findByIsbn(filter.isbn().get(), includeUnavailable, limit, offset);
+            } else if (filter.bookName().isPresent()) {
+                slots = catalog.findContaining(filter.bookName().get(), includeUnavailable, limit, offset);
+            } else if (filter.authorName().isPresent()) {
+                slots = catalog.findByAuthor(filter.authorName().get(), includeUnavailable, limit, offset);
+            } else {
+                slots = catalog.findAll(includeUnavailable, limit, offset);
+            }
+            if (slots == null) {
+                metricsService.incrementCatalogIndexFallback();
+                return Optional.empty();
+            }
+
+            List<Book> books = new ArrayList<>(slots.length);
+            for (int slot : slots) {
+                books.add(new Book(
+                        catalog.id(slot),
+                        catalog.title(slot),
+                        catalog.author(slot),
+                        catalog.isbn(slot),
+                        catalog.totalCopies(slot),
+                        catalog.availableCopies(slot),
+                        catalog.createdAt(slot),
+                        catalog.updatedAt(slot)));
+            }
+            metricsService.incrementCatalogIndexServed();
+            return Optional.of(books);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Re-read a book from the database once the surrounding transaction commits
+     * Books changed in one transaction are re-read together
+     * @param bookId the created, updated or deleted book
+     */
+    public void refreshAfterCommit(Integer bookId) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refreshQuietly(Set.of(bookId));
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Set<Integer> pending = (Set<Integer>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Set<Integer> bookIds = new TreeSet<>();
+            TransactionSynchronizationManager.bindResource(this, bookIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refreshQuietly(bookIds);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(BookCatalogIndex.this);
+                }
+            });
+            pending = bookIds;
+        }
+        pending.add(bookId);
+    }
+
+    /**
+     * @return number of books in the catalog
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return catalog.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void refreshQuietly(Collection<Integer> bookIds) {
+        List<Integer> ids = new ArrayList<>(bookIds);
+        try {
+            for (int from = 0; from < ids.size(); from += batchSize) {
+                refresh(ids.subList(from, Math.min(ids.size(), from + batchSize)));
+            }
+        } catch (DataAccessException e) {
+            log.warn("Failed to refresh {} books in the catalog index, the next sync will", ids.size(), e);
+        }
+    }
+
+    private void refresh(List<Integer> bookIds) {
+        List<BookView> views = primaryTransactionTemplate.execute(status -> bookRepository.findBookViewsByIdIn(bookIds));
+        Set<Integer> deleted = new HashSet<>(bookIds);
+        lock.writeLock().lock();
+        try {
+            for (BookView view : views) {
+                put(catalog, view);
+                deleted.remove(view.id());
+            }
+            deleted.forEach(catalog::remove);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private long estimatedBytes() {
+        lock.readLock().lock();
+        try {
+            return catalog.estimatedBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void put(PackedBookCatalog target, BookView view) {
+        target.put(view.id(), view.title(), view.author(), view.isbn(), view.totalCopies(), view.availableCopies(),
+                view.createdAt(), view.updatedAt());
+    }
+
+    /**
+     * Book IDs and update times read by a sync, in primitive arrays
+     */
+    private static final class VersionBuffer {
+        private int[] ids = new int[1024];
+        private long[] updatedAt = new long[1024];
+        private int size;
+
+        private void add(BookVersionView version) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                updatedAt = Arrays.copyOf(updatedAt, size * 2);
+            }
+            ids[size] = version.bookId();
+            updatedAt[size] = PackedBookCatalog.toMicros(version.updatedAt());
+            size++;
+        }
+    }
+}
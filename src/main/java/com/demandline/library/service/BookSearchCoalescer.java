@@ -0,0 +1,134 @@
+package com.demandline.library.service;
+
+import com.demandline.library.observability.MetricsService;
+import com.demandline.library.service.model.Book;
+import com.demandline.library.service.model.filter.BookFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Single-flight coalescing of identical concurrent book searches
+ * The first request for a search runs the query; identical requests arriving while it is in flight
+ * wait for and share its result instead of running the same query again. Nothing is kept once the
+ * query completes, so results are never older than a query that was already running when the
+ * request arrived. Searches are keyed by the filter the query actually uses (ISBN, then title,
+ * then author), with case-insensitive terms lower-cased, plus availability and page.
+ * A follower that waits longer than maxWaitMillis runs the query itself.
+ */
+@Service
+@Slf4j
+public class BookSearchCoalescer {
+
+    @Value("${library.search.coalescing.enabled:true}")
+    private boolean enabled;
+
+    @Value("${library.search.coalescing.maxWaitMillis:5000}")
+    private long maxWaitMillis;
+
+    private final BookService bookService;
+    private final MetricsService metricsService;
+    private final ConcurrentHashMap<SearchKey, InFlightSearch> inFlight = new ConcurrentHashMap<>();
+
+    public BookSearchCoalescer(BookService bookService, MetricsService metricsService) {
+        this.bookService = bookService;
+        this.metricsService = metricsService;
+        metricsService.registerSearchInFlightGauge(inFlight::size);
+    }
+
+    /**
+     * Search books, sharing the result of an identical search already in flight
+     * @param filter search filter
+     * @param limit page size
+     * @param offset page offset
+     * @return matching books; shared between coalesced requests, so read-only
+     */
+    public List<Book> getAllBooks(BookFilter filter, int limit, int offset) {
+        if (!enabled) {
+            return bookService.getAllBooks(filter, limit, offset);
+        }
+
+        SearchKey key = SearchKey.of(filter, limit, offset);
+        InFlightSearch search = new InFlightSearch();
+        InFlightSearch leader = inFlight.putIfAbsent(key, search);
+        if (leader != null) {
+            leader.followers.incrementAndGet();
+            metricsService.incrementSearchCoalesced();
+            List<Book> shared = awaitLeader(leader);
+            if (shared != null) {
+                return shared;
+            }
+            metricsService.incrementSearchCoalescingTimeout();
+            return bookService.getAllBooks(filter, limit, offset);
+        }
+
+        metricsService.incrementSearchExecuted();
+        try {
+            List<Book> books = Collections.unmodifiableList(bookService.getAllBooks(filter, limit, offset));
+            search.result.complete(books);
+            return books;
+        } catch (RuntimeException e) {
+            search.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, search);
+            metricsService.recordSearchFollowers(search.followers.get());
+        }
+    }
+
+    /**
+     * @return the leader's result, or null when it did not complete in time
+     */
+    private List<Book> awaitLeader(InFlightSearch leader) {
+        try {
+            return leader.result.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Coalesced book search still running after {} ms, querying directly", maxWaitMillis);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for book search", e);
+        } catch (ExecutionException e) {
+            // Followers fail the same way the leader did, e.g. 400 for an invalid filter
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Book search failed", e.getCause());
+        }
+    }
+
+    private static final class InFlightSearch {
+        private final CompletableFuture<List<Book>> result = new CompletableFuture<>();
+        private final AtomicInteger followers = new AtomicInteger();
+    }
+
+    /**
+     * Normalized search: only the term the query uses, lower-cased when the query ignores case
+     */
+    record SearchKey(String field, String term, boolean showNotAvailable, int limit, int offset) {
+        static SearchKey of(BookFilter filter, int limit, int offset) {
+            if (filter.isbn().isPresent()) {
+                return new SearchKey("isbn", filter.isbn().get(), filter.showNotAvailable(), limit, offset);
+            }
+            if (filter.bookName().isPresent()) {
+                return new SearchKey("title", filter.bookName().get().toLowerCase(Locale.ROOT),
+                        filter.showNotAvailable(), limit, offset);
+            }
+            if (filter.authorName().isPresent()) {
+                return new SearchKey("author", filter.authorName().get().toLowerCase(Locale.ROOT),
+                        filter.showNotAvailable(), limit, offset);
+            }
+            return new SearchKey("all", "", filter.showNotAvailable(), limit, offset);
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package com.demandline.library.service;
 
 import com.demandline.library.observability.MetricsService;
+import com.demandline.library.observability.TraceAttributes;
 import com.demandline.library.repository.BookRepository;
 import com.demandline.library.repository.LoanRepository;
+import com.demandline.library.repository.OffsetLimitRequest;
 import com.demandline.library.repository.model.BookEntity;
+import com.demandline.library.repository.projection.BookView;
 import com.demandline.library.service.model.Book;
 import com.demandline.library.service.model.BookBulkImportResponse;
 import com.demandline.library.service.model.filter.BookFilter;
@@ -19,7 +22,7 @@ import org.springframework.web.multipart.MultipartFile;
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -29,13 +32,22 @@ public class BookService {
     private final BookRepository bookRepository;
     private final LoanRepository loanRepository;
     private final MetricsService metricsService;
+    private final HotTitleAvailabilityService hotTitleAvailabilityService;
+    private final BookSuggestionIndex bookSuggestionIndex;
+    private final BookCatalogIndex bookCatalogIndex;
 
     public BookService(BookRepository bookRepository,
                       LoanRepository loanRepository,
-                      MetricsService metricsService) {
+                      MetricsService metricsService,
+                      HotTitleAvailabilityService hotTitleAvailabilityService,
+                      BookSuggestionIndex bookSuggestionIndex,
+                      BookCatalogIndex bookCatalogIndex) {
         this.bookRepository = bookRepository;
         this.loanRepository = loanRepository;
         this.metricsService = metricsService;
+        this.hotTitleAvailabilityService = hotTitleAvailabilityService;
+        this.bookSuggestionIndex = bookSuggestionIndex;
+        this.bookCatalogIndex = bookCatalogIndex;
     }
 
     @Transactional
@@ -54,6 +66,8 @@ public class BookService {
                 .build();
 
         var saved = bookRepository.save(bookEntity);
+        bookSuggestionIndex.putAfterCommit(saved.getId(), saved.getTitle(), saved.getAuthor());
+        bookCatalogIndex.refreshAfterCommit(saved.getId());
         metricsService.incrementBooksCreated();
         log.info("Created book: {} (ISBN: {})", saved.getTitle(), saved.getIsbn());
         return mapToBook(saved);
@@ -79,28 +93,32 @@ public class BookService {
                 }
 
                 try {
-                    String[] fields = line.split(",");
-                    if (fields.length < 4) {
+                    BookInput parsed = parseCsvLine(line);
+                    if (parsed == null) {
                         log.warn("Invalid CSV line (not enough fields): {}", line);
                         failedCount++;
                         continue;
                     }
 
-                    String title = fields[0].trim();
-                    String author = fields[1].trim();
-                    String isbn = fields[2].trim();
-                    Integer totalCopies = Integer.parseInt(fields[3].trim());
+                    String title = parsed.title();
+                    String author = parsed.author();
+                    String isbn = parsed.isbn();
+                    Integer totalCopies = parsed.totalCopies();
 
                     // Check if book exists
                     var existingBook = bookRepository.findByIsbn(isbn);
                     if (existingBook.isPresent()) {
-                        // Update existing book
+                        // Update existing book; copies are added in one guarded UPDATE, like updateBook,
+                        // so loans and returns running meanwhile are never overwritten
                         var book = existingBook.get();
+                        bookRepository.addCopies(book.getId(), totalCopies, LocalDateTime.now());
                         book.setTitle(title);
                         book.setAuthor(author);
-                        book.setTotalCopies(book.getTotalCopies() + totalCopies);
-                        book.setAvailableCopies(book.getAvailableCopies() + totalCopies);
+                        // Only the changed title and author are written (@DynamicUpdate)
                         bookRepository.save(book);
+                        hotTitleAvailabilityService.resyncAfterCommit(book.getId());
+                        bookSuggestionIndex.putAfterCommit(book.getId(), title, author);
+                        bookCatalogIndex.refreshAfterCommit(book.getId());
                         updatedCount++;
                         log.debug("Updated book: {} (ISBN: {})", title, isbn);
                     } else {
@@ -113,6 +131,8 @@ public class BookService {
                                 .availableCopies(totalCopies)
                                 .build();
                         bookRepository.save(newBook);
+                        bookSuggestionIndex.putAfterCommit(newBook.getId(), title, author);
+                        bookCatalogIndex.refreshAfterCommit(newBook.getId());
                         importedCount++;
                         log.debug("Imported book: {} (ISBN: {})", title, isbn);
                     }
@@ -135,6 +155,20 @@ public class BookService {
 
     @Transactional
     public Book updateBook(BookUpdateInput updatedBook) {
+        // Copy counts change in one guarded UPDATE, so loans and returns running meanwhile are never overwritten
+        if (updatedBook.totalCopies() != null) {
+            int newTotal = updatedBook.totalCopies();
+            if (bookRepository.updateTotalCopies(updatedBook.id(), newTotal, LocalDateTime.now()) == 0) {
+                var current = bookRepository.findById(updatedBook.id())
+                        .orElseThrow(() -> new IllegalArgumentException("Book not found with id: " + updatedBook.id()));
+                int loanedOut = current.getTotalCopies() - current.getAvailableCopies();
+                throw new IllegalArgumentException(
+                    String.format("Cannot reduce total copies to %d. %d copies are currently loaned out.",
+                            newTotal, loanedOut));
+            }
+            hotTitleAvailabilityService.resyncAfterCommit(updatedBook.id());
+        }
+
         var bookEntity = bookRepository.findById(updatedBook.id())
                 .orElseThrow(() -> new IllegalArgumentException("Book not found with id: " + updatedBook.id()));
 
@@ -153,27 +187,10 @@ public class BookService {
             bookEntity.setIsbn(updatedBook.isbn());
         }
 
-        // Handle totalCopies update with validation
-        if (updatedBook.totalCopies() != null) {
-            int currentTotal = bookEntity.getTotalCopies();
-            int currentAvailable = bookEntity.getAvailableCopies();
-            int loanedOut = currentTotal - currentAvailable;
-            int newTotal = updatedBook.totalCopies();
-
-            // Check if reducing totalCopies below loaned out count
-            if (newTotal < loanedOut) {
-                throw new IllegalArgumentException(
-                    String.format("Cannot reduce total copies to %d. %d copies are currently loaned out.",
-                            newTotal, loanedOut));
-            }
-
-            // Update copies
-            int difference = newTotal - currentTotal;
-            bookEntity.setTotalCopies(newTotal);
-            bookEntity.setAvailableCopies(currentAvailable + difference);
-        }
-
+        // Only changed columns are written (@DynamicUpdate)
         var saved = bookRepository.save(bookEntity);
+        bookSuggestionIndex.putAfterCommit(saved.getId(), saved.getTitle(), saved.getAuthor());
+        bookCatalogIndex.refreshAfterCommit(saved.getId());
         metricsService.incrementBooksUpdated();
         log.info("Updated book: {} (ID: {})", saved.getTitle(), saved.getId());
         return mapToBook(saved);
@@ -196,51 +213,59 @@ public class BookService {
         }
 
         bookRepository.deleteById(id);
+        hotTitleAvailabilityService.resyncAfterCommit(id);
+        bookSuggestionIndex.removeAfterCommit(id);
+        bookCatalogIndex.refreshAfterCommit(id);
         metricsService.incrementBooksDeleted();
         log.info("Deleted book: {} (ID: {})", bookEntity.getTitle(), bookEntity.getId());
     }
 
+    @Transactional(readOnly = true)
     public List<Book> getAllBooks(BookFilter filter, int limit, int offset) {
-        List<BookEntity> bookEntities;
-
-        // Apply filters
-        if (filter.bookName().isPresent() || filter.authorName().isPresent() || filter.isbn().isPresent()) {
-            // If any filter is present, use search
-            if (filter.isbn().isPresent()) {
-                bookEntities = bookRepository.findByIsbn(filter.isbn().get())
-                        .map(List::of)
-                        .orElse(new ArrayList<>());
-            } else if (filter.bookName().isPresent()) {
-                String searchTerm = filter.bookName().get();
-                bookEntities = bookRepository.searchBooks(searchTerm);
-            } else if (filter.authorName().isPresent()) {
-                bookEntities = bookRepository.findByAuthorIgnoreCase(filter.authorName().get());
-            } else {
-                bookEntities = bookRepository.findAll();
-            }
-        } else {
-            // No specific filters, get all books
-            bookEntities = filter.showNotAvailable()
-                    ? bookRepository.findAll()
-                    : bookRepository.findAllAvailableBooks();
+        if (limit == 0) {
+            return List.of();
         }
-
-        // Filter by availability if needed
-        if (!filter.showNotAvailable()) {
-            bookEntities = bookEntities.stream()
-                    .filter(bookEntity -> bookEntity.getAvailableCopies() > 0)
-                    .collect(Collectors.toList());
+        var page = new OffsetLimitRequest(offset, limit);
+        boolean includeUnavailable = filter.showNotAvailable();
+        List<BookView> books;
+
+        // Filtering, availability and pagination all happen in the query
+        if (filter.isbn().isPresent()) {
+            books = bookRepository.findBookViewsByIsbn(filter.isbn().get(), includeUnavailable, page);
+        } else if (filter.bookName().isPresent()) {
+            books = bookRepository.searchBookViews(filter.bookName().get(), includeUnavailable, page);
+        } else if (filter.authorName().isPresent()) {
+            books = bookRepository.findBookViewsByAuthor(filter.authorName().get(), includeUnavailable, page);
+        } else {
+            books = bookRepository.findBookViews(includeUnavailable, page);
         }
+        TraceAttributes.recordRowsRead(books.size());
 
-        // Apply pagination
-        return bookEntities.stream()
-                .skip(offset)
-                .limit(limit)
+        return books.stream()
                 .map(this::mapToBook)
                 .collect(Collectors.toList());
     }
 
-    private Book mapToBook(BookEntity bookEntity) {
+    /**
+     * Parse one bulk import line: title,author,isbn,totalCopies
+     * @param line CSV line without header
+     * @return parsed book, or null when the line has fewer than 4 fields
+     * @throws NumberFormatException if totalCopies is not a number
+     */
+    static BookInput parseCsvLine(String line) {
+        String[] fields = line.split(",");
+        if (fields.length < 4) {
+            return null;
+        }
+        return new BookInput(
+                fields[0].trim(),
+                fields[1].trim(),
+                fields[2].trim(),
+                Integer.parseInt(fields[3].trim())
+        );
+    }
+
+    Book mapToBook(BookEntity bookEntity) {
         return new Book(
                 bookEntity.getId(),
                 bookEntity.getTitle(),
@@ -252,4 +277,17 @@ public class BookService {
                 bookEntity.getUpdatedAt()
         );
     }
+
+    private Book mapToBook(BookView bookView) {
+        return new Book(
+                bookView.id(),
+                bookView.title(),
+                bookView.author(),
+                bookView.isbn(),
+                bookView.totalCopies(),
+                bookView.availableCopies(),
+                bookView.createdAt(),
+                bookView.updatedAt()
+        );
+    }
 }
@@ -0,0 +1,253 @@
+package com.demandline.library.service;
+
+import com.demandline.library.observability.MetricsService;
+import com.demandline.library.repository.BookRepository;
+import com.demandline.library.repository.projection.BookView;
+import com.demandline.library.service.model.BookSuggestion;
+import com.demandline.library.service.util.TokenTrie;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory typeahead over book titles and authors
+ * Title and author tokens (lower-cased, accents removed) map to book IDs in a compact prefix tree,
+ * so a suggestion is a few array walks under a read lock and never touches Postgres. Every query
+ * token must prefix a token of the book; candidates per token are capped at maxCandidates.
+ * The index is loaded at startup, updated after each committed book change on this node and
+ * rebuilt periodically to pick up changes made through other nodes; changes committed while a
+ * rebuild is loading are replayed onto the rebuilt index.
+ */
+@Service
+@Slf4j
+public class BookSuggestionIndex {
+    private static final Comparator<BookSuggestion> BY_TITLE = Comparator
+            .comparing(BookSuggestion::title, String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(BookSuggestion::bookId);
+
+    @Value("${library.search.suggest.enabled:true}")
+    private boolean enabled;
+
+    @Value("${library.search.suggest.maxResults:20}")
+    private int maxResults;
+
+    @Value("${library.search.suggest.maxCandidates:1000}")
+    private int maxCandidates;
+
+    private final BookRepository bookRepository;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final MetricsService metricsService;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private TokenTrie trie = new TokenTrie();
+    private Map<Integer, BookSuggestion> books = new HashMap<>();
+    // Changes committed while a rebuild is loading, null when no rebuild is running
+    private List<Change> changesDuringRebuild;
+
+    public BookSuggestionIndex(BookRepository bookRepository,
+                               TransactionTemplate transactionTemplate,
+                               MetricsService metricsService) {
+        this.bookRepository = bookRepository;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.metricsService = metricsService;
+        metricsService.registerSuggestIndexGauge(this::size);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Periodic rebuild from the books table
+     */
+    @Scheduled(fixedDelayString = "${library.search.suggest.rebuildIntervalMillis:600000}",
+               initialDelayString = "${library.search.suggest.rebuildIntervalMillis:600000}")
+    public void rebuildOnSchedule() {
+        rebuild();
+    }
+
+    /**
+     * Suggest books whose title or author tokens start with every token of the query
+     * @param query text typed so far
+     * @param limit maximum suggestions, capped at maxResults
+     * @return suggestions ordered by title
+     */
+    public List<BookSuggestion> suggest(String query, int limit) {
+        String[] tokens = TokenTrie.tokenize(query);
+        if (!enabled || tokens.length == 0 || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            int[] ids = null;
+            for (String token : tokens) {
+                int[] matches = trie.collect(token, maxCandidates);
+                ids = ids == null ? matches : TokenTrie.intersect(ids, matches);
+                if (ids.length == 0) {
+                    return List.of();
+                }
+            }
+            List<BookSuggestion> matched = new ArrayList<>(ids.length);
+            for (int id : ids) {
+                matched.add(books.get(id));
+            }
+            matched.sort(BY_TITLE);
+            return List.copyOf(matched.subList(0, Math.min(Math.min(limit, maxResults), matched.size())));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Index a created or updated book once the surrounding transaction commits
+     * @param bookId the book ID
+     * @param title the book title
+     * @param author the book author
+     */
+    public void putAfterCommit(Integer bookId, String title, String author) {
+        afterCommit(new Change(bookId, new BookSuggestion(bookId, title, author)));
+    }
+
+    /**
+     * Drop a deleted book once the surrounding transaction commits
+     * @param bookId the book ID
+     */
+    public void removeAfterCommit(Integer bookId) {
+        afterCommit(new Change(bookId, null));
+    }
+
+    /**
+     * Reload the whole index from the books table
+     * @return number of books indexed
+     */
+    public int rebuild() {
+        if (!enabled) {
+            return 0;
+        }
+        lock.writeLock().lock();
+        try {
+            if (changesDuringRebuild != null) {
+                return books.size();
+            }
+            changesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long start = System.nanoTime();
+        TokenTrie loadedTrie = new TokenTrie();
+        Map<Integer, BookSuggestion> loadedBooks = new HashMap<>();
+        try {
+            readOnlyTransactionTemplate.executeWithoutResult(status -> {
+                try (Stream<BookView> views = bookRepository.streamAllViews()) {
+                    views.forEach(view -> apply(loadedTrie, loadedBooks,
+                            new Change(view.id(), new BookSuggestion(view.id(), view.title(), view.author()))));
+                }
+            });
+        } catch (DataAccessException e) {
+            log.error("Failed to load the book suggestion index", e);
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return size();
+        }
+
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild.forEach(change -> apply(loadedTrie, loadedBooks, change));
+            changesDuringRebuild = null;
+            trie = loadedTrie;
+            books = loadedBooks;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        metricsService.getSuggestIndexRebuildTimer().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        log.info("Loaded {} books into the suggestion index ({} trie nodes)", loadedBooks.size(), loadedTrie.nodeCount());
+        return loadedBooks.size();
+    }
+
+    /**
+     * @return number of books indexed
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return books.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void afterCommit(Change change) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applyNow(change);
+                }
+            });
+        } else {
+            applyNow(change);
+        }
+    }
+
+    private void applyNow(Change change) {
+        lock.writeLock().lock();
+        try {
+            apply(trie, books, change);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void apply(TokenTrie trie, Map<Integer, BookSuggestion> books, Change change) {
+        BookSuggestion previous = change.book() == null ? books.remove(change.bookId()) : books.put(change.bookId(), change.book());
+        if (previous != null) {
+            for (String token : tokensOf(previous)) {
+                trie.remove(token, previous.bookId());
+            }
+        }
+        if (change.book() != null) {
+            for (String token : tokensOf(change.book())) {
+                trie.add(token, change.bookId());
+            }
+        }
+    }
+
+    private static String[] tokensOf(BookSuggestion book) {
+        return TokenTrie.tokenize(book.title() + " " + book.author());
+    }
+
+    /**
+     * A book put into (book set) or removed from (book null) the index
+     */
+    private record Change(Integer bookId, BookSuggestion book) {}
+}
@@ -0,0 +1,267 @@
+package com.demandline.library.service;
+
+import com.demandline.library.observability.MetricsService;
+import com.demandline.library.observability.TraceAttributes;
+import com.demandline.library.repository.BookRepository;
+import com.demandline.library.repository.LoanRepository;
+import com.demandline.library.repository.MemberRepository;
+import com.demandline.library.repository.projection.ActiveLoanView;
+import com.demandline.library.repository.projection.BookAvailabilityView;
+import com.demandline.library.repository.projection.BookIsbnView;
+import com.demandline.library.service.model.BulkReturnItemResult;
+import com.demandline.library.service.model.input.BulkReturnItemInput;
+import com.demandline.library.service.util.RedisLockUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Returns many copies at once, e.g. when a book drop is emptied
+ * Each copy is identified by book ID or ISBN and matched server-side to the most overdue active
+ * loan of its book. Member locks are taken in ascending member ID order, then the matched loans,
+ * their books and their members are locked in ID order and updated with one set-based statement
+ * each, in a single transaction; copies wanted by waiting holds are set aside for them instead of
+ * going back on the shelf. Every copy gets its own result; a copy that cannot be matched or
+ * whose member stays locked does not affect the others. Waiting for busy members shares one
+ * deadline of lockWaitSeconds for the whole request. Each bulk return counts as one return
+ * request in the return metrics.
+ */
+@Service
+@Slf4j
+public class BulkReturnService {
+
+    @Value("${library.loans.bulkReturn.maxItems:500}")
+    private int maxItems;
+
+    @Value("${library.loans.bulkReturn.lockWaitSeconds:10}")
+    private long lockWaitSeconds;
+
+    private final LoanRepository loanRepository;
+    private final BookRepository bookRepository;
+    private final MemberRepository memberRepository;
+    private final RedisLockUtil redisLockUtil;
+    private final TransactionTemplate transactionTemplate;
+    private final HotTitleAvailabilityService hotTitleAvailabilityService;
+    private final OverdueLoanService overdueLoanService;
+    private final MemberEligibilityService memberEligibilityService;
+    private final HoldService holdService;
+    private final ActiveLoanWindow activeLoanWindow;
+    private final MetricsService metricsService;
+
+    public BulkReturnService(LoanRepository loanRepository,
+                             BookRepository bookRepository,
+                             MemberRepository memberRepository,
+                             RedisLockUtil redisLockUtil,
+                             TransactionTemplate transactionTemplate,
+                             HotTitleAvailabilityService hotTitleAvailabilityService,
+                             OverdueLoanService overdueLoanService,
+                             MemberEligibilityService memberEligibilityService,
+                             HoldService holdService,
+                             ActiveLoanWindow activeLoanWindow,
+                             MetricsService metricsService) {
+        this.loanRepository = loanRepository;
+        this.bookRepository = bookRepository;
+        this.memberRepository = memberRepository;
+        this.redisLockUtil = redisLockUtil;
+        this.transactionTemplate = transactionTemplate;
+        this.hotTitleAvailabilityService = hotTitleAvailabilityService;
+        this.overdueLoanService = overdueLoanService;
+        this.memberEligibilityService = memberEligibilityService;
+        this.holdService = holdService;
+        this.activeLoanWindow = activeLoanWindow;
+        this.metricsService = metricsService;
+    }
+
+    /**
+     * Return copies without knowing their loans
+     * @param items one entry per returned copy, identified by book ID or, when absent, by ISBN
+     * @return one result per item, in the same order
+     */
+    public List<BulkReturnItemResult> returnBooks(List<BulkReturnItemInput> items) {
+        return metricsService.recordReturn(() -> {
+            if (items == null || items.isEmpty()) {
+                throw new IllegalArgumentException("No books specified for return");
+            }
+            if (items.size() > maxItems) {
+                throw new IllegalArgumentException("Cannot return more than " + maxItems + " books at once");
+            }
+
+            List<Integer> bookIds = resolveBookIds(items);
+            BulkReturnItemResult[] results = new BulkReturnItemResult[items.size()];
+            ActiveLoanView[] matched = matchActiveLoans(items, bookIds, results);
+
+            Map<Integer, String> heldLocks = acquireMemberLocks(Arrays.stream(matched)
+                    .filter(Objects::nonNull)
+                    .map(ActiveLoanView::memberId)
+                    .collect(Collectors.toSet()));
+            try {
+                List<ActiveLoanView> lockedLoans = new ArrayList<>();
+                for (int i = 0; i < matched.length; i++) {
+                    ActiveLoanView loan = matched[i];
+                    if (loan == null) {
+                        continue;
+                    }
+                    if (heldLocks.containsKey(loan.memberId())) {
+                        lockedLoans.add(loan);
+                    } else {
+                        results[i] = BulkReturnItemResult.failed(loan.bookId(), items.get(i).isbn(), loan.loanId(),
+                                loan.memberId(), "Member is busy, try again later");
+                    }
+                }
+
+                Set<Integer> returnedLoanIds = lockedLoans.isEmpty()
+                        ? Set.of()
+                        : transactionTemplate.execute(status -> applyReturns(lockedLoans));
+                for (int i = 0; i < matched.length; i++) {
+                    ActiveLoanView loan = matched[i];
+                    if (loan == null || results[i] != null) {
+                        continue;
+                    }
+                    results[i] = returnedLoanIds.contains(loan.loanId())
+                            ? BulkReturnItemResult.returned(loan.bookId(), items.get(i).isbn(), loan.loanId(), loan.memberId())
+                            : BulkReturnItemResult.failed(loan.bookId(), items.get(i).isbn(), loan.loanId(), loan.memberId(),
+                                    "Loan already returned: " + loan.loanId());
+                }
+                metricsService.incrementBooksReturned(returnedLoanIds.size());
+                log.info("Bulk return of {} copies: {} returned over {} members",
+                        items.size(), returnedLoanIds.size(), heldLocks.size());
+            } finally {
+                heldLocks.forEach((memberId, lockValue) -> redisLockUtil.releaseLock("member:" + memberId, lockValue));
+            }
+            return List.of(results);
+        });
+    }
+
+    private List<Integer> resolveBookIds(List<BulkReturnItemInput> items) {
+        Set<String> isbns = items.stream()
+                .filter(item -> item.bookId() == null && item.isbn() != null && !item.isbn().isBlank())
+                .map(item -> item.isbn().trim())
+                .collect(Collectors.toSet());
+        Map<String, Integer> bookIdsByIsbn = isbns.isEmpty()
+                ? Map.of()
+                : bookRepository.findIdsByIsbnIn(isbns).stream()
+                        .collect(Collectors.toMap(BookIsbnView::isbn, BookIsbnView::bookId));
+        return items.stream()
+                .map(item -> item.bookId() != null || item.isbn() == null
+                        ? item.bookId()
+                        : bookIdsByIsbn.get(item.isbn().trim()))
+                .toList();
+    }
+
+    private ActiveLoanView[] matchActiveLoans(List<BulkReturnItemInput> items, List<Integer> bookIds,
+                                              BulkReturnItemResult[] results) {
+        Set<Integer> distinctBookIds = bookIds.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<Integer, Deque<ActiveLoanView>> activeLoans = distinctBookIds.isEmpty()
+                ? Map.of()
+                : loanRepository.findActiveLoansByBookIdIn(distinctBookIds, activeLoanWindow.oldestActive()).stream()
+                        .collect(Collectors.groupingBy(ActiveLoanView::bookId,
+                                Collectors.toCollection(ArrayDeque::new)));
+
+        // Several copies of the same book close its active loans one by one, most overdue first
+        ActiveLoanView[] matched = new ActiveLoanView[items.size()];
+        for (int i = 0; i < items.size(); i++) {
+            BulkReturnItemInput item = items.get(i);
+            Integer bookId = bookIds.get(i);
+            if (bookId == null) {
+                results[i] = BulkReturnItemResult.failed(null, item.isbn(), null, null, item.isbn() == null || item.isbn().isBlank()
+                        ? "Book ID or ISBN is required"
+                        : "Book not found: " + item.isbn());
+                continue;
+            }
+            Deque<ActiveLoanView> loans = activeLoans.get(bookId);
+            matched[i] = loans == null ? null : loans.poll();
+            if (matched[i] == null) {
+                results[i] = BulkReturnItemResult.failed(bookId, item.isbn(), null, null,
+                        "No active loan for book: " + bookId);
+            }
+        }
+        return matched;
+    }
+
+    private Map<Integer, String> acquireMemberLocks(Set<Integer> memberIds) {
+        // Ascending member ID order, so concurrent bulk returns cannot wait on each other in a cycle.
+        // All waits share one deadline; once it passes, remaining members get a single attempt
+        long deadline = System.currentTimeMillis() + lockWaitSeconds * 1000;
+        Map<Integer, String> heldLocks = new TreeMap<>();
+        memberIds.stream().sorted().forEach(memberId -> {
+            String lockKey = "member:" + memberId;
+            String lockValue = UUID.randomUUID().toString();
+            long remaining = deadline - System.currentTimeMillis();
+            if (redisLockUtil.acquireLock(lockKey, lockValue)
+                    || (remaining > 0 && redisLockUtil.waitForLockMillis(lockKey, remaining)
+                            && redisLockUtil.acquireLock(lockKey, lockValue))) {
+                heldLocks.put(memberId, lockValue);
+            }
+        });
+        return heldLocks;
+    }
+
+    private Set<Integer> applyReturns(List<ActiveLoanView> loans) {
+        // Loans returned since they were matched drop out here
+        LocalDateTime oldestActive = activeLoanWindow.oldestActive();
+        List<Integer> loanIds = loanRepository.lockActiveByIdIn(loans.stream().map(ActiveLoanView::loanId).toList(), oldestActive);
+        if (loanIds.isEmpty()) {
+            return Set.of();
+        }
+        Set<Integer> returned = new HashSet<>(loanIds);
+        List<ActiveLoanView> returnedLoans = loans.stream().filter(loan -> returned.contains(loan.loanId())).toList();
+        Set<Integer> memberIds = returnedLoans.stream().map(ActiveLoanView::memberId).collect(Collectors.toSet());
+
+        // Books, then members, each locked in ascending ID order like the single-member paths
+        bookRepository.lockAllByIdIn(returnedLoans.stream().map(ActiveLoanView::bookId).collect(Collectors.toSet()));
+        memberRepository.lockAllByIdIn(memberIds);
+
+        LocalDateTime now = LocalDateTime.now();
+        loanRepository.markReturned(loanIds, oldestActive, now);
+
+        // Copies go to each book's waiting holds first; only the rest go back on the shelf
+        List<Integer> shelvedLoanIds = new ArrayList<>();
+        List<Integer> hotBookIds = new ArrayList<>();
+        returnedLoans.stream()
+                .collect(Collectors.groupingBy(ActiveLoanView::bookId, TreeMap::new,
+                        Collectors.mapping(ActiveLoanView::loanId, Collectors.toList())))
+                .forEach((bookId, bookLoanIds) -> {
+                    int held = holdService.allocateCopies(bookId, bookLoanIds.size(), now);
+                    shelvedLoanIds.addAll(bookLoanIds.subList(held, bookLoanIds.size()));
+                    if (held < bookLoanIds.size() && hotTitleAvailabilityService.isHotTitle(bookId)) {
+                        hotBookIds.add(bookId);
+                    }
+                });
+        if (!shelvedLoanIds.isEmpty()) {
+            // The UPDATE caps available copies at total copies, so hot title counters get the copies
+            // actually added, read from the locked rows around it
+            Map<Integer, Integer> before = availableCopies(hotBookIds);
+            bookRepository.addReturnedCopies(shelvedLoanIds, now);
+            Map<Integer, Integer> after = availableCopies(hotBookIds);
+            after.forEach((bookId, copies) ->
+                    hotTitleAvailabilityService.adjustAfterCommit(bookId, copies - before.getOrDefault(bookId, copies)));
+        }
+        memberRepository.recordBulkReturns(loanIds, now);
+        overdueLoanService.removeAfterCommit(loanIds);
+        memberIds.forEach(memberEligibilityService::evictAfterCommit);
+        TraceAttributes.recordRowsWritten(loanIds.size());
+        return returned;
+    }
+
+    private Map<Integer, Integer> availableCopies(List<Integer> bookIds) {
+        return bookIds.isEmpty()
+                ? Map.of()
+                : bookRepository.findAvailabilityByIdIn(bookIds).stream()
+                        .collect(Collectors.toMap(BookAvailabilityView::bookId, BookAvailabilityView::availableCopies));
+    }
+}
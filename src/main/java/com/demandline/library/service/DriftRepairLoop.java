@@ -0,0 +1,104 @@
+package com.demandline.library.service;
+
+import com.demandline.library.repository.projection.DriftView;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Verify-and-repair loop shared by the counter consistency jobs
+ * Finds drifted rows with one aggregate query and, when repair is requested, fixes at most a
+ * configured number of them in small batches. Each batch runs in its own short transaction that
+ * locks the rows in id order (the same order the loan path uses) before repairing them, so
+ * concurrent borrows and returns on those rows wait for at most one batch.
+ */
+@Slf4j
+class DriftRepairLoop<V extends DriftView> {
+    private static final int LOGGED_ROWS = 10;
+
+    private final String rows;
+    private final TransactionTemplate transactionTemplate;
+    private final Timer verifyTimer;
+    private final Supplier<List<V>> findDrift;
+    private final Consumer<List<Integer>> lock;
+    private final ToIntFunction<List<Integer>> repair;
+
+    /**
+     * @param rows plural noun of the checked rows, used in log messages
+     * @param findDrift query returning every drifted row
+     * @param lock locks the given rows in id order
+     * @param repair recomputes the given locked rows, returning how many changed
+     */
+    DriftRepairLoop(String rows,
+                    TransactionTemplate transactionTemplate,
+                    Timer verifyTimer,
+                    Supplier<List<V>> findDrift,
+                    Consumer<List<Integer>> lock,
+                    ToIntFunction<List<Integer>> repair) {
+        this.rows = rows;
+        this.transactionTemplate = transactionTemplate;
+        this.verifyTimer = verifyTimer;
+        this.findDrift = findDrift;
+        this.lock = lock;
+        this.repair = repair;
+    }
+
+    /**
+     * @param repair whether drifted rows are repaired
+     * @param batchSize rows repaired per transaction
+     * @param maxPerRun rows repaired at most by this run
+     */
+    Result<V> run(boolean repair, int batchSize, int maxPerRun) {
+        long start = System.nanoTime();
+        List<V> drifted = verifyTimer.record(this::findDrift);
+        long driftTotal = drifted.stream().mapToLong(view -> Math.abs(view.drift())).sum();
+
+        if (!drifted.isEmpty()) {
+            log.warn("Drift on {} {} (total {}), first: {}",
+                    drifted.size(), rows, driftTotal, drifted.subList(0, Math.min(LOGGED_ROWS, drifted.size())));
+        }
+
+        int repaired = 0;
+        if (repair && !drifted.isEmpty()) {
+            List<Integer> ids = drifted.stream()
+                    .filter(DriftView::needsRepair)
+                    .limit(maxPerRun)
+                    .map(DriftView::rowId)
+                    .toList();
+            for (int from = 0; from < ids.size(); from += batchSize) {
+                repaired += repairBatch(ids.subList(from, Math.min(from + batchSize, ids.size())));
+            }
+            log.info("Repaired {} {}", repaired, rows);
+        }
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        return new Result<>(drifted, driftTotal, repaired, elapsedMillis);
+    }
+
+    private List<V> findDrift() {
+        // Read-write transaction so the check sees the primary, never a lagging replica
+        return transactionTemplate.execute(status -> findDrift.get());
+    }
+
+    private int repairBatch(List<Integer> ids) {
+        Integer result = transactionTemplate.execute(status -> {
+            lock.accept(ids);
+            return repair.applyAsInt(ids);
+        });
+        return result == null ? 0 : result;
+    }
+
+    /**
+     * @param drifted every drifted row found
+     * @param driftTotal sum of the absolute drift of those rows
+     * @param repaired rows changed by the repair
+     */
+    record Result<V>(List<V> drifted, long driftTotal, int repaired, long elapsedMillis) {
+    }
+}
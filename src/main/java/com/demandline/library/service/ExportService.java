@@ -0,0 +1,214 @@
+package com.demandline.library.service;
+
+import com.demandline.library.repository.BookRepository;
+import com.demandline.library.repository.LoanRepository;
+import com.demandline.library.repository.MemberRepository;
+import com.demandline.library.repository.model.BookEntity;
+import com.demandline.library.repository.model.LoanEntity;
+import com.demandline.library.repository.model.MemberEntity;
+import com.demandline.library.service.model.ExportFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Export Service
+ * Streams full loan, book and member tables as CSV or NDJSON without materializing them.
+ * Rows are read through a forward-only JPA stream with a JDBC fetch size and the persistence
+ * context is cleared every few hundred rows, so memory stays flat regardless of table size.
+ */
+@Service
+@Slf4j
+public class ExportService {
+    private static final List<String> LOAN_HEADER = List.of(
+            "loanId", "memberId", "memberName", "memberEmail", "bookId", "bookTitle", "isbn",
+            "borrowDate", "dueDate", "returnDate");
+    private static final List<String> BOOK_HEADER = List.of(
+            "bookId", "title", "author", "isbn", "totalCopies", "availableCopies", "createdAt", "updatedAt");
+    private static final List<String> MEMBER_HEADER = List.of(
+            "memberId", "name", "email", "address", "phoneNumber", "isActive", "createdAt");
+
+    @Value("${library.export.clearEvery:500}")
+    private int clearEvery;
+
+    private final LoanRepository loanRepository;
+    private final BookRepository bookRepository;
+    private final MemberRepository memberRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public ExportService(LoanRepository loanRepository,
+                         BookRepository bookRepository,
+                         MemberRepository memberRepository,
+                         EntityManager entityManager,
+                         ObjectMapper objectMapper) {
+        this.loanRepository = loanRepository;
+        this.bookRepository = bookRepository;
+        this.memberRepository = memberRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Write every loan with member and book details
+     * @param format output format
+     * @param outputStream destination, left open
+     * @return number of rows written
+     */
+    @Transactional(readOnly = true)
+    public long exportLoans(ExportFormat format, OutputStream outputStream) throws IOException {
+        try (Stream<LoanEntity> loans = loanRepository.streamAllWithDetails()) {
+            return write(format, outputStream, LOAN_HEADER, loans, this::toLoanRow);
+        }
+    }
+
+    /**
+     * Write every book in the catalog
+     * @param format output format
+     * @param outputStream destination, left open
+     * @return number of rows written
+     */
+    @Transactional(readOnly = true)
+    public long exportBooks(ExportFormat format, OutputStream outputStream) throws IOException {
+        try (Stream<BookEntity> books = bookRepository.streamAll()) {
+            return write(format, outputStream, BOOK_HEADER, books, this::toBookRow);
+        }
+    }
+
+    /**
+     * Write every member with their user details (password excluded)
+     * @param format output format
+     * @param outputStream destination, left open
+     * @return number of rows written
+     */
+    @Transactional(readOnly = true)
+    public long exportMembers(ExportFormat format, OutputStream outputStream) throws IOException {
+        try (Stream<MemberEntity> members = memberRepository.streamAllWithUser()) {
+            return write(format, outputStream, MEMBER_HEADER, members, this::toMemberRow);
+        }
+    }
+
+    private <E> long write(ExportFormat format,
+                           OutputStream outputStream,
+                           List<String> header,
+                           Stream<E> entities,
+                           Function<E, List<Object>> toRow) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        if (format == ExportFormat.CSV) {
+            writeCsvLine(writer, header);
+        }
+
+        long rows = 0;
+        Iterator<E> iterator = entities.iterator();
+        while (iterator.hasNext()) {
+            List<Object> values = toRow.apply(iterator.next());
+            if (format == ExportFormat.CSV) {
+                writeCsvLine(writer, values);
+            } else {
+                writeJsonLine(writer, header, values);
+            }
+
+            if (++rows % clearEvery == 0) {
+                // Detach what was already written and push it to the client
+                entityManager.clear();
+                writer.flush();
+            }
+        }
+
+        writer.flush();
+        log.debug("Exported {} rows as {}", rows, format);
+        return rows;
+    }
+
+    private void writeCsvLine(Writer writer, List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(escapeCsv(values.get(i)));
+        }
+        writer.write('\n');
+    }
+
+    private void writeJsonLine(Writer writer, List<String> header, List<Object> values) throws IOException {
+        var node = objectMapper.createObjectNode();
+        for (int i = 0; i < header.size(); i++) {
+            node.set(header.get(i), objectMapper.valueToTree(values.get(i)));
+        }
+        writer.write(objectMapper.writeValueAsString(node));
+        writer.write('\n');
+    }
+
+    private static String escapeCsv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    private List<Object> toLoanRow(LoanEntity loan) {
+        MemberEntity member = loan.getMemberEntity();
+        BookEntity book = loan.getBookEntity();
+        return Arrays.asList(
+                loan.getId(),
+                member.getId(),
+                member.getUserEntity().getName(),
+                member.getUserEntity().getEmail(),
+                book.getId(),
+                book.getTitle(),
+                book.getIsbn(),
+                format(loan.getBorrowDate()),
+                format(loan.getDueDate()),
+                format(loan.getReturnDate())
+        );
+    }
+
+    private List<Object> toBookRow(BookEntity book) {
+        return Arrays.asList(
+                book.getId(),
+                book.getTitle(),
+                book.getAuthor(),
+                book.getIsbn(),
+                book.getTotalCopies(),
+                book.getAvailableCopies(),
+                format(book.getCreatedAt()),
+                format(book.getUpdatedAt())
+        );
+    }
+
+    private List<Object> toMemberRow(MemberEntity member) {
+        return Arrays.asList(
+                member.getId(),
+                member.getUserEntity().getName(),
+                member.getUserEntity().getEmail(),
+                member.getAddress(),
+                member.getPhoneNumber(),
+                member.getIsActive(),
+                format(member.getCreatedAt())
+        );
+    }
+
+    private static String format(LocalDateTime dateTime) {
+        return dateTime == null ? null : dateTime.toString();
+    }
+}
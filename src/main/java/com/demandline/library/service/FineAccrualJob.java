@@ -0,0 +1,175 @@
+package com.demandline.library.service;
+
+import com.demandline.library.observability.MetricsService;
+import com.demandline.library.repository.FineRepository;
+import com.demandline.library.repository.JobCheckpointRepository;
+import com.demandline.library.repository.LoanRepository;
+import com.demandline.library.repository.model.JobCheckpointEntity;
+import com.demandline.library.repository.projection.LoanDueDateView;
+import com.demandline.library.service.event.OverdueLoansNoticeEvent;
+import com.demandline.library.service.model.FineAccrualSummary;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Daily fine accrual job
+ * Walks active loans that are past due with a (due_date, id) keyset, one chunk at a time, and
+ * upserts their fines with a single statement per chunk. The keyset position is committed with
+ * each chunk, so a run that stops midway resumes from the last committed chunk. Fines are
+ * recomputed from the due date, so repeating a chunk for the same run date changes nothing.
+ * Off by default: the daily rate and the cap are library policy with no built-in value and must
+ * be configured before the job is enabled.
+ */
+@Service
+@Slf4j
+public class FineAccrualJob {
+    private static final String JOB_NAME = "fine-accrual";
+    private static final LocalDateTime SCAN_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Value("${library.fines.enabled:false}")
+    private boolean enabled;
+
+    @Value("${library.fines.dailyRate:}")
+    private BigDecimal dailyRate;
+
+    @Value("${library.fines.maxAmount:}")
+    private BigDecimal maxAmount;
+
+    @Value("${library.fines.chunkSize:1000}")
+    private int chunkSize;
+
+    private final LoanRepository loanRepository;
+    private final FineRepository fineRepository;
+    private final JobCheckpointRepository jobCheckpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MetricsService metricsService;
+
+    public FineAccrualJob(LoanRepository loanRepository,
+                          FineRepository fineRepository,
+                          JobCheckpointRepository jobCheckpointRepository,
+                          TransactionTemplate transactionTemplate,
+                          ApplicationEventPublisher eventPublisher,
+                          MetricsService metricsService) {
+        this.loanRepository = loanRepository;
+        this.fineRepository = fineRepository;
+        this.jobCheckpointRepository = jobCheckpointRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.metricsService = metricsService;
+    }
+
+    /**
+     * Refuse to start with fines enabled but no fine policy configured
+     */
+    @PostConstruct
+    void checkPolicy() {
+        if (enabled) {
+            requirePolicy();
+        }
+    }
+
+    /**
+     * Accrue fines through today
+     */
+    @Scheduled(cron = "${library.fines.cron:0 15 1 * * *}")
+    public void accrueDailyFines() {
+        if (enabled) {
+            run(LocalDate.now());
+        }
+    }
+
+    /**
+     * Accrue fines for all loans due before the given date
+     * Resumes from the stored checkpoint when a run for the same date did not complete
+     * @param runDate date the fines are accrued through
+     * @return summary of the work done by this call
+     */
+    public FineAccrualSummary run(LocalDate runDate) {
+        requirePolicy();
+        long start = System.nanoTime();
+        JobCheckpointEntity checkpoint = jobCheckpointRepository.findById(JOB_NAME)
+                .filter(existing -> runDate.equals(existing.getRunDate()))
+                .orElseGet(() -> JobCheckpointEntity.builder()
+                        .jobName(JOB_NAME)
+                        .runDate(runDate)
+                        .lastDueDate(SCAN_START)
+                        .lastLoanId(0)
+                        .build());
+
+        if (checkpoint.getCompletedAt() != null) {
+            log.info("Fine accrual for {} already completed at {}", runDate, checkpoint.getCompletedAt());
+            return new FineAccrualSummary(runDate, 0, 0, 0, 0);
+        }
+        if (checkpoint.getLastLoanId() > 0) {
+            log.info("Resuming fine accrual for {} after loan {}", runDate, checkpoint.getLastLoanId());
+        }
+
+        LocalDateTime dueBefore = runDate.atStartOfDay();
+        int scanned = 0;
+        int accrued = 0;
+        int chunks = 0;
+
+        while (true) {
+            List<LoanDueDateView> chunk = loanRepository.findActiveLoansDueAfter(
+                    checkpoint.getLastDueDate(), checkpoint.getLastLoanId(), dueBefore, PageRequest.of(0, chunkSize));
+            if (chunk.isEmpty()) {
+                break;
+            }
+
+            LoanDueDateView last = chunk.get(chunk.size() - 1);
+            checkpoint.setLastDueDate(last.dueDate());
+            checkpoint.setLastLoanId(last.id());
+            int chunkAccrued = metricsService.getFineChunkTimer().record(() -> accrueChunk(chunk, checkpoint));
+
+            scanned += chunk.size();
+            accrued += chunkAccrued;
+            chunks++;
+            metricsService.incrementFineLoansScanned(chunk.size());
+            metricsService.incrementFinesAccrued(chunkAccrued);
+
+            if (chunk.size() < chunkSize) {
+                break;
+            }
+        }
+
+        checkpoint.setCompletedAt(LocalDateTime.now());
+        jobCheckpointRepository.save(checkpoint);
+
+        long elapsedNanos = System.nanoTime() - start;
+        metricsService.getFineJobTimer().record(elapsedNanos, TimeUnit.NANOSECONDS);
+        var summary = new FineAccrualSummary(runDate, scanned, accrued, chunks, elapsedNanos / 1_000_000);
+        log.info("Fine accrual for {} completed: {} loans scanned, {} fines accrued, {} chunks, {} loans/s",
+                runDate, scanned, accrued, chunks, String.format("%.0f", summary.loansPerSecond()));
+        return summary;
+    }
+
+    private void requirePolicy() {
+        if (dailyRate == null || maxAmount == null) {
+            throw new IllegalStateException("Fine policy not configured: set library.fines.dailyRate and library.fines.maxAmount");
+        }
+    }
+
+    private int accrueChunk(List<LoanDueDateView> chunk, JobCheckpointEntity checkpoint) {
+        List<Integer> loanIds = chunk.stream().map(LoanDueDateView::id).toList();
+        Integer result = transactionTemplate.execute(status -> {
+            int count = fineRepository.accrueFines(loanIds, checkpoint.getRunDate(), dailyRate, maxAmount);
+            jobCheckpointRepository.save(checkpoint);
+            eventPublisher.publishEvent(new OverdueLoansNoticeEvent(checkpoint.getRunDate(), loanIds));
+            return count;
+        });
+        return result == null ? 0 : result;
+    }
+}
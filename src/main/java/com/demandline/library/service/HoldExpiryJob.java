@@ -0,0 +1,134 @@
+package com.demandline.library.service;
+
+import com.demandline.library.observability.MetricsService;
+import com.demandline.library.repository.BookRepository;
+import com.demandline.library.repository.HoldRepository;
+import com.demandline.library.repository.model.HoldEntity;
+import com.demandline.library.repository.model.HoldStatus;
+import com.demandline.library.repository.projection.BookAvailabilityView;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Hold expiry sweeper
+ * Ready holds not picked up within the pickup window are expired, each in its own short transaction,
+ * and their copy goes to the next holder or back to the shelf. The sweep also hands available copies
+ * to books that still have waiting holds, which happens when copies are added to a book or a hold is
+ * placed while the last copy is being returned.
+ */
+@Service
+@Slf4j
+public class HoldExpiryJob {
+
+    @Value("${library.holds.expiry.batchSize:100}")
+    private int batchSize;
+
+    private final HoldRepository holdRepository;
+    private final BookRepository bookRepository;
+    private final HoldService holdService;
+    private final HotTitleAvailabilityService hotTitleAvailabilityService;
+    private final TransactionTemplate transactionTemplate;
+    private final MetricsService metricsService;
+
+    public HoldExpiryJob(HoldRepository holdRepository,
+                         BookRepository bookRepository,
+                         HoldService holdService,
+                         HotTitleAvailabilityService hotTitleAvailabilityService,
+                         TransactionTemplate transactionTemplate,
+                         MetricsService metricsService) {
+        this.holdRepository = holdRepository;
+        this.bookRepository = bookRepository;
+        this.holdService = holdService;
+        this.hotTitleAvailabilityService = hotTitleAvailabilityService;
+        this.transactionTemplate = transactionTemplate;
+        this.metricsService = metricsService;
+    }
+
+    /**
+     * Scheduled sweep of expired holds and idle copies
+     */
+    @Scheduled(fixedDelayString = "${library.holds.expiry.sweepIntervalMillis:60000}")
+    public void sweepOnSchedule() {
+        LocalDateTime now = LocalDateTime.now();
+        expireHolds(now);
+        allocateAvailableCopies(now);
+        holdService.rebuildStaleQueues();
+    }
+
+    /**
+     * Expire ready holds whose pickup window ended, up to one batch
+     * @param now the current date/time
+     * @return number of holds expired
+     */
+    public int expireHolds(LocalDateTime now) {
+        List<Integer> holdIds = holdRepository.findExpiredReadyIds(now, PageRequest.of(0, batchSize));
+        int expired = 0;
+        for (Integer holdId : holdIds) {
+            if (Boolean.TRUE.equals(transactionTemplate.execute(status -> expireHold(holdId, now)))) {
+                expired++;
+            }
+        }
+        if (expired > 0) {
+            metricsService.incrementHoldsExpired(expired);
+            log.info("Expired {} holds", expired);
+        }
+        return expired;
+    }
+
+    /**
+     * Hand available copies to waiting holds, up to one batch of books
+     * @param now the current date/time
+     * @return number of copies set aside
+     */
+    public int allocateAvailableCopies(LocalDateTime now) {
+        List<Integer> bookIds = holdRepository.findBooksWithAvailableCopiesAndWaitingHolds(batchSize);
+        int allocated = 0;
+        for (Integer bookId : bookIds) {
+            Integer copies = transactionTemplate.execute(status -> allocateAvailableCopies(bookId, now));
+            allocated += copies == null ? 0 : copies;
+        }
+        if (allocated > 0) {
+            log.info("Set aside {} available copies for waiting holds", allocated);
+        }
+        return allocated;
+    }
+
+    private boolean expireHold(Integer holdId, LocalDateTime now) {
+        Integer bookId = holdRepository.findBookIdById(holdId).orElse(null);
+        if (bookId == null) {
+            return false;
+        }
+        // Book before hold, like the borrow paths; picked up or cancelled since it was found: leave it
+        bookRepository.lockAllByIdIn(List.of(bookId));
+        HoldEntity hold = holdRepository.findByIdWithLock(holdId).orElse(null);
+        if (hold == null || hold.getStatus() != HoldStatus.READY || hold.getExpiresAt().isAfter(now)) {
+            return false;
+        }
+        hold.setStatus(HoldStatus.EXPIRED);
+        holdRepository.save(hold);
+        holdService.releaseCopy(hold.getBookId(), now);
+        return true;
+    }
+
+    private int allocateAvailableCopies(Integer bookId, LocalDateTime now) {
+        // Lock the book first so loans cannot take the copies being set aside
+        bookRepository.lockAllByIdIn(List.of(bookId));
+        int available = bookRepository.findAvailabilityByIdIn(List.of(bookId)).stream()
+                .mapToInt(BookAvailabilityView::availableCopies)
+                .findFirst()
+                .orElse(0);
+        int allocated = holdService.allocateCopies(bookId, available, now);
+        if (allocated > 0) {
+            bookRepository.takeAvailableCopies(bookId, allocated, now);
+            hotTitleAvailabilityService.adjustAfterCommit(bookId, -allocated);
+        }
+        return allocated;
+    }
+}
@@ -0,0 +1,353 @@
+package com.demandline.library.service;
+
+import com.demandline.library.observability.MetricsService;
+import com.demandline.library.repository.BookRepository;
+import com.demandline.library.repository.HoldRepository;
+import com.demandline.library.repository.LoanRepository;
+import com.demandline.library.repository.MemberRepository;
+import com.demandline.library.repository.model.BookEntity;
+import com.demandline.library.repository.model.HoldEntity;
+import com.demandline.library.repository.model.HoldStatus;
+import com.demandline.library.repository.model.MemberEntity;
+import com.demandline.library.service.event.HoldsReadyEvent;
+import com.demandline.library.service.model.Hold;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Hold queues for books with no available copies
+ * Postgres is the source of truth: each book's queue is its WAITING holds in ID order, and handing a
+ * copy to the next holder is one index seek on the queue head plus one UPDATE, done in the same
+ * transaction as the return that freed the copy. A copy set aside for a READY hold stays out of
+ * available_copies until the member borrows it, cancels the hold or the pickup window passes.
+ * Each queue is mirrored in a Redis sorted set (score and member are the hold ID) so queue
+ * positions are answered without counting rows; the mirror is written after commit and a missing
+ * entry falls back to Postgres. A mirror update that fails after commit marks the queue stale in
+ * Postgres, so every node counts its positions in Postgres until the expiry sweep rebuilds it.
+ */
+@Service
+@Slf4j
+public class HoldService {
+    private static final String QUEUE_KEY_PREFIX = "holds:book:";
+    private static final List<HoldStatus> OPEN_STATUSES = List.of(HoldStatus.WAITING, HoldStatus.READY);
+
+    @Value("${library.holds.maxPerMember:5}")
+    private int maxHoldsPerMember;
+
+    @Value("${library.holds.pickupDays:3}")
+    private int pickupDays;
+
+    private final HoldRepository holdRepository;
+    private final BookRepository bookRepository;
+    private final MemberRepository memberRepository;
+    private final LoanRepository loanRepository;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final HotTitleAvailabilityService hotTitleAvailabilityService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MetricsService metricsService;
+    private final TransactionTemplate newTransactionTemplate;
+
+    public HoldService(HoldRepository holdRepository,
+                       BookRepository bookRepository,
+                       MemberRepository memberRepository,
+                       LoanRepository loanRepository,
+                       RedisTemplate<String, String> redisTemplate,
+                       HotTitleAvailabilityService hotTitleAvailabilityService,
+                       ApplicationEventPublisher eventPublisher,
+                       MetricsService metricsService,
+                       TransactionTemplate transactionTemplate) {
+        this.holdRepository = holdRepository;
+        this.bookRepository = bookRepository;
+        this.memberRepository = memberRepository;
+        this.loanRepository = loanRepository;
+        this.redisTemplate = redisTemplate;
+        this.hotTitleAvailabilityService = hotTitleAvailabilityService;
+        this.eventPublisher = eventPublisher;
+        this.metricsService = metricsService;
+        // Stale marks are written after commit, outside the request's transaction
+        this.newTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.newTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Join the queue for a book that has no available copies
+     * @param memberId the member ID
+     * @param bookId the book ID
+     * @return the new hold with its queue position
+     */
+    @Transactional
+    public Hold placeHold(Integer memberId, Integer bookId) {
+        MemberEntity memberEntity = memberRepository.findById(memberId)
+                .orElseThrow(() -> new IllegalArgumentException("Member not found"));
+        if (!Boolean.TRUE.equals(memberEntity.getIsActive())) {
+            throw new IllegalArgumentException("Member is not active");
+        }
+        BookEntity bookEntity = bookRepository.findById(bookId)
+                .orElseThrow(() -> new IllegalArgumentException("Book not found: " + bookId));
+        if (bookEntity.getAvailableCopies() > 0) {
+            throw new IllegalArgumentException("Book is available, borrow it instead: " + bookEntity.getTitle());
+        }
+        if (loanRepository.hasActiveLoan(memberId, bookId)) {
+            throw new IllegalArgumentException("Member already has this book on loan");
+        }
+        if (holdRepository.hasOpenHold(memberId, bookId)) {
+            throw new IllegalArgumentException("Member already has a hold on this book");
+        }
+        if (holdRepository.countByMemberIdAndStatusIn(memberId, OPEN_STATUSES) >= maxHoldsPerMember) {
+            throw new IllegalArgumentException("Cannot hold more than " + maxHoldsPerMember + " books at once");
+        }
+
+        HoldEntity hold;
+        try {
+            hold = holdRepository.saveAndFlush(HoldEntity.builder()
+                    .memberId(memberId)
+                    .bookId(bookId)
+                    .status(HoldStatus.WAITING)
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request placed the same hold first
+            throw new IllegalArgumentException("Member already has a hold on this book");
+        }
+
+        Integer holdId = hold.getId();
+        updateQueueAfterCommit(bookId, () -> redisTemplate.opsForZSet().add(queueKey(bookId), String.valueOf(holdId), holdId));
+        metricsService.incrementHoldsPlaced();
+        return mapEntityToHold(hold, holdRepository.countWaitingUpTo(bookId, holdId));
+    }
+
+    /**
+     * Cancel an open hold; a copy set aside for it goes to the next holder or back to the shelf
+     * @param holdId the hold ID
+     * @return the cancelled hold
+     */
+    @Transactional
+    public Hold cancelHold(Integer holdId) {
+        Integer bookId = holdRepository.findBookIdById(holdId)
+                .orElseThrow(() -> new IllegalArgumentException("Hold not found: " + holdId));
+        // Book before hold, the order of the borrow paths, so a concurrent pickup cannot deadlock with the cancel
+        bookRepository.lockAllByIdIn(List.of(bookId));
+        HoldEntity hold = holdRepository.findByIdWithLock(holdId)
+                .orElseThrow(() -> new IllegalArgumentException("Hold not found: " + holdId));
+        if (!OPEN_STATUSES.contains(hold.getStatus())) {
+            throw new IllegalArgumentException("Hold is already " + hold.getStatus().name().toLowerCase() + ": " + holdId);
+        }
+
+        boolean hadCopy = hold.getStatus() == HoldStatus.READY;
+        LocalDateTime now = LocalDateTime.now();
+        hold.setStatus(HoldStatus.CANCELLED);
+        holdRepository.save(hold);
+        if (hadCopy) {
+            releaseCopy(hold.getBookId(), now);
+        } else {
+            removeFromQueueAfterCommit(hold.getBookId(), List.of(holdId));
+        }
+        metricsService.incrementHoldsCancelled();
+        return mapEntityToHold(hold, null);
+    }
+
+    /**
+     * Get the open holds of a member, with the queue position of each waiting hold
+     * @param memberId the member ID
+     * @return WAITING and READY holds ordered by ID
+     */
+    @Transactional(readOnly = true)
+    public List<Hold> getOpenHoldsByMemberId(Integer memberId) {
+        List<HoldEntity> holds = holdRepository.findByMemberIdAndStatusInOrderById(memberId, OPEN_STATUSES);
+        Set<Integer> waitingBookIds = holds.stream()
+                .filter(hold -> hold.getStatus() == HoldStatus.WAITING)
+                .map(HoldEntity::getBookId)
+                .collect(Collectors.toSet());
+        Set<Integer> staleBookIds = waitingBookIds.isEmpty()
+                ? Set.of()
+                : new HashSet<>(holdRepository.findStaleQueueBookIds(waitingBookIds));
+        return holds.stream()
+                .map(hold -> mapEntityToHold(hold,
+                        hold.getStatus() == HoldStatus.WAITING ? queuePosition(hold, staleBookIds) : null))
+                .toList();
+    }
+
+    /**
+     * Set returned copies of a book aside for its oldest waiting holds
+     * Runs in the caller's transaction; copies not taken by a hold must be put back on the shelf by the caller
+     * @param bookId the book ID
+     * @param copies number of copies returned
+     * @param now the current date/time
+     * @return number of copies set aside, at most copies
+     */
+    @Transactional
+    public int allocateCopies(Integer bookId, int copies, LocalDateTime now) {
+        if (copies <= 0) {
+            return 0;
+        }
+        List<Integer> holdIds = holdRepository.lockNextWaiting(bookId, copies);
+        if (holdIds.isEmpty()) {
+            return 0;
+        }
+        int allocated = holdRepository.markReady(holdIds, now, now.plusDays(pickupDays));
+        removeFromQueueAfterCommit(bookId, holdIds);
+        eventPublisher.publishEvent(new HoldsReadyEvent(bookId, holdIds));
+        metricsService.incrementHoldsReady(allocated);
+        return allocated;
+    }
+
+    /**
+     * Hand a copy that was set aside to the next holder, or put it back on the shelf
+     * Runs in the caller's transaction, after the hold that had the copy left READY
+     * @param bookId the book ID
+     * @param now the current date/time
+     */
+    @Transactional
+    public void releaseCopy(Integer bookId, LocalDateTime now) {
+        if (allocateCopies(bookId, 1, now) == 0
+                && bookRepository.incrementAvailableCopies(bookId, 1, now) == 1) {
+            hotTitleAvailabilityService.adjustAfterCommit(bookId, 1);
+        }
+    }
+
+    /**
+     * Fulfill the ready hold of a member for a book, if any
+     * Runs in the borrowing transaction; a fulfilled hold's copy is already out of available_copies
+     * @param memberId the member ID
+     * @param bookId the book ID
+     * @param now the current date/time
+     * @return whether a copy was set aside for the member
+     */
+    @Transactional
+    public boolean fulfillReadyHold(Integer memberId, Integer bookId, LocalDateTime now) {
+        if (holdRepository.fulfillReady(memberId, bookId, now) == 0) {
+            return false;
+        }
+        metricsService.incrementHoldsFulfilled();
+        return true;
+    }
+
+    /**
+     * Find the books among the given ones with a copy set aside for a member
+     * @param memberId the member ID
+     * @param bookIds the book IDs
+     * @return IDs of the books with a ready hold
+     */
+    @Transactional(readOnly = true)
+    public Set<Integer> findReadyBookIds(Integer memberId, Collection<Integer> bookIds) {
+        return bookIds.isEmpty() ? Set.of() : new HashSet<>(holdRepository.findReadyBookIds(memberId, bookIds));
+    }
+
+    /**
+     * Rebuild the queue mirrors that missed an update from the WAITING holds in Postgres
+     * @return number of queues rebuilt
+     */
+    public int rebuildStaleQueues() {
+        int rebuilt = 0;
+        for (Integer bookId : holdRepository.findAllStaleQueueBookIds()) {
+            // Cleared first, so a failure marked by another node while rebuilding keeps the queue stale
+            newTransactionTemplate.executeWithoutResult(status -> holdRepository.clearQueueStale(bookId));
+            try {
+                String key = queueKey(bookId);
+                redisTemplate.delete(key);
+                Set<ZSetOperations.TypedTuple<String>> tuples = holdRepository.findWaitingIdsByBookId(bookId).stream()
+                        .map(holdId -> new DefaultTypedTuple<>(String.valueOf(holdId), holdId.doubleValue()))
+                        .collect(Collectors.toSet());
+                if (!tuples.isEmpty()) {
+                    redisTemplate.opsForZSet().add(key, tuples);
+                }
+                rebuilt++;
+            } catch (RuntimeException e) {
+                markQueueStale(bookId);
+                log.warn("Failed to rebuild the hold queue mirror of book {}", bookId, e);
+            }
+        }
+        return rebuilt;
+    }
+
+    // Helper methods
+
+    /**
+     * Queue position from the Redis mirror, counted in Postgres when the mirror is stale or has no entry
+     */
+    private Long queuePosition(HoldEntity hold, Set<Integer> staleBookIds) {
+        if (staleBookIds.contains(hold.getBookId())) {
+            return holdRepository.countWaitingUpTo(hold.getBookId(), hold.getId());
+        }
+        Long rank = redisTemplate.opsForZSet().rank(queueKey(hold.getBookId()), String.valueOf(hold.getId()));
+        return rank != null ? rank + 1 : holdRepository.countWaitingUpTo(hold.getBookId(), hold.getId());
+    }
+
+    private void removeFromQueueAfterCommit(Integer bookId, List<Integer> holdIds) {
+        Object[] members = holdIds.stream().map(String::valueOf).toArray();
+        updateQueueAfterCommit(bookId, () -> redisTemplate.opsForZSet().remove(queueKey(bookId), members));
+    }
+
+    /**
+     * Update a queue mirror after commit; a Redis failure must not fail the committed request
+     */
+    private void updateQueueAfterCommit(Integer bookId, Runnable update) {
+        afterCommit(() -> {
+            try {
+                update.run();
+            } catch (RuntimeException e) {
+                markQueueStale(bookId);
+                log.warn("Failed to update the hold queue mirror of book {}, it will be rebuilt from the database", bookId, e);
+            }
+        });
+    }
+
+    private void markQueueStale(Integer bookId) {
+        try {
+            newTransactionTemplate.executeWithoutResult(status -> holdRepository.markQueueStale(bookId));
+        } catch (RuntimeException e) {
+            log.error("Failed to mark the hold queue mirror of book {} as stale, positions may be wrong until it changes", bookId, e);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static String queueKey(Integer bookId) {
+        return QUEUE_KEY_PREFIX + bookId;
+    }
+
+    /**
+     * Map HoldEntity to Hold DTO
+     */
+    private Hold mapEntityToHold(HoldEntity hold, Long queuePosition) {
+        return new Hold(
+                hold.getId(),
+                hold.getMemberId(),
+                hold.getBookId(),
+                hold.getStatus().name(),
+                queuePosition,
+                hold.getReadyAt(),
+                hold.getExpiresAt(),
+                hold.getCreatedAt(),
+                hold.getUpdatedAt()
+        );
+    }
+}
@@ -0,0 +1,273 @@
+package com.demandline.library.service;
+
+import com.demandline.library.observability.MetricsService;
+import com.demandline.library.repository.BookRepository;
+import com.demandline.library.repository.model.BookEntity;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Redis-backed availability counters for hot titles
+ * Keeps a per-book counter seeded from books.available_copies so hot-title borrows are accepted
+ * or rejected with one atomic Lua call. A rejection is final and never touches the book row; an
+ * accepted borrow confirms its copy with a guarded UPDATE issued as the last write of the loan
+ * transaction, so the row lock is held only until commit.
+ * Postgres stays the source of truth: reservations are compensated on rollback, a reservation
+ * the guarded UPDATE cannot confirm re-seeds the counter, and a periodic reconciler corrects any
+ * drift. When Redis is unreachable, borrows fall back to the regular path.
+ */
+@Service
+@Slf4j
+public class HotTitleAvailabilityService {
+    private static final String AVAILABLE_KEY_PREFIX = "book:available:";
+
+    // Returns the new value, -1 if the counter is not seeded, -2 if no copies are left
+    private static final RedisScript<Long> DECREMENT_IF_POSITIVE = new DefaultRedisScript<>(
+            "local v = redis.call('GET', KEYS[1]) " +
+            "if not v then return -1 end " +
+            "if tonumber(v) > 0 then return redis.call('DECR', KEYS[1]) end " +
+            "return -2",
+            Long.class);
+
+    // Sets the counter only if it still holds the value read before Postgres (ARGV[1], '' for missing)
+    private static final RedisScript<Long> SET_IF_UNCHANGED = new DefaultRedisScript<>(
+            "local v = redis.call('GET', KEYS[1]) " +
+            "if (v or '') ~= ARGV[1] then return 0 end " +
+            "redis.call('SET', KEYS[1], ARGV[2]) " +
+            "return 1",
+            Long.class);
+
+    public enum Reservation {
+        /** One copy was reserved in Redis and must be confirmed in Postgres */
+        RESERVED,
+        /** Counter says no copies are left; the borrow is rejected, the reconciler corrects a lagging counter */
+        REJECTED,
+        /** Not a hot title, counter not seeded or Redis unreachable, use the regular locked path */
+        NOT_TRACKED
+    }
+
+    @Value("${library.hotTitles.enabled:false}")
+    private boolean enabled;
+
+    @Value("${library.hotTitles.bookIds:}")
+    private Set<Integer> hotBookIds;
+
+    private final BookRepository bookRepository;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final MetricsService metricsService;
+
+    public HotTitleAvailabilityService(BookRepository bookRepository,
+                                       RedisTemplate<String, String> redisTemplate,
+                                       MetricsService metricsService) {
+        this.bookRepository = bookRepository;
+        this.redisTemplate = redisTemplate;
+        this.metricsService = metricsService;
+    }
+
+    public boolean isHotTitle(Integer bookId) {
+        return enabled && bookId != null && hotBookIds.contains(bookId);
+    }
+
+    /**
+     * Try to reserve one copy of a hot title
+     * When called inside a transaction, the reservation is given back if the transaction rolls back
+     * @param bookId the book ID
+     * @return reservation outcome
+     */
+    public Reservation tryReserve(Integer bookId) {
+        if (!isHotTitle(bookId)) {
+            return Reservation.NOT_TRACKED;
+        }
+
+        Long result;
+        try {
+            result = redisTemplate.execute(DECREMENT_IF_POSITIVE, List.of(key(bookId)));
+        } catch (RuntimeException e) {
+            // Postgres is the source of truth, a Redis outage must not fail hot-title borrows
+            log.warn("Failed to reserve hot title copy of book {}, using the regular path", bookId, e);
+            return Reservation.NOT_TRACKED;
+        }
+        if (result == null || result == -1) {
+            return Reservation.NOT_TRACKED;
+        }
+        if (result == -2) {
+            metricsService.incrementHotTitleRejected();
+            return Reservation.REJECTED;
+        }
+
+        metricsService.incrementHotTitleReserved();
+        runAfterCompletion(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    try {
+                        redisTemplate.opsForValue().increment(key(bookId));
+                    } catch (RuntimeException e) {
+                        log.warn("Failed to release hot title reservation of book {}, the reconciler will correct it", bookId, e);
+                    }
+                }
+            }
+        });
+        return Reservation.RESERVED;
+    }
+
+    /**
+     * Adjust a hot title counter once the surrounding transaction commits
+     * Used by paths that change available_copies without going through tryReserve
+     * @param bookId the book ID
+     * @param delta copies added (positive) or taken (negative)
+     */
+    public void adjustAfterCommit(Integer bookId, long delta) {
+        if (!isHotTitle(bookId) || delta == 0) {
+            return;
+        }
+        runAfterCompletion(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                // The change is committed; a Redis failure is left to the reconciler instead of failing the request
+                try {
+                    if (Boolean.TRUE.equals(redisTemplate.hasKey(key(bookId)))) {
+                        redisTemplate.opsForValue().increment(key(bookId), delta);
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("Failed to adjust hot title counter for book {}, the reconciler will correct it", bookId, e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Re-seed a hot title counter from Postgres once the surrounding transaction commits
+     * @param bookId the book ID
+     */
+    public void resyncAfterCommit(Integer bookId) {
+        if (!isHotTitle(bookId)) {
+            return;
+        }
+        runAfterCompletion(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    reconcile(Set.of(bookId));
+                } catch (RuntimeException e) {
+                    log.warn("Failed to resync hot title counter for book {}, the reconciler will correct it", bookId, e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Re-seed a hot title counter from Postgres once the surrounding transaction rolls back
+     * Used when a reservation could not be confirmed by the guarded UPDATE
+     * @param bookId the book ID
+     */
+    public void resyncAfterRollback(Integer bookId) {
+        if (!isHotTitle(bookId)) {
+            return;
+        }
+        runAfterCompletion(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    return;
+                }
+                try {
+                    reconcile(Set.of(bookId));
+                } catch (RuntimeException e) {
+                    log.warn("Failed to resync hot title counter for book {}, the reconciler will correct it", bookId, e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Seed counters on startup
+     * Read-write transaction so the seed is read from the primary, never a lagging replica
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void seed() {
+        if (enabled && !hotBookIds.isEmpty()) {
+            reconcile(hotBookIds);
+            log.info("Seeded hot title availability counters for {} books", hotBookIds.size());
+        }
+    }
+
+    /**
+     * Periodically correct drift between Redis counters and books.available_copies
+     * Read-write transaction so the counters are compared against the primary
+     */
+    @Scheduled(fixedDelayString = "${library.hotTitles.reconcileIntervalMillis:30000}")
+    @Transactional
+    public void reconcileAll() {
+        if (enabled && !hotBookIds.isEmpty()) {
+            reconcile(hotBookIds);
+        }
+    }
+
+    /**
+     * Counters are read before Postgres and only overwritten if unchanged since, so a return or
+     * loan that commits and adjusts a counter while this runs is never overwritten with a stale
+     * value; such books are left for the next run
+     */
+    private void reconcile(Set<Integer> bookIds) {
+        List<Integer> ids = List.copyOf(bookIds);
+        List<String> keys = ids.stream().map(HotTitleAvailabilityService::key).toList();
+        List<String> before = redisTemplate.opsForValue().multiGet(keys);
+        Map<Integer, BookEntity> books = bookRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(BookEntity::getId, Function.identity()));
+
+        for (int i = 0; i < ids.size(); i++) {
+            Integer bookId = ids.get(i);
+            String key = keys.get(i);
+            BookEntity book = books.get(bookId);
+            if (book == null) {
+                redisTemplate.delete(key);
+                continue;
+            }
+
+            String expected = String.valueOf(book.getAvailableCopies());
+            String current = before == null ? null : before.get(i);
+            if (!expected.equals(current)) {
+                Long set = redisTemplate.execute(SET_IF_UNCHANGED, List.of(key), current == null ? "" : current, expected);
+                if (set == null || set == 0) {
+                    log.debug("Hot title counter for book {} changed while reconciling, retrying next run", bookId);
+                    continue;
+                }
+                if (current != null) {
+                    metricsService.incrementHotTitleDrift();
+                    log.warn("Hot title counter drift for book {}: redis={}, db={}", bookId, current, expected);
+                }
+            }
+        }
+    }
+
+    private void runAfterCompletion(TransactionSynchronization synchronization) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(synchronization);
+        } else {
+            synchronization.afterCommit();
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+    }
+
+    private static String key(Integer bookId) {
+        return AVAILABLE_KEY_PREFIX + bookId;
+    }
+}
@@ -0,0 +1,89 @@
+package com.demandline.library.service;
+
+import com.demandline.library.observability.MetricsService;
+import com.demandline.library.repository.BookRepository;
+import com.demandline.library.repository.projection.BookInventoryView;
+import com.demandline.library.service.model.InventoryVerificationSummary;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Inventory consistency verifier
+ * Checks books.available_copies = total_copies - active loans - copies set aside for ready holds
+ * for the whole catalog with one aggregate query and exports the drift as gauges. When repair is
+ * enabled, drifted books are fixed in small locked batches by DriftRepairLoop. A book whose total copies fell below its loans and holds cannot
+ * be repaired: it is set to 0 available copies, counted and logged until its total is corrected.
+ */
+@Service
+@Slf4j
+public class InventoryConsistencyJob {
+
+    @Value("${library.inventory.verifier.enabled:true}")
+    private boolean enabled;
+
+    @Value("${library.inventory.verifier.repair.enabled:false}")
+    private boolean repairEnabled;
+
+    @Value("${library.inventory.verifier.repair.batchSize:100}")
+    private int repairBatchSize;
+
+    @Value("${library.inventory.verifier.repair.maxBooksPerRun:1000}")
+    private int repairMaxBooksPerRun;
+
+    private final BookRepository bookRepository;
+    private final HotTitleAvailabilityService hotTitleAvailabilityService;
+    private final MetricsService metricsService;
+    private final DriftRepairLoop<BookInventoryView> driftRepairLoop;
+
+    public InventoryConsistencyJob(BookRepository bookRepository,
+                                   TransactionTemplate transactionTemplate,
+                                   HotTitleAvailabilityService hotTitleAvailabilityService,
+                                   MetricsService metricsService) {
+        this.bookRepository = bookRepository;
+        this.hotTitleAvailabilityService = hotTitleAvailabilityService;
+        this.metricsService = metricsService;
+        this.driftRepairLoop = new DriftRepairLoop<>("books", transactionTemplate, metricsService.getInventoryVerifyTimer(),
+                bookRepository::findInventoryDrift, bookRepository::lockAllByIdIn, this::repairAvailableCopies);
+    }
+
+    /**
+     * Scheduled check, repairing drift when repair is enabled
+     */
+    @Scheduled(fixedDelayString = "${library.inventory.verifier.intervalMillis:300000}",
+               initialDelayString = "${library.inventory.verifier.intervalMillis:300000}")
+    public void verifyOnSchedule() {
+        if (enabled) {
+            run(repairEnabled);
+        }
+    }
+
+    /**
+     * Compute inventory drift for all books and optionally repair it
+     * @param repair whether drifted books are repaired, bounded by the configured max per run
+     * @return summary of the drift found and the books repaired
+     */
+    public InventoryVerificationSummary run(boolean repair) {
+        DriftRepairLoop.Result<BookInventoryView> result = driftRepairLoop.run(repair, repairBatchSize, repairMaxBooksPerRun);
+        List<BookInventoryView> unrepairable = result.drifted().stream().filter(view -> !view.repairable()).toList();
+        metricsService.recordInventoryDrift(result.drifted().size(), result.driftTotal(), unrepairable.size());
+        metricsService.incrementInventoryRepaired(result.repaired());
+
+        if (!unrepairable.isEmpty()) {
+            log.warn("Total copies below active loans plus held copies on {} books, correct their totals: {}",
+                    unrepairable.size(), unrepairable.subList(0, Math.min(10, unrepairable.size())));
+        }
+        return new InventoryVerificationSummary(result.drifted().size(), result.driftTotal(), unrepairable.size(),
+                result.repaired(), result.elapsedMillis());
+    }
+
+    private int repairAvailableCopies(List<Integer> bookIds) {
+        int count = bookRepository.repairAvailableCopies(bookIds);
+        bookIds.forEach(hotTitleAvailabilityService::resyncAfterCommit);
+        return count;
+    }
+}
@@ -0,0 +1,124 @@
+package com.demandline.library.service;
+
+import com.demandline.library.observability.MetricsService;
+import com.demandline.library.repository.LoanRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maintenance of the monthly loans partitions
+ * Partitions for the coming months are created ahead of time so new loans never land in the
+ * default partition. When archiving is enabled, months older than the retention period whose
+ * loans are all returned are detached from loans and moved to the loan_archive schema, one
+ * partition per transaction; detaching takes a brief exclusive lock on loans, bounded by the
+ * lock timeout, and a partition that cannot get it is retried on the next run.
+ */
+@Service
+@Slf4j
+public class LoanArchivalJob {
+
+    @Value("${library.loans.partitions.monthsAhead:3}")
+    private int monthsAhead;
+
+    @Value("${library.loans.archive.enabled:false}")
+    private boolean archiveEnabled;
+
+    @Value("${library.loans.archive.retentionMonths:24}")
+    private int retentionMonths;
+
+    @Value("${library.loans.archive.maxPartitionsPerRun:3}")
+    private int maxPartitionsPerRun;
+
+    @Value("${library.loans.archive.lockTimeoutMillis:2000}")
+    private int lockTimeoutMillis;
+
+    private final LoanRepository loanRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MetricsService metricsService;
+
+    public LoanArchivalJob(LoanRepository loanRepository,
+                           TransactionTemplate transactionTemplate,
+                           MetricsService metricsService) {
+        this.loanRepository = loanRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.metricsService = metricsService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        ensurePartitions(LocalDate.now());
+    }
+
+    /**
+     * Daily partition maintenance, archiving old months when enabled
+     */
+    @Scheduled(cron = "${library.loans.partitions.maintenanceCron:0 45 2 * * *}")
+    public void maintainPartitions() {
+        LocalDate today = LocalDate.now();
+        ensurePartitions(today);
+        if (archiveEnabled) {
+            archive(today.withDayOfMonth(1).minusMonths(retentionMonths));
+        }
+    }
+
+    /**
+     * Create the partitions of the current month and the configured months ahead
+     * @param today the current day
+     * @return number of partitions created
+     */
+    public int ensurePartitions(LocalDate today) {
+        LocalDate month = today.withDayOfMonth(1);
+        int created = 0;
+        try {
+            for (int i = 0; i <= monthsAhead; i++) {
+                LocalDate partitionMonth = month.plusMonths(i);
+                if (Boolean.TRUE.equals(transactionTemplate.execute(status -> loanRepository.ensurePartition(partitionMonth)))) {
+                    created++;
+                }
+            }
+        } catch (DataAccessException e) {
+            log.error("Failed to create loans partitions", e);
+        }
+        if (created > 0) {
+            metricsService.incrementLoanPartitionsCreated(created);
+            log.info("Created {} loans partitions", created);
+        }
+        return created;
+    }
+
+    /**
+     * Archive fully returned months that ended on or before the cutoff, oldest first
+     * @param cutoff first day after the newest month that may be archived
+     * @return names of the archived partitions
+     */
+    public List<String> archive(LocalDate cutoff) {
+        List<String> archived = new ArrayList<>();
+        try {
+            while (archived.size() < maxPartitionsPerRun) {
+                List<String> batch = transactionTemplate.execute(status ->
+                        loanRepository.archivePartitions(cutoff, 1, lockTimeoutMillis));
+                if (batch == null || batch.isEmpty()) {
+                    break;
+                }
+                archived.addAll(batch);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Stopped archiving loans partitions after {}: {}", archived, e.getMessage());
+        }
+        if (!archived.isEmpty()) {
+            metricsService.incrementLoanPartitionsArchived(archived.size());
+            log.info("Archived loans partitions {}", archived);
+        }
+        return archived;
+    }
+}
@@ -0,0 +1,240 @@
+package com.demandline.library.service;
+
+import com.demandline.library.observability.MetricsService;
+import com.demandline.library.observability.PipelineStage;
+import com.demandline.library.service.model.Loan;
+import com.demandline.library.service.model.LoanBatchResult;
+import com.demandline.library.service.model.input.LoanInput;
+import com.demandline.library.service.util.RedisLockUtil;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Micro-batching executor for borrow requests
+ * Collects concurrent loan requests for a short window (or until the batch is full) and
+ * group-commits them through LoanService.loanBooksBatch in a single transaction.
+ * Each caller still receives its own Loan or its own exception.
+ * When disabled, requests go straight to LoanService.loanBooks.
+ */
+@Component
+@Slf4j
+public class LoanBatchExecutor {
+    private static final long RESULT_TIMEOUT_SECONDS = 30;
+
+    @Value("${library.loanBatching.enabled:false}")
+    private boolean enabled;
+
+    @Value("${library.loanBatching.windowMillis:3}")
+    private long windowMillis;
+
+    @Value("${library.loanBatching.maxBatchSize:32}")
+    private int maxBatchSize;
+
+    @Value("${library.loanBatching.queueCapacity:1024}")
+    private int queueCapacity;
+
+    private final LoanService loanService;
+    private final RedisLockUtil redisLockUtil;
+    private final MetricsService metricsService;
+
+    private BlockingQueue<PendingLoan> queue;
+    private Thread worker;
+    private volatile boolean running;
+
+    public LoanBatchExecutor(LoanService loanService,
+                             RedisLockUtil redisLockUtil,
+                             MetricsService metricsService) {
+        this.loanService = loanService;
+        this.redisLockUtil = redisLockUtil;
+        this.metricsService = metricsService;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        queue = new LinkedBlockingQueue<>(queueCapacity);
+        running = true;
+        worker = new Thread(this::runLoop, "loan-batch-executor");
+        worker.setDaemon(true);
+        worker.start();
+        log.info("Loan batching enabled (window: {} ms, max batch size: {})", windowMillis, maxBatchSize);
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Loan books to a member, group-committed with other concurrent requests when batching is enabled
+     * Falls back to the direct path when the queue is full or the member lock is held elsewhere
+     * @param loanInput contains member ID and list of book IDs to loan
+     * @return Loan record with member and loaned books
+     */
+    public Loan loanBooks(LoanInput loanInput) {
+        if (!enabled) {
+            return loanService.loanBooks(loanInput);
+        }
+
+        var pending = new PendingLoan(loanInput, new CompletableFuture<>(), System.nanoTime());
+        if (!queue.offer(pending)) {
+            return loanService.loanBooks(loanInput);
+        }
+
+        Optional<Loan> result;
+        try {
+            result = pending.future().get(RESULT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Batched loan failed", e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Timeout waiting for batched loan to complete");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for batched loan");
+        }
+
+        // Empty result means the member lock was held by another request, use the waiting direct path
+        return result.orElseGet(() -> loanService.loanBooks(loanInput));
+    }
+
+    private void runLoop() {
+        List<PendingLoan> batch = new ArrayList<>(maxBatchSize);
+        long windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+
+        while (running) {
+            try {
+                PendingLoan first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    PendingLoan next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                processBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                log.error("Loan batch failed: {}", e.getMessage());
+                batch.forEach(pending -> pending.future().completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+
+        // Hand anything still queued back to the callers' direct path
+        PendingLoan leftover;
+        while (queue != null && (leftover = queue.poll()) != null) {
+            leftover.future().complete(Optional.empty());
+        }
+    }
+
+    private void processBatch(List<PendingLoan> batch) {
+        // Acquire member locks in ascending member ID order, without waiting
+        Map<Integer, String> heldLocks = new TreeMap<>();
+        Timer.Sample lockSample = Timer.start();
+        batch.stream()
+                .map(pending -> pending.input().memberId())
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .forEach(memberId -> {
+                    String lockValue = UUID.randomUUID().toString();
+                    if (redisLockUtil.acquireLock("member:" + memberId, lockValue)) {
+                        heldLocks.put(memberId, lockValue);
+                    }
+                });
+        lockSample.stop(metricsService.getLoanStageTimer(PipelineStage.LOCK_ACQUIRE));
+
+        List<PendingLoan> accepted = new ArrayList<>(batch.size());
+        for (PendingLoan pending : batch) {
+            Integer memberId = pending.input().memberId();
+            if (memberId != null && !heldLocks.containsKey(memberId)) {
+                pending.future().complete(Optional.empty());
+            } else {
+                accepted.add(pending);
+            }
+        }
+
+        try {
+            if (accepted.isEmpty()) {
+                return;
+            }
+            metricsService.recordLoanBatchSize(accepted.size());
+            List<LoanBatchResult> results = loanService.loanBooksBatch(
+                    accepted.stream().map(PendingLoan::input).toList());
+
+            for (int i = 0; i < accepted.size(); i++) {
+                PendingLoan pending = accepted.get(i);
+                LoanBatchResult result = results.get(i);
+                long duration = System.nanoTime() - pending.enqueuedAt();
+                if (result.isSuccess()) {
+                    metricsService.incrementBooksLoaned(result.loan().books().size());
+                    metricsService.recordLoanOutcome(duration, null);
+                    pending.future().complete(Optional.of(result.loan()));
+                } else {
+                    metricsService.recordLoanOutcome(duration, result.failure());
+                    pending.future().completeExceptionally(result.failure());
+                }
+            }
+        } catch (RuntimeException e) {
+            // Transaction rolled back as a whole, every caller in the batch gets the failure
+            // Callers already answered before the failure keep their outcome and are not counted again
+            accepted.forEach(pending -> {
+                if (pending.future().completeExceptionally(e)) {
+                    metricsService.recordLoanOutcome(System.nanoTime() - pending.enqueuedAt(), e);
+                }
+            });
+        } finally {
+            heldLocks.forEach((memberId, lockValue) -> redisLockUtil.releaseLock("member:" + memberId, lockValue));
+        }
+    }
+
+    private record PendingLoan(
+            LoanInput input,
+            CompletableFuture<Optional<Loan>> future,
+            long enqueuedAt
+    ) {}
+}
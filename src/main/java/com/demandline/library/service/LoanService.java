@@ -4,36 +4,57 @@ import com.demandline.library.config.LibraryConfiguration;
 import com.demandline.library.repository.BookRepository;
 import com.demandline.library.repository.LoanRepository;
 import com.demandline.library.repository.MemberRepository;
+import com.demandline.library.repository.projection.BookAvailabilityView;
 import com.demandline.library.repository.model.BookEntity;
 import com.demandline.library.repository.model.LoanEntity;
 import com.demandline.library.repository.model.MemberEntity;
+import com.demandline.library.service.exception.LoanLockTimeoutException;
+import com.demandline.library.service.exception.LoanRejectedException;
 import com.demandline.library.service.model.Book;
 import com.demandline.library.service.model.Loan;
+import com.demandline.library.service.model.LoanBatchResult;
 import com.demandline.library.service.model.LoanBook;
 import com.demandline.library.service.model.LoanBookMember;
 import com.demandline.library.service.model.Member;
 import com.demandline.library.service.model.filter.LoanFilter;
 import com.demandline.library.service.model.input.LoanInput;
 import com.demandline.library.service.model.input.ReturnInput;
+import com.demandline.library.observability.FailureReason;
 import com.demandline.library.observability.MetricsService;
+import com.demandline.library.observability.PipelineStage;
+import com.demandline.library.observability.TraceAttributes;
 import com.demandline.library.service.util.RedisLockUtil;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
+@Slf4j
 public class LoanService {
     private static final long REDIS_LOAN_TTL_SECONDS = 3600; // 1 hour
     private static final String LOAN_REQUEST_PREFIX = "loan:request:";
     private static final String RETURN_REQUEST_PREFIX = "return:request:";
     private static final long LOCK_WAIT_TIMEOUT_SECONDS = 30;
+    private static final LocalDateTime ALL_LOANS_SINCE = LocalDateTime.of(1970, 1, 1, 0, 0);
 
     private final BookService bookService;
     private final MemberService memberService;
@@ -45,6 +66,10 @@ public class LoanService {
     private final RedisLockUtil redisLockUtil;
     private final ObjectMapper objectMapper;
     private final MetricsService metricsService;
+    private final HotTitleAvailabilityService hotTitleAvailabilityService;
+    private final OverdueLoanService overdueLoanService;
+    private final MemberEligibilityService memberEligibilityService;
+    private final HoldService holdService;
 
     public LoanService(BookService bookService,
                        MemberService memberService,
@@ -55,7 +80,11 @@ public class LoanService {
                        RedisTemplate<String, String> redisTemplate,
                        RedisLockUtil redisLockUtil,
                        ObjectMapper objectMapper,
-                       MetricsService metricsService) {
+                       MetricsService metricsService,
+                       HotTitleAvailabilityService hotTitleAvailabilityService,
+                       OverdueLoanService overdueLoanService,
+                       MemberEligibilityService memberEligibilityService,
+                       HoldService holdService) {
         this.bookService = bookService;
         this.memberService = memberService;
         this.libraryConfiguration = libraryConfiguration;
@@ -66,6 +95,10 @@ public class LoanService {
         this.redisLockUtil = redisLockUtil;
         this.objectMapper = objectMapper;
         this.metricsService = metricsService;
+        this.hotTitleAvailabilityService = hotTitleAvailabilityService;
+        this.overdueLoanService = overdueLoanService;
+        this.memberEligibilityService = memberEligibilityService;
+        this.holdService = holdService;
     }
 
     /**
@@ -76,66 +109,72 @@ public class LoanService {
      */
     @Transactional
     public Loan loanBooks(LoanInput loanInput) {
-        return metricsService.getLoanOperationTimer().record(() -> {
+        return metricsService.recordLoan(() -> {
             String lockKey = "member:" + loanInput.memberId();
             String lockValue = UUID.randomUUID().toString();
 
             // Try to acquire lock, wait if another process is using it
+            Timer.Sample lockSample = Timer.start();
             if (!redisLockUtil.acquireLock(lockKey, lockValue)) {
                 // Wait for the lock to be released
                 if (!redisLockUtil.waitForLock(lockKey, LOCK_WAIT_TIMEOUT_SECONDS)) {
-                    metricsService.incrementLoanFailure();
-                    throw new IllegalStateException("Timeout waiting for loan lock to be released");
+                    throw new LoanLockTimeoutException("Timeout waiting for loan lock to be released");
                 }
                 // Try to acquire lock again after waiting
                 if (!redisLockUtil.acquireLock(lockKey, lockValue)) {
-                    metricsService.incrementLoanFailure();
-                    throw new IllegalStateException("Failed to acquire loan lock after waiting");
+                    throw new LoanLockTimeoutException("Failed to acquire loan lock after waiting");
                 }
             }
+            TraceAttributes.recordMemberLockWait(lockSample.stop(metricsService.getLoanStageTimer(PipelineStage.LOCK_ACQUIRE)));
 
             try {
+                Timer.Sample eligibilitySample = Timer.start();
                 if (loanInput.bookIds() == null || loanInput.bookIds().isEmpty()) {
-                    metricsService.incrementLoanFailure();
                     throw new IllegalArgumentException("No books specified for loan");
                 }
                 if (loanInput.bookIds().size() > libraryConfiguration.getMaxBooksPerMember()) {
-                    metricsService.incrementLoanFailure();
                     throw new IllegalArgumentException("Cannot loan more than " + libraryConfiguration.getMaxBooksPerMember() + " books at once");
                 }
 
-                // check if member have active loans at the moment
-                if (loanRepository.hasActiveLoan(loanInput.memberId())) {
-                    metricsService.incrementLoanFailure();
-                    throw new IllegalArgumentException("Member has active loans and cannot borrow more books");
-                }
-
                 // Fetch member
                 MemberEntity memberEntity = memberRepository.findById(loanInput.memberId())
-                        .orElseThrow(() -> {
-                            metricsService.incrementLoanFailure();
-                            return new IllegalArgumentException("Member not found");
-                        });
+                        .orElseThrow(() -> new LoanRejectedException(FailureReason.MEMBER_NOT_FOUND, "Member not found"));
+
+                // check if member have active loans at the moment, from the maintained counter; the member
+                // lock is released before commit, so the counter is claimed with a guarded UPDATE as well
+                if (memberEntity.getActiveLoanCount() > 0
+                        || memberRepository.addActiveLoans(memberEntity.getId(), loanInput.bookIds().size()) == 0) {
+                    throw new LoanRejectedException(FailureReason.MEMBER_HAS_ACTIVE_LOANS, "Member has active loans and cannot borrow more books");
+                }
+                eligibilitySample.stop(metricsService.getLoanStageTimer(PipelineStage.ELIGIBILITY_CHECK));
 
                 // Validate and process each book
+                List<Integer> reservedHotTitles = new ArrayList<>();
                 List<LoanEntity> loanEntities = loanInput.bookIds().stream()
                         .map(bookId -> {
-                            // Fetch book with pessimistic lock to prevent race conditions
-                            BookEntity bookEntity = bookRepository.findByIdWithLock(bookId)
-                                    .orElseThrow(() -> {
-                                        metricsService.incrementLoanFailure();
-                                        return new IllegalArgumentException("Book not found: " + bookId);
-                                    });
-
-                            // Check availability (prevent race condition with lock)
-                            if (bookEntity.getAvailableCopies() <= 0) {
-                                metricsService.incrementLoanFailure();
-                                throw new IllegalArgumentException("Book not available: " + bookEntity.getTitle());
+                            // A copy set aside for the member's hold comes first, then hot titles are
+                            // reserved through their Redis counter
+                            Timer.Sample bookLockSample = Timer.start();
+                            BookEntity bookEntity = takeHeldCopy(memberEntity.getId(), bookId);
+                            if (bookEntity == null) {
+                                bookEntity = takeHotTitleCopy(bookId, reservedHotTitles);
+                            }
+                            if (bookEntity == null) {
+                                // Take the copy with one guarded UPDATE; it waits for and keeps the row lock
+                                // until commit, so concurrent loans cannot oversell and no SELECT FOR UPDATE is needed.
+                                // The guarded UPDATE counts as the book lock, like the hot title path
+                                int taken = bookRepository.decrementAvailableCopies(bookId, LocalDateTime.now());
+                                bookLockSample.stop(metricsService.getLoanStageTimer(PipelineStage.BOOK_LOCK));
+
+                                bookEntity = bookRepository.findById(bookId)
+                                        .orElseThrow(() -> new LoanRejectedException(FailureReason.BOOK_NOT_FOUND, "Book not found: " + bookId));
+                                if (taken == 0) {
+                                    throw new LoanRejectedException(FailureReason.BOOK_UNAVAILABLE, "Book not available: " + bookEntity.getTitle());
+                                }
+                            } else {
+                                // Hold pickup or hot title reservation count as the book lock
+                                bookLockSample.stop(metricsService.getLoanStageTimer(PipelineStage.BOOK_LOCK));
                             }
-
-                            // Decrease available copies
-                            bookEntity.setAvailableCopies(bookEntity.getAvailableCopies() - 1);
-                            bookRepository.save(bookEntity);
 
                             // Create loan record
                             LocalDateTime now = LocalDateTime.now();
@@ -151,39 +190,22 @@ public class LoanService {
                         .collect(Collectors.toList());
 
                 // Save all loans
-                loanRepository.saveAll(loanEntities);
+                metricsService.getLoanStageTimer(PipelineStage.LOAN_WRITE).record(() -> {
+                    loanRepository.saveAll(loanEntities);
+                    // Last write of the transaction, so hot title rows stay locked only until commit
+                    confirmHotTitleCopies(reservedHotTitles);
+                });
+                recordCommitTime(metricsService.getLoanStageTimer(PipelineStage.COMMIT));
+
+                memberEligibilityService.evictAfterCommit(memberEntity.getId());
 
                 // Track metrics
                 metricsService.incrementBooksLoaned(loanEntities.size());
-                metricsService.incrementLoanSuccess();
-
-                // Build and return response
-                Member member = new Member(
-                        memberEntity.getId(),
-                        null, // User will be populated separately if needed
-                        memberEntity.getAddress(),
-                        memberEntity.getPhoneNumber(),
-                        memberEntity.getCreatedAt(),
-                        memberEntity.getUpdatedAt(),
-                        memberEntity.getIsActive()
-                );
-
-                List<LoanBook> loanBooks = loanEntities.stream()
-                        .map(loan -> new LoanBook(
-                                loan.getId(),
-                                mapEntityToBook(loan.getBookEntity()),
-                                loan.getBorrowDate(),
-                                loan.getReturnDate(),
-                                loan.getDueDate(),
-                                loan.getCreatedAt(),
-                                loan.getUpdatedAt()
-                        ))
-                        .collect(Collectors.toList());
+                TraceAttributes.recordRowsWritten(loanEntities.size());
 
-                return new Loan(member, loanBooks);
-            } catch (RuntimeException e) {
-                metricsService.incrementLoanFailure();
-                throw e;
+                // Build and return response; the guarded UPDATEs bypass the loaded books, so read
+                // their availability back instead of reporting the copies held in memory
+                return mapEntitiesToLoan(memberEntity, loanEntities, currentAvailableCopies(loanEntities));
             } finally {
                 // Always release the lock
                 redisLockUtil.releaseLock(lockKey, lockValue);
@@ -191,6 +213,121 @@ public class LoanService {
         });
     }
 
+    /**
+     * Loan books for several members in a single transaction
+     * Used by LoanBatchExecutor to group-commit concurrent borrow requests.
+     * All books referenced by the batch are locked once, in ascending ID order, and each request
+     * is validated in arrival order against the staged inventory. A failing request does not
+     * affect the others; its exception is returned in its own result.
+     * Caller is responsible for holding the member locks of the batch.
+     * @param loanInputs loan requests in arrival order
+     * @return one result per input, in the same order
+     */
+    @Transactional
+    public List<LoanBatchResult> loanBooksBatch(List<LoanInput> loanInputs) {
+        Timer.Sample eligibilitySample = Timer.start();
+        Set<Integer> memberIds = loanInputs.stream()
+                .map(LoanInput::memberId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Integer, MemberEntity> members = memberRepository.findAllById(memberIds).stream()
+                .collect(Collectors.toMap(MemberEntity::getId, Function.identity()));
+        Set<Integer> membersWithActiveLoans = members.values().stream()
+                .filter(member -> member.getActiveLoanCount() > 0)
+                .map(MemberEntity::getId)
+                .collect(Collectors.toCollection(HashSet::new));
+        eligibilitySample.stop(metricsService.getLoanStageTimer(PipelineStage.ELIGIBILITY_CHECK));
+
+        // Lock every book of the batch up front in ID order to avoid deadlocks between batches
+        Set<Integer> bookIds = loanInputs.stream()
+                .filter(input -> input.bookIds() != null)
+                .flatMap(input -> input.bookIds().stream())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(TreeSet::new));
+        Timer.Sample bookLockSample = Timer.start();
+        Map<Integer, BookEntity> books = bookIds.isEmpty()
+                ? Map.of()
+                : bookRepository.findAllByIdInWithLock(bookIds).stream()
+                        .collect(Collectors.toMap(BookEntity::getId, Function.identity()));
+        bookLockSample.stop(metricsService.getLoanStageTimer(PipelineStage.BOOK_LOCK));
+
+        List<LoanBatchResult> results = new ArrayList<>(loanInputs.size());
+        List<LoanEntity> allLoanEntities = new ArrayList<>();
+        List<List<LoanEntity>> loanEntitiesPerRequest = new ArrayList<>(loanInputs.size());
+
+        for (LoanInput loanInput : loanInputs) {
+            try {
+                validateLoanInput(loanInput);
+                if (membersWithActiveLoans.contains(loanInput.memberId())) {
+                    throw new LoanRejectedException(FailureReason.MEMBER_HAS_ACTIVE_LOANS, "Member has active loans and cannot borrow more books");
+                }
+                MemberEntity memberEntity = members.get(loanInput.memberId());
+                if (memberEntity == null) {
+                    throw new LoanRejectedException(FailureReason.MEMBER_NOT_FOUND, "Member not found");
+                }
+
+                // Check the whole request against staged inventory before touching anything;
+                // a copy set aside for the member's hold is not part of the available copies
+                Set<Integer> heldBookIds = holdService.findReadyBookIds(memberEntity.getId(), loanInput.bookIds());
+                Map<Integer, Integer> demand = new HashMap<>();
+                for (Integer bookId : loanInput.bookIds()) {
+                    BookEntity bookEntity = books.get(bookId);
+                    if (bookEntity == null) {
+                        throw new LoanRejectedException(FailureReason.BOOK_NOT_FOUND, "Book not found: " + bookId);
+                    }
+                    int requested = demand.merge(bookId, 1, Integer::sum) - (heldBookIds.contains(bookId) ? 1 : 0);
+                    if (bookEntity.getAvailableCopies() < requested) {
+                        throw new LoanRejectedException(FailureReason.BOOK_UNAVAILABLE, "Book not available: " + bookEntity.getTitle());
+                    }
+                }
+                // Last check: claim the member's counter, nothing below can fail the request
+                if (memberRepository.addActiveLoans(memberEntity.getId(), loanInput.bookIds().size()) == 0) {
+                    throw new LoanRejectedException(FailureReason.MEMBER_HAS_ACTIVE_LOANS, "Member has active loans and cannot borrow more books");
+                }
+
+                LocalDateTime now = LocalDateTime.now();
+                LocalDateTime dueDate = now.plusDays(libraryConfiguration.getLoanPeriodDays());
+                List<LoanEntity> loanEntities = new ArrayList<>(loanInput.bookIds().size());
+                for (Integer bookId : loanInput.bookIds()) {
+                    BookEntity bookEntity = books.get(bookId);
+                    if (!heldBookIds.remove(bookId) || !holdService.fulfillReadyHold(memberEntity.getId(), bookId, now)) {
+                        bookEntity.setAvailableCopies(bookEntity.getAvailableCopies() - 1);
+                        hotTitleAvailabilityService.adjustAfterCommit(bookId, -1);
+                    }
+                    loanEntities.add(LoanEntity.builder()
+                            .memberEntity(memberEntity)
+                            .bookEntity(bookEntity)
+                            .borrowDate(now)
+                            .dueDate(dueDate)
+                            .build());
+                }
+
+                membersWithActiveLoans.add(memberEntity.getId());
+                memberEligibilityService.evictAfterCommit(memberEntity.getId());
+                allLoanEntities.addAll(loanEntities);
+                loanEntitiesPerRequest.add(loanEntities);
+                results.add(null);
+            } catch (RuntimeException e) {
+                loanEntitiesPerRequest.add(null);
+                results.add(LoanBatchResult.failure(e));
+            }
+        }
+
+        // Locked books are managed entities, their new availability is flushed on commit;
+        // member counters were claimed while validating
+        metricsService.getLoanStageTimer(PipelineStage.LOAN_WRITE).record(() -> loanRepository.saveAll(allLoanEntities));
+        recordCommitTime(metricsService.getLoanStageTimer(PipelineStage.COMMIT));
+
+        for (int i = 0; i < loanInputs.size(); i++) {
+            List<LoanEntity> loanEntities = loanEntitiesPerRequest.get(i);
+            if (loanEntities != null) {
+                MemberEntity memberEntity = members.get(loanInputs.get(i).memberId());
+                results.set(i, LoanBatchResult.success(mapEntitiesToLoan(memberEntity, loanEntities)));
+            }
+        }
+        return results;
+    }
+
     /**
      * Retrieve loan result from cache by request ID
      * If request is still processing, wait for completion
@@ -230,98 +367,82 @@ public class LoanService {
      */
     @Transactional
     public Loan returnBooks(ReturnInput returnInput) {
-        return metricsService.getReturnOperationTimer().record(() -> {
+        return metricsService.recordReturn(() -> {
             String lockKey = "member:" + returnInput.memberId();
             String lockValue = UUID.randomUUID().toString();
 
             // Try to acquire lock, wait if another process is using it
+            Timer.Sample lockSample = Timer.start();
             if (!redisLockUtil.acquireLock(lockKey, lockValue)) {
                 // Wait for the lock to be released
                 if (!redisLockUtil.waitForLock(lockKey, LOCK_WAIT_TIMEOUT_SECONDS)) {
-                    metricsService.incrementReturnFailure();
-                    throw new IllegalStateException("Timeout waiting for return lock to be released");
+                    throw new LoanLockTimeoutException("Timeout waiting for return lock to be released");
                 }
                 // Try to acquire lock again after waiting
                 if (!redisLockUtil.acquireLock(lockKey, lockValue)) {
-                    metricsService.incrementReturnFailure();
-                    throw new IllegalStateException("Failed to acquire return lock after waiting");
+                    throw new LoanLockTimeoutException("Failed to acquire return lock after waiting");
                 }
             }
+            TraceAttributes.recordMemberLockWait(lockSample.stop(metricsService.getReturnStageTimer(PipelineStage.LOCK_ACQUIRE)));
 
             try {
                 // Fetch member
                 MemberEntity memberEntity = memberRepository.findById(returnInput.memberId())
-                        .orElseThrow(() -> {
-                            metricsService.incrementReturnFailure();
-                            return new IllegalArgumentException("Member not found");
-                        });
+                        .orElseThrow(() -> new LoanRejectedException(FailureReason.MEMBER_NOT_FOUND, "Member not found"));
 
                 LocalDateTime returnDate = LocalDateTime.now();
                 List<LoanEntity> returnedLoans = returnInput.returnPairInputs().stream()
                         .map(returnPair -> {
                             // Fetch loan
+                            Timer.Sample eligibilitySample = Timer.start();
                             LoanEntity loan = loanRepository.findById(returnPair.loanId())
-                                    .orElseThrow(() -> {
-                                        metricsService.incrementReturnFailure();
-                                        return new IllegalArgumentException("Loan not found: " + returnPair.loanId());
-                                    });
+                                    .orElseThrow(() -> new LoanRejectedException(FailureReason.LOAN_NOT_FOUND, "Loan not found: " + returnPair.loanId()));
 
                             // Verify loan belongs to member
                             if (!loan.getMemberEntity().getId().equals(returnInput.memberId())) {
-                                metricsService.incrementReturnFailure();
-                                throw new IllegalArgumentException("Loan does not belong to this member");
+                                throw new LoanRejectedException(FailureReason.LOAN_NOT_FOUND, "Loan does not belong to this member");
                             }
 
                             // Check if already returned
                             if (loan.getReturnDate() != null) {
-                                metricsService.incrementReturnFailure();
-                                throw new IllegalArgumentException("Loan already returned: " + returnPair.loanId());
+                                throw new LoanRejectedException(FailureReason.ALREADY_RETURNED, "Loan already returned: " + returnPair.loanId());
                             }
+                            eligibilitySample.stop(metricsService.getReturnStageTimer(PipelineStage.ELIGIBILITY_CHECK));
 
-                            // Fetch book to restore available copies
+                            // Hand the copy to the next holder, else give it back with one guarded UPDATE
+                            // instead of saving the loaded book
                             BookEntity bookEntity = loan.getBookEntity();
-
-                            // Increase available copies
-                            bookEntity.setAvailableCopies(bookEntity.getAvailableCopies() + 1);
-                            bookRepository.save(bookEntity);
+                            Timer.Sample inventorySample = Timer.start();
+                            if (holdService.allocateCopies(bookEntity.getId(), 1, returnDate) == 1) {
+                                log.debug("Returned copy of book {} set aside for the next hold", bookEntity.getId());
+                            } else if (bookRepository.incrementAvailableCopies(bookEntity.getId(), 1, returnDate) == 1) {
+                                hotTitleAvailabilityService.adjustAfterCommit(bookEntity.getId(), 1);
+                            } else {
+                                // Copies already at total: inventory drifted, left to InventoryConsistencyJob
+                                log.warn("Available copies of book {} already at total copies on return of loan {}",
+                                        bookEntity.getId(), loan.getId());
+                            }
+                            inventorySample.stop(metricsService.getReturnStageTimer(PipelineStage.INVENTORY_UPDATE));
 
                             // Update loan with return date
                             loan.setReturnDate(returnDate);
-                            return loanRepository.save(loan);
+                            return metricsService.getReturnStageTimer(PipelineStage.LOAN_WRITE)
+                                    .record(() -> loanRepository.save(loan));
                         })
                         .collect(Collectors.toList());
+                metricsService.getReturnStageTimer(PipelineStage.LOAN_WRITE)
+                        .record(() -> memberRepository.recordReturns(memberEntity.getId(), returnedLoans.size(), returnDate));
+                recordCommitTime(metricsService.getReturnStageTimer(PipelineStage.COMMIT));
+                overdueLoanService.removeAfterCommit(returnedLoans.stream().map(LoanEntity::getId).toList());
+                memberEligibilityService.evictAfterCommit(memberEntity.getId());
 
                 // Track metrics
                 metricsService.incrementBooksReturned(returnedLoans.size());
-                metricsService.incrementReturnSuccess();
-
-                // Build and return response
-                Member member = new Member(
-                        memberEntity.getId(),
-                        null, // User will be populated separately if needed
-                        memberEntity.getAddress(),
-                        memberEntity.getPhoneNumber(),
-                        memberEntity.getCreatedAt(),
-                        memberEntity.getUpdatedAt(),
-                        memberEntity.getIsActive()
-                );
-
-                List<LoanBook> loanBooks = returnedLoans.stream()
-                        .map(loan -> new LoanBook(
-                                loan.getId(),
-                                mapEntityToBook(loan.getBookEntity()),
-                                loan.getBorrowDate(),
-                                loan.getReturnDate(),
-                                loan.getDueDate(),
-                                loan.getCreatedAt(),
-                                loan.getUpdatedAt()
-                        ))
-                        .collect(Collectors.toList());
+                TraceAttributes.recordRowsWritten(returnedLoans.size());
 
-                return new Loan(member, loanBooks);
-            } catch (RuntimeException e) {
-                metricsService.incrementReturnFailure();
-                throw e;
+                // Build and return response; the guarded UPDATEs bypass the loaded books, so read
+                // their availability back instead of reporting the copies held in memory
+                return mapEntitiesToLoan(memberEntity, returnedLoans, currentAvailableCopies(returnedLoans));
             } finally {
                 // Always release the lock
                 redisLockUtil.releaseLock(lockKey, lockValue);
@@ -363,27 +484,30 @@ public class LoanService {
     /**
      * Get all loans for a member
      * @param memberId the member ID
-     * @param filter loan filter criteria
+     * @param filter loan filter criteria; borrowedSince limits the history to recent monthly partitions
      * @return List of loans for the member
      */
+    @Transactional(readOnly = true)
     public List<LoanBook> getLoansByMemberId(Integer memberId, LoanFilter filter) {
-        List<LoanEntity> loanEntities;
-
-        if (filter.onlyActiveLoans()) {
-            loanEntities = loanRepository.findActiveLoans(memberId);
-        } else {
-            loanEntities = loanRepository.findByMemberId(memberId);
-        }
-
-        return loanEntities.stream()
+        LocalDateTime borrowedSince = filter.borrowedSince() == null ? ALL_LOANS_SINCE : filter.borrowedSince();
+        return loanRepository.findLoanBookViewsByMemberId(memberId, filter.onlyActiveLoans(), borrowedSince).stream()
                 .map(loan -> new LoanBook(
-                        loan.getId(),
-                        mapEntityToBook(loan.getBookEntity()),
-                        loan.getBorrowDate(),
-                        loan.getReturnDate(),
-                        loan.getDueDate(),
-                        loan.getCreatedAt(),
-                        loan.getUpdatedAt()
+                        loan.id(),
+                        new Book(
+                                loan.bookId(),
+                                loan.title(),
+                                loan.author(),
+                                loan.isbn(),
+                                loan.totalCopies(),
+                                loan.availableCopies(),
+                                loan.bookCreatedAt(),
+                                loan.bookUpdatedAt()
+                        ),
+                        loan.borrowDate(),
+                        loan.returnDate(),
+                        loan.dueDate(),
+                        loan.createdAt(),
+                        loan.updatedAt()
                 ))
                 .collect(Collectors.toList());
     }
@@ -393,16 +517,14 @@ public class LoanService {
      * @param filter loan filter criteria
      * @return List of all loans with member and book information
      */
+    @Transactional(readOnly = true)
     public List<LoanBookMember> getAllLoans(LoanFilter filter) {
         List<LoanEntity> loanEntities;
 
-        if (filter.onlyActiveLoans()) {
-            // Get all loans and filter for active ones
-            loanEntities = loanRepository.findAll().stream()
-                    .filter(l -> l.getReturnDate() == null)
-                    .collect(Collectors.toList());
-        } else if (filter.onlyOverdueLoans()) {
+        if (filter.onlyOverdueLoans()) {
             loanEntities = loanRepository.findOverdueLoans(LocalDateTime.now());
+        } else if (filter.onlyActiveLoans()) {
+            loanEntities = loanRepository.findAllActiveLoans();
         } else {
             loanEntities = loanRepository.findAll();
         }
@@ -418,6 +540,7 @@ public class LoanService {
      * @param filter loan filter criteria
      * @return List of loans for the book
      */
+    @Transactional(readOnly = true)
     public List<LoanBookMember> getLoansByBook(Integer bookId, LoanFilter filter) {
         List<LoanEntity> loanEntities = loanRepository.findByBookId(bookId);
 
@@ -439,38 +562,178 @@ public class LoanService {
 
     /**
      * Store loan request result in Redis cache
-     * Used after processing loanBooks request
+     * Used after processing loanBooks request, once it has committed: a failure is logged rather
+     * than thrown so a committed loan is not reported as failed
      * @param requestId the request ID
      * @param loan the loan result
      */
     public void cacheLoanResult(String requestId, Loan loan) {
+        Timer.Sample sample = Timer.start();
         try {
             String redisKey = LOAN_REQUEST_PREFIX + requestId;
             String loanJson = objectMapper.writeValueAsString(loan);
             redisTemplate.opsForValue().set(redisKey, loanJson, REDIS_LOAN_TTL_SECONDS, TimeUnit.SECONDS);
+            sample.stop(metricsService.getLoanStageTimer(PipelineStage.CACHE_WRITE));
         } catch (Exception e) {
-            throw new IllegalStateException("Failed to cache loan result", e);
+            log.warn("Failed to cache loan result for request {}, retries of it will not be deduplicated", requestId, e);
         }
     }
 
     /**
      * Store return request result in Redis cache
-     * Used after processing returnBooks request
+     * Used after processing returnBooks request, once it has committed: a failure is logged rather
+     * than thrown so a committed return is not reported as failed
      * @param requestId the request ID
      * @param loan the return result
      */
     public void cacheReturnResult(String requestId, Loan loan) {
+        Timer.Sample sample = Timer.start();
         try {
             String redisKey = RETURN_REQUEST_PREFIX + requestId;
             String loanJson = objectMapper.writeValueAsString(loan);
             redisTemplate.opsForValue().set(redisKey, loanJson, REDIS_LOAN_TTL_SECONDS, TimeUnit.SECONDS);
+            sample.stop(metricsService.getReturnStageTimer(PipelineStage.CACHE_WRITE));
         } catch (Exception e) {
-            throw new IllegalStateException("Failed to cache return result", e);
+            log.warn("Failed to cache return result for request {}, retries of it will not be deduplicated", requestId, e);
         }
     }
 
     // Helper methods
 
+    /**
+     * Time the commit of the current transaction, including the flush of pending row updates
+     */
+    private void recordCommitTime(Timer timer) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private long commitStart;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                commitStart = System.nanoTime();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED && commitStart != 0) {
+                    timer.record(System.nanoTime() - commitStart, TimeUnit.NANOSECONDS);
+                }
+            }
+        });
+    }
+
+    /**
+     * Validate request shape shared by single and batched loans
+     */
+    private void validateLoanInput(LoanInput loanInput) {
+        if (loanInput.bookIds() == null || loanInput.bookIds().isEmpty()) {
+            throw new IllegalArgumentException("No books specified for loan");
+        }
+        if (loanInput.bookIds().size() > libraryConfiguration.getMaxBooksPerMember()) {
+            throw new IllegalArgumentException("Cannot loan more than " + libraryConfiguration.getMaxBooksPerMember() + " books at once");
+        }
+    }
+
+    /**
+     * Take the copy set aside for the member's ready hold of a book
+     * @return the book, or null when the member has no ready hold for it
+     */
+    private BookEntity takeHeldCopy(Integer memberId, Integer bookId) {
+        if (!holdService.fulfillReadyHold(memberId, bookId, LocalDateTime.now())) {
+            return null;
+        }
+        return bookRepository.findById(bookId)
+                .orElseThrow(() -> new LoanRejectedException(FailureReason.BOOK_NOT_FOUND, "Book not found: " + bookId));
+    }
+
+    /**
+     * Take one copy of a hot title through its Redis counter without touching the book row
+     * A reserved copy is added to reservedHotTitles and confirmed by confirmHotTitleCopies
+     * @return the book, or null when the regular locked path should be used
+     */
+    private BookEntity takeHotTitleCopy(Integer bookId, List<Integer> reservedHotTitles) {
+        switch (hotTitleAvailabilityService.tryReserve(bookId)) {
+            case REJECTED:
+                // Final: a lagging counter is corrected by the reconciler, not by waiting on the row
+                throw new LoanRejectedException(FailureReason.BOOK_UNAVAILABLE, "Book not available: " + bookId);
+            case RESERVED:
+                BookEntity bookEntity = bookRepository.findById(bookId)
+                        .orElseThrow(() -> new LoanRejectedException(FailureReason.BOOK_NOT_FOUND, "Book not found: " + bookId));
+                reservedHotTitles.add(bookId);
+                return bookEntity;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Confirm reserved hot title copies in Postgres with the guarded UPDATE, in book ID order
+     * A copy that cannot be confirmed means the counter drifted: the loan fails and the counter is re-seeded
+     */
+    private void confirmHotTitleCopies(List<Integer> reservedHotTitles) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Integer bookId : reservedHotTitles.stream().sorted().toList()) {
+            if (bookRepository.decrementAvailableCopies(bookId, now) == 0) {
+                hotTitleAvailabilityService.resyncAfterRollback(bookId);
+                throw new LoanRejectedException(FailureReason.BOOK_UNAVAILABLE, "Book not available: " + bookId);
+            }
+        }
+    }
+
+    /**
+     * Read the available copies of the loans' books from the database
+     * Used after the guarded UPDATEs, which leave the loaded book entities untouched
+     * @return available copies by book ID
+     */
+    private Map<Integer, Integer> currentAvailableCopies(List<LoanEntity> loanEntities) {
+        Set<Integer> bookIds = loanEntities.stream()
+                .map(loan -> loan.getBookEntity().getId())
+                .collect(Collectors.toSet());
+        return bookRepository.findAvailabilityByIdIn(bookIds).stream()
+                .collect(Collectors.toMap(BookAvailabilityView::bookId, BookAvailabilityView::availableCopies));
+    }
+
+    /**
+     * Map member and its loan entities to Loan DTO
+     */
+    Loan mapEntitiesToLoan(MemberEntity memberEntity, List<LoanEntity> loanEntities) {
+        return mapEntitiesToLoan(memberEntity, loanEntities, Map.of());
+    }
+
+    /**
+     * Map member and its loan entities to Loan DTO, overriding the books' available copies
+     * @param availableCopies available copies by book ID; books not in it keep the entity value
+     */
+    private Loan mapEntitiesToLoan(MemberEntity memberEntity, List<LoanEntity> loanEntities,
+                                   Map<Integer, Integer> availableCopies) {
+        Member member = new Member(
+                memberEntity.getId(),
+                null, // User will be populated separately if needed
+                memberEntity.getAddress(),
+                memberEntity.getPhoneNumber(),
+                memberEntity.getCreatedAt(),
+                memberEntity.getUpdatedAt(),
+                memberEntity.getIsActive()
+        );
+
+        List<LoanBook> loanBooks = loanEntities.stream()
+                .map(loan -> new LoanBook(
+                        loan.getId(),
+                        mapEntityToBook(loan.getBookEntity(),
+                                availableCopies.getOrDefault(loan.getBookEntity().getId(), loan.getBookEntity().getAvailableCopies())),
+                        loan.getBorrowDate(),
+                        loan.getReturnDate(),
+                        loan.getDueDate(),
+                        loan.getCreatedAt(),
+                        loan.getUpdatedAt()
+                ))
+                .collect(Collectors.toList());
+
+        return new Loan(member, loanBooks);
+    }
+
     /**
      * Map LoanEntity to LoanBookMember DTO
      */
@@ -487,7 +750,7 @@ public class LoanService {
                         memberEntity.getUpdatedAt(),
                         memberEntity.getIsActive()
                 ),
-                mapEntityToBook(loanEntity.getBookEntity()),
+                mapEntityToBook(loanEntity.getBookEntity(), loanEntity.getBookEntity().getAvailableCopies()),
                 loanEntity.getBorrowDate(),
                 loanEntity.getReturnDate(),
                 loanEntity.getDueDate(),
@@ -497,16 +760,16 @@ public class LoanService {
     }
 
     /**
-     * Map BookEntity to Book DTO
+     * Map BookEntity to Book DTO with the given available copies
      */
-    private Book mapEntityToBook(BookEntity bookEntity) {
+    private Book mapEntityToBook(BookEntity bookEntity, Integer availableCopies) {
         return new Book(
                 bookEntity.getId(),
                 bookEntity.getTitle(),
                 bookEntity.getAuthor(),
                 bookEntity.getIsbn(),
                 bookEntity.getTotalCopies(),
-                bookEntity.getAvailableCopies(),
+                availableCopies,
                 bookEntity.getCreatedAt(),
                 bookEntity.getUpdatedAt()
         );
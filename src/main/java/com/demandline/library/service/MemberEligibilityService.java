@@ -0,0 +1,184 @@
+package com.demandline.library.service;
+
+import com.demandline.library.config.LibraryConfiguration;
+import com.demandline.library.observability.MetricsService;
+import com.demandline.library.repository.BookRepository;
+import com.demandline.library.repository.MemberRepository;
+import com.demandline.library.repository.projection.BookAvailabilityView;
+import com.demandline.library.repository.projection.MemberEligibilityView;
+import com.demandline.library.service.model.MemberEligibility;
+import com.demandline.library.service.model.MemberEligibility.BookAvailability;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Answers "can this member borrow these books" for the front desk in one round trip
+ * Member status and the maintained loan counters come from one primary-key read together with the
+ * candidate books, and are cached per member for a few seconds; cache hits only read the candidate books.
+ * The overdue count is as fresh as the last return or overdue refresh (MemberLoanCounterJob).
+ * A copy set aside for one of the member's READY holds counts as available to that member, as in loanBooks.
+ * The answer is advisory: loanBooks still validates everything under the member lock.
+ */
+@Service
+public class MemberEligibilityService {
+
+    @Value("${library.eligibility.cacheTtlMillis:5000}")
+    private long cacheTtlMillis;
+
+    @Value("${library.eligibility.cacheMaxSize:10000}")
+    private long cacheMaxSize;
+
+    private final MemberRepository memberRepository;
+    private final BookRepository bookRepository;
+    private final HoldService holdService;
+    private final LibraryConfiguration libraryConfiguration;
+    private final MetricsService metricsService;
+
+    private Cache<Integer, MemberStatus> memberStatusCache;
+
+    public MemberEligibilityService(MemberRepository memberRepository,
+                                    BookRepository bookRepository,
+                                    HoldService holdService,
+                                    LibraryConfiguration libraryConfiguration,
+                                    MetricsService metricsService) {
+        this.memberRepository = memberRepository;
+        this.bookRepository = bookRepository;
+        this.holdService = holdService;
+        this.libraryConfiguration = libraryConfiguration;
+        this.metricsService = metricsService;
+    }
+
+    @PostConstruct
+    void initCache() {
+        memberStatusCache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(cacheTtlMillis))
+                .maximumSize(cacheMaxSize)
+                .build();
+    }
+
+    /**
+     * Check whether a member can borrow the given books
+     * @param memberId the member ID
+     * @param bookIds candidate book IDs, may be empty to check the member only
+     * @return member status, loan counts, remaining quota and availability of each book
+     */
+    @Transactional(readOnly = true)
+    public MemberEligibility checkEligibility(Integer memberId, List<Integer> bookIds) {
+        List<Integer> candidates = bookIds == null ? List.of() : bookIds;
+        Set<Integer> distinctBookIds = new LinkedHashSet<>(candidates);
+
+        MemberStatus status = memberStatusCache.getIfPresent(memberId);
+        Map<Integer, BookAvailabilityView> books;
+        if (status != null) {
+            metricsService.incrementEligibilityCacheHit();
+            books = distinctBookIds.isEmpty()
+                    ? Map.of()
+                    : bookRepository.findAvailabilityByIdIn(distinctBookIds).stream()
+                            .collect(Collectors.toMap(BookAvailabilityView::bookId, Function.identity()));
+        } else {
+            metricsService.incrementEligibilityCacheMiss();
+            List<MemberEligibilityView> rows = memberRepository.findEligibility(memberId, distinctBookIds);
+            if (rows.isEmpty()) {
+                throw new IllegalArgumentException("Member not found with id: " + memberId);
+            }
+            MemberEligibilityView first = rows.get(0);
+            status = new MemberStatus(
+                    Boolean.TRUE.equals(first.memberActive()) && Boolean.TRUE.equals(first.userActive()),
+                    first.activeLoanCount(),
+                    first.overdueCount());
+            memberStatusCache.put(memberId, status);
+            books = rows.stream()
+                    .filter(row -> row.bookId() != null)
+                    .collect(Collectors.toMap(MemberEligibilityView::bookId,
+                            row -> new BookAvailabilityView(row.bookId(), row.bookTitle(), row.availableCopies())));
+        }
+
+        Set<Integer> heldBookIds = holdService.findReadyBookIds(memberId, distinctBookIds);
+        return evaluate(memberId, status, candidates, books, heldBookIds);
+    }
+
+    /**
+     * Drop the cached status of a member once the surrounding transaction commits
+     * Called by every path that changes a member's loans or status
+     * @param memberId the member ID
+     */
+    public void evictAfterCommit(Integer memberId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    memberStatusCache.invalidate(memberId);
+                }
+            });
+        } else {
+            memberStatusCache.invalidate(memberId);
+        }
+    }
+
+    private MemberEligibility evaluate(Integer memberId, MemberStatus status, List<Integer> bookIds,
+                                       Map<Integer, BookAvailabilityView> books, Set<Integer> heldBookIds) {
+        int maxBooks = libraryConfiguration.getMaxBooksPerMember();
+
+        // Mirrors the checks of LoanService.loanBooks, plus the member's own status
+        String reason = null;
+        if (!status.active()) {
+            reason = "Member is not active";
+        } else if (status.activeLoanCount() > 0) {
+            reason = "Member has active loans and cannot borrow more books";
+        }
+        int remainingQuota = reason == null ? maxBooks : 0;
+        if (reason == null && bookIds.size() > maxBooks) {
+            reason = "Cannot loan more than " + maxBooks + " books at once";
+        }
+
+        Map<Integer, Integer> demand = new HashMap<>();
+        List<BookAvailability> availability = new ArrayList<>(bookIds.size());
+        for (Integer bookId : bookIds) {
+            BookAvailabilityView book = books.get(bookId);
+            int requested = demand.merge(bookId, 1, Integer::sum);
+            if (book == null) {
+                availability.add(new BookAvailability(bookId, false, null, 0, false));
+                if (reason == null) {
+                    reason = "Book not found: " + bookId;
+                }
+                continue;
+            }
+            // The copy on the hold shelf for this member is not part of the available copies
+            int copies = book.availableCopies() + (heldBookIds.contains(bookId) ? 1 : 0);
+            boolean available = copies >= requested;
+            availability.add(new BookAvailability(bookId, true, book.title(), copies, available));
+            if (!available && reason == null) {
+                reason = "Book not available: " + book.title();
+            }
+        }
+
+        return new MemberEligibility(
+                memberId,
+                status.active(),
+                status.activeLoanCount(),
+                status.overdueLoanCount(),
+                maxBooks,
+                remainingQuota,
+                reason == null,
+                reason,
+                availability);
+    }
+
+    private record MemberStatus(boolean active, long activeLoanCount, long overdueLoanCount) {}
+}
@@ -0,0 +1,101 @@
+package com.demandline.library.service;
+
+import com.demandline.library.observability.MetricsService;
+import com.demandline.library.repository.MemberRepository;
+import com.demandline.library.repository.projection.MemberLoanCounterView;
+import com.demandline.library.service.model.MemberLoanCounterSummary;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Maintenance of the per-member loan counters
+ * members.overdue_count changes as time passes, so it is refreshed on a short interval with one
+ * set-based UPDATE. members.active_loan_count is maintained by the loan and return transactions;
+ * this job verifies it against the loans table with one aggregate query and, when repair is
+ * enabled, fixes drifted members in small locked batches through DriftRepairLoop, the same
+ * way InventoryConsistencyJob repairs books.
+ */
+@Service
+@Slf4j
+public class MemberLoanCounterJob {
+
+    @Value("${library.members.loanCounters.verifier.enabled:true}")
+    private boolean verifierEnabled;
+
+    @Value("${library.members.loanCounters.verifier.repair.enabled:false}")
+    private boolean repairEnabled;
+
+    @Value("${library.members.loanCounters.verifier.repair.batchSize:100}")
+    private int repairBatchSize;
+
+    @Value("${library.members.loanCounters.verifier.repair.maxMembersPerRun:1000}")
+    private int repairMaxMembersPerRun;
+
+    private final MemberRepository memberRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MemberEligibilityService memberEligibilityService;
+    private final MetricsService metricsService;
+    private final DriftRepairLoop<MemberLoanCounterView> driftRepairLoop;
+
+    public MemberLoanCounterJob(MemberRepository memberRepository,
+                                TransactionTemplate transactionTemplate,
+                                MemberEligibilityService memberEligibilityService,
+                                MetricsService metricsService) {
+        this.memberRepository = memberRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.memberEligibilityService = memberEligibilityService;
+        this.metricsService = metricsService;
+        this.driftRepairLoop = new DriftRepairLoop<>("members", transactionTemplate, metricsService.getMemberLoanCounterVerifyTimer(),
+                memberRepository::findLoanCounterDrift, memberRepository::lockAllByIdIn, this::repairActiveLoanCounts);
+    }
+
+    /**
+     * Bring overdue counts up to date for loans that fell due since the last refresh
+     * @return number of members whose overdue count changed
+     */
+    @Scheduled(fixedDelayString = "${library.members.loanCounters.overdueRefreshIntervalMillis:60000}")
+    public int refreshOverdueCounts() {
+        Integer updated = transactionTemplate.execute(status ->
+                memberRepository.refreshOverdueCounts(LocalDateTime.now()));
+        int count = updated == null ? 0 : updated;
+        if (count > 0) {
+            log.debug("Refreshed overdue counts of {} members", count);
+        }
+        return count;
+    }
+
+    /**
+     * Scheduled check, repairing drift when repair is enabled
+     */
+    @Scheduled(fixedDelayString = "${library.members.loanCounters.verifier.intervalMillis:300000}",
+               initialDelayString = "${library.members.loanCounters.verifier.intervalMillis:300000}")
+    public void verifyOnSchedule() {
+        if (verifierEnabled) {
+            run(repairEnabled);
+        }
+    }
+
+    /**
+     * Compare active loan counters with the loans table and optionally repair them
+     * @param repair whether drifted members are repaired, bounded by the configured max per run
+     * @return summary of the drift found and the members repaired
+     */
+    public MemberLoanCounterSummary run(boolean repair) {
+        DriftRepairLoop.Result<MemberLoanCounterView> result = driftRepairLoop.run(repair, repairBatchSize, repairMaxMembersPerRun);
+        metricsService.recordMemberLoanCounterDrift(result.drifted().size(), result.driftTotal());
+        metricsService.incrementMemberLoanCountersRepaired(result.repaired());
+        return new MemberLoanCounterSummary(result.drifted().size(), result.driftTotal(), result.repaired(), result.elapsedMillis());
+    }
+
+    private int repairActiveLoanCounts(List<Integer> memberIds) {
+        int count = memberRepository.repairActiveLoanCounts(memberIds);
+        memberIds.forEach(memberEligibilityService::evictAfterCommit);
+        return count;
+    }
+}
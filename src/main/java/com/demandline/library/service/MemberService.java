@@ -1,10 +1,12 @@
 package com.demandline.library.service;
 
 import com.demandline.library.repository.MemberRepository;
+import com.demandline.library.repository.OffsetLimitRequest;
 import com.demandline.library.repository.RoleRepository;
 import com.demandline.library.repository.UserRepository;
 import com.demandline.library.repository.model.MemberEntity;
 import com.demandline.library.repository.model.UserEntity;
+import com.demandline.library.repository.projection.MemberView;
 import com.demandline.library.service.model.Member;
 import com.demandline.library.service.model.Role;
 import com.demandline.library.service.model.User;
@@ -17,6 +19,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,17 +30,21 @@ public class MemberService {
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
+    private final MemberEligibilityService memberEligibilityService;
 
     public MemberService(MemberRepository memberRepository,
                         UserRepository userRepository,
                         RoleRepository roleRepository,
-                        PasswordEncoder passwordEncoder) {
+                        PasswordEncoder passwordEncoder,
+                        MemberEligibilityService memberEligibilityService) {
         this.memberRepository = memberRepository;
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.passwordEncoder = passwordEncoder;
+        this.memberEligibilityService = memberEligibilityService;
     }
 
+    @Transactional(readOnly = true)
     public Member getMemberById(String memberId) {
         Integer id = Integer.valueOf(memberId);
         var memberEntity = memberRepository.findById(id)
@@ -45,27 +53,54 @@ public class MemberService {
         return mapToMember(memberEntity);
     }
 
+    @Transactional(readOnly = true)
     public List<Member> getAllMembers(MemberFilter memberFilter, int limit, int offset) {
-        List<MemberEntity> members;
-
-        // Apply filters
-        if (memberFilter.nameContains().isPresent() || memberFilter.emailContains().isPresent()) {
-            String searchTerm = memberFilter.nameContains()
-                    .or(() -> memberFilter.emailContains())
-                    .orElse("");
-            members = memberRepository.searchMembers(searchTerm);
+        if (limit == 0) {
+            return List.of();
+        }
+        return findMembers(memberFilter, 0, new OffsetLimitRequest(offset, limit));
+    }
+
+    /**
+     * Keyset variant of getAllMembers: returns the next page after the given member id
+     * Cost does not grow with the page number, unlike an offset
+     */
+    @Transactional(readOnly = true)
+    public List<Member> getMembersAfter(MemberFilter memberFilter, int afterId, int limit) {
+        if (limit == 0) {
+            return List.of();
+        }
+        return findMembers(memberFilter, afterId, new OffsetLimitRequest(0, limit));
+    }
+
+    private List<Member> findMembers(MemberFilter memberFilter, int afterId, OffsetLimitRequest page) {
+        // Both filters apply together; only supplied filters reach SQL, so each combination gets its own plan
+        Optional<String> namePattern = containsPattern(memberFilter.nameContains());
+        Optional<String> emailPattern = containsPattern(memberFilter.emailContains());
+        List<MemberView> members;
+        if (namePattern.isPresent() && emailPattern.isPresent()) {
+            members = memberRepository.searchActiveMemberViews(namePattern.get(), emailPattern.get(), afterId, page);
+        } else if (namePattern.isPresent()) {
+            members = memberRepository.searchActiveMemberViewsByName(namePattern.get(), afterId, page);
+        } else if (emailPattern.isPresent()) {
+            members = memberRepository.searchActiveMemberViewsByEmail(emailPattern.get(), afterId, page);
         } else {
-            members = memberRepository.findAllByIsActiveTrue();
+            members = memberRepository.findActiveMemberViews(afterId, page);
         }
 
-        // Apply pagination
         return members.stream()
-                .skip(offset)
-                .limit(limit)
                 .map(this::mapToMember)
                 .collect(Collectors.toList());
     }
 
+    private static Optional<String> containsPattern(Optional<String> term) {
+        return term.filter(t -> !t.isBlank())
+                .map(t -> "%" + t.trim().toLowerCase(Locale.ROOT)
+                        .replace("\\", "\\\\")
+                        .replace("%", "\\%")
+                        .replace("_", "\\_") + "%");
+    }
+
     @Transactional
     public Member createMember(MemberInput memberInput) {
         // Check if email already exists
@@ -152,6 +187,7 @@ public class MemberService {
 
         memberRepository.save(memberEntity);
         userRepository.save(memberEntity.getUserEntity());
+        memberEligibilityService.evictAfterCommit(memberEntity.getId());
 
         log.info("Deleted (deactivated) member: {} (ID: {})",
                 memberEntity.getUserEntity().getName(), memberEntity.getId());
@@ -190,4 +226,35 @@ public class MemberService {
                 memberEntity.getIsActive()
         );
     }
+
+    private Member mapToMember(MemberView memberView) {
+        var role = new Role(
+                memberView.roleId(),
+                memberView.roleName(),
+                memberView.rolePermissions(),
+                memberView.roleCreatedAt(),
+                memberView.roleUpdatedAt()
+        );
+
+        var user = new User(
+                memberView.userId(),
+                memberView.name(),
+                memberView.email(),
+                null,
+                role,
+                memberView.userCreatedAt(),
+                memberView.userUpdatedAt(),
+                memberView.userActive()
+        );
+
+        return new Member(
+                memberView.id(),
+                user,
+                memberView.address(),
+                memberView.phoneNumber(),
+                memberView.createdAt(),
+                memberView.updatedAt(),
+                memberView.isActive()
+        );
+    }
 }
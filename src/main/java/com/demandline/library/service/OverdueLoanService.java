@@ -0,0 +1,255 @@
+package com.demandline.library.service;
+
+import com.demandline.library.repository.LoanRepository;
+import com.demandline.library.repository.model.BookEntity;
+import com.demandline.library.repository.model.LoanEntity;
+import com.demandline.library.repository.model.MemberEntity;
+import com.demandline.library.repository.model.UserEntity;
+import com.demandline.library.repository.projection.LoanDueDateView;
+import com.demandline.library.service.model.Book;
+import com.demandline.library.service.model.LoanBookMember;
+import com.demandline.library.service.model.Member;
+import com.demandline.library.service.model.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Overdue Loan Service
+ * Serves overdue loans page by page, either from the partial index on active loans or from a
+ * Redis sorted set snapshot (loan id scored by due date) that a scheduled job keeps up to date
+ * incrementally. Returned loans are removed from the snapshot after commit.
+ */
+@Service
+@Slf4j
+public class OverdueLoanService {
+    private static final String SNAPSHOT_KEY = "loans:overdue";
+    private static final String WATERMARK_KEY = "loans:overdue:watermark";
+    private static final LocalDateTime SCAN_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Value("${library.overdue.snapshot.enabled:false}")
+    private boolean snapshotEnabled;
+
+    @Value("${library.overdue.snapshot.chunkSize:1000}")
+    private int chunkSize;
+
+    private final LoanRepository loanRepository;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ActiveLoanWindow activeLoanWindow;
+
+    public OverdueLoanService(LoanRepository loanRepository,
+                              RedisTemplate<String, String> redisTemplate,
+                              ActiveLoanWindow activeLoanWindow) {
+        this.loanRepository = loanRepository;
+        this.redisTemplate = redisTemplate;
+        this.activeLoanWindow = activeLoanWindow;
+    }
+
+    /**
+     * Get a page of overdue loans, oldest due date first
+     * @param daysOverdue only loans at least this many days past their due date
+     * @param page zero-based page number
+     * @param size page size
+     * @return overdue loans with member (including user) and book information
+     */
+    @Transactional(readOnly = true)
+    public List<LoanBookMember> getOverdueLoans(int daysOverdue, int page, int size) {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(Math.max(daysOverdue, 0));
+
+        if (snapshotEnabled && Boolean.TRUE.equals(redisTemplate.hasKey(WATERMARK_KEY))) {
+            return getOverdueLoansFromSnapshot(cutoff, page, size);
+        }
+
+        return loanRepository.findOverdueLoansPage(cutoff, activeLoanWindow.oldestActive(), PageRequest.of(page, size)).stream()
+                .map(this::mapToLoanBookMember)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Remove loans from the overdue snapshot once the surrounding transaction commits
+     * @param loanIds ids of returned loans
+     */
+    public void removeAfterCommit(Collection<Integer> loanIds) {
+        if (!snapshotEnabled || loanIds.isEmpty()) {
+            return;
+        }
+        Object[] members = loanIds.stream().map(String::valueOf).toArray();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    removeFromSnapshot(members);
+                }
+            });
+        } else {
+            removeFromSnapshot(members);
+        }
+    }
+
+    /**
+     * The returns are already committed; entries left behind are dropped when a snapshot read finds them returned
+     */
+    private void removeFromSnapshot(Object[] members) {
+        try {
+            redisTemplate.opsForZSet().remove(SNAPSHOT_KEY, members);
+        } catch (RuntimeException e) {
+            log.warn("Failed to remove {} returned loans from the overdue snapshot", members.length, e);
+        }
+    }
+
+    /**
+     * Add loans that became overdue since the last run to the snapshot
+     * Walks the partial index by (due_date, id) keyset from the stored watermark, in chunks
+     */
+    @Scheduled(fixedDelayString = "${library.overdue.snapshot.refreshIntervalMillis:60000}")
+    public void refreshSnapshot() {
+        if (!snapshotEnabled) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        String watermark = redisTemplate.opsForValue().get(WATERMARK_KEY);
+        LocalDateTime afterDueDate = watermark == null ? SCAN_START : fromScore(Long.parseLong(watermark));
+        Integer afterId = 0;
+        int added = 0;
+
+        while (true) {
+            List<LoanDueDateView> chunk = loanRepository.findActiveLoansDueAfter(
+                    afterDueDate, afterId, now, PageRequest.of(0, chunkSize));
+            if (chunk.isEmpty()) {
+                break;
+            }
+
+            Set<ZSetOperations.TypedTuple<String>> tuples = chunk.stream()
+                    .map(loan -> new DefaultTypedTuple<>(String.valueOf(loan.id()), (double) toScore(loan.dueDate())))
+                    .collect(Collectors.toSet());
+            redisTemplate.opsForZSet().add(SNAPSHOT_KEY, tuples);
+            added += chunk.size();
+
+            LoanDueDateView last = chunk.get(chunk.size() - 1);
+            afterDueDate = last.dueDate();
+            afterId = last.id();
+            if (chunk.size() < chunkSize) {
+                break;
+            }
+        }
+
+        redisTemplate.opsForValue().set(WATERMARK_KEY, String.valueOf(toScore(now)));
+        if (added > 0) {
+            log.info("Overdue snapshot refreshed: {} newly overdue loans", added);
+        }
+    }
+
+    /**
+     * Drop the snapshot so the next refresh rebuilds it from scratch
+     * Readers use the database path until the rebuild completes
+     */
+    @Scheduled(cron = "${library.overdue.snapshot.rebuildCron:0 30 3 * * *}")
+    public void rebuildSnapshot() {
+        if (!snapshotEnabled) {
+            return;
+        }
+        redisTemplate.delete(List.of(WATERMARK_KEY, SNAPSHOT_KEY));
+        refreshSnapshot();
+    }
+
+    private List<LoanBookMember> getOverdueLoansFromSnapshot(LocalDateTime cutoff, int page, int size) {
+        Set<String> ids = redisTemplate.opsForZSet().rangeByScore(
+                SNAPSHOT_KEY, Double.NEGATIVE_INFINITY, toScore(cutoff) - 1, (long) page * size, size);
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+
+        List<Integer> loanIds = ids.stream().map(Integer::valueOf).toList();
+        Map<Integer, LoanEntity> loans = loanRepository.findAllWithDetailsByIdIn(loanIds).stream()
+                .collect(Collectors.toMap(LoanEntity::getId, Function.identity()));
+
+        List<LoanBookMember> results = new ArrayList<>(loanIds.size());
+        List<Integer> stale = new ArrayList<>();
+        for (Integer loanId : loanIds) {
+            LoanEntity loan = loans.get(loanId);
+            if (loan == null || loan.getReturnDate() != null) {
+                stale.add(loanId);
+            } else {
+                results.add(mapToLoanBookMember(loan));
+            }
+        }
+
+        // Self-heal entries whose removal was missed
+        if (!stale.isEmpty()) {
+            redisTemplate.opsForZSet().remove(SNAPSHOT_KEY, stale.stream().map(String::valueOf).toArray());
+        }
+        return results;
+    }
+
+    private static long toScore(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static LocalDateTime fromScore(long score) {
+        return LocalDateTime.ofEpochSecond(score / 1000, (int) (score % 1000) * 1_000_000, ZoneOffset.UTC);
+    }
+
+    private LoanBookMember mapToLoanBookMember(LoanEntity loanEntity) {
+        MemberEntity memberEntity = loanEntity.getMemberEntity();
+        UserEntity userEntity = memberEntity.getUserEntity();
+        BookEntity bookEntity = loanEntity.getBookEntity();
+
+        var user = new User(
+                userEntity.getId(),
+                userEntity.getName(),
+                userEntity.getEmail(),
+                null,
+                null,
+                userEntity.getCreatedAt(),
+                userEntity.getUpdatedAt(),
+                userEntity.getActive()
+        );
+
+        return new LoanBookMember(
+                loanEntity.getId(),
+                new Member(
+                        memberEntity.getId(),
+                        user,
+                        memberEntity.getAddress(),
+                        memberEntity.getPhoneNumber(),
+                        memberEntity.getCreatedAt(),
+                        memberEntity.getUpdatedAt(),
+                        memberEntity.getIsActive()
+                ),
+                new Book(
+                        bookEntity.getId(),
+                        bookEntity.getTitle(),
+                        bookEntity.getAuthor(),
+                        bookEntity.getIsbn(),
+                        bookEntity.getTotalCopies(),
+                        bookEntity.getAvailableCopies(),
+                        bookEntity.getCreatedAt(),
+                        bookEntity.getUpdatedAt()
+                ),
+                loanEntity.getBorrowDate(),
+                loanEntity.getReturnDate(),
+                loanEntity.getDueDate(),
+                loanEntity.getCreatedAt(),
+                loanEntity.getUpdatedAt()
+        );
+    }
+}
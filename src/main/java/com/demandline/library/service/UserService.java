@@ -1,9 +1,11 @@
 package com.demandline.library.service;
 
 import com.demandline.library.observability.MetricsService;
+import com.demandline.library.repository.OffsetLimitRequest;
 import com.demandline.library.repository.UserRepository;
 import com.demandline.library.repository.RoleRepository;
 import com.demandline.library.repository.model.UserEntity;
+import com.demandline.library.repository.projection.UserView;
 import com.demandline.library.service.model.User;
 import com.demandline.library.service.model.Role;
 import com.demandline.library.service.model.input.UserInput;
@@ -96,16 +98,17 @@ public class UserService {
         userRepository.save(entity);
     }
 
+    @Transactional(readOnly = true)
     public List<User> getAllUsers(boolean includeMembers, int limit, int offset) {
-        var users = userRepository.findAllByActiveTrue();
-        var filtered = users.stream()
-                .filter(u -> includeMembers || !"Member".equalsIgnoreCase(u.getRoleEntity().getName()))
-                .skip(offset)
-                .limit(limit)
+        if (limit == 0) {
+            return List.of();
+        }
+        return userRepository.findActiveUserViews(includeMembers, new OffsetLimitRequest(offset, limit)).stream()
+                .map(this::mapToUser)
                 .collect(Collectors.toList());
-        return filtered.stream().map(this::mapToUser).collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public Optional<User> getUserByEmail(String email) {
         return userRepository.findByEmail(email).map(this::mapToUser);
     }
@@ -128,4 +131,23 @@ public class UserService {
                 userEntity.getActive()
         );
     }
+
+    private User mapToUser(UserView userView) {
+        return new User(
+                userView.id(),
+                userView.name(),
+                userView.email(),
+                null,
+                new Role(
+                        userView.roleId(),
+                        userView.roleName(),
+                        userView.rolePermissions(),
+                        userView.roleCreatedAt(),
+                        userView.roleUpdatedAt()
+                ),
+                userView.createdAt(),
+                userView.updatedAt(),
+                userView.active()
+        );
+    }
 }
@@ -0,0 +1,15 @@
+package com.demandline.library.service.event;
+
+import java.util.List;
+
+/**
+ * Published when returned or freed copies are set aside for waiting holds
+ * Listeners (e.g. member notifications) should use @TransactionalEventListener so they only
+ * see holds whose allocation was committed.
+ * @param bookId the book
+ * @param holdIds holds that became ready, oldest first
+ */
+public record HoldsReadyEvent(
+        Integer bookId,
+        List<Integer> holdIds
+) {}
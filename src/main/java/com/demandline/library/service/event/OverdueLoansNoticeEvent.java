@@ -0,0 +1,16 @@
+package com.demandline.library.service.event;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Published by the fine accrual job for each committed chunk of overdue loans
+ * Listeners (e.g. member notifications) should use @TransactionalEventListener so they only
+ * see chunks whose fines were committed.
+ * @param runDate date the fines were accrued through
+ * @param loanIds overdue loans in the chunk
+ */
+public record OverdueLoansNoticeEvent(
+        LocalDate runDate,
+        List<Integer> loanIds
+) {}
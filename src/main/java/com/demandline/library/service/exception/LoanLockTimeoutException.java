@@ -0,0 +1,10 @@
+package com.demandline.library.service.exception;
+
+/**
+ * The member lock of a loan or return could not be acquired in time
+ */
+public class LoanLockTimeoutException extends IllegalStateException {
+    public LoanLockTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,20 @@
+package com.demandline.library.service.exception;
+
+import com.demandline.library.observability.FailureReason;
+
+/**
+ * A loan or return refused because of the request or the library's state, such as an unavailable book
+ * Carries the failure reason reported in metrics, so the message can be worded freely.
+ */
+public class LoanRejectedException extends IllegalArgumentException {
+    private final FailureReason reason;
+
+    public LoanRejectedException(FailureReason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+
+    public FailureReason getReason() {
+        return reason;
+    }
+}
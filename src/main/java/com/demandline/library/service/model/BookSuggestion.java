@@ -0,0 +1,13 @@
+package com.demandline.library.service.model;
+
+/**
+ * Typeahead suggestion for a book
+ * @param bookId the book
+ * @param title book title
+ * @param author book author
+ */
+public record BookSuggestion(
+    Integer bookId,
+    String title,
+    String author
+) {}
@@ -0,0 +1,22 @@
+package com.demandline.library.service.model;
+
+/**
+ * Outcome of one returned copy in a bulk return
+ * loanId and memberId are set once the copy was matched to an active loan; error is set when it was not returned
+ */
+public record BulkReturnItemResult(
+        Integer bookId,
+        String isbn,
+        Integer loanId,
+        Integer memberId,
+        boolean returned,
+        String error
+) {
+    public static BulkReturnItemResult returned(Integer bookId, String isbn, Integer loanId, Integer memberId) {
+        return new BulkReturnItemResult(bookId, isbn, loanId, memberId, true, null);
+    }
+
+    public static BulkReturnItemResult failed(Integer bookId, String isbn, Integer loanId, Integer memberId, String error) {
+        return new BulkReturnItemResult(bookId, isbn, loanId, memberId, false, error);
+    }
+}
@@ -0,0 +1,23 @@
+package com.demandline.library.service.model;
+
+import java.time.LocalDate;
+
+/**
+ * Outcome of one fine accrual job run
+ * @param runDate date the fines were accrued through
+ * @param loansScanned overdue loans visited in this run (excludes chunks done before a restart)
+ * @param finesAccrued fines created or increased
+ * @param chunks chunks committed
+ * @param elapsedMillis wall-clock time of the run
+ */
+public record FineAccrualSummary(
+        LocalDate runDate,
+        int loansScanned,
+        int finesAccrued,
+        int chunks,
+        long elapsedMillis
+) {
+    public double loansPerSecond() {
+        return elapsedMillis == 0 ? loansScanned : loansScanned * 1000.0 / elapsedMillis;
+    }
+}
@@ -0,0 +1,21 @@
+package com.demandline.library.service.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Hold Model
+ * A member's place in the queue for a book
+ * @param queuePosition position among the waiting holds of the book, 1 for the next holder; null unless WAITING
+ * @param expiresAt end of the pickup window; null unless a copy was set aside
+ */
+public record Hold(
+    Integer id,
+    Integer memberId,
+    Integer bookId,
+    String status,
+    Long queuePosition,
+    LocalDateTime readyAt,
+    LocalDateTime expiresAt,
+    LocalDateTime createdAt,
+    LocalDateTime updatedAt
+) {}
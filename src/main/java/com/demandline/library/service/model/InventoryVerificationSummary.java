@@ -0,0 +1,18 @@
+package com.demandline.library.service.model;
+
+/**
+ * Outcome of one inventory consistency check
+ * @param driftedBooks books whose available copies disagreed with total copies minus active loans
+ * @param driftedCopies sum of absolute drift over those books
+ * @param unrepairableBooks drifted books whose total copies are below active loans plus held copies;
+ *                          repair only sets them to 0 and their total copies must be corrected by hand
+ * @param repairedBooks books repaired in this run (0 when repair is disabled)
+ * @param elapsedMillis wall-clock time of the check and repair
+ */
+public record InventoryVerificationSummary(
+        int driftedBooks,
+        long driftedCopies,
+        int unrepairableBooks,
+        int repairedBooks,
+        long elapsedMillis
+) {}
@@ -0,0 +1,22 @@
+package com.demandline.library.service.model;
+
+/**
+ * Outcome of a single loan request processed as part of a batch
+ * Exactly one of loan or failure is set
+ */
+public record LoanBatchResult(
+        Loan loan,
+        RuntimeException failure
+) {
+    public static LoanBatchResult success(Loan loan) {
+        return new LoanBatchResult(loan, null);
+    }
+
+    public static LoanBatchResult failure(RuntimeException failure) {
+        return new LoanBatchResult(null, failure);
+    }
+
+    public boolean isSuccess() {
+        return failure == null;
+    }
+}
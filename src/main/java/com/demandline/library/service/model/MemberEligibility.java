@@ -0,0 +1,42 @@
+package com.demandline.library.service.model;
+
+import java.util.List;
+
+/**
+ * Whether a member can borrow, and which of the candidate books are available
+ * @param memberId the member
+ * @param active whether the member and their user account are active
+ * @param activeLoanCount loans not yet returned
+ * @param overdueLoanCount active loans past their due date
+ * @param maxBooksPerMember books that may be borrowed at once
+ * @param remainingQuota books the member may borrow now
+ * @param canBorrow whether a loan of all candidate books would be accepted right now
+ * @param reason why the member cannot borrow, null when they can
+ * @param books availability of each requested book, in request order
+ */
+public record MemberEligibility(
+        Integer memberId,
+        boolean active,
+        long activeLoanCount,
+        long overdueLoanCount,
+        int maxBooksPerMember,
+        int remainingQuota,
+        boolean canBorrow,
+        String reason,
+        List<BookAvailability> books
+) {
+    /**
+     * @param bookId the requested book
+     * @param found whether the book exists
+     * @param title book title, null when not found
+     * @param availableCopies copies on the shelf, plus the copy held for this member's ready hold
+     * @param available whether enough copies are left for this request
+     */
+    public record BookAvailability(
+            Integer bookId,
+            boolean found,
+            String title,
+            int availableCopies,
+            boolean available
+    ) {}
+}
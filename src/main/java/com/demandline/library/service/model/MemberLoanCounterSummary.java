@@ -0,0 +1,15 @@
+package com.demandline.library.service.model;
+
+/**
+ * Outcome of one member loan counter check
+ * @param driftedMembers members whose active loan counter disagreed with their active loans
+ * @param driftedLoans sum of absolute drift over those members
+ * @param repairedMembers members repaired in this run (0 when repair is disabled)
+ * @param elapsedMillis wall-clock time of the check and repair
+ */
+public record MemberLoanCounterSummary(
+        int driftedMembers,
+        long driftedLoans,
+        int repairedMembers,
+        long elapsedMillis
+) {}
@@ -1,7 +1,14 @@
 package com.demandline.library.service.model.filter;
 
+import java.time.LocalDateTime;
+
 public record LoanFilter(
     boolean onlyActiveLoans,
     boolean onlyOverdueLoans,
-    int daysOverdue
-) {}
+    int daysOverdue,
+    LocalDateTime borrowedSince
+) {
+    public LoanFilter(boolean onlyActiveLoans, boolean onlyOverdueLoans, int daysOverdue) {
+        this(onlyActiveLoans, onlyOverdueLoans, daysOverdue, null);
+    }
+}
@@ -0,0 +1,6 @@
+package com.demandline.library.service.model.input;
+
+public record BulkReturnItemInput(
+    Integer bookId,
+    String isbn
+) {}
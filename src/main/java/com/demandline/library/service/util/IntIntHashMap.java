@@ -0,0 +1,136 @@
+package com.demandline.library.service.util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from int keys to non-negative int values
+ * Keys and values live in two parallel int arrays with linear probing, so entries cost eight bytes
+ * of table space instead of boxed keys and node objects. A value of -1 marks a free bucket, which is
+ * also what get returns for a missing key. Removal shifts the following entries back, so there are no
+ * tombstones. Not thread-safe; callers synchronize.
+ */
+public final class IntIntHashMap {
+    public static final int MISSING = -1;
+
+    private static final int MIN_CAPACITY = 16;
+
+    private int[] keys;
+    private int[] values;
+    private int size;
+
+    public IntIntHashMap() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * @param expectedSize number of entries to hold without resizing
+     */
+    public IntIntHashMap(int expectedSize) {
+        int capacity = tableSizeFor(expectedSize);
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, MISSING);
+    }
+
+    /**
+     * @return the value for a key, or MISSING
+     */
+    public int get(int key) {
+        int mask = keys.length - 1;
+        for (int i = bucket(key, mask); values[i] != MISSING; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return values[i];
+            }
+        }
+        return MISSING;
+    }
+
+    /**
+     * Map a key to a value, replacing any previous value
+     * @param value non-negative value
+     */
+    public void put(int key, int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Value must not be negative");
+        }
+        int mask = keys.length - 1;
+        int i = bucket(key, mask);
+        for (; values[i] != MISSING; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size > keys.length / 2) {
+            resize(keys.length * 2);
+        }
+    }
+
+    /**
+     * @return the removed value, or MISSING
+     */
+    public int remove(int key) {
+        int mask = keys.length - 1;
+        int i = bucket(key, mask);
+        while (values[i] != MISSING && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        if (values[i] == MISSING) {
+            return MISSING;
+        }
+        int removed = values[i];
+        // Shift back later entries of the probe run that would otherwise become unreachable
+        int free = i;
+        for (int j = (i + 1) & mask; values[j] != MISSING; j = (j + 1) & mask) {
+            int home = bucket(keys[j], mask);
+            if (((j - home) & mask) >= ((j - free) & mask)) {
+                keys[free] = keys[j];
+                values[free] = values[j];
+                free = j;
+            }
+        }
+        values[free] = MISSING;
+        size--;
+        return removed;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return bytes held by the key and value tables
+     */
+    public long tableBytes() {
+        return 8L * keys.length;
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, MISSING);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != MISSING) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private static int bucket(int key, int mask) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedSize * 2L) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
@@ -0,0 +1,472 @@
+package com.demandline.library.service.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+/**
+ * Column-packed in-memory copy of the books table
+ * Each book occupies one slot across parallel primitive arrays; title, author and ISBN are stored as
+ * UTF-8 in one shared byte arena. Book IDs map to slots and ISBN hashes to slot chains through
+ * open-addressing int maps, and every lower-cased trigram of a title or author maps to a sorted
+ * posting list of book IDs. Searches mirror the public book queries: exact ISBN, title or author
+ * substring, exact author (both ignoring case) and all books, each ordered by ID with optional
+ * availability filtering and offset pagination. Substring searches intersect the trigram postings
+ * of the term and confirm each candidate against the stored text; terms shorter than three
+ * characters or containing LIKE wildcards are not supported and return null.
+ * Not thread-safe; callers synchronize.
+ */
+public final class PackedBookCatalog {
+    private static final int NO_SLOT = -1;
+    private static final long NO_TIME = Long.MIN_VALUE;
+    // Approximate heap cost of one trigram entry: HashMap node, boxed key and SortedIntList header
+    private static final int TRIGRAM_ENTRY_BYTES = 96;
+
+    private int[] ids = new int[0];
+    private int[] totalCopies = new int[0];
+    private int[] availableCopies = new int[0];
+    private long[] createdAt = new long[0];
+    private long[] updatedAt = new long[0];
+    private int[] textStart = new int[0];
+    private short[] titleBytes = new short[0];
+    private short[] authorBytes = new short[0];
+    private byte[] isbnBytes = new byte[0];
+    private int[] isbnNext = new int[0];
+    private int slotCount;
+
+    private int[] freeSlots = new int[0];
+    private int freeSlotCount;
+
+    private byte[] text = new byte[0];
+    private int textSize;
+    private int textGarbage;
+
+    private final IntIntHashMap slotsById;
+    private final IntIntHashMap isbnHeads;
+    private final SortedIntList allIds = new SortedIntList();
+    private final Map<Long, SortedIntList> postings = new HashMap<>();
+
+    public PackedBookCatalog() {
+        this(16);
+    }
+
+    /**
+     * @param expectedBooks number of books to size the ID and ISBN tables for
+     */
+    public PackedBookCatalog(int expectedBooks) {
+        this.slotsById = new IntIntHashMap(expectedBooks);
+        this.isbnHeads = new IntIntHashMap(expectedBooks);
+    }
+
+    /**
+     * Insert or replace a book
+     */
+    public void put(int id, String title, String author, String isbn, int total, int available,
+                    LocalDateTime created, LocalDateTime updated) {
+        int slot = slotsById.get(id);
+        if (slot == NO_SLOT) {
+            slot = allocateSlot();
+            ids[slot] = id;
+            slotsById.put(id, slot);
+            allIds.add(id);
+        } else {
+            unindexText(slot);
+        }
+        totalCopies[slot] = total;
+        availableCopies[slot] = available;
+        createdAt[slot] = toMicros(created);
+        updatedAt[slot] = toMicros(updated);
+        storeText(slot, title, author, isbn);
+        indexText(slot);
+    }
+
+    /**
+     * @return whether the book was present
+     */
+    public boolean remove(int id) {
+        int slot = slotsById.remove(id);
+        if (slot == NO_SLOT) {
+            return false;
+        }
+        unindexText(slot);
+        allIds.remove(id);
+        ids[slot] = 0;
+        if (freeSlotCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, Math.max(16, freeSlotCount * 2));
+        }
+        freeSlots[freeSlotCount++] = slot;
+        return true;
+    }
+
+    public boolean contains(int id) {
+        return slotsById.get(id) != NO_SLOT;
+    }
+
+    /**
+     * @return updated_at of a book in microseconds since the epoch, or Long.MIN_VALUE when absent or unset
+     */
+    public long updatedAtMicros(int id) {
+        int slot = slotsById.get(id);
+        return slot == NO_SLOT ? NO_TIME : updatedAt[slot];
+    }
+
+    public int size() {
+        return allIds.size();
+    }
+
+    /**
+     * @return book ID at a position in ascending ID order
+     */
+    public int idAt(int index) {
+        return allIds.get(index);
+    }
+
+    /**
+     * Drop spare capacity and garbage text, e.g. after a bulk load
+     */
+    public void trimToSize() {
+        compactText();
+        allIds.trimToSize();
+        postings.values().forEach(SortedIntList::trimToSize);
+    }
+
+    /**
+     * Approximate heap used by the catalog
+     * Counts primitive arrays exactly and trigram map entries at a fixed per-entry estimate
+     * @return bytes
+     */
+    public long estimatedBytes() {
+        long bytes = 4L * (ids.length + totalCopies.length + availableCopies.length + textStart.length
+                + isbnNext.length + freeSlots.length)
+                + 8L * (createdAt.length + updatedAt.length)
+                + 2L * (titleBytes.length + authorBytes.length) + isbnBytes.length
+                + text.length + slotsById.tableBytes() + isbnHeads.tableBytes() + allIds.arrayBytes();
+        for (SortedIntList list : postings.values()) {
+            bytes += TRIGRAM_ENTRY_BYTES + list.arrayBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Find books by exact ISBN
+     * @return matching slots
+     */
+    public int[] findByIsbn(String isbn, boolean includeUnavailable, int limit, int offset) {
+        byte[] wanted = isbn.getBytes(StandardCharsets.UTF_8);
+        for (int slot = isbnHeads.get(isbn.hashCode()); slot != NO_SLOT; slot = isbnNext[slot]) {
+            if (Arrays.equals(text, isbnStart(slot), isbnStart(slot) + isbnBytes[slot], wanted, 0, wanted.length)) {
+                boolean visible = includeUnavailable || availableCopies[slot] > 0;
+                return visible && offset == 0 && limit > 0 ? new int[] {slot} : new int[0];
+            }
+        }
+        return new int[0];
+    }
+
+    /**
+     * Find books whose title or author contains a term, ignoring case
+     * @return matching slots ordered by ID, or null when the term cannot be searched in memory
+     */
+    public int[] findContaining(String term, boolean includeUnavailable, int limit, int offset) {
+        String lower = term.toLowerCase(Locale.ROOT);
+        return findByTrigrams(lower, includeUnavailable, limit, offset,
+                slot -> title(slot).toLowerCase(Locale.ROOT).contains(lower)
+                        || author(slot).toLowerCase(Locale.ROOT).contains(lower));
+    }
+
+    /**
+     * Find books by author, ignoring case
+     * @return matching slots ordered by ID, or null when the name cannot be searched in memory
+     */
+    public int[] findByAuthor(String author, boolean includeUnavailable, int limit, int offset) {
+        String lower = author.toLowerCase(Locale.ROOT);
+        return findByTrigrams(lower, includeUnavailable, limit, offset,
+                slot -> author(slot).toLowerCase(Locale.ROOT).equals(lower));
+    }
+
+    /**
+     * Page through all books
+     * @return slots ordered by ID
+     */
+    public int[] findAll(boolean includeUnavailable, int limit, int offset) {
+        if (includeUnavailable) {
+            int from = Math.min(offset, allIds.size());
+            int to = from + Math.min(allIds.size() - from, limit);
+            int[] slots = new int[to - from];
+            for (int i = from; i < to; i++) {
+                slots[i - from] = slotsById.get(allIds.get(i));
+            }
+            return slots;
+        }
+        Page page = new Page(limit, offset);
+        for (int i = 0; i < allIds.size() && !page.isFull(); i++) {
+            int slot = slotsById.get(allIds.get(i));
+            if (availableCopies[slot] > 0) {
+                page.offer(slot);
+            }
+        }
+        return page.slots();
+    }
+
+    public int id(int slot) {
+        return ids[slot];
+    }
+
+    public String title(int slot) {
+        return new String(text, textStart[slot], titleBytes[slot], StandardCharsets.UTF_8);
+    }
+
+    public String author(int slot) {
+        return new String(text, textStart[slot] + titleBytes[slot], authorBytes[slot], StandardCharsets.UTF_8);
+    }
+
+    public String isbn(int slot) {
+        return new String(text, isbnStart(slot), isbnBytes[slot], StandardCharsets.UTF_8);
+    }
+
+    public int totalCopies(int slot) {
+        return totalCopies[slot];
+    }
+
+    public int availableCopies(int slot) {
+        return availableCopies[slot];
+    }
+
+    public LocalDateTime createdAt(int slot) {
+        return fromMicros(createdAt[slot]);
+    }
+
+    public LocalDateTime updatedAt(int slot) {
+        return fromMicros(updatedAt[slot]);
+    }
+
+    /**
+     * Microseconds since the epoch, matching the precision Postgres keeps
+     */
+    public static long toMicros(LocalDateTime time) {
+        if (time == null) {
+            return NO_TIME;
+        }
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        if (micros == NO_TIME) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    private int[] findByTrigrams(String lower, boolean includeUnavailable, int limit, int offset, IntPredicate matches) {
+        if (lower.length() < 3 || lower.indexOf('%') >= 0 || lower.indexOf('_') >= 0 || lower.indexOf('\\') >= 0) {
+            return null;
+        }
+        long[] keys = trigrams(lower);
+        SortedIntList[] lists = new SortedIntList[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            lists[i] = postings.get(keys[i]);
+            if (lists[i] == null) {
+                return new int[0];
+            }
+        }
+        // Walk the shortest list and probe the others with advancing cursors
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size(), b.size()));
+        int[] cursors = new int[lists.length];
+        Page page = new Page(limit, offset);
+        candidates:
+        for (int i = 0; i < lists[0].size() && !page.isFull(); i++) {
+            int id = lists[0].get(i);
+            for (int l = 1; l < lists.length; l++) {
+                int at = lists[l].indexOf(id, cursors[l]);
+                cursors[l] = at >= 0 ? at : -at - 1;
+                if (at < 0) {
+                    continue candidates;
+                }
+            }
+            int slot = slotsById.get(id);
+            if ((includeUnavailable || availableCopies[slot] > 0) && matches.test(slot)) {
+                page.offer(slot);
+            }
+        }
+        return page.slots();
+    }
+
+    private int allocateSlot() {
+        if (freeSlotCount > 0) {
+            return freeSlots[--freeSlotCount];
+        }
+        if (slotCount == ids.length) {
+            int capacity = Math.max(16, slotCount + (slotCount >> 1));
+            ids = Arrays.copyOf(ids, capacity);
+            totalCopies = Arrays.copyOf(totalCopies, capacity);
+            availableCopies = Arrays.copyOf(availableCopies, capacity);
+            createdAt = Arrays.copyOf(createdAt, capacity);
+            updatedAt = Arrays.copyOf(updatedAt, capacity);
+            textStart = Arrays.copyOf(textStart, capacity);
+            titleBytes = Arrays.copyOf(titleBytes, capacity);
+            authorBytes = Arrays.copyOf(authorBytes, capacity);
+            isbnBytes = Arrays.copyOf(isbnBytes, capacity);
+            isbnNext = Arrays.copyOf(isbnNext, capacity);
+        }
+        return slotCount++;
+    }
+
+    private void storeText(int slot, String title, String author, String isbn) {
+        byte[] titleUtf8 = title.getBytes(StandardCharsets.UTF_8);
+        byte[] authorUtf8 = author.getBytes(StandardCharsets.UTF_8);
+        byte[] isbnUtf8 = isbn.getBytes(StandardCharsets.UTF_8);
+        int length = titleUtf8.length + authorUtf8.length + isbnUtf8.length;
+        if (textSize + length > text.length) {
+            if (textGarbage > textSize / 2) {
+                compactText();
+            }
+            if (textSize + length > text.length) {
+                text = Arrays.copyOf(text, Math.max(textSize + length, text.length + (text.length >> 1)));
+            }
+        }
+        textStart[slot] = textSize;
+        titleBytes[slot] = (short) titleUtf8.length;
+        authorBytes[slot] = (short) authorUtf8.length;
+        isbnBytes[slot] = (byte) isbnUtf8.length;
+        System.arraycopy(titleUtf8, 0, text, textSize, titleUtf8.length);
+        System.arraycopy(authorUtf8, 0, text, textSize + titleUtf8.length, authorUtf8.length);
+        System.arraycopy(isbnUtf8, 0, text, textSize + titleUtf8.length + authorUtf8.length, isbnUtf8.length);
+        textSize += length;
+    }
+
+    private void compactText() {
+        byte[] compacted = new byte[textSize - textGarbage];
+        int size = 0;
+        for (int i = 0; i < allIds.size(); i++) {
+            int slot = slotsById.get(allIds.get(i));
+            int length = textLength(slot);
+            System.arraycopy(text, textStart[slot], compacted, size, length);
+            textStart[slot] = size;
+            size += length;
+        }
+        text = compacted;
+        textSize = size;
+        textGarbage = 0;
+    }
+
+    private void indexText(int slot) {
+        for (long key : bookTrigrams(slot)) {
+            postings.computeIfAbsent(key, k -> new SortedIntList()).add(ids[slot]);
+        }
+        int hash = isbn(slot).hashCode();
+        int head = isbnHeads.get(hash);
+        isbnNext[slot] = head;
+        isbnHeads.put(hash, slot);
+    }
+
+    private void unindexText(int slot) {
+        for (long key : bookTrigrams(slot)) {
+            SortedIntList list = postings.get(key);
+            if (list != null && list.remove(ids[slot]) && list.size() == 0) {
+                postings.remove(key);
+            }
+        }
+        int hash = isbn(slot).hashCode();
+        int head = isbnHeads.get(hash);
+        if (head == slot) {
+            if (isbnNext[slot] == NO_SLOT) {
+                isbnHeads.remove(hash);
+            } else {
+                isbnHeads.put(hash, isbnNext[slot]);
+            }
+        } else {
+            int previous = head;
+            while (previous != NO_SLOT && isbnNext[previous] != slot) {
+                previous = isbnNext[previous];
+            }
+            if (previous != NO_SLOT) {
+                isbnNext[previous] = isbnNext[slot];
+            }
+        }
+        // The old text becomes garbage; the slot holds none until its new text is stored
+        textGarbage += textLength(slot);
+        titleBytes[slot] = 0;
+        authorBytes[slot] = 0;
+        isbnBytes[slot] = 0;
+    }
+
+    private long[] bookTrigrams(int slot) {
+        long[] titleKeys = trigrams(title(slot).toLowerCase(Locale.ROOT));
+        long[] authorKeys = trigrams(author(slot).toLowerCase(Locale.ROOT));
+        long[] keys = Arrays.copyOf(titleKeys, titleKeys.length + authorKeys.length);
+        System.arraycopy(authorKeys, 0, keys, titleKeys.length, authorKeys.length);
+        return distinct(keys);
+    }
+
+    private static long[] trigrams(String lower) {
+        if (lower.length() < 3) {
+            return new long[0];
+        }
+        long[] keys = new long[lower.length() - 2];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = ((long) lower.charAt(i) << 32) | ((long) lower.charAt(i + 1) << 16) | lower.charAt(i + 2);
+        }
+        return distinct(keys);
+    }
+
+    private static long[] distinct(long[] keys) {
+        if (keys.length < 2) {
+            return keys;
+        }
+        Arrays.sort(keys);
+        int unique = 1;
+        for (int i = 1; i < keys.length; i++) {
+            if (keys[i] != keys[unique - 1]) {
+                keys[unique++] = keys[i];
+            }
+        }
+        return Arrays.copyOf(keys, unique);
+    }
+
+    private int isbnStart(int slot) {
+        return textStart[slot] + titleBytes[slot] + authorBytes[slot];
+    }
+
+    private int textLength(int slot) {
+        return titleBytes[slot] + authorBytes[slot] + isbnBytes[slot];
+    }
+
+    /**
+     * Offset and limit applied while matches are found in ID order
+     */
+    private static final class Page {
+        private final int limit;
+        private int skip;
+        private int[] slots = new int[8];
+        private int size;
+
+        private Page(int limit, int offset) {
+            this.limit = limit;
+            this.skip = offset;
+        }
+
+        private boolean isFull() {
+            return size >= limit;
+        }
+
+        private void offer(int slot) {
+            if (skip > 0) {
+                skip--;
+                return;
+            }
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+
+        private int[] slots() {
+            return Arrays.copyOf(slots, size);
+        }
+    }
+}
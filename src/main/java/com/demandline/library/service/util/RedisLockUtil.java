@@ -57,8 +57,17 @@ public class RedisLockUtil {
      * @return true if lock was released, false if timeout
      */
     public boolean waitForLock(String lockKey, long maxWaitTimeSeconds) {
+        return waitForLockMillis(lockKey, maxWaitTimeSeconds * 1000);
+    }
+
+    /**
+     * Wait for a lock to be released (polling)
+     * @param lockKey the key to wait for
+     * @param timeoutMs maximum time to wait in milliseconds
+     * @return true if lock was released, false if timeout
+     */
+    public boolean waitForLockMillis(String lockKey, long timeoutMs) {
         long startTime = System.currentTimeMillis();
-        long timeoutMs = maxWaitTimeSeconds * 1000;
         
         while (System.currentTimeMillis() - startTime < timeoutMs) {
             if (!redisTemplate.hasKey(LOCK_PREFIX + lockKey)) {
@@ -0,0 +1,86 @@
+package com.demandline.library.service.util;
+
+import java.util.Arrays;
+
+/**
+ * Growable sorted set of ints backed by a single int array
+ * Used as a posting list: adding a value larger than the last one is an append, anything else
+ * shifts the tail in place. Not thread-safe; callers synchronize.
+ */
+public final class SortedIntList {
+    private static final int[] EMPTY = new int[0];
+
+    private int[] values = EMPTY;
+    private int size;
+
+    /**
+     * Add a value, keeping one copy if it is already present
+     */
+    public void add(int value) {
+        if (size > 0 && value <= values[size - 1]) {
+            int at = Arrays.binarySearch(values, 0, size, value);
+            if (at >= 0) {
+                return;
+            }
+            insertAt(-at - 1, value);
+            return;
+        }
+        insertAt(size, value);
+    }
+
+    /**
+     * @return whether the value was present
+     */
+    public boolean remove(int value) {
+        int at = Arrays.binarySearch(values, 0, size, value);
+        if (at < 0) {
+            return false;
+        }
+        System.arraycopy(values, at + 1, values, at, size - at - 1);
+        size--;
+        return true;
+    }
+
+    /**
+     * Find a value at or after a position, for walking several lists in step
+     * @param value value to look for
+     * @param from first position to consider
+     * @return position of the value, or -(insertion point) - 1 when absent
+     */
+    public int indexOf(int value, int from) {
+        return Arrays.binarySearch(values, Math.min(from, size), size, value);
+    }
+
+    public int get(int index) {
+        return values[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Drop spare capacity, e.g. after a bulk load
+     */
+    public void trimToSize() {
+        if (values.length != size) {
+            values = size == 0 ? EMPTY : Arrays.copyOf(values, size);
+        }
+    }
+
+    /**
+     * @return bytes held by the backing array
+     */
+    public long arrayBytes() {
+        return 4L * values.length;
+    }
+
+    private void insertAt(int at, int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, Math.max(4, size + (size >> 1)));
+        }
+        System.arraycopy(values, at, values, at + 1, size - at);
+        values[at] = value;
+        size++;
+    }
+}
@@ -0,0 +1,233 @@
+package com.demandline.library.service.util;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Compact prefix tree from tokens to int IDs
+ * Each node keeps its child characters and children in two parallel sorted arrays and the IDs of
+ * the tokens ending at it in a sorted int array, so there are no boxed keys, maps or per-entry objects.
+ * Nodes left without IDs or children are pruned on removal. Not thread-safe; callers synchronize.
+ */
+public final class TokenTrie {
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final int[] NO_IDS = new int[0];
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private Node root = new Node();
+    private int nodeCount = 1;
+
+    /**
+     * Add an ID under a token; adding the same pair twice keeps one
+     * @param token normalized token
+     * @param id the ID
+     */
+    public void add(String token, int id) {
+        Node node = root;
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            int slot = Arrays.binarySearch(node.keys, c);
+            if (slot < 0) {
+                slot = -slot - 1;
+                node.insertChild(slot, c, new Node());
+                nodeCount++;
+            }
+            node = node.children[slot];
+        }
+        int at = Arrays.binarySearch(node.ids, id);
+        if (at < 0) {
+            node.ids = insert(node.ids, -at - 1, id);
+        }
+    }
+
+    /**
+     * Remove an ID from a token, pruning nodes that become empty
+     * @param token normalized token
+     * @param id the ID
+     */
+    public void remove(String token, int id) {
+        Node[] path = new Node[token.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < token.length(); i++) {
+            int slot = Arrays.binarySearch(path[i].keys, token.charAt(i));
+            if (slot < 0) {
+                return;
+            }
+            path[i + 1] = path[i].children[slot];
+        }
+        Node node = path[token.length()];
+        int at = Arrays.binarySearch(node.ids, id);
+        if (at < 0) {
+            return;
+        }
+        node.ids = delete(node.ids, at);
+        for (int i = token.length(); i > 0 && path[i].isEmpty(); i--) {
+            path[i - 1].removeChild(Arrays.binarySearch(path[i - 1].keys, token.charAt(i - 1)));
+            nodeCount--;
+        }
+    }
+
+    /**
+     * Collect the IDs of all tokens starting with a prefix
+     * @param prefix normalized prefix
+     * @param maxIds stop after this many IDs (before duplicates are removed)
+     * @return sorted distinct IDs
+     */
+    public int[] collect(String prefix, int maxIds) {
+        Node node = root;
+        for (int i = 0; i < prefix.length(); i++) {
+            int slot = Arrays.binarySearch(node.keys, prefix.charAt(i));
+            if (slot < 0) {
+                return NO_IDS;
+            }
+            node = node.children[slot];
+        }
+
+        int[] found = new int[Math.min(maxIds, 64)];
+        int size = 0;
+        Deque<Node> pending = new ArrayDeque<>();
+        pending.push(node);
+        while (!pending.isEmpty() && size < maxIds) {
+            Node next = pending.pop();
+            for (int i = 0; i < next.ids.length && size < maxIds; i++) {
+                if (size == found.length) {
+                    found = Arrays.copyOf(found, Math.min(maxIds, found.length * 2));
+                }
+                found[size++] = next.ids[i];
+            }
+            for (int i = next.children.length - 1; i >= 0; i--) {
+                pending.push(next.children[i]);
+            }
+        }
+        return distinct(found, size);
+    }
+
+    /**
+     * Remove everything
+     */
+    public void clear() {
+        root = new Node();
+        nodeCount = 1;
+    }
+
+    /**
+     * @return number of nodes, including the root
+     */
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Split text into normalized tokens: lower-cased, accents removed, split on anything but letters and digits
+     * @param text title, author or query text, may be null
+     * @return distinct tokens in order of appearance
+     */
+    public static String[] tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return new String[0];
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARATORS.splitAsStream(folded.toLowerCase(Locale.ROOT))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .toArray(String[]::new);
+    }
+
+    /**
+     * Intersect two sorted distinct ID arrays
+     * @return sorted IDs present in both
+     */
+    public static int[] intersect(int[] a, int[] b) {
+        int[] result = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, size = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[size++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private static int[] distinct(int[] ids, int size) {
+        if (size == 0) {
+            return NO_IDS;
+        }
+        Arrays.sort(ids, 0, size);
+        int unique = 1;
+        for (int i = 1; i < size; i++) {
+            if (ids[i] != ids[unique - 1]) {
+                ids[unique++] = ids[i];
+            }
+        }
+        return Arrays.copyOf(ids, unique);
+    }
+
+    private static int[] insert(int[] values, int at, int value) {
+        int[] grown = new int[values.length + 1];
+        System.arraycopy(values, 0, grown, 0, at);
+        grown[at] = value;
+        System.arraycopy(values, at, grown, at + 1, values.length - at);
+        return grown;
+    }
+
+    private static int[] delete(int[] values, int at) {
+        if (values.length == 1) {
+            return NO_IDS;
+        }
+        int[] shrunk = new int[values.length - 1];
+        System.arraycopy(values, 0, shrunk, 0, at);
+        System.arraycopy(values, at + 1, shrunk, at, values.length - at - 1);
+        return shrunk;
+    }
+
+    private static final class Node {
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_CHILDREN;
+        private int[] ids = NO_IDS;
+
+        private boolean isEmpty() {
+            return ids.length == 0 && keys.length == 0;
+        }
+
+        private void insertChild(int at, char key, Node child) {
+            char[] grownKeys = new char[keys.length + 1];
+            Node[] grownChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, grownKeys, 0, at);
+            System.arraycopy(children, 0, grownChildren, 0, at);
+            grownKeys[at] = key;
+            grownChildren[at] = child;
+            System.arraycopy(keys, at, grownKeys, at + 1, keys.length - at);
+            System.arraycopy(children, at, grownChildren, at + 1, children.length - at);
+            keys = grownKeys;
+            children = grownChildren;
+        }
+
+        private void removeChild(int at) {
+            if (keys.length == 1) {
+                keys = NO_KEYS;
+                children = NO_CHILDREN;
+                return;
+            }
+            char[] shrunkKeys = new char[keys.length - 1];
+            Node[] shrunkChildren = new Node[children.length - 1];
+            System.arraycopy(keys, 0, shrunkKeys, 0, at);
+            System.arraycopy(children, 0, shrunkChildren, 0, at);
+            System.arraycopy(keys, at + 1, shrunkKeys, at, keys.length - at - 1);
+            System.arraycopy(children, at + 1, shrunkChildren, at, children.length - at - 1);
+            keys = shrunkKeys;
+            children = shrunkChildren;
+        }
+    }
+}
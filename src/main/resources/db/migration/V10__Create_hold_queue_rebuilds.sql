@@ -0,0 +1,8 @@
+-- Hold queues whose Redis mirror missed an update after commit
+-- Shared by every node: while a book is listed, queue positions are counted in Postgres instead of
+-- read from the mirror, and the hold expiry sweep rebuilds the mirror and removes the row
+CREATE TABLE IF NOT EXISTS hold_queue_rebuilds (
+    book_id INTEGER PRIMARY KEY,
+    marked_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (book_id) REFERENCES books(id) ON DELETE CASCADE
+);
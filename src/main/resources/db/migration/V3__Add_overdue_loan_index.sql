@@ -0,0 +1,3 @@
+-- Partial index over active loans ordered by due date
+-- Serves overdue paging and the incremental overdue snapshot scan without touching returned loans
+CREATE INDEX IF NOT EXISTS idx_loans_active_due_date ON loans(due_date, id) WHERE return_date IS NULL;
@@ -0,0 +1,25 @@
+-- Fines accrued on overdue loans, one row per loan, recomputed by the daily fine accrual job
+CREATE TABLE IF NOT EXISTS fines (
+    id SERIAL PRIMARY KEY,
+    loan_id INTEGER NOT NULL UNIQUE,
+    member_id INTEGER NOT NULL,
+    days_overdue INTEGER NOT NULL,
+    amount NUMERIC(10, 2) NOT NULL,
+    accrued_through DATE NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (loan_id) REFERENCES loans(id) ON DELETE CASCADE,
+    FOREIGN KEY (member_id) REFERENCES members(id) ON DELETE RESTRICT
+);
+
+CREATE INDEX IF NOT EXISTS idx_fines_member_id ON fines(member_id);
+
+-- Keyset checkpoints so chunked batch jobs can resume where they stopped
+CREATE TABLE IF NOT EXISTS job_checkpoints (
+    job_name VARCHAR(100) PRIMARY KEY,
+    run_date DATE NOT NULL,
+    last_due_date TIMESTAMP NOT NULL,
+    last_loan_id INTEGER NOT NULL,
+    completed_at TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
@@ -0,0 +1,3 @@
+-- Partial index over active loans by book
+-- Lets the inventory consistency check count active loans per book without reading returned loans
+CREATE INDEX IF NOT EXISTS idx_loans_active_book_id ON loans(book_id) WHERE return_date IS NULL;
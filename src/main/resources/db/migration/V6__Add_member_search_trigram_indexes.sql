@@ -0,0 +1,10 @@
+-- Trigram indexes for member search
+-- Substring matches (LIKE '%term%') on lower(name)/lower(email) can use these instead of scanning every user
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_users_name_trgm ON users USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_users_email_trgm ON users USING gin (lower(email) gin_trgm_ops);
+
+-- Partial index over active members by id
+-- Serves keyset pagination of the member list without reading deactivated members
+CREATE INDEX IF NOT EXISTS idx_members_active_id ON members(id) WHERE is_active = TRUE;
@@ -0,0 +1,22 @@
+-- Per-member loan counters
+-- active_loan_count is kept in step with loans inside the loan/return transactions;
+-- overdue_count is recomputed for a member on return and refreshed periodically as loans fall due
+ALTER TABLE members ADD COLUMN IF NOT EXISTS active_loan_count INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE members ADD COLUMN IF NOT EXISTS overdue_count INTEGER NOT NULL DEFAULT 0;
+
+UPDATE members m
+SET active_loan_count = a.active,
+    overdue_count = a.overdue
+FROM (SELECT member_id,
+             COUNT(*) AS active,
+             COUNT(*) FILTER (WHERE due_date < now()) AS overdue
+      FROM loans
+      WHERE return_date IS NULL
+      GROUP BY member_id) a
+WHERE m.id = a.member_id;
+
+ALTER TABLE members ADD CONSTRAINT chk_members_active_loan_count CHECK (active_loan_count >= 0);
+ALTER TABLE members ADD CONSTRAINT chk_members_overdue_count CHECK (overdue_count >= 0);
+
+-- Lets the overdue refresh find members whose count may have to drop back to zero
+CREATE INDEX IF NOT EXISTS idx_members_overdue ON members(id) WHERE overdue_count > 0;
@@ -0,0 +1,137 @@
+-- Range-partition loans by borrow_date, one partition per month
+-- Each month carries its own small indexes; months whose loans are all returned can be detached
+-- and archived (see LoanArchivalJob) instead of weighing on every index scan and vacuum of the live table.
+
+-- The primary key of a partitioned table must include the partition key, so fines can no longer
+-- reference loans(id); fine rows are written by the accrual job from existing loans only and the
+-- former ON DELETE CASCADE is kept by a trigger on loans (below).
+ALTER TABLE fines DROP CONSTRAINT IF EXISTS fines_loan_id_fkey;
+
+ALTER TABLE loans RENAME TO loans_unpartitioned;
+ALTER TABLE loans_unpartitioned RENAME CONSTRAINT loans_pkey TO loans_unpartitioned_pkey;
+
+CREATE TABLE loans (
+    id INTEGER NOT NULL DEFAULT nextval('loans_id_seq'),
+    member_id INTEGER NOT NULL,
+    book_id INTEGER NOT NULL,
+    borrow_date TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    return_date TIMESTAMP,
+    due_date TIMESTAMP NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, borrow_date),
+    FOREIGN KEY (member_id) REFERENCES members(id) ON DELETE RESTRICT,
+    FOREIGN KEY (book_id) REFERENCES books(id) ON DELETE RESTRICT
+) PARTITION BY RANGE (borrow_date);
+
+-- Catches rows outside the prepared months; ensure_loans_partition moves them out when their month is created
+CREATE TABLE loans_default PARTITION OF loans DEFAULT;
+
+-- Create the partition for the month containing month_start, if missing
+-- The month is built as a plain table, rows the default partition holds for it are moved in,
+-- and only then is it attached, so the default partition never blocks a new month.
+CREATE OR REPLACE FUNCTION ensure_loans_partition(month_start DATE) RETURNS BOOLEAN AS $$
+DECLARE
+    range_start DATE := date_trunc('month', month_start)::DATE;
+    range_end DATE := (date_trunc('month', month_start) + INTERVAL '1 month')::DATE;
+    partition_name TEXT := 'loans_p' || to_char(date_trunc('month', month_start), 'YYYY_MM');
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+    EXECUTE format('CREATE TABLE %I (LIKE loans INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', partition_name);
+    -- Rows moved out of the default partition keep their fines
+    PERFORM set_config('library.moving_loans', 'on', true);
+    EXECUTE format('WITH moved AS (DELETE FROM loans_default WHERE borrow_date >= %L AND borrow_date < %L RETURNING *) ' ||
+                   'INSERT INTO %I SELECT * FROM moved', range_start, range_end, partition_name);
+    PERFORM set_config('library.moving_loans', 'off', true);
+    EXECUTE format('ALTER TABLE loans ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, range_start, range_end);
+    RETURN TRUE;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Detach months that ended before cutoff and hold no active loans, oldest first
+-- Detached months move to the loan_archive schema with only their primary key index kept.
+-- Returns the archived partition names.
+CREATE SCHEMA IF NOT EXISTS loan_archive;
+
+CREATE OR REPLACE FUNCTION archive_loans_partitions(cutoff DATE, max_partitions INTEGER, lock_timeout_millis INTEGER)
+RETURNS SETOF TEXT AS $$
+DECLARE
+    part RECORD;
+    idx RECORD;
+    has_active BOOLEAN;
+    archived INTEGER := 0;
+BEGIN
+    -- Detaching needs a short exclusive lock on loans; give up instead of queueing behind long queries
+    PERFORM set_config('lock_timeout', lock_timeout_millis || 'ms', true);
+    FOR part IN
+        SELECT c.relname AS name
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'loans'::regclass
+          AND c.relname ~ '^loans_p[0-9]{4}_[0-9]{2}$'
+          AND to_date(substr(c.relname, 8), 'YYYY_MM') + INTERVAL '1 month' <= cutoff
+        ORDER BY c.relname
+    LOOP
+        EXIT WHEN archived >= max_partitions;
+        EXECUTE format('SELECT EXISTS (SELECT 1 FROM %I WHERE return_date IS NULL)', part.name) INTO has_active;
+        CONTINUE WHEN has_active;
+
+        EXECUTE format('ALTER TABLE loans DETACH PARTITION %I', part.name);
+        EXECUTE format('ALTER TABLE %I SET SCHEMA loan_archive', part.name);
+        FOR idx IN
+            SELECT x.indexrelid::regclass::TEXT AS name
+            FROM pg_index x
+            WHERE x.indrelid = format('loan_archive.%I', part.name)::regclass AND NOT x.indisprimary
+        LOOP
+            EXECUTE 'DROP INDEX ' || idx.name;
+        END LOOP;
+
+        archived := archived + 1;
+        RETURN NEXT part.name;
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Months from the oldest existing loan up to three months ahead
+DO $$
+DECLARE
+    month_start DATE := date_trunc('month', COALESCE((SELECT MIN(borrow_date) FROM loans_unpartitioned), now()))::DATE;
+    last_month DATE := date_trunc('month', now() + INTERVAL '3 months')::DATE;
+BEGIN
+    WHILE month_start <= last_month LOOP
+        PERFORM ensure_loans_partition(month_start);
+        month_start := (month_start + INTERVAL '1 month')::DATE;
+    END LOOP;
+END $$;
+
+INSERT INTO loans (id, member_id, book_id, borrow_date, return_date, due_date, created_at, updated_at)
+SELECT id, member_id, book_id, borrow_date, return_date, due_date, created_at, updated_at
+FROM loans_unpartitioned;
+
+ALTER SEQUENCE loans_id_seq OWNED BY NONE;
+DROP TABLE loans_unpartitioned;
+ALTER SEQUENCE loans_id_seq OWNED BY loans.id;
+
+-- Indexes are defined once on the parent and created on every month, including months attached later.
+-- The former borrow_date, return_date and full due_date indexes are not recreated: borrow_date ranges
+-- are answered by partition pruning and active-loan lookups use the partial indexes below.
+CREATE INDEX IF NOT EXISTS idx_loans_member_id ON loans(member_id);
+CREATE INDEX IF NOT EXISTS idx_loans_book_id ON loans(book_id);
+CREATE INDEX IF NOT EXISTS idx_loans_active_due_date ON loans(due_date, id) WHERE return_date IS NULL;
+CREATE INDEX IF NOT EXISTS idx_loans_active_book_id ON loans(book_id) WHERE return_date IS NULL;
+
+CREATE OR REPLACE FUNCTION delete_loan_fines() RETURNS TRIGGER AS $$
+BEGIN
+    IF current_setting('library.moving_loans', true) = 'on' THEN
+        RETURN OLD;
+    END IF;
+    DELETE FROM fines WHERE loan_id = OLD.id;
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_loans_delete_fines AFTER DELETE ON loans
+    FOR EACH ROW EXECUTE FUNCTION delete_loan_fines();
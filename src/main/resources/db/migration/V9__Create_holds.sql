@@ -0,0 +1,30 @@
+-- Holds on unavailable titles, served first come first served per book
+-- WAITING holds queue for a copy; a returned copy is handed to the oldest WAITING hold, which becomes
+-- READY and keeps the copy out of available_copies until the member borrows it (FULFILLED),
+-- cancels it (CANCELLED) or the pickup window passes (EXPIRED)
+CREATE TABLE IF NOT EXISTS holds (
+    id SERIAL PRIMARY KEY,
+    member_id INTEGER NOT NULL,
+    book_id INTEGER NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    ready_at TIMESTAMP,
+    expires_at TIMESTAMP,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (member_id) REFERENCES members(id) ON DELETE CASCADE,
+    FOREIGN KEY (book_id) REFERENCES books(id) ON DELETE CASCADE,
+    CONSTRAINT chk_holds_status CHECK (status IN ('WAITING', 'READY', 'FULFILLED', 'CANCELLED', 'EXPIRED'))
+);
+
+-- One open hold per member and book
+CREATE UNIQUE INDEX IF NOT EXISTS idx_holds_open_member_book ON holds(member_id, book_id)
+    WHERE status IN ('WAITING', 'READY');
+
+-- Head of each book's queue: the next holder is one index seek
+CREATE INDEX IF NOT EXISTS idx_holds_waiting_book ON holds(book_id, id) WHERE status = 'WAITING';
+
+-- Ready holds by pickup deadline, walked by the expiry sweeper
+CREATE INDEX IF NOT EXISTS idx_holds_ready_expires ON holds(expires_at) WHERE status = 'READY';
+
+-- Copies on the hold shelf are neither available nor on loan
+CREATE INDEX IF NOT EXISTS idx_holds_ready_book ON holds(book_id) WHERE status = 'READY';
@@ -0,0 +1,84 @@
+package com.demandline.library.config;
+
+import com.demandline.library.observability.MetricsService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PoolSizingSelfCheck
+ * Verifies pool size mismatches are reported and configured maxima are exported
+ */
+@DisplayName("PoolSizingSelfCheck Tests")
+class PoolSizingSelfCheckTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private HikariDataSource dataSource;
+    private PoolSizingSelfCheck selfCheck;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        dataSource = new HikariDataSource();
+        dataSource.setMaximumPoolSize(20);
+        selfCheck = new PoolSizingSelfCheck(dataSource, new MetricsService(meterRegistry));
+        ReflectionTestUtils.setField(selfCheck, "enabled", true);
+        ReflectionTestUtils.setField(selfCheck, "expectedConcurrency", 80);
+        ReflectionTestUtils.setField(selfCheck, "maxRequestsPerConnection", 4);
+        ReflectionTestUtils.setField(selfCheck, "jettyMaxThreads", 128);
+        ReflectionTestUtils.setField(selfCheck, "redisMaxActive", 32);
+        ReflectionTestUtils.setField(selfCheck, "redisMaxWait", Duration.ofMillis(500));
+    }
+
+    @Test
+    @DisplayName("Should pass when pool sizes match the expected concurrency")
+    void testConsistentSizes() {
+        assertTrue(selfCheck.check(128, 20, 32, Duration.ofMillis(500)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should warn when Jetty has fewer threads than the expected concurrency")
+    void testJettyTooSmall() {
+        List<String> warnings = selfCheck.check(50, 20, 32, Duration.ofMillis(500));
+
+        assertEquals(1, warnings.size());
+        assertTrue(warnings.get(0).contains("Jetty max threads 50"));
+    }
+
+    @Test
+    @DisplayName("Should warn when Hikari is larger than Jetty or too small for the concurrency")
+    void testHikariMismatch() {
+        assertTrue(selfCheck.check(128, 200, 256, Duration.ofMillis(500)).stream()
+                .anyMatch(warning -> warning.contains("can never be used")));
+        assertTrue(selfCheck.check(128, 10, 32, Duration.ofMillis(500)).stream()
+                .anyMatch(warning -> warning.contains("too small for 80 concurrent requests")));
+    }
+
+    @Test
+    @DisplayName("Should warn when the Redis pool is undersized or blocks forever")
+    void testRedisMismatch() {
+        List<String> warnings = selfCheck.check(128, 20, 8, Duration.ofMillis(-1));
+
+        assertEquals(2, warnings.size());
+        assertTrue(warnings.get(0).contains("Redis pool max-active 8"));
+        assertTrue(warnings.get(1).contains("unbounded"));
+    }
+
+    @Test
+    @DisplayName("Should export configured pool maxima on startup")
+    void testExportsPoolMaxima() {
+        selfCheck.onApplicationReady();
+
+        assertEquals(128.0, meterRegistry.get("library.pool.max.size").tag("pool", "jetty").gauge().value());
+        assertEquals(20.0, meterRegistry.get("library.pool.max.size").tag("pool", "hikari").gauge().value());
+        assertEquals(32.0, meterRegistry.get("library.pool.max.size").tag("pool", "redis").gauge().value());
+    }
+}
@@ -0,0 +1,148 @@
+package com.demandline.library.config;
+
+import com.demandline.library.observability.MetricsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ReplicaRoutingDataSource
+ * Verifies round-robin over healthy replicas, lag-aware fallback to primary and exported metrics
+ */
+@DisplayName("ReplicaRoutingDataSource Tests")
+class ReplicaRoutingDataSourceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private MetricsService metricsService;
+    private DataSource primary;
+    private Connection primaryConnection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        meterRegistry = new SimpleMeterRegistry();
+        metricsService = new MetricsService(meterRegistry);
+        primaryConnection = mock(Connection.class);
+        primary = mock(DataSource.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+    }
+
+    @Test
+    @DisplayName("Should balance read-only connections across healthy replicas")
+    void testRoundRobinOverHealthyReplicas() throws SQLException {
+        var replicaA = new FakeReplica(0.1);
+        var replicaB = new FakeReplica(0.2);
+        var routing = routing(Map.of("replica-0", replicaA.dataSource), Map.of("replica-1", replicaB.dataSource));
+
+        routing.checkReplicaLag();
+        var first = routing.getConnection();
+        var second = routing.getConnection();
+
+        assertNotSame(first, second);
+        assertTrue(first == replicaA.connection || first == replicaB.connection);
+        assertTrue(second == replicaA.connection || second == replicaB.connection);
+        assertEquals(2.0, readCount("replica"));
+    }
+
+    @Test
+    @DisplayName("Should skip a lagging replica")
+    void testLaggingReplicaIsSkipped() throws SQLException {
+        var healthy = new FakeReplica(0.5);
+        var lagging = new FakeReplica(30);
+        var routing = routing(Map.of("replica-0", lagging.dataSource), Map.of("replica-1", healthy.dataSource));
+
+        routing.checkReplicaLag();
+
+        for (int i = 0; i < 4; i++) {
+            assertSame(healthy.connection, routing.getConnection());
+        }
+        assertEquals(30.0, meterRegistry.get("library.datasource.replica.lag").tag("replica", "replica-0").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should fall back to primary when every replica lags or is down")
+    void testFallbackToPrimary() throws SQLException {
+        var lagging = new FakeReplica(30);
+        var down = mock(DataSource.class);
+        when(down.getConnection()).thenThrow(new SQLException("Connection refused"));
+        var routing = routing(Map.of("replica-0", lagging.dataSource), Map.of("replica-1", down));
+
+        routing.checkReplicaLag();
+
+        assertSame(primaryConnection, routing.getConnection());
+        assertEquals(1.0, readCount("primary_fallback"));
+        assertTrue(Double.isNaN(meterRegistry.get("library.datasource.replica.lag").tag("replica", "replica-1").gauge().value()));
+    }
+
+    @Test
+    @DisplayName("Should return replica to rotation once it catches up")
+    void testReplicaRecovers() throws SQLException {
+        var replica = new FakeReplica(30);
+        var routing = routing(Map.of("replica-0", replica.dataSource), Map.of());
+
+        routing.checkReplicaLag();
+        assertSame(primaryConnection, routing.getConnection());
+
+        replica.lagSeconds = 0;
+        routing.checkReplicaLag();
+        assertSame(replica.connection, routing.getConnection());
+    }
+
+    private ReplicaRoutingDataSource routing(Map<String, DataSource> first, Map<String, DataSource> second) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>(first);
+        replicas.putAll(second);
+        return new ReplicaRoutingDataSource(primary, replicas, 5000, metricsService);
+    }
+
+    private double readCount(String target) {
+        return meterRegistry.get("library.datasource.reads").tag("target", target).counter().count();
+    }
+
+    /**
+     * Replica whose lag probe returns a configurable value
+     * Connections used for the probe are separate from the one handed out for reads
+     */
+    private static class FakeReplica {
+        private final DataSource dataSource = mock(DataSource.class);
+        private final Connection connection = mock(Connection.class);
+        private double lagSeconds;
+
+        FakeReplica(double lagSeconds) throws SQLException {
+            this.lagSeconds = lagSeconds;
+            when(dataSource.getConnection()).thenAnswer(invocation -> {
+                if (isProbe()) {
+                    var probeConnection = mock(Connection.class);
+                    var statement = mock(Statement.class);
+                    var resultSet = mock(ResultSet.class);
+                    when(probeConnection.createStatement()).thenReturn(statement);
+                    when(statement.executeQuery(anyString())).thenReturn(resultSet);
+                    when(resultSet.next()).thenReturn(true);
+                    when(resultSet.getDouble(1)).thenReturn(this.lagSeconds);
+                    return probeConnection;
+                }
+                return connection;
+            });
+        }
+
+        private static boolean isProbe() {
+            for (StackTraceElement element : Thread.currentThread().getStackTrace()) {
+                if (element.getMethodName().equals("checkReplicaLag")) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
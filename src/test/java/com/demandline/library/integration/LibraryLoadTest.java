@@ -0,0 +1,423 @@
+package com.demandline.library.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.redis.testcontainers.RedisContainer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * End-to-end load test
+ * Boots the application on a random port against Testcontainers Postgres and Redis, seeds books,
+ * members and active loans, then drives a concurrent borrow/return/search mix over real HTTP.
+ * Reports p50/p95/p99 latency and throughput per operation (stdout and target/load-test-report.json)
+ * and asserts that inventory did not drift: available_copies + active loans = total_copies.
+ *
+ * Excluded from the default build, run with: mvn -Pload-test test
+ * Sizing is tunable with system properties, e.g. -Dload.threads=64 -Dload.durationSeconds=120
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Testcontainers
+public class LibraryLoadTest {
+    private static final int BOOKS = Integer.getInteger("load.books", 200);
+    private static final int MEMBERS = Integer.getInteger("load.members", 200);
+    private static final int SEED_LOANS = Integer.getInteger("load.seedLoans", 50);
+    private static final int COPIES_PER_BOOK = Integer.getInteger("load.copiesPerBook", 3);
+    private static final int THREADS = Integer.getInteger("load.threads", 32);
+    private static final int DURATION_SECONDS = Integer.getInteger("load.durationSeconds", 30);
+    private static final int SEARCH_PERCENT = Integer.getInteger("load.searchPercent", 40);
+    private static final int HOT_TITLE_PERCENT = Integer.getInteger("load.hotTitlePercent", 50);
+    private static final double MAX_ERROR_RATE = Double.parseDouble(System.getProperty("load.maxErrorRate", "0.01"));
+    private static final int MAX_BOOKS_PER_LOAN = 3;
+
+    @Container
+    public static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @Container
+    public static RedisContainer redis = new RedisContainer("redis:8-alpine");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", redis::getFirstMappedPort);
+        registry.add("library.maxBooksPerMember", () -> String.valueOf(MAX_BOOKS_PER_LOAN));
+
+        // Keep request logging from dominating the measurement
+        registry.add("logging.level.com.demandline.library", () -> "WARN");
+        registry.add("server.jetty.accesslog.enabled", () -> "false");
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private String frontdeskToken;
+    private List<Integer> bookIds;
+
+    enum Operation { BORROW, RETURN, SEARCH }
+
+    enum Outcome { OK, REJECTED, ERROR }
+
+    @Test
+    void testConcurrentBorrowReturnSearchMix() throws Exception {
+        List<VirtualMember> members = seed();
+        frontdeskToken = login("frontdesk@library.local", "frontdesk123");
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(DURATION_SECONDS);
+        long start = System.nanoTime();
+
+        List<Future<Recorder>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            // Every worker owns a disjoint slice of members, so contention is on books only
+            List<VirtualMember> owned = new ArrayList<>();
+            for (int i = t; i < members.size(); i += THREADS) {
+                owned.add(members.get(i));
+            }
+            futures.add(executor.submit(() -> runWorker(owned, deadline)));
+        }
+
+        Recorder total = new Recorder();
+        for (Future<Recorder> future : futures) {
+            total.merge(future.get());
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        executor.shutdown();
+
+        Map<String, Object> report = report(total, elapsedSeconds);
+        System.out.println(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(report));
+        objectMapper.writer(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(new File("target/load-test-report.json"), report);
+
+        assertTrue(total.count(Operation.BORROW, Outcome.OK) > 0, "No successful borrow during the run");
+        assertTrue(total.count(Operation.RETURN, Outcome.OK) > 0, "No successful return during the run");
+        assertTrue(total.errorRate() <= MAX_ERROR_RATE,
+                "Error rate " + total.errorRate() + " exceeds " + MAX_ERROR_RATE);
+        assertNoInventoryDrift();
+    }
+
+    private Recorder runWorker(List<VirtualMember> owned, long deadline) {
+        Recorder recorder = new Recorder();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int next = 0;
+        while (System.nanoTime() < deadline && !owned.isEmpty()) {
+            if (random.nextInt(100) < SEARCH_PERCENT) {
+                timed(recorder, Operation.SEARCH, this::search);
+                continue;
+            }
+
+            VirtualMember member = owned.get(next++ % owned.size());
+            if (member.activeLoans.isEmpty()) {
+                timed(recorder, Operation.BORROW, () -> borrow(member));
+            } else {
+                timed(recorder, Operation.RETURN, () -> returnAll(member));
+            }
+        }
+        return recorder;
+    }
+
+    private void timed(Recorder recorder, Operation operation, Call call) {
+        long start = System.nanoTime();
+        Outcome outcome;
+        try {
+            int status = call.execute();
+            outcome = status < 300 ? Outcome.OK : status < 500 ? Outcome.REJECTED : Outcome.ERROR;
+        } catch (Exception e) {
+            outcome = Outcome.ERROR;
+        }
+        recorder.record(operation, outcome, System.nanoTime() - start);
+    }
+
+    private int borrow(VirtualMember member) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int count = 1 + random.nextInt(MAX_BOOKS_PER_LOAN);
+        Set<Integer> books = new LinkedHashSet<>();
+        while (books.size() < count) {
+            // Skew towards a small set of hot titles to create contention on the same rows
+            int hotTitles = Math.max(1, bookIds.size() / 10);
+            books.add(random.nextInt(100) < HOT_TITLE_PERCENT
+                    ? bookIds.get(random.nextInt(hotTitles))
+                    : bookIds.get(random.nextInt(bookIds.size())));
+        }
+
+        HttpResponse<String> response = post("/api/loans/borrow", Map.of(
+                "memberId", member.memberId,
+                "bookIds", List.copyOf(books),
+                "requestId", "load-borrow-" + UUID.randomUUID()));
+        if (response.statusCode() == 201) {
+            for (JsonNode bookLoan : objectMapper.readTree(response.body()).get("bookLoan")) {
+                member.activeLoans.add(new int[]{bookLoan.get("loanId").asInt(), bookLoan.get("bookId").asInt()});
+            }
+        }
+        return response.statusCode();
+    }
+
+    private int returnAll(VirtualMember member) throws Exception {
+        List<Map<String, Integer>> returnRequests = member.activeLoans.stream()
+                .map(loan -> Map.of("loanId", loan[0], "bookId", loan[1]))
+                .toList();
+        HttpResponse<String> response = post("/api/loans/return", Map.of(
+                "memberId", member.memberId,
+                "returnRequests", returnRequests,
+                "requestId", "load-return-" + UUID.randomUUID()));
+        if (response.statusCode() == 200) {
+            member.activeLoans.clear();
+        }
+        return response.statusCode();
+    }
+
+    private int search() throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String query = random.nextBoolean()
+                ? "bookName=Load%20Book%20" + random.nextInt(10)
+                : "authorName=Author%20" + random.nextInt(20);
+        HttpRequest request = HttpRequest.newBuilder(uri("/library/public/books?" + query + "&page=0&size=20"))
+                .GET()
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    /**
+     * Seed books, members and active loans with plain JDBC batches
+     * @return members with their seeded loans
+     */
+    private List<VirtualMember> seed() {
+        List<Object[]> books = new ArrayList<>();
+        for (int i = 0; i < BOOKS; i++) {
+            books.add(new Object[]{"Load Book " + i, "Author " + (i % 20), "LOAD-" + i, COPIES_PER_BOOK, COPIES_PER_BOOK});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO books (title, author, isbn, total_copies, available_copies) VALUES (?, ?, ?, ?, ?)", books);
+        bookIds = jdbcTemplate.queryForList("SELECT id FROM books WHERE isbn LIKE 'LOAD-%' ORDER BY id", Integer.class);
+
+        Integer memberRoleId = jdbcTemplate.queryForObject("SELECT id FROM roles WHERE name = 'MEMBER'", Integer.class);
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 0; i < MEMBERS; i++) {
+            users.add(new Object[]{"Load Member " + i, "load.member" + i + "@test.com", "not-used", memberRoleId});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (name, email, password, role_id) VALUES (?, ?, ?, ?)", users);
+        jdbcTemplate.update("""
+                INSERT INTO members (user_id, address, phone)
+                SELECT id, 'Load Street', '555-0000' FROM users WHERE email LIKE 'load.member%'
+                """);
+        List<Integer> memberIds = jdbcTemplate.queryForList("""
+                SELECT m.id FROM members m JOIN users u ON u.id = m.user_id
+                WHERE u.email LIKE 'load.member%' ORDER BY m.id
+                """, Integer.class);
+
+        List<VirtualMember> members = memberIds.stream().map(VirtualMember::new).toList();
+        for (int i = 0; i < Math.min(SEED_LOANS, members.size()); i++) {
+            VirtualMember member = members.get(i);
+            Integer bookId = bookIds.get(bookIds.size() - 1 - (i % bookIds.size()));
+            Integer loanId = jdbcTemplate.queryForObject("""
+                    INSERT INTO loans (member_id, book_id, borrow_date, due_date)
+                    VALUES (?, ?, now(), now() + interval '14 days') RETURNING id
+                    """, Integer.class, member.memberId, bookId);
+            jdbcTemplate.update("UPDATE books SET available_copies = available_copies - 1 WHERE id = ?", bookId);
+            jdbcTemplate.update("UPDATE members SET active_loan_count = active_loan_count + 1 WHERE id = ?", member.memberId);
+            member.activeLoans.add(new int[]{loanId, bookId});
+        }
+        return members;
+    }
+
+    private void assertNoInventoryDrift() {
+        List<Map<String, Object>> drifted = jdbcTemplate.queryForList("""
+                SELECT b.id, b.total_copies, b.available_copies, COALESCE(l.active, 0) AS active_loans
+                FROM books b
+                LEFT JOIN (SELECT book_id, COUNT(*) AS active FROM loans WHERE return_date IS NULL GROUP BY book_id) l
+                       ON l.book_id = b.id
+                WHERE b.available_copies + COALESCE(l.active, 0) <> b.total_copies
+                   OR b.available_copies < 0
+                """);
+        assertTrue(drifted.isEmpty(), "Inventory drift detected: " + drifted);
+    }
+
+    private Map<String, Object> report(Recorder recorder, double elapsedSeconds) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("threads", THREADS);
+        report.put("durationSeconds", Math.round(elapsedSeconds * 10) / 10.0);
+        report.put("books", BOOKS);
+        report.put("members", MEMBERS);
+        report.put("totalRequests", recorder.total());
+        report.put("throughputPerSecond", Math.round(recorder.total() / elapsedSeconds));
+        report.put("errorRate", recorder.errorRate());
+
+        Map<String, Object> operations = new LinkedHashMap<>();
+        for (Operation operation : Operation.values()) {
+            long[] latencies = recorder.latencies(operation);
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("count", latencies.length);
+            stats.put("ok", recorder.count(operation, Outcome.OK));
+            stats.put("rejected", recorder.count(operation, Outcome.REJECTED));
+            stats.put("errors", recorder.count(operation, Outcome.ERROR));
+            stats.put("throughputPerSecond", Math.round(latencies.length / elapsedSeconds));
+            stats.put("p50Millis", percentileMillis(latencies, 0.50));
+            stats.put("p95Millis", percentileMillis(latencies, 0.95));
+            stats.put("p99Millis", percentileMillis(latencies, 0.99));
+            operations.put(operation.name().toLowerCase(), stats);
+        }
+        report.put("operations", operations);
+        return report;
+    }
+
+    private static double percentileMillis(long[] sortedNanos, double percentile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return Math.round(sortedNanos[Math.max(0, index)] / 10_000.0) / 100.0;
+    }
+
+    private String login(String email, String password) throws Exception {
+        HttpResponse<String> response = post("/api/auth/login", Map.of("email", email, "password", password));
+        assertEquals(200, response.statusCode(), "Login failed: " + response.body());
+        return objectMapper.readTree(response.body()).get("token").asText();
+    }
+
+    private HttpResponse<String> post(String path, Object body) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)));
+        if (frontdeskToken != null) {
+            request.header("Authorization", "Bearer " + frontdeskToken);
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    @FunctionalInterface
+    private interface Call {
+        int execute() throws Exception;
+    }
+
+    /**
+     * Member driven by a single worker, with the loans it currently holds as (loanId, bookId)
+     */
+    private static final class VirtualMember {
+        private final int memberId;
+        private final List<int[]> activeLoans = new ArrayList<>();
+
+        private VirtualMember(int memberId) {
+            this.memberId = memberId;
+        }
+    }
+
+    /**
+     * Per-worker latency and outcome recorder, merged once the run is over
+     */
+    private static final class Recorder {
+        private final Map<Operation, long[]> latencies = new EnumMap<>(Operation.class);
+        private final Map<Operation, Integer> sizes = new EnumMap<>(Operation.class);
+        private final Map<Operation, long[]> outcomes = new EnumMap<>(Operation.class);
+
+        private Recorder() {
+            for (Operation operation : Operation.values()) {
+                latencies.put(operation, new long[1024]);
+                sizes.put(operation, 0);
+                outcomes.put(operation, new long[Outcome.values().length]);
+            }
+        }
+
+        private void record(Operation operation, Outcome outcome, long nanos) {
+            append(operation, nanos);
+            outcomes.get(operation)[outcome.ordinal()]++;
+        }
+
+        private void merge(Recorder other) {
+            for (Operation operation : Operation.values()) {
+                long[] otherValues = other.latencies.get(operation);
+                for (int i = 0; i < other.sizes.get(operation); i++) {
+                    append(operation, otherValues[i]);
+                }
+                long[] otherOutcomes = other.outcomes.get(operation);
+                for (Outcome outcome : Outcome.values()) {
+                    outcomes.get(operation)[outcome.ordinal()] += otherOutcomes[outcome.ordinal()];
+                }
+            }
+        }
+
+        private void append(Operation operation, long nanos) {
+            int size = sizes.get(operation);
+            long[] values = latencies.get(operation);
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+                latencies.put(operation, values);
+            }
+            values[size] = nanos;
+            sizes.put(operation, size + 1);
+        }
+
+        private long[] latencies(Operation operation) {
+            long[] values = Arrays.copyOf(latencies.get(operation), sizes.get(operation));
+            Arrays.sort(values);
+            return values;
+        }
+
+        private long count(Operation operation, Outcome outcome) {
+            return outcomes.get(operation)[outcome.ordinal()];
+        }
+
+        private long total() {
+            return sizes.values().stream().mapToLong(Integer::longValue).sum();
+        }
+
+        private double errorRate() {
+            long total = total();
+            long errors = Arrays.stream(Operation.values()).mapToLong(operation -> count(operation, Outcome.ERROR)).sum();
+            return total == 0 ? 0 : (double) errors / total;
+        }
+    }
+}
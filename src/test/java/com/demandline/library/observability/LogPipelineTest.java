@@ -0,0 +1,147 @@
+package com.demandline.library.observability;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.AppenderBase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the log pipeline building blocks
+ * Verifies the per-logger rate limit and the drop accounting of the async appender
+ */
+@DisplayName("Log Pipeline Tests")
+class LogPipelineTest {
+
+    private LoggerContext context;
+    private CapturingAppender capturing;
+
+    @BeforeEach
+    void setUp() {
+        context = new LoggerContext();
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        capturing = new CapturingAppender();
+        capturing.setContext(context);
+        capturing.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.stop();
+    }
+
+    @Test
+    @DisplayName("Configured loggers are capped per second, others are untouched")
+    void shouldRateLimitConfiguredLoggers() {
+        var filter = new LoggerRateLimitFilter();
+        filter.setContext(context);
+        filter.addLimit("hot.Logger=3");
+        filter.start();
+        context.addTurboFilter(filter);
+
+        Logger hot = context.getLogger("hot.Logger");
+        Logger other = context.getLogger("other.Logger");
+        hot.addAppender(capturing);
+        other.addAppender(capturing);
+        hot.setAdditive(false);
+        other.setAdditive(false);
+
+        for (int i = 0; i < 10; i++) {
+            hot.info("request {}", i);
+            other.info("request {}", i);
+        }
+        // Disabled levels and isXxxEnabled() checks do not use the budget
+        hot.setLevel(Level.INFO);
+        hot.debug("not enabled");
+        assertTrue(hot.isInfoEnabled());
+
+        assertEquals(13, capturing.events.size());
+        assertEquals(7, filter.getLimits().get("hot.Logger").getSuppressedCount());
+    }
+
+    @Test
+    @DisplayName("Invalid limits are reported and ignored")
+    void shouldIgnoreInvalidLimits() {
+        var filter = new LoggerRateLimitFilter();
+        filter.setContext(context);
+        filter.addLimit("hot.Logger");
+        filter.addLimit("hot.Logger=many");
+
+        assertTrue(filter.getLimits().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Full or nearly full queues drop events and count them instead of blocking")
+    void shouldCountDroppedEvents() throws InterruptedException {
+        var blocking = new BlockingAppender();
+        blocking.setContext(context);
+        blocking.start();
+
+        var appender = new MeteredAsyncAppender();
+        appender.setContext(context);
+        appender.setQueueSize(4);
+        appender.setDiscardingThreshold(2);
+        appender.setNeverBlock(true);
+        appender.addAppender(blocking);
+        appender.start();
+
+        // First event is taken by the worker, which then blocks; the queue fills up behind it.
+        // Once fewer than 2 slots are free INFO is discarded, WARN takes the last slot and ERROR finds the queue full
+        appender.doAppend(event(Level.INFO));
+        assertTrue(blocking.taken.await(5, TimeUnit.SECONDS));
+        appender.doAppend(event(Level.INFO));
+        appender.doAppend(event(Level.INFO));
+        appender.doAppend(event(Level.INFO));
+        appender.doAppend(event(Level.INFO));
+        appender.doAppend(event(Level.WARN));
+        appender.doAppend(event(Level.ERROR));
+        appender.doAppend(event(Level.ERROR));
+
+        assertEquals(1, appender.getDiscardedCount());
+        assertEquals(2, appender.getQueueFullCount());
+        blocking.release.countDown();
+        appender.stop();
+    }
+
+    private LoggingEvent event(Level level) {
+        Logger logger = context.getLogger("async.Logger");
+        return new LoggingEvent(Logger.class.getName(), logger, level, "message", null, null);
+    }
+
+    private static class CapturingAppender extends AppenderBase<ILoggingEvent> {
+        private final List<ILoggingEvent> events = new CopyOnWriteArrayList<>();
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            events.add(event);
+        }
+    }
+
+    private static class BlockingAppender extends AppenderBase<ILoggingEvent> {
+        private final CountDownLatch taken = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            taken.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.demandline.library.observability;
+
+import com.demandline.library.service.exception.LoanLockTimeoutException;
+import com.demandline.library.service.exception.LoanRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the loan/return pipeline metrics of MetricsService
+ * Verifies stage timers and failure reason counters are pre-registered and tagged as documented
+ */
+@DisplayName("MetricsService Pipeline Metrics Tests")
+class MetricsServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private MetricsService metricsService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        metricsService = new MetricsService(meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Every stage and failure reason is registered up front for both operations")
+    void shouldPreRegisterStageTimersAndFailureCounters() {
+        int stages = PipelineStage.values().length;
+        int reasons = FailureReason.values().length;
+
+        assertEquals(2 * stages, meterRegistry.find("library.loan.stage.duration").timers().size());
+        assertEquals(2 * reasons, meterRegistry.find("library.loan.failures").counters().size());
+    }
+
+    @Test
+    @DisplayName("Stage timings are recorded under the operation and stage tags")
+    void shouldRecordStageTimings() {
+        metricsService.getLoanStageTimer(PipelineStage.BOOK_LOCK).record(3, TimeUnit.MILLISECONDS);
+        metricsService.getReturnStageTimer(PipelineStage.COMMIT).record(7, TimeUnit.MILLISECONDS);
+
+        Timer loanBookLock = meterRegistry.get("library.loan.stage.duration")
+                .tag("operation", "loan").tag("stage", "book_lock").timer();
+        Timer returnCommit = meterRegistry.get("library.loan.stage.duration")
+                .tag("operation", "return").tag("stage", "commit").timer();
+        assertEquals(1, loanBookLock.count());
+        assertEquals(1, returnCommit.count());
+        assertEquals(7, returnCommit.totalTime(TimeUnit.MILLISECONDS), 0.001);
+    }
+
+    @Test
+    @DisplayName("Failure reasons are counted per operation")
+    void shouldCountFailureReasons() {
+        assertThrows(IllegalArgumentException.class, () -> metricsService.recordLoan(() -> {
+            throw new LoanRejectedException(FailureReason.BOOK_UNAVAILABLE, "Book not available: Dune");
+        }));
+        metricsService.recordLoanOutcome(1_000_000, new LoanRejectedException(FailureReason.BOOK_UNAVAILABLE, "Book not available: 7"));
+        assertThrows(IllegalArgumentException.class, () -> metricsService.recordReturn(() -> {
+            throw new LoanRejectedException(FailureReason.ALREADY_RETURNED, "Loan already returned: 4");
+        }));
+
+        Counter unavailable = meterRegistry.get("library.loan.failures")
+                .tag("operation", "loan").tag("reason", "book_unavailable").counter();
+        Counter alreadyReturned = meterRegistry.get("library.loan.failures")
+                .tag("operation", "return").tag("reason", "already_returned").counter();
+        assertEquals(2, unavailable.count());
+        assertEquals(1, alreadyReturned.count());
+    }
+
+    @Test
+    @DisplayName("Each operation records exactly one outcome and one timing")
+    void shouldRecordOutcomeOnce() {
+        assertEquals("ok", metricsService.recordLoan(() -> "ok"));
+        assertThrows(IllegalStateException.class, () -> metricsService.recordLoan(() -> {
+            throw new LoanLockTimeoutException("Timeout waiting for loan lock to be released");
+        }));
+
+        assertEquals(1, meterRegistry.get("library.loan.requests").tag("status", "success").counter().count());
+        assertEquals(1, meterRegistry.get("library.loan.requests").tag("status", "failure").counter().count());
+        assertEquals(1, meterRegistry.get("library.loan.failures")
+                .tag("operation", "loan").tag("reason", "lock_timeout").counter().count());
+        assertEquals(2, meterRegistry.get("library.loan.duration").timer().count());
+        assertEquals(0, meterRegistry.get("library.return.requests").tag("status", "failure").counter().count());
+    }
+
+    @Test
+    @DisplayName("Inside a transaction the outcome is recorded once it completes")
+    void shouldRecordOutcomeAfterTransactionCompletes() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertEquals("ok", metricsService.recordLoan(() -> "ok"));
+            assertEquals("ok", metricsService.recordReturn(() -> "ok"));
+            assertEquals(0, meterRegistry.get("library.loan.requests").tag("status", "success").counter().count());
+            assertEquals(0, meterRegistry.get("library.loan.duration").timer().count());
+
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.get(0).afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            synchronizations.get(1).afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(1, meterRegistry.get("library.loan.requests").tag("status", "success").counter().count());
+        assertEquals(1, meterRegistry.get("library.loan.duration").timer().count());
+        assertEquals(0, meterRegistry.get("library.return.requests").tag("status", "success").counter().count());
+        assertEquals(1, meterRegistry.get("library.loan.failures")
+                .tag("operation", "return").tag("reason", "database").counter().count());
+    }
+
+    @Test
+    @DisplayName("Exceptions map to a bounded failure reason")
+    void shouldClassifyFailures() {
+        assertEquals(FailureReason.MEMBER_NOT_FOUND, FailureReason.of(new LoanRejectedException(FailureReason.MEMBER_NOT_FOUND, "Member not found")));
+        assertEquals(FailureReason.BOOK_UNAVAILABLE, FailureReason.of(new LoanRejectedException(FailureReason.BOOK_UNAVAILABLE, "No copies left")));
+        assertEquals(FailureReason.ALREADY_RETURNED, FailureReason.of(new LoanRejectedException(FailureReason.ALREADY_RETURNED, "Loan already returned: 4")));
+        // Messages are not parsed: an untyped exception only gets the generic reason
+        assertEquals(FailureReason.INVALID_REQUEST, FailureReason.of(new IllegalArgumentException("Book not available: Dune")));
+        assertEquals(FailureReason.LOCK_TIMEOUT, FailureReason.of(new LoanLockTimeoutException("Timeout waiting for loan lock to be released")));
+        assertEquals(FailureReason.INTERNAL, FailureReason.of(new IllegalStateException("Timeout waiting for loan lock to be released")));
+        assertEquals(FailureReason.ROW_LOCK_TIMEOUT, FailureReason.of(new CannotAcquireLockException("lock timeout")));
+        assertEquals(FailureReason.DATABASE, FailureReason.of(new DataIntegrityViolationException("duplicate")));
+        assertEquals(FailureReason.INTERNAL, FailureReason.of(new NullPointerException()));
+    }
+}
@@ -0,0 +1,160 @@
+package com.demandline.library.observability;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RouteAwareSampler and TailSamplingSpanProcessor
+ * Verifies per-route head sampling, parent-based decisions and tail keeping of failed and slow traces
+ */
+@DisplayName("Trace Sampling Tests")
+class RouteAwareSamplerTest {
+
+    private TraceSamplingSettings settings;
+    private SimpleMeterRegistry meterRegistry;
+    private CapturingExporter sampledExporter;
+    private CapturingExporter tailExporter;
+    private SdkTracerProvider tracerProvider;
+    private Tracer tracer;
+
+    @BeforeEach
+    void setUp() {
+        settings = new TraceSamplingSettings(0.0, List.of("/library/public/books=0.0", "/api/loans=1.0"), true, 500);
+        meterRegistry = new SimpleMeterRegistry();
+        sampledExporter = new CapturingExporter();
+        tailExporter = new CapturingExporter();
+        tracerProvider = SdkTracerProvider.builder()
+                .setSampler(new RouteAwareSampler(settings))
+                .addSpanProcessor(SimpleSpanProcessor.create(sampledExporter))
+                .addSpanProcessor(new TailSamplingSpanProcessor(
+                        settings, new MetricsService(meterRegistry), () -> tailExporter, 16, 8))
+                .build();
+        tracer = tracerProvider.get("test");
+    }
+
+    @AfterEach
+    void tearDown() {
+        tracerProvider.close();
+    }
+
+    @Test
+    @DisplayName("Root spans use the rate of the longest matching route prefix")
+    void shouldSampleByRoute() throws Exception {
+        inRequest("/api/loans/borrow", () -> tracer.spanBuilder("http post").startSpan().end());
+        inRequest("/library/public/books", () -> tracer.spanBuilder("http get").startSpan().end());
+
+        assertEquals(1, sampledExporter.spans.size());
+        assertEquals("/api/loans", sampledExporter.spans.get(0).getAttributes().get(TraceSamplingSettings.SAMPLING_RULE));
+        assertTrue(tailExporter.spans.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Child spans follow the parent decision")
+    void shouldFollowParent() throws Exception {
+        inRequest("/api/loans/borrow", () -> {
+            Span root = tracer.spanBuilder("http post").startSpan();
+            try (Scope ignored = root.makeCurrent()) {
+                tracer.spanBuilder("child").startSpan().end();
+            }
+            root.end();
+        });
+
+        assertEquals(2, sampledExporter.spans.size());
+    }
+
+    @Test
+    @DisplayName("Unsampled traces are exported when the root fails")
+    void shouldTailKeepErrors() throws Exception {
+        inRequest("/library/public/books", () -> {
+            Span root = tracer.spanBuilder("http get").startSpan();
+            try (Scope ignored = root.makeCurrent()) {
+                tracer.spanBuilder("query").startSpan().end();
+            }
+            root.setAttribute("status", "503");
+            root.end();
+        });
+        inRequest("/library/public/books", () -> tracer.spanBuilder("http get").startSpan()
+                .setAttribute("status", "404")
+                .end());
+
+        assertTrue(sampledExporter.spans.isEmpty());
+        assertEquals(2, tailExporter.spans.size());
+        assertEquals(1, meterRegistry.get("library.tracing.tail.kept").tag("reason", "error").counter().count());
+    }
+
+    @Test
+    @DisplayName("Unsampled traces are exported when the root runs slow, per the runtime threshold")
+    void shouldTailKeepSlowTraces() {
+        tracer.spanBuilder("job").setStartTimestamp(Instant.now().minusSeconds(1)).startSpan().end();
+        settings.setSlowThresholdMillis(5_000);
+        tracer.spanBuilder("job").setStartTimestamp(Instant.now().minusSeconds(1)).startSpan().end();
+        tracer.spanBuilder("job").startSpan().setStatus(StatusCode.ERROR).end();
+
+        assertEquals(2, tailExporter.spans.size());
+        assertEquals(1, meterRegistry.get("library.tracing.tail.kept").tag("reason", "slow").counter().count());
+    }
+
+    @Test
+    @DisplayName("Rates and tail keeping can be changed at runtime")
+    void shouldApplyRuntimeChanges() throws Exception {
+        settings.setRouteRate("/library/public/books", 1.0);
+        inRequest("/library/public/books", () -> tracer.spanBuilder("http get").startSpan().end());
+        settings.removeRoute("/library/public/books");
+        settings.setTailKeepEnabled(false);
+        inRequest("/library/public/books", () -> {
+            Span span = tracer.spanBuilder("http get").startSpan();
+            assertFalse(span.isRecording());
+            span.end();
+        });
+
+        assertEquals(1, sampledExporter.spans.size());
+        assertThrows(IllegalArgumentException.class, () -> settings.setRouteRate("/api/loans", 1.5));
+        assertThrows(IllegalArgumentException.class, () -> settings.setRouteRate("api/loans", 0.5));
+    }
+
+    private void inRequest(String path, Runnable body) throws Exception {
+        var request = new MockHttpServletRequest("GET", path);
+        new SamplingRouteFilter().doFilter(request, new MockHttpServletResponse(), (req, res) -> body.run());
+    }
+
+    private static class CapturingExporter implements SpanExporter {
+        private final List<SpanData> spans = new CopyOnWriteArrayList<>();
+
+        @Override
+        public CompletableResultCode export(Collection<SpanData> batch) {
+            spans.addAll(batch);
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            return CompletableResultCode.ofSuccess();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.demandline.library.observability;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TraceSamplingStore
+ * Verifies that shared overrides are applied on top of the configured settings
+ */
+@DisplayName("Trace Sampling Store Tests")
+class TraceSamplingStoreTest {
+
+    private TraceSamplingSettings settings;
+    private HashOperations<String, Object, Object> hashOperations;
+    private TraceSamplingStore store;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        settings = new TraceSamplingSettings(0.1, List.of("/library/public/books=0.01", "/api/loans=1.0"), true, 500);
+        RedisTemplate<String, String> redisTemplate = mock(RedisTemplate.class);
+        hashOperations = mock(HashOperations.class);
+        when(redisTemplate.<Object, Object>opsForHash()).thenReturn(hashOperations);
+        store = new TraceSamplingStore(settings, redisTemplate);
+    }
+
+    @Test
+    @DisplayName("Sync applies shared overrides, including removed configured routes")
+    void shouldApplySharedOverrides() {
+        when(hashOperations.entries("tracing:sampling")).thenReturn(Map.of(
+                "defaultRate", "0.5",
+                "route:/api/loans", "removed",
+                "route:/api/holds", "0.2",
+                "slowThresholdMillis", "250"));
+
+        store.sync();
+
+        assertEquals(0.5, settings.getDefaultRate());
+        assertEquals(Map.of("/library/public/books", 0.01, "/api/holds", 0.2), settings.getRouteRates());
+        assertTrue(settings.isTailKeepEnabled());
+        assertEquals(250, settings.getSlowThresholdMillis());
+        assertNotNull(store.getLastSyncedAt());
+    }
+
+    @Test
+    @DisplayName("Sync falls back to the configured settings when an override is cleared")
+    void shouldRevertToConfiguredSettings() {
+        when(hashOperations.entries("tracing:sampling")).thenReturn(Map.of("defaultRate", "0.5"));
+        store.sync();
+        when(hashOperations.entries("tracing:sampling")).thenReturn(Map.of());
+        store.sync();
+
+        assertEquals(0.1, settings.getDefaultRate());
+        assertEquals(2, settings.getRouteRates().size());
+    }
+
+    @Test
+    @DisplayName("Invalid changes are rejected and failed writes change no node")
+    void shouldRejectInvalidOrUnsharedChanges() {
+        assertThrows(IllegalArgumentException.class, () -> store.setDefaultRate(1.5));
+        assertThrows(IllegalArgumentException.class, () -> store.removeRoute("/unknown"));
+        verify(hashOperations, never()).put(any(), any(), any());
+
+        doThrow(new RedisConnectionFailureException("down")).when(hashOperations).put(any(), any(), any());
+        assertThrows(IllegalStateException.class, () -> store.setDefaultRate(0.5));
+        assertEquals(0.1, settings.getDefaultRate());
+    }
+}
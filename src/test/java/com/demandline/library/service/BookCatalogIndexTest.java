@@ -0,0 +1,151 @@
+package com.demandline.library.service;
+
+import com.demandline.library.observability.MetricsService;
+import com.demandline.library.repository.BookRepository;
+import com.demandline.library.repository.projection.BookVersionView;
+import com.demandline.library.repository.projection.BookView;
+import com.demandline.library.service.model.Book;
+import com.demandline.library.service.model.filter.BookFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for BookCatalogIndex
+ * Verifies in-memory searches match the public book queries and that syncs pick up changed books
+ */
+@DisplayName("BookCatalogIndex Tests")
+class BookCatalogIndexTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2026, 1, 1, 9, 0, 0, 123_456_000);
+
+    private final Map<Integer, BookView> table = new TreeMap<>();
+    private SimpleMeterRegistry meterRegistry;
+    private BookCatalogIndex index;
+
+    @BeforeEach
+    void setUp() {
+        put(1, "Dune", "Frank Herbert", "ISBN-1", 0);
+        put(2, "Dune Messiah", "Frank Herbert", "ISBN-2", 1);
+        put(3, "Les Misérables", "Victor Hugo", "ISBN-3", 2);
+        put(4, "Frankenstein", "Mary Shelley", "ISBN-4", 1);
+        put(5, "Children of Dune", "FRANK HERBERT", "ISBN-5", 3);
+
+        BookRepository bookRepository = mock(BookRepository.class);
+        when(bookRepository.count()).thenAnswer(invocation -> (long) table.size());
+        when(bookRepository.streamAllViews()).thenAnswer(invocation -> table.values().stream());
+        when(bookRepository.streamVersions()).thenAnswer(invocation -> table.values().stream()
+                .map(view -> new BookVersionView(view.id(), view.updatedAt())));
+        when(bookRepository.findBookViewsByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<Integer> ids = invocation.getArgument(0);
+            return table.values().stream().filter(view -> ids.contains(view.id())).toList();
+        });
+
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        meterRegistry = new SimpleMeterRegistry();
+        index = new BookCatalogIndex(bookRepository, new TransactionTemplate(transactionManager),
+                new MetricsService(meterRegistry));
+        ReflectionTestUtils.setField(index, "enabled", true);
+        ReflectionTestUtils.setField(index, "batchSize", 2);
+        index.load();
+    }
+
+    @Test
+    @DisplayName("Searches filter, order and page like the database queries")
+    void shouldSearchLikeTheDatabase() {
+        assertEquals(List.of(1, 2, 5), ids(search(title("dUnE"), true, 20, 0)));
+        assertEquals(List.of(2, 5), ids(search(title("dune"), false, 20, 0)));
+        assertEquals(List.of(5), ids(search(title("dune"), true, 2, 2)));
+        // Author matches of the title term count too, but the author filter is an exact name
+        assertEquals(List.of(1, 2, 4, 5), ids(search(title("frank"), true, 20, 0)));
+        assertEquals(List.of(1, 2, 5), ids(search(author("frank herbert"), true, 20, 0)));
+        assertEquals(List.of(3), ids(search(title("misér"), true, 20, 0)));
+        assertEquals(List.of(4), ids(search(isbn("ISBN-4"), true, 20, 0)));
+        assertTrue(search(isbn("isbn-4"), true, 20, 0).isEmpty());
+        assertEquals(List.of(3, 4), ids(search(all(), false, 2, 1)));
+        assertEquals(List.of(4, 5), ids(search(all(), true, 10, 3)));
+
+        Book book = search(isbn("ISBN-3"), true, 20, 0).get(0);
+        assertEquals(table.get(3).title(), book.title());
+        assertEquals(CREATED, book.createdAt());
+        assertEquals(2, book.availableCopies());
+    }
+
+    @Test
+    @DisplayName("Short or wildcard terms fall back to the database")
+    void shouldFallBackForUnsupportedTerms() {
+        assertTrue(index.search(filter(Optional.of("du"), Optional.empty(), Optional.empty(), true), 20, 0).isEmpty());
+        assertTrue(index.search(filter(Optional.of("du%e"), Optional.empty(), Optional.empty(), true), 20, 0).isEmpty());
+        assertTrue(index.search(filter(Optional.empty(), Optional.empty(), Optional.empty(), true), 0, 0).isEmpty());
+        assertEquals(3.0, meterRegistry.get("library.books.catalog.index.searches").tag("result", "fallback").counter().count());
+    }
+
+    @Test
+    @DisplayName("Sync re-reads changed and new books and drops deleted ones")
+    void shouldSyncChangedBooks() {
+        put(1, "Dune", "Frank Herbert", "ISBN-1", 1);
+        put(2, "Dune: Messiah", "Frank Herbert", "ISBN-2", 1);
+        put(6, "Heretics of Dune", "Frank Herbert", "ISBN-6", 1);
+        table.remove(4);
+
+        assertEquals(4, index.sync());
+        assertEquals(List.of(1, 2, 5, 6), ids(search(title("dune"), false, 20, 0)));
+        assertEquals(List.of(2), ids(search(title("dune: m"), true, 20, 0)));
+        assertTrue(search(title("frankenstein"), true, 20, 0).isEmpty());
+        assertEquals(0, index.sync());
+        assertEquals(5.0, meterRegistry.get("library.books.catalog.index.books").gauge().value());
+        assertTrue(meterRegistry.get("library.books.catalog.index.bytes").gauge().value() > 0);
+    }
+
+    private List<Book> search(BookFilter filter, boolean showNotAvailable, int limit, int offset) {
+        return index.search(new BookFilter(filter.bookName(), filter.authorName(), filter.isbn(), showNotAvailable), limit, offset)
+                .orElseThrow();
+    }
+
+    private void put(int id, String title, String author, String isbn, int available) {
+        LocalDateTime updated = CREATED.plusSeconds(table.containsKey(id) ? 60 : 0);
+        table.put(id, new BookView(id, title, author, isbn, 3, available, CREATED, updated));
+    }
+
+    private static List<Integer> ids(List<Book> books) {
+        return books.stream().map(Book::id).toList();
+    }
+
+    private static BookFilter title(String term) {
+        return filter(Optional.of(term), Optional.empty(), Optional.empty(), true);
+    }
+
+    private static BookFilter author(String name) {
+        return filter(Optional.empty(), Optional.of(name), Optional.empty(), true);
+    }
+
+    private static BookFilter isbn(String isbn) {
+        return filter(Optional.empty(), Optional.empty(), Optional.of(isbn), true);
+    }
+
+    private static BookFilter all() {
+        return filter(Optional.empty(), Optional.empty(), Optional.empty(), true);
+    }
+
+    private static BookFilter filter(Optional<String> title, Optional<String> author, Optional<String> isbn, boolean showNotAvailable) {
+        return new BookFilter(title, author, isbn, showNotAvailable);
+    }
+}
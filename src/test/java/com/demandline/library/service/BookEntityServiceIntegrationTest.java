@@ -202,6 +202,22 @@ public class BookEntityServiceIntegrationTest {
         assertThat(exception.getMessage()).contains("loaned out");
     }
 
+    @Test
+    void testUpdateBookShiftsAvailableCopiesByTotalChange() {
+        var book = bookService.createBook(new BookInput("Shift Book", "Author", "ISBN-SHIFT-001", 5));
+
+        // 2 copies loaned out
+        var bookEntity = bookRepository.findById(book.id()).get();
+        bookEntity.setAvailableCopies(3);
+        bookRepository.save(bookEntity);
+
+        var updated = bookService.updateBook(new BookUpdateInput(book.id(), "Shift Book 2", null, null, 8));
+
+        assertThat(updated.title()).isEqualTo("Shift Book 2");
+        assertThat(updated.totalCopies()).isEqualTo(8);
+        assertThat(updated.availableCopies()).isEqualTo(6);
+    }
+
     @Test
     void testDeleteBook() {
         var input = new BookInput("Delete Book", "Author", "ISBN-DELETE-001", 3);
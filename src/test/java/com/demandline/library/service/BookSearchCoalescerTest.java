@@ -0,0 +1,105 @@
+package com.demandline.library.service;
+
+import com.demandline.library.observability.MetricsService;
+import com.demandline.library.service.model.Book;
+import com.demandline.library.service.model.filter.BookFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for BookSearchCoalescer
+ * Verifies identical in-flight searches share one query and that distinct searches do not
+ */
+@DisplayName("BookSearchCoalescer Tests")
+class BookSearchCoalescerTest {
+
+    private static final List<Book> RESULT = List.of(new Book(1, "Dune", "Frank Herbert", "ISBN-1", 2, 1, null, null));
+
+    private SimpleMeterRegistry meterRegistry;
+    private BookService bookService;
+    private BookSearchCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        bookService = mock(BookService.class);
+        coalescer = new BookSearchCoalescer(bookService, new MetricsService(meterRegistry));
+        ReflectionTestUtils.setField(coalescer, "enabled", true);
+        ReflectionTestUtils.setField(coalescer, "maxWaitMillis", 5000L);
+    }
+
+    @Test
+    @DisplayName("Identical concurrent searches share one query and its result")
+    void shouldShareInFlightQuery() throws Exception {
+        CountDownLatch queryStarted = new CountDownLatch(1);
+        CountDownLatch releaseQuery = new CountDownLatch(1);
+        when(bookService.getAllBooks(any(), anyInt(), anyInt())).thenAnswer(invocation -> {
+            queryStarted.countDown();
+            releaseQuery.await(5, TimeUnit.SECONDS);
+            return RESULT;
+        });
+
+        CompletableFuture<List<Book>> leader = CompletableFuture.supplyAsync(() -> coalescer.getAllBooks(title("Dune"), 20, 0));
+        assertTrue(queryStarted.await(5, TimeUnit.SECONDS));
+        CompletableFuture<List<Book>> follower = CompletableFuture.supplyAsync(() -> coalescer.getAllBooks(title("DUNE"), 20, 0));
+        while (meterRegistry.get("library.books.search.requests").tag("execution", "coalesced").counter().count() < 1) {
+            Thread.onSpinWait();
+        }
+        releaseQuery.countDown();
+
+        assertEquals(RESULT, leader.get(5, TimeUnit.SECONDS));
+        assertEquals(RESULT, follower.get(5, TimeUnit.SECONDS));
+        verify(bookService, times(1)).getAllBooks(any(), anyInt(), anyInt());
+        assertEquals(1.0, meterRegistry.get("library.books.search.requests").tag("execution", "executed").counter().count());
+        assertEquals(1.0, meterRegistry.get("library.books.search.coalesced.per.query").summary().totalAmount());
+        assertEquals(0.0, meterRegistry.get("library.books.search.inflight").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Searches differing in page or ISBN case run their own query")
+    void shouldKeySearchesByNormalizedFilterAndPage() {
+        assertEquals(BookSearchCoalescer.SearchKey.of(title("Dune"), 20, 0),
+                BookSearchCoalescer.SearchKey.of(title("dUNE"), 20, 0));
+        assertNotEquals(BookSearchCoalescer.SearchKey.of(title("Dune"), 20, 0),
+                BookSearchCoalescer.SearchKey.of(title("Dune"), 20, 1));
+        assertNotEquals(BookSearchCoalescer.SearchKey.of(isbn("abc"), 20, 0),
+                BookSearchCoalescer.SearchKey.of(isbn("ABC"), 20, 0));
+        // The ISBN takes precedence in the query, so the title does not split the key
+        assertEquals(BookSearchCoalescer.SearchKey.of(isbn("abc"), 20, 0),
+                BookSearchCoalescer.SearchKey.of(new BookFilter(Optional.of("x"), Optional.empty(), Optional.of("abc"), true), 20, 0));
+    }
+
+    @Test
+    @DisplayName("Completed searches are not reused and failures reach the caller")
+    void shouldNotCacheCompletedOrFailedSearches() {
+        when(bookService.getAllBooks(any(), anyInt(), anyInt()))
+                .thenThrow(new IllegalArgumentException("bad filter"))
+                .thenReturn(RESULT);
+
+        assertThrows(IllegalArgumentException.class, () -> coalescer.getAllBooks(title("Dune"), 20, 0));
+        assertEquals(RESULT, coalescer.getAllBooks(title("Dune"), 20, 0));
+        verify(bookService, times(2)).getAllBooks(any(), anyInt(), anyInt());
+    }
+
+    private static BookFilter title(String term) {
+        return new BookFilter(Optional.of(term), Optional.empty(), Optional.empty(), true);
+    }
+
+    private static BookFilter isbn(String term) {
+        return new BookFilter(Optional.empty(), Optional.empty(), Optional.of(term), true);
+    }
+}
@@ -0,0 +1,85 @@
+package com.demandline.library.service;
+
+import com.demandline.library.observability.MetricsService;
+import com.demandline.library.repository.BookRepository;
+import com.demandline.library.repository.projection.BookView;
+import com.demandline.library.service.model.BookSuggestion;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for BookSuggestionIndex
+ * Verifies prefix matching over title and author tokens and incremental updates
+ */
+@DisplayName("BookSuggestionIndex Tests")
+class BookSuggestionIndexTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private BookRepository bookRepository;
+    private BookSuggestionIndex index;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        bookRepository = mock(BookRepository.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        index = new BookSuggestionIndex(bookRepository, new TransactionTemplate(transactionManager),
+                new MetricsService(meterRegistry));
+        ReflectionTestUtils.setField(index, "enabled", true);
+        ReflectionTestUtils.setField(index, "maxResults", 20);
+        ReflectionTestUtils.setField(index, "maxCandidates", 1000);
+
+        when(bookRepository.streamAllViews()).thenReturn(Stream.of(
+                view(1, "Dune", "Frank Herbert"),
+                view(2, "Dune Messiah", "Frank Herbert"),
+                view(3, "Les Misérables", "Victor Hugo"),
+                view(4, "Frankenstein", "Mary Shelley")));
+        assertEquals(4, index.rebuild());
+    }
+
+    @Test
+    @DisplayName("Every query word must prefix a title or author word, ignoring case and accents")
+    void shouldMatchAllQueryTokensAsPrefixes() {
+        assertEquals(List.of(1, 2, 4), ids(index.suggest("fran", 10)));
+        assertEquals(List.of(1, 2), ids(index.suggest("FRANK du", 10)));
+        assertEquals(List.of(3), ids(index.suggest("miser", 10)));
+        assertEquals(List.of(1), ids(index.suggest("fran", 1)));
+        assertTrue(index.suggest("dune shelley", 10).isEmpty());
+        assertTrue(index.suggest("  ", 10).isEmpty());
+        assertEquals(4.0, meterRegistry.get("library.books.suggest.indexed").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Updated and deleted books leave no stale tokens behind")
+    void shouldApplyIncrementalUpdates() {
+        index.putAfterCommit(4, "The Modern Prometheus", "Mary Shelley");
+        index.removeAfterCommit(1);
+        index.putAfterCommit(5, "Children of Dune", "Frank Herbert");
+
+        assertEquals(List.of(5, 2), ids(index.suggest("frank", 10)));
+        assertEquals(List.of(4), ids(index.suggest("prom", 10)));
+        assertEquals(4, index.size());
+    }
+
+    private static List<Integer> ids(List<BookSuggestion> suggestions) {
+        return suggestions.stream().map(BookSuggestion::bookId).toList();
+    }
+
+    private static BookView view(int id, String title, String author) {
+        return new BookView(id, title, author, "ISBN-" + id, 1, 1, null, null);
+    }
+}
@@ -0,0 +1,196 @@
+package com.demandline.library.service;
+
+import com.demandline.library.repository.BookRepository;
+import com.demandline.library.repository.LoanRepository;
+import com.demandline.library.repository.model.BookEntity;
+import com.demandline.library.service.model.BulkReturnItemResult;
+import com.demandline.library.service.model.input.BulkReturnItemInput;
+import com.demandline.library.service.model.input.LoanInput;
+import com.demandline.library.service.model.input.MemberInput;
+import com.demandline.library.service.util.RedisLockUtil;
+import com.redis.testcontainers.RedisContainer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@Testcontainers
+public class BulkReturnServiceIntegrationTest {
+
+    @Container
+    public static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @Container
+    public static RedisContainer redis = new RedisContainer("redis:8-alpine");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", redis::getFirstMappedPort);
+        registry.add("library.loans.bulkReturn.maxItems", () -> "10");
+        registry.add("library.loans.bulkReturn.lockWaitSeconds", () -> "1");
+    }
+
+    @Autowired
+    private BulkReturnService bulkReturnService;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RedisLockUtil redisLockUtil;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Integer firstMemberId;
+    private Integer secondMemberId;
+    private BookEntity shared;
+    private BookEntity other;
+
+    @BeforeEach
+    void setUp() {
+        loanRepository.deleteAll();
+        bookRepository.deleteAll();
+
+        firstMemberId = createMember("First");
+        secondMemberId = createMember("Second");
+        shared = bookRepository.save(BookEntity.builder()
+                .title("Shared Book").author("Author").isbn("BULK-001").totalCopies(3).availableCopies(3).build());
+        other = bookRepository.save(BookEntity.builder()
+                .title("Other Book").author("Author").isbn("BULK-002").totalCopies(2).availableCopies(2).build());
+    }
+
+    @Test
+    void testCopiesAreReturnedAcrossMembersByBookIdAndIsbn() {
+        var first = loanService.loanBooks(new LoanInput(firstMemberId, List.of(shared.getId(), other.getId())));
+        var second = loanService.loanBooks(new LoanInput(secondMemberId, List.of(shared.getId())));
+
+        // The second member's loan of the shared book is the most overdue, so it is closed first
+        Integer secondLoanId = second.books().get(0).id();
+        jdbcTemplate.update("UPDATE loans SET due_date = ? WHERE id = ?", LocalDateTime.now().minusDays(2), secondLoanId);
+
+        List<BulkReturnItemResult> results = bulkReturnService.returnBooks(List.of(
+                new BulkReturnItemInput(shared.getId(), null),
+                new BulkReturnItemInput(null, "BULK-002"),
+                new BulkReturnItemInput(null, "UNKNOWN"),
+                new BulkReturnItemInput(shared.getId(), null),
+                new BulkReturnItemInput(shared.getId(), null)));
+
+        assertThat(results).extracting(BulkReturnItemResult::returned).containsExactly(true, true, false, true, false);
+        assertThat(results.get(0).loanId()).isEqualTo(secondLoanId);
+        assertThat(results.get(0).memberId()).isEqualTo(secondMemberId);
+        assertThat(results.get(1).bookId()).isEqualTo(other.getId());
+        assertThat(results.get(1).memberId()).isEqualTo(firstMemberId);
+        assertThat(results.get(2).error()).isEqualTo("Book not found: UNKNOWN");
+        assertThat(results.get(3).memberId()).isEqualTo(firstMemberId);
+        assertThat(results.get(4).error()).isEqualTo("No active loan for book: " + shared.getId());
+
+        assertThat(bookRepository.findById(shared.getId()).orElseThrow().getAvailableCopies()).isEqualTo(3);
+        assertThat(bookRepository.findById(other.getId()).orElseThrow().getAvailableCopies()).isEqualTo(2);
+        assertThat(loanRepository.findById(first.books().get(0).id()).orElseThrow().getReturnDate()).isNotNull();
+        assertThat(activeLoanCount(firstMemberId)).isZero();
+        assertThat(activeLoanCount(secondMemberId)).isZero();
+    }
+
+    @Test
+    void testReturnedLoanIsNotReturnedTwice() {
+        loanService.loanBooks(new LoanInput(firstMemberId, List.of(other.getId())));
+
+        assertThat(bulkReturnService.returnBooks(List.of(new BulkReturnItemInput(other.getId(), null))).get(0).returned())
+                .isTrue();
+        var again = bulkReturnService.returnBooks(List.of(new BulkReturnItemInput(other.getId(), null)));
+        assertThat(again.get(0).returned()).isFalse();
+        assertThat(bookRepository.findById(other.getId()).orElseThrow().getAvailableCopies()).isEqualTo(2);
+    }
+
+    @Test
+    void testBusyMembersShareOneLockDeadline() {
+        loanService.loanBooks(new LoanInput(firstMemberId, List.of(shared.getId())));
+        loanService.loanBooks(new LoanInput(secondMemberId, List.of(shared.getId())));
+        String firstLock = UUID.randomUUID().toString();
+        String secondLock = UUID.randomUUID().toString();
+        redisLockUtil.acquireLock("member:" + firstMemberId, firstLock);
+        redisLockUtil.acquireLock("member:" + secondMemberId, secondLock);
+        try {
+            long start = System.nanoTime();
+            var results = bulkReturnService.returnBooks(List.of(
+                    new BulkReturnItemInput(shared.getId(), null),
+                    new BulkReturnItemInput(shared.getId(), null)));
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+            assertThat(results).extracting(BulkReturnItemResult::error)
+                    .containsOnly("Member is busy, try again later");
+            // One second for the whole request, not one second per member
+            assertThat(elapsedMillis).isLessThan(1900);
+        } finally {
+            redisLockUtil.releaseLock("member:" + firstMemberId, firstLock);
+            redisLockUtil.releaseLock("member:" + secondMemberId, secondLock);
+        }
+    }
+
+    @Test
+    void testBulkReturnIsCountedAsReturnRequest() {
+        loanService.loanBooks(new LoanInput(firstMemberId, List.of(other.getId())));
+        double successes = meterRegistry.get("library.return.requests").tag("status", "success").counter().count();
+        long timings = meterRegistry.get("library.return.duration").timer().count();
+
+        bulkReturnService.returnBooks(List.of(new BulkReturnItemInput(other.getId(), null)));
+
+        assertThat(meterRegistry.get("library.return.requests").tag("status", "success").counter().count())
+                .isEqualTo(successes + 1);
+        assertThat(meterRegistry.get("library.return.duration").timer().count()).isEqualTo(timings + 1);
+    }
+
+    @Test
+    void testEmptyAndOversizedRequestsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> bulkReturnService.returnBooks(List.of()));
+        var tooMany = Collections.nCopies(11, new BulkReturnItemInput(shared.getId(), null));
+        assertThrows(IllegalArgumentException.class, () -> bulkReturnService.returnBooks(tooMany));
+    }
+
+    private Integer createMember(String name) {
+        return memberService.createMember(new MemberInput(
+                name + " Member", name.toLowerCase() + "-" + System.nanoTime() + "@library.local",
+                "password123", "Addr", "555")).id();
+    }
+
+    private int activeLoanCount(Integer memberId) {
+        return jdbcTemplate.queryForObject("SELECT active_loan_count FROM members WHERE id = ?", Integer.class, memberId);
+    }
+}
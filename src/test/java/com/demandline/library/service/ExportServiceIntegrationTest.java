@@ -0,0 +1,155 @@
+package com.demandline.library.service;
+
+import com.demandline.library.repository.BookRepository;
+import com.demandline.library.repository.LoanRepository;
+import com.demandline.library.repository.MemberRepository;
+import com.demandline.library.repository.model.BookEntity;
+import com.demandline.library.service.model.ExportFormat;
+import com.demandline.library.service.model.input.LoanInput;
+import com.demandline.library.service.model.input.MemberInput;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redis.testcontainers.RedisContainer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@Testcontainers
+public class ExportServiceIntegrationTest {
+
+    @Container
+    public static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @Container
+    public static RedisContainer redis = new RedisContainer("redis:8-alpine");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", redis::getFirstMappedPort);
+
+        // Clear the persistence context mid-export to exercise the detach path
+        registry.add("library.export.clearEvery", () -> "2");
+    }
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        loanRepository.deleteAll();
+        bookRepository.deleteAll();
+        memberRepository.deleteAll();
+
+        for (int i = 0; i < 5; i++) {
+            bookRepository.save(BookEntity.builder()
+                    .title("Export Book " + i)
+                    .author("Author " + i)
+                    .isbn("ISBN-EXPORT-" + i)
+                    .totalCopies(3)
+                    .availableCopies(3)
+                    .build());
+        }
+    }
+
+    @Test
+    void testExportBooksAsCsv() throws Exception {
+        bookRepository.save(BookEntity.builder()
+                .title("Commas, \"Quotes\" and More")
+                .author("Author")
+                .isbn("ISBN-EXPORT-Q")
+                .totalCopies(1)
+                .availableCopies(1)
+                .build());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = exportService.exportBooks(ExportFormat.CSV, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(rows).isEqualTo(6);
+        assertThat(lines).hasSize(7);
+        assertThat(lines.get(0)).isEqualTo("bookId,title,author,isbn,totalCopies,availableCopies,createdAt,updatedAt");
+        assertThat(lines.get(6)).contains("\"Commas, \"\"Quotes\"\" and More\"");
+    }
+
+    @Test
+    void testExportLoansAsNdjson() throws Exception {
+        List<BookEntity> books = bookRepository.findAll();
+        for (int i = 0; i < 3; i++) {
+            Integer memberId = memberService.createMember(new MemberInput(
+                    "Export Member " + i, "export-" + i + "-" + System.nanoTime() + "@library.local",
+                    "password123", "Addr", "555")).id();
+            loanService.loanBooks(new LoanInput(memberId, List.of(books.get(i).getId())));
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = exportService.exportLoans(ExportFormat.NDJSON, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(rows).isEqualTo(3);
+        assertThat(lines).hasSize(3);
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertThat(first.get("memberName").asText()).isEqualTo("Export Member 0");
+        assertThat(first.get("bookTitle").asText()).startsWith("Export Book");
+        assertThat(first.get("returnDate").isNull()).isTrue();
+    }
+
+    @Test
+    void testExportMembersExcludesPasswords() throws Exception {
+        memberService.createMember(new MemberInput(
+                "Export Member", "export-member-" + System.nanoTime() + "@library.local",
+                "secret-password", "Addr", "555"));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportMembers(ExportFormat.CSV, out);
+
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertThat(csv).contains("Export Member");
+        assertThat(csv).doesNotContain("secret-password");
+        assertThat(csv).doesNotContain("$2a$");
+    }
+
+    @Test
+    void testUnsupportedFormatIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> ExportFormat.fromString("xml"));
+    }
+}
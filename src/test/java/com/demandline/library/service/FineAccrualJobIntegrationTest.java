@@ -0,0 +1,181 @@
+package com.demandline.library.service;
+
+import com.demandline.library.repository.BookRepository;
+import com.demandline.library.repository.FineRepository;
+import com.demandline.library.repository.JobCheckpointRepository;
+import com.demandline.library.repository.LoanRepository;
+import com.demandline.library.repository.MemberRepository;
+import com.demandline.library.repository.model.BookEntity;
+import com.demandline.library.repository.model.FineEntity;
+import com.demandline.library.repository.model.JobCheckpointEntity;
+import com.demandline.library.service.model.FineAccrualSummary;
+import com.demandline.library.service.model.input.MemberInput;
+import com.redis.testcontainers.RedisContainer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Testcontainers
+public class FineAccrualJobIntegrationTest {
+    private static final LocalDate RUN_DATE = LocalDate.of(2025, 3, 10);
+
+    @Container
+    public static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @Container
+    public static RedisContainer redis = new RedisContainer("redis:8-alpine");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", redis::getFirstMappedPort);
+
+        registry.add("library.fines.dailyRate", () -> "0.50");
+        registry.add("library.fines.maxAmount", () -> "3.00");
+        registry.add("library.fines.chunkSize", () -> "2");
+    }
+
+    @Autowired
+    private FineAccrualJob fineAccrualJob;
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private FineRepository fineRepository;
+
+    @Autowired
+    private JobCheckpointRepository jobCheckpointRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private BookEntity testBook;
+    private Integer memberId;
+
+    @BeforeEach
+    void setUp() {
+        fineRepository.deleteAll();
+        jobCheckpointRepository.deleteAll();
+        loanRepository.deleteAll();
+        bookRepository.deleteAll();
+        memberRepository.deleteAll();
+
+        testBook = bookRepository.save(BookEntity.builder()
+                .title("Fine Book")
+                .author("Fine Author")
+                .isbn("ISBN-FINE-001")
+                .totalCopies(10)
+                .availableCopies(10)
+                .build());
+        memberId = memberService.createMember(new MemberInput(
+                "Fine Member", "fine-" + System.nanoTime() + "@library.local",
+                "password123", "Addr", "555")).id();
+    }
+
+    @Test
+    void testFinesAccruedPerDayOverdueWithCap() {
+        Integer twoDaysLate = insertLoan(RUN_DATE.minusDays(2).atTime(10, 0), null);
+        Integer tenDaysLate = insertLoan(RUN_DATE.minusDays(10).atTime(10, 0), null);
+        Integer dueToday = insertLoan(RUN_DATE.atTime(18, 0), null);
+        Integer returned = insertLoan(RUN_DATE.minusDays(5).atTime(10, 0), RUN_DATE.minusDays(1).atStartOfDay());
+
+        FineAccrualSummary summary = fineAccrualJob.run(RUN_DATE);
+
+        assertThat(summary.loansScanned()).isEqualTo(2);
+        assertThat(summary.finesAccrued()).isEqualTo(2);
+
+        FineEntity smallFine = fineRepository.findByLoanId(twoDaysLate).orElseThrow();
+        assertThat(smallFine.getDaysOverdue()).isEqualTo(2);
+        assertThat(smallFine.getAmount()).isEqualByComparingTo(new BigDecimal("1.00"));
+        assertThat(smallFine.getMemberId()).isEqualTo(memberId);
+
+        FineEntity cappedFine = fineRepository.findByLoanId(tenDaysLate).orElseThrow();
+        assertThat(cappedFine.getDaysOverdue()).isEqualTo(10);
+        assertThat(cappedFine.getAmount()).isEqualByComparingTo(new BigDecimal("3.00"));
+
+        assertThat(fineRepository.findByLoanId(dueToday)).isEmpty();
+        assertThat(fineRepository.findByLoanId(returned)).isEmpty();
+    }
+
+    @Test
+    void testNextDayRunIncreasesFines() {
+        Integer loanId = insertLoan(RUN_DATE.minusDays(1).atTime(9, 0), null);
+
+        fineAccrualJob.run(RUN_DATE);
+        fineAccrualJob.run(RUN_DATE.plusDays(1));
+
+        FineEntity fine = fineRepository.findByLoanId(loanId).orElseThrow();
+        assertThat(fine.getDaysOverdue()).isEqualTo(2);
+        assertThat(fine.getAccruedThrough()).isEqualTo(RUN_DATE.plusDays(1));
+        assertThat(fineRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void testCompletedRunIsNotRepeated() {
+        insertLoan(RUN_DATE.minusDays(3).atTime(9, 0), null);
+
+        fineAccrualJob.run(RUN_DATE);
+        FineAccrualSummary second = fineAccrualJob.run(RUN_DATE);
+
+        assertThat(second.loansScanned()).isZero();
+        assertThat(fineRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void testInterruptedRunResumesFromCheckpoint() {
+        Integer first = insertLoan(RUN_DATE.minusDays(5).atTime(9, 0), null);
+        Integer second = insertLoan(RUN_DATE.minusDays(4).atTime(9, 0), null);
+        insertLoan(RUN_DATE.minusDays(3).atTime(9, 0), null);
+
+        // Simulate a run that committed its first chunk and then stopped
+        jobCheckpointRepository.save(JobCheckpointEntity.builder()
+                .jobName("fine-accrual")
+                .runDate(RUN_DATE)
+                .lastDueDate(RUN_DATE.minusDays(4).atTime(9, 0))
+                .lastLoanId(second)
+                .build());
+
+        FineAccrualSummary summary = fineAccrualJob.run(RUN_DATE);
+
+        assertThat(summary.loansScanned()).isEqualTo(1);
+        assertThat(fineRepository.findByLoanId(first)).isEmpty();
+        assertThat(jobCheckpointRepository.findById("fine-accrual").orElseThrow().getCompletedAt()).isNotNull();
+    }
+
+    private Integer insertLoan(LocalDateTime dueDate, LocalDateTime returnDate) {
+        return jdbcTemplate.queryForObject("INSERT INTO loans (member_id, book_id, borrow_date, due_date, return_date) " +
+                        "VALUES (?, ?, ?, ?, ?) RETURNING id",
+                Integer.class, memberId, testBook.getId(), dueDate.minusDays(14), dueDate, returnDate);
+    }
+}
@@ -0,0 +1,239 @@
+package com.demandline.library.service;
+
+import com.demandline.library.repository.BookRepository;
+import com.demandline.library.repository.LoanRepository;
+import com.demandline.library.repository.model.BookEntity;
+import com.demandline.library.service.model.Hold;
+import com.demandline.library.service.model.Loan;
+import com.demandline.library.service.model.input.BulkReturnItemInput;
+import com.demandline.library.service.model.input.LoanInput;
+import com.demandline.library.service.model.input.MemberInput;
+import com.demandline.library.service.model.input.ReturnInput;
+import com.demandline.library.service.model.input.ReturnPairInput;
+import com.redis.testcontainers.RedisContainer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@Testcontainers
+public class HoldServiceIntegrationTest {
+
+    @Container
+    public static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @Container
+    public static RedisContainer redis = new RedisContainer("redis:8-alpine");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", redis::getFirstMappedPort);
+    }
+
+    @Autowired
+    private HoldService holdService;
+
+    @Autowired
+    private HoldExpiryJob holdExpiryJob;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private BulkReturnService bulkReturnService;
+
+    @Autowired
+    private MemberEligibilityService memberEligibilityService;
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Integer borrowerId;
+    private Integer firstHolderId;
+    private Integer secondHolderId;
+    private BookEntity book;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM holds");
+        loanRepository.deleteAll();
+        bookRepository.deleteAll();
+
+        borrowerId = createMember("Borrower");
+        firstHolderId = createMember("First");
+        secondHolderId = createMember("Second");
+        book = bookRepository.save(BookEntity.builder()
+                .title("Popular Book").author("Author").isbn("HOLD-001").totalCopies(1).availableCopies(1).build());
+    }
+
+    @Test
+    void testHoldsQueueInOrderOnlyForUnavailableBooks() {
+        assertThrows(IllegalArgumentException.class, () -> holdService.placeHold(firstHolderId, book.getId()));
+        borrowLastCopy();
+
+        Hold first = holdService.placeHold(firstHolderId, book.getId());
+        Hold second = holdService.placeHold(secondHolderId, book.getId());
+
+        assertThat(first.status()).isEqualTo("WAITING");
+        assertThat(first.queuePosition()).isEqualTo(1);
+        assertThat(second.queuePosition()).isEqualTo(2);
+        assertThat(holdService.getOpenHoldsByMemberId(secondHolderId)).extracting(Hold::queuePosition).containsExactly(2L);
+        assertThrows(IllegalArgumentException.class, () -> holdService.placeHold(firstHolderId, book.getId()));
+        assertThrows(IllegalArgumentException.class, () -> holdService.placeHold(borrowerId, book.getId()));
+    }
+
+    @Test
+    void testReturnedCopyGoesToNextHolderAndIsPickedUpByLoan() {
+        Loan loan = borrowLastCopy();
+        Hold first = holdService.placeHold(firstHolderId, book.getId());
+        holdService.placeHold(secondHolderId, book.getId());
+
+        loanService.returnBooks(new ReturnInput(borrowerId,
+                List.of(new ReturnPairInput(loan.books().get(0).id(), book.getId()))));
+
+        assertThat(holdStatus(first.id())).isEqualTo("READY");
+        assertThat(availableCopies()).isZero();
+        assertThat(holdService.getOpenHoldsByMemberId(secondHolderId)).extracting(Hold::queuePosition).containsExactly(1L);
+
+        // The copy on the hold shelf is only for the first holder
+        assertThrows(IllegalArgumentException.class,
+                () -> loanService.loanBooks(new LoanInput(secondHolderId, List.of(book.getId()))));
+        loanService.loanBooks(new LoanInput(firstHolderId, List.of(book.getId())));
+
+        assertThat(holdStatus(first.id())).isEqualTo("FULFILLED");
+        assertThat(availableCopies()).isZero();
+    }
+
+    @Test
+    void testExpiredHoldPassesCopyOnThenBackToShelf() {
+        Loan loan = borrowLastCopy();
+        Hold first = holdService.placeHold(firstHolderId, book.getId());
+        Hold second = holdService.placeHold(secondHolderId, book.getId());
+        loanService.returnBooks(new ReturnInput(borrowerId,
+                List.of(new ReturnPairInput(loan.books().get(0).id(), book.getId()))));
+
+        LocalDateTime later = LocalDateTime.now().plusDays(30);
+        assertThat(holdExpiryJob.expireHolds(later)).isEqualTo(1);
+        assertThat(holdStatus(first.id())).isEqualTo("EXPIRED");
+        assertThat(holdStatus(second.id())).isEqualTo("READY");
+        assertThat(availableCopies()).isZero();
+
+        assertThat(holdExpiryJob.expireHolds(later.plusDays(30))).isEqualTo(1);
+        assertThat(holdStatus(second.id())).isEqualTo("EXPIRED");
+        assertThat(availableCopies()).isEqualTo(1);
+    }
+
+    @Test
+    void testEligibilityCountsCopyHeldForMember() {
+        Loan loan = borrowLastCopy();
+        holdService.placeHold(firstHolderId, book.getId());
+        loanService.returnBooks(new ReturnInput(borrowerId,
+                List.of(new ReturnPairInput(loan.books().get(0).id(), book.getId()))));
+        assertThat(availableCopies()).isZero();
+
+        var holder = memberEligibilityService.checkEligibility(firstHolderId, List.of(book.getId()));
+        assertThat(holder.canBorrow()).isTrue();
+        assertThat(holder.books()).extracting(b -> b.availableCopies()).containsExactly(1);
+
+        var other = memberEligibilityService.checkEligibility(secondHolderId, List.of(book.getId()));
+        assertThat(other.canBorrow()).isFalse();
+        assertThat(other.reason()).isEqualTo("Book not available: Popular Book");
+
+        var twice = memberEligibilityService.checkEligibility(firstHolderId, List.of(book.getId(), book.getId()));
+        assertThat(twice.canBorrow()).isFalse();
+    }
+
+    @Test
+    void testCancelledReadyHoldReturnsCopyToShelf() {
+        Loan loan = borrowLastCopy();
+        Hold first = holdService.placeHold(firstHolderId, book.getId());
+        loanService.returnBooks(new ReturnInput(borrowerId,
+                List.of(new ReturnPairInput(loan.books().get(0).id(), book.getId()))));
+
+        assertThat(holdService.cancelHold(first.id()).status()).isEqualTo("CANCELLED");
+        assertThat(availableCopies()).isEqualTo(1);
+        assertThrows(IllegalArgumentException.class, () -> holdService.cancelHold(first.id()));
+    }
+
+    @Test
+    void testBulkReturnAndSweepSetCopiesAsideForWaitingHolds() {
+        borrowLastCopy();
+        Hold first = holdService.placeHold(firstHolderId, book.getId());
+        Hold second = holdService.placeHold(secondHolderId, book.getId());
+
+        assertThat(bulkReturnService.returnBooks(List.of(new BulkReturnItemInput(book.getId(), null))).get(0).returned())
+                .isTrue();
+        assertThat(holdStatus(first.id())).isEqualTo("READY");
+        assertThat(availableCopies()).isZero();
+
+        // A copy added to the book is handed to the remaining hold by the sweep
+        jdbcTemplate.update("UPDATE books SET total_copies = 2, available_copies = 1 WHERE id = ?", book.getId());
+        assertThat(holdExpiryJob.allocateAvailableCopies(LocalDateTime.now())).isEqualTo(1);
+        assertThat(holdStatus(second.id())).isEqualTo("READY");
+        assertThat(availableCopies()).isZero();
+    }
+
+    @Test
+    void testStaleQueueMirrorIsCountedInDatabaseUntilRebuilt() {
+        borrowLastCopy();
+        Hold first = holdService.placeHold(firstHolderId, book.getId());
+        holdService.placeHold(secondHolderId, book.getId());
+
+        // A cancel whose mirror update failed on some node: the mirror still ranks the cancelled hold first
+        jdbcTemplate.update("UPDATE holds SET status = 'CANCELLED' WHERE id = ?", first.id());
+        jdbcTemplate.update("INSERT INTO hold_queue_rebuilds (book_id) VALUES (?)", book.getId());
+        assertThat(holdService.getOpenHoldsByMemberId(secondHolderId)).extracting(Hold::queuePosition).containsExactly(1L);
+
+        assertThat(holdService.rebuildStaleQueues()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM hold_queue_rebuilds", Integer.class)).isZero();
+        assertThat(holdService.getOpenHoldsByMemberId(secondHolderId)).extracting(Hold::queuePosition).containsExactly(1L);
+    }
+
+    private Loan borrowLastCopy() {
+        return loanService.loanBooks(new LoanInput(borrowerId, List.of(book.getId())));
+    }
+
+    private Integer createMember(String name) {
+        return memberService.createMember(new MemberInput(
+                name + " Member", name.toLowerCase() + "-" + System.nanoTime() + "@library.local",
+                "password123", "Addr", "555")).id();
+    }
+
+    private String holdStatus(Integer holdId) {
+        return jdbcTemplate.queryForObject("SELECT status FROM holds WHERE id = ?", String.class, holdId);
+    }
+
+    private int availableCopies() {
+        return bookRepository.findById(book.getId()).orElseThrow().getAvailableCopies();
+    }
+}
@@ -0,0 +1,182 @@
+package com.demandline.library.service;
+
+import com.demandline.library.repository.BookRepository;
+import com.demandline.library.repository.LoanRepository;
+import com.demandline.library.repository.MemberRepository;
+import com.demandline.library.service.model.input.LoanInput;
+import com.demandline.library.service.model.input.MemberInput;
+import com.demandline.library.service.model.input.ReturnInput;
+import com.demandline.library.service.model.input.ReturnPairInput;
+import com.redis.testcontainers.RedisContainer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@Testcontainers
+public class HotTitleAvailabilityServiceIntegrationTest {
+    private static final int HOT_BOOK_ID = 900001;
+
+    @Container
+    public static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @Container
+    public static RedisContainer redis = new RedisContainer("redis:8-alpine");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", redis::getFirstMappedPort);
+
+        registry.add("library.hotTitles.enabled", () -> "true");
+        registry.add("library.hotTitles.bookIds", () -> String.valueOf(HOT_BOOK_ID));
+    }
+
+    @Autowired
+    private HotTitleAvailabilityService hotTitleAvailabilityService;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        loanRepository.deleteAll();
+        bookRepository.deleteAll();
+        memberRepository.deleteAll();
+
+        jdbcTemplate.update("INSERT INTO books (id, title, author, isbn, total_copies, available_copies) " +
+                "VALUES (?, 'Hot Title', 'Hot Author', 'ISBN-HOT-001', 2, 2)", HOT_BOOK_ID);
+        hotTitleAvailabilityService.reconcileAll();
+    }
+
+    @Test
+    void testHotTitleCounterIsSeededFromDatabase() {
+        assertThat(hotTitleAvailabilityService.isHotTitle(HOT_BOOK_ID)).isTrue();
+        assertThat(counter()).isEqualTo("2");
+    }
+
+    @Test
+    void testHotTitleBorrowedUntilExhausted() {
+        loanService.loanBooks(new LoanInput(createMember("hot1"), List.of(HOT_BOOK_ID)));
+        loanService.loanBooks(new LoanInput(createMember("hot2"), List.of(HOT_BOOK_ID)));
+
+        var exception = assertThrows(IllegalArgumentException.class,
+                () -> loanService.loanBooks(new LoanInput(createMember("hot3"), List.of(HOT_BOOK_ID))));
+
+        assertThat(exception.getMessage()).contains("not available");
+        assertThat(counter()).isEqualTo("0");
+        assertThat(bookRepository.findById(HOT_BOOK_ID).get().getAvailableCopies()).isEqualTo(0);
+    }
+
+    @Test
+    void testHotTitleReservationIsReleasedOnRollback() {
+        // Second book does not exist, so the whole loan rolls back after the hot title was reserved
+        var exception = assertThrows(IllegalArgumentException.class,
+                () -> loanService.loanBooks(new LoanInput(createMember("rollback"), List.of(HOT_BOOK_ID, 99999))));
+
+        assertThat(exception.getMessage()).contains("Book not found");
+        assertThat(counter()).isEqualTo("2");
+        assertThat(bookRepository.findById(HOT_BOOK_ID).get().getAvailableCopies()).isEqualTo(2);
+    }
+
+    @Test
+    void testHotTitleReturnRestoresCounter() {
+        Integer member = createMember("return");
+        var loan = loanService.loanBooks(new LoanInput(member, List.of(HOT_BOOK_ID)));
+        assertThat(counter()).isEqualTo("1");
+
+        loanService.returnBooks(new ReturnInput(member,
+                List.of(new ReturnPairInput(loan.books().get(0).id(), HOT_BOOK_ID))));
+
+        assertThat(counter()).isEqualTo("2");
+    }
+
+    @Test
+    void testReconcilerCorrectsDrift() {
+        redisTemplate.opsForValue().set("book:available:" + HOT_BOOK_ID, "7");
+
+        hotTitleAvailabilityService.reconcileAll();
+
+        assertThat(counter()).isEqualTo("2");
+    }
+
+    @Test
+    void testDriftedCounterFallsBackToDatabase() {
+        // Counter claims copies are left while Postgres has none
+        jdbcTemplate.update("UPDATE books SET available_copies = 0 WHERE id = ?", HOT_BOOK_ID);
+
+        var exception = assertThrows(IllegalArgumentException.class,
+                () -> loanService.loanBooks(new LoanInput(createMember("drift"), List.of(HOT_BOOK_ID))));
+
+        assertThat(exception.getMessage()).contains("not available");
+        assertThat(bookRepository.findById(HOT_BOOK_ID).get().getAvailableCopies()).isEqualTo(0);
+        // The failed confirmation re-seeds the counter from Postgres
+        assertThat(counter()).isEqualTo("0");
+    }
+
+    @Test
+    void testEmptyCounterRejectsUntilReconciled() {
+        // Counter claims no copies are left while Postgres still has both, e.g. after a lost adjustment
+        redisTemplate.opsForValue().set("book:available:" + HOT_BOOK_ID, "0");
+
+        var exception = assertThrows(IllegalArgumentException.class,
+                () -> loanService.loanBooks(new LoanInput(createMember("lagging"), List.of(HOT_BOOK_ID))));
+
+        assertThat(exception.getMessage()).contains("not available");
+        assertThat(bookRepository.findById(HOT_BOOK_ID).get().getAvailableCopies()).isEqualTo(2);
+
+        hotTitleAvailabilityService.reconcileAll();
+        loanService.loanBooks(new LoanInput(createMember("reconciled"), List.of(HOT_BOOK_ID)));
+
+        assertThat(bookRepository.findById(HOT_BOOK_ID).get().getAvailableCopies()).isEqualTo(1);
+        assertThat(counter()).isEqualTo("1");
+    }
+
+    private String counter() {
+        return redisTemplate.opsForValue().get("book:available:" + HOT_BOOK_ID);
+    }
+
+    private Integer createMember(String prefix) {
+        String uniqueEmail = prefix + "-" + System.nanoTime() + "@library.local";
+        return memberService.createMember(new MemberInput(
+                "Hot Member", uniqueEmail, "password123", "Addr", "555")).id();
+    }
+}
@@ -0,0 +1,69 @@
+package com.demandline.library.service;
+
+import com.demandline.library.observability.MetricsService;
+import com.demandline.library.repository.BookRepository;
+import com.demandline.library.repository.model.BookEntity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for HotTitleAvailabilityService
+ * Verifies that Redis failures neither fail hot-title borrows nor already committed requests
+ */
+@DisplayName("HotTitleAvailabilityService Tests")
+class HotTitleAvailabilityServiceTest {
+
+    private BookRepository bookRepository;
+    private RedisTemplate<String, String> redisTemplate;
+    private HotTitleAvailabilityService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        bookRepository = mock(BookRepository.class);
+        redisTemplate = mock(RedisTemplate.class);
+        service = new HotTitleAvailabilityService(bookRepository, redisTemplate, new MetricsService(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "hotBookIds", Set.of(1));
+    }
+
+    @Test
+    @DisplayName("Counter adjustments and resyncs swallow Redis failures")
+    void shouldNotFailWhenRedisIsDown() {
+        RedisConnectionFailureException down = new RedisConnectionFailureException("down");
+        when(redisTemplate.hasKey(anyString())).thenThrow(down);
+        when(redisTemplate.opsForValue()).thenThrow(down);
+        when(bookRepository.findAllById(any())).thenReturn(List.of(
+                BookEntity.builder().id(1).title("Hot").author("A").isbn("HOT-1").totalCopies(2).availableCopies(1).build()));
+
+        assertDoesNotThrow(() -> service.adjustAfterCommit(1, -1));
+        assertDoesNotThrow(() -> service.resyncAfterCommit(1));
+        verify(redisTemplate).hasKey("book:available:1");
+    }
+
+    @Test
+    @DisplayName("Reservations fall back to the regular path when Redis is down")
+    @SuppressWarnings("unchecked")
+    void shouldFallBackWhenReserveFails() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList()))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        assertEquals(HotTitleAvailabilityService.Reservation.NOT_TRACKED, service.tryReserve(1));
+    }
+}
@@ -0,0 +1,184 @@
+package com.demandline.library.service;
+
+import com.demandline.library.repository.BookRepository;
+import com.demandline.library.repository.LoanRepository;
+import com.demandline.library.repository.MemberRepository;
+import com.demandline.library.repository.model.BookEntity;
+import com.demandline.library.service.model.InventoryVerificationSummary;
+import com.demandline.library.service.model.input.MemberInput;
+import com.redis.testcontainers.RedisContainer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Testcontainers
+public class InventoryConsistencyJobIntegrationTest {
+
+    @Container
+    public static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @Container
+    public static RedisContainer redis = new RedisContainer("redis:8-alpine");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", redis::getFirstMappedPort);
+
+        registry.add("library.inventory.verifier.enabled", () -> "false");
+        registry.add("library.inventory.verifier.repair.batchSize", () -> "1");
+        registry.add("library.inventory.verifier.repair.maxBooksPerRun", () -> "2");
+    }
+
+    @Autowired
+    private InventoryConsistencyJob inventoryConsistencyJob;
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Integer memberId;
+
+    @BeforeEach
+    void setUp() {
+        loanRepository.deleteAll();
+        bookRepository.deleteAll();
+        memberRepository.deleteAll();
+
+        memberId = memberService.createMember(new MemberInput(
+                "Inventory Member", "inventory-" + System.nanoTime() + "@library.local",
+                "password123", "Addr", "555")).id();
+    }
+
+    @Test
+    void testConsistentInventoryHasNoDrift() {
+        BookEntity book = saveBook("ISBN-INV-001", 5, 3);
+        insertLoan(book.getId(), null);
+        insertLoan(book.getId(), null);
+        insertLoan(book.getId(), LocalDateTime.now().minusDays(1));
+
+        InventoryVerificationSummary summary = inventoryConsistencyJob.run(true);
+
+        assertThat(summary.driftedBooks()).isZero();
+        assertThat(summary.repairedBooks()).isZero();
+        assertThat(meterRegistry.get("library.inventory.drift.books").gauge().value()).isZero();
+    }
+
+    @Test
+    void testDriftIsReportedWithoutRepair() {
+        BookEntity overCounted = saveBook("ISBN-INV-002", 4, 4);
+        insertLoan(overCounted.getId(), null);
+        BookEntity underCounted = saveBook("ISBN-INV-003", 4, 1);
+
+        InventoryVerificationSummary summary = inventoryConsistencyJob.run(false);
+
+        assertThat(summary.driftedBooks()).isEqualTo(2);
+        assertThat(summary.driftedCopies()).isEqualTo(4);
+        assertThat(summary.repairedBooks()).isZero();
+        assertThat(meterRegistry.get("library.inventory.drift.books").gauge().value()).isEqualTo(2.0);
+        assertThat(meterRegistry.get("library.inventory.drift.copies").gauge().value()).isEqualTo(4.0);
+        assertThat(availableCopies(overCounted.getId())).isEqualTo(4);
+        assertThat(availableCopies(underCounted.getId())).isEqualTo(1);
+    }
+
+    @Test
+    void testRepairIsBoundedPerRun() {
+        BookEntity first = saveBook("ISBN-INV-004", 3, 3);
+        insertLoan(first.getId(), null);
+        BookEntity second = saveBook("ISBN-INV-005", 3, 0);
+        BookEntity third = saveBook("ISBN-INV-006", 3, 7);
+        insertLoan(third.getId(), null);
+        insertLoan(third.getId(), null);
+
+        InventoryVerificationSummary firstRun = inventoryConsistencyJob.run(true);
+
+        assertThat(firstRun.driftedBooks()).isEqualTo(3);
+        assertThat(firstRun.repairedBooks()).isEqualTo(2);
+        assertThat(availableCopies(first.getId())).isEqualTo(2);
+        assertThat(availableCopies(second.getId())).isEqualTo(3);
+        assertThat(availableCopies(third.getId())).isEqualTo(7);
+
+        InventoryVerificationSummary secondRun = inventoryConsistencyJob.run(true);
+
+        assertThat(secondRun.driftedBooks()).isEqualTo(1);
+        assertThat(secondRun.repairedBooks()).isEqualTo(1);
+        assertThat(availableCopies(third.getId())).isEqualTo(1);
+        assertThat(inventoryConsistencyJob.run(false).driftedBooks()).isZero();
+    }
+
+    @Test
+    void testBookWithTotalBelowLoansIsClampedAndReported() {
+        BookEntity oversubscribed = saveBook("ISBN-INV-007", 1, 1);
+        insertLoan(oversubscribed.getId(), null);
+        insertLoan(oversubscribed.getId(), null);
+
+        InventoryVerificationSummary firstRun = inventoryConsistencyJob.run(true);
+
+        assertThat(firstRun.unrepairableBooks()).isEqualTo(1);
+        assertThat(firstRun.repairedBooks()).isEqualTo(1);
+        assertThat(availableCopies(oversubscribed.getId())).isZero();
+        assertThat(meterRegistry.get("library.inventory.unrepairable.books").gauge().value()).isEqualTo(1.0);
+
+        // Still reported, but not rewritten on every run
+        InventoryVerificationSummary secondRun = inventoryConsistencyJob.run(true);
+
+        assertThat(secondRun.driftedBooks()).isEqualTo(1);
+        assertThat(secondRun.unrepairableBooks()).isEqualTo(1);
+        assertThat(secondRun.repairedBooks()).isZero();
+        assertThat(availableCopies(oversubscribed.getId())).isZero();
+    }
+
+    private BookEntity saveBook(String isbn, int totalCopies, int availableCopies) {
+        return bookRepository.save(BookEntity.builder()
+                .title("Inventory Book " + isbn)
+                .author("Inventory Author")
+                .isbn(isbn)
+                .totalCopies(totalCopies)
+                .availableCopies(availableCopies)
+                .build());
+    }
+
+    private void insertLoan(Integer bookId, LocalDateTime returnDate) {
+        LocalDateTime borrowDate = LocalDateTime.now().minusDays(3);
+        jdbcTemplate.update("INSERT INTO loans (member_id, book_id, borrow_date, due_date, return_date) VALUES (?, ?, ?, ?, ?)",
+                memberId, bookId, borrowDate, borrowDate.plusDays(14), returnDate);
+    }
+
+    private int availableCopies(Integer bookId) {
+        return jdbcTemplate.queryForObject("SELECT available_copies FROM books WHERE id = ?", Integer.class, bookId);
+    }
+}
@@ -0,0 +1,192 @@
+package com.demandline.library.service;
+
+import com.demandline.library.repository.BookRepository;
+import com.demandline.library.repository.LoanRepository;
+import com.demandline.library.repository.model.BookEntity;
+import com.demandline.library.service.model.LoanBook;
+import com.demandline.library.service.model.LoanBookMember;
+import com.demandline.library.service.model.filter.LoanFilter;
+import com.demandline.library.service.model.input.MemberInput;
+import com.redis.testcontainers.RedisContainer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Testcontainers
+public class LoanArchivalJobIntegrationTest {
+
+    @Container
+    public static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @Container
+    public static RedisContainer redis = new RedisContainer("redis:8-alpine");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", redis::getFirstMappedPort);
+
+        registry.add("library.loans.partitions.monthsAhead", () -> "2");
+        registry.add("library.loans.archive.maxPartitionsPerRun", () -> "5");
+    }
+
+    @Autowired
+    private LoanArchivalJob loanArchivalJob;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private ActiveLoanWindow activeLoanWindow;
+
+    @Autowired
+    private OverdueLoanService overdueLoanService;
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Integer memberId;
+    private BookEntity book;
+
+    @BeforeEach
+    void setUp() {
+        loanRepository.deleteAll();
+        bookRepository.deleteAll();
+
+        memberId = memberService.createMember(new MemberInput(
+                "Archive Member", "archive-" + System.nanoTime() + "@library.local",
+                "password123", "Addr", "555")).id();
+        book = bookRepository.save(BookEntity.builder()
+                .title("Archive Book").author("Archive Author").isbn("ISBN-ARC-001")
+                .totalCopies(5).availableCopies(5).build());
+    }
+
+    @Test
+    void testCurrentMonthsArePartitionedAfterMigration() {
+        String current = partitionName(LocalDate.now());
+        assertThat(partitionExists(current)).isTrue();
+        assertThat(partitionExists(partitionName(LocalDate.now().plusMonths(3)))).isTrue();
+
+        Integer loanId = insertLoan(LocalDateTime.now(), null);
+        assertThat(partitionOf(loanId)).isEqualTo(current);
+    }
+
+    @Test
+    void testEnsurePartitionsMovesRowsOutOfDefaultPartition() {
+        Integer loanId = insertLoan(LocalDateTime.of(2040, 2, 10, 12, 0), null);
+        jdbcTemplate.update("INSERT INTO fines (loan_id, member_id, days_overdue, amount, accrued_through) " +
+                "VALUES (?, ?, 1, 0.25, CURRENT_DATE)", loanId, memberId);
+        assertThat(partitionOf(loanId)).isEqualTo("loans_default");
+
+        assertThat(loanArchivalJob.ensurePartitions(LocalDate.of(2040, 1, 15))).isEqualTo(3);
+        assertThat(partitionOf(loanId)).isEqualTo("loans_p2040_02");
+        assertThat(partitionExists("loans_p2040_03")).isTrue();
+        assertThat(fineCount(loanId)).isEqualTo(1);
+
+        // Already present months are left alone
+        assertThat(loanArchivalJob.ensurePartitions(LocalDate.of(2040, 1, 15))).isZero();
+    }
+
+    @Test
+    void testArchiveDetachesOnlyFullyReturnedOldMonths() {
+        assertThat(loanArchivalJob.ensurePartitions(LocalDate.of(2001, 3, 1))).isEqualTo(3);
+        LocalDateTime march = LocalDateTime.of(2001, 3, 5, 10, 0);
+        LocalDateTime april = LocalDateTime.of(2001, 4, 5, 10, 0);
+        Integer returnedId = insertLoan(march, march.plusDays(7));
+        insertLoan(april, null);
+
+        assertThat(loanArchivalJob.archive(LocalDate.of(2001, 5, 1))).containsExactly("loans_p2001_03");
+
+        assertThat(partitionExists("loans_p2001_03")).isFalse();
+        assertThat(partitionExists("loans_p2001_04")).isTrue();
+        assertThat(loanRepository.findById(returnedId)).isEmpty();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM loan_archive.loans_p2001_03 WHERE id = ?",
+                Integer.class, returnedId)).isEqualTo(1);
+
+        // The month with an active loan stays until it is returned
+        assertThat(loanArchivalJob.archive(LocalDate.of(2001, 5, 1))).isEmpty();
+    }
+
+    @Test
+    void testMemberHistoryCanBeLimitedToRecentLoans() {
+        LocalDateTime old = LocalDateTime.now().minusMonths(5);
+        insertLoan(old, old.plusDays(7));
+        Integer recentId = insertLoan(LocalDateTime.now().minusDays(2), null);
+
+        assertThat(loanService.getLoansByMemberId(memberId, new LoanFilter(false, false, 0))).hasSize(2);
+        assertThat(loanService.getLoansByMemberId(memberId,
+                new LoanFilter(false, false, 0, LocalDateTime.now().minusMonths(1))))
+                .extracting(LoanBook::id)
+                .containsExactly(recentId);
+    }
+
+    @Test
+    void testActiveLoanWindowStartsAtOldestActiveLoan() {
+        LocalDateTime oldest = LocalDateTime.now().minusMonths(3).withNano(0);
+        insertLoan(oldest.minusMonths(2), oldest.minusMonths(2).plusDays(7));
+        Integer activeId = insertLoan(oldest, null);
+        insertLoan(LocalDateTime.now().minusDays(1), null);
+
+        activeLoanWindow.refresh();
+        assertThat(activeLoanWindow.oldestActive()).isEqualTo(oldest);
+        // The overdue loan borrowed exactly at the bound is still found
+        assertThat(overdueLoanService.getOverdueLoans(0, 0, 20)).extracting(LoanBookMember::id).containsExactly(activeId);
+
+        jdbcTemplate.update("UPDATE loans SET return_date = now() WHERE id = ?", activeId);
+        activeLoanWindow.refresh();
+        assertThat(activeLoanWindow.oldestActive()).isAfter(oldest.plusMonths(2));
+    }
+
+    private Integer insertLoan(LocalDateTime borrowDate, LocalDateTime returnDate) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO loans (member_id, book_id, borrow_date, return_date, due_date) VALUES (?, ?, ?, ?, ?) RETURNING id",
+                Integer.class, memberId, book.getId(), borrowDate, returnDate, borrowDate.plusDays(14));
+    }
+
+    private String partitionOf(Integer loanId) {
+        return jdbcTemplate.queryForObject("SELECT tableoid::regclass::text FROM loans WHERE id = ?", String.class, loanId);
+    }
+
+    private boolean partitionExists(String name) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                "WHERE i.inhparent = 'loans'::regclass AND c.relname = ?)", Boolean.class, name));
+    }
+
+    private int fineCount(Integer loanId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM fines WHERE loan_id = ?", Integer.class, loanId);
+    }
+
+    private static String partitionName(LocalDate day) {
+        return String.format("loans_p%04d_%02d", day.getYear(), day.getMonthValue());
+    }
+}
@@ -0,0 +1,288 @@
+package com.demandline.library.service;
+
+import com.demandline.library.repository.BookRepository;
+import com.demandline.library.repository.LoanRepository;
+import com.demandline.library.repository.MemberRepository;
+import com.demandline.library.repository.model.BookEntity;
+import com.demandline.library.service.model.input.LoanInput;
+import com.demandline.library.service.model.input.MemberInput;
+import com.redis.testcontainers.RedisContainer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Integration tests for LoanBatchExecutor
+ * Verifies group-committed loans keep the same semantics as the direct path
+ * and compares latency/throughput of both paths under concurrency
+ */
+@SpringBootTest
+@Testcontainers
+public class LoanBatchExecutorIntegrationTest {
+
+    @Container
+    public static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @Container
+    public static RedisContainer redis = new RedisContainer("redis:8-alpine");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", redis::getFirstMappedPort);
+
+        registry.add("library.loanBatching.enabled", () -> "true");
+        registry.add("library.loanBatching.windowMillis", () -> "5");
+        registry.add("library.loanBatching.maxBatchSize", () -> "16");
+    }
+
+    @Autowired
+    private LoanBatchExecutor loanBatchExecutor;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    private BookEntity testBook;
+
+    @BeforeEach
+    void setUp() {
+        loanRepository.deleteAll();
+        bookRepository.deleteAll();
+        memberRepository.deleteAll();
+
+        testBook = bookRepository.save(BookEntity.builder()
+                .title("Batch Book")
+                .author("Batch Author")
+                .isbn("ISBN-BATCH-001")
+                .totalCopies(100)
+                .availableCopies(100)
+                .build());
+    }
+
+    @Test
+    void testBatchedLoanSingleRequest() {
+        var member = createMember("single");
+
+        var result = loanBatchExecutor.loanBooks(new LoanInput(member, List.of(testBook.getId())));
+
+        assertThat(result.member().id()).isEqualTo(member);
+        assertThat(result.books()).hasSize(1);
+        assertThat(result.books().get(0).id()).isNotNull();
+        assertThat(bookRepository.findById(testBook.getId()).get().getAvailableCopies()).isEqualTo(99);
+    }
+
+    @Test
+    void testBatchedLoanFailureIsReportedToCaller() {
+        var member = createMember("missing-book");
+
+        var exception = assertThrows(IllegalArgumentException.class,
+                () -> loanBatchExecutor.loanBooks(new LoanInput(member, List.of(99999))));
+
+        assertThat(exception.getMessage()).contains("Book not found");
+    }
+
+    @Test
+    void testConcurrentBatchedLoans_FailuresAreIsolated() throws InterruptedException {
+        List<Integer> members = createMembers("isolated", 10);
+        AtomicInteger successCount = new AtomicInteger();
+        AtomicInteger notFoundCount = new AtomicInteger();
+
+        runConcurrently(members.size(), i -> {
+            // Every third request asks for a book that does not exist
+            List<Integer> bookIds = i % 3 == 0 ? List.of(99999) : List.of(testBook.getId());
+            try {
+                loanBatchExecutor.loanBooks(new LoanInput(members.get(i), bookIds));
+                successCount.incrementAndGet();
+            } catch (IllegalArgumentException e) {
+                if (e.getMessage().contains("Book not found")) {
+                    notFoundCount.incrementAndGet();
+                } else {
+                    throw e;
+                }
+            }
+        });
+
+        assertThat(successCount.get()).isEqualTo(6);
+        assertThat(notFoundCount.get()).isEqualTo(4);
+        assertThat(bookRepository.findById(testBook.getId()).get().getAvailableCopies()).isEqualTo(94);
+    }
+
+    @Test
+    void testConcurrentBatchedLoansLimitedAvailability() throws InterruptedException {
+        BookEntity limitedBook = bookRepository.save(BookEntity.builder()
+                .title("Limited Batch Book")
+                .author("Author")
+                .isbn("ISBN-BATCH-LTD")
+                .totalCopies(2)
+                .availableCopies(2)
+                .build());
+        List<Integer> members = createMembers("limited", 5);
+        AtomicInteger successCount = new AtomicInteger();
+        AtomicInteger notAvailableCount = new AtomicInteger();
+
+        runConcurrently(members.size(), i -> {
+            try {
+                loanBatchExecutor.loanBooks(new LoanInput(members.get(i), List.of(limitedBook.getId())));
+                successCount.incrementAndGet();
+            } catch (IllegalArgumentException e) {
+                if (e.getMessage().contains("not available")) {
+                    notAvailableCount.incrementAndGet();
+                } else {
+                    throw e;
+                }
+            }
+        });
+
+        assertThat(successCount.get()).isEqualTo(2);
+        assertThat(notAvailableCount.get()).isEqualTo(3);
+        assertThat(bookRepository.findById(limitedBook.getId()).get().getAvailableCopies()).isEqualTo(0);
+    }
+
+    @Test
+    void testConcurrentBatchedLoansSameMember_OnlyOneSucceeds() throws InterruptedException {
+        Integer member = createMember("same");
+        AtomicInteger successCount = new AtomicInteger();
+        AtomicInteger activeLoanCount = new AtomicInteger();
+
+        runConcurrently(4, i -> {
+            try {
+                loanBatchExecutor.loanBooks(new LoanInput(member, List.of(testBook.getId())));
+                successCount.incrementAndGet();
+            } catch (IllegalArgumentException e) {
+                if (e.getMessage().contains("Member has active loans")) {
+                    activeLoanCount.incrementAndGet();
+                } else {
+                    throw e;
+                }
+            }
+        });
+
+        assertThat(successCount.get()).isEqualTo(1);
+        assertThat(activeLoanCount.get()).isEqualTo(3);
+        assertThat(bookRepository.findById(testBook.getId()).get().getAvailableCopies()).isEqualTo(99);
+    }
+
+    @Test
+    void testBatchedVersusDirectPathLatencyAndThroughput() throws InterruptedException {
+        int requests = 40;
+        List<Integer> directMembers = createMembers("direct", requests);
+        List<Integer> batchedMembers = createMembers("batched", requests);
+
+        var direct = measure(requests, i ->
+                loanService.loanBooks(new LoanInput(directMembers.get(i), List.of(testBook.getId()))));
+        var batched = measure(requests, i ->
+                loanBatchExecutor.loanBooks(new LoanInput(batchedMembers.get(i), List.of(testBook.getId()))));
+
+        System.out.printf("Direct path : %s%n", direct);
+        System.out.printf("Batched path: %s%n", batched);
+
+        // Both paths must produce the same inventory effect
+        assertThat(bookRepository.findById(testBook.getId()).get().getAvailableCopies()).isEqualTo(100 - 2 * requests);
+        assertThat(loanRepository.count()).isEqualTo(2L * requests);
+    }
+
+    private Integer createMember(String prefix) {
+        String uniqueEmail = prefix + "-" + System.nanoTime() + "@library.local";
+        return memberService.createMember(new MemberInput(
+                "Batch Member", uniqueEmail, "password123", "Addr", "555")).id();
+    }
+
+    private List<Integer> createMembers(String prefix, int count) {
+        List<Integer> members = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            members.add(createMember(prefix + i));
+        }
+        return members;
+    }
+
+    private void runConcurrently(int threads, Consumer<Integer> task) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        CountDownLatch doneLatch = new CountDownLatch(threads);
+        ConcurrentLinkedQueue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+
+        for (int i = 0; i < threads; i++) {
+            int index = i;
+            executor.submit(() -> {
+                try {
+                    startLatch.await();
+                    task.accept(index);
+                } catch (Throwable e) {
+                    unexpected.add(e);
+                } finally {
+                    doneLatch.countDown();
+                }
+            });
+        }
+
+        startLatch.countDown();
+        assertThat(doneLatch.await(60, TimeUnit.SECONDS)).isTrue();
+        executor.shutdown();
+        assertThat(unexpected).isEmpty();
+    }
+
+    private LatencyReport measure(int requests, Consumer<Integer> task) throws InterruptedException {
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>(requests));
+        long start = System.nanoTime();
+        runConcurrently(requests, i -> {
+            long begin = System.nanoTime();
+            task.accept(i);
+            latencies.add(System.nanoTime() - begin);
+        });
+        long elapsed = System.nanoTime() - start;
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        return new LatencyReport(
+                requests * 1_000_000_000.0 / elapsed,
+                sorted.get(sorted.size() / 2) / 1_000_000.0,
+                sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1) / 1_000_000.0
+        );
+    }
+
+    private record LatencyReport(double throughputPerSecond, double p50Millis, double p99Millis) {
+        @Override
+        public String toString() {
+            return String.format("%.1f req/s, p50 %.2f ms, p99 %.2f ms", throughputPerSecond, p50Millis, p99Millis);
+        }
+    }
+}
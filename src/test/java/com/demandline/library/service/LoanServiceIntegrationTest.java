@@ -15,12 +15,14 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -62,6 +64,9 @@ public class LoanServiceIntegrationTest {
     @Autowired
     private MemberService memberService;
 
+    @Autowired
+    private BookService bookService;
+
     @Autowired
     private BookRepository bookRepository;
 
@@ -213,6 +218,20 @@ public class LoanServiceIntegrationTest {
         assertThat(book2.getAvailableCopies()).isEqualTo(3);
     }
 
+    @Test
+    void testLoanAndReturnReportAvailableCopiesAfterUpdate() {
+        var loanResult = loanService.loanBooks(new LoanInput(testMember.getId(),
+                List.of(testBook1.getId(), testBook1.getId())));
+
+        // Both loans of the repeated book report the count after both copies were taken
+        assertThat(loanResult.books()).extracting(lb -> lb.book().availableCopies()).containsOnly(3);
+
+        var returnResult = loanService.returnBooks(new ReturnInput(testMember.getId(), List.of(
+                new ReturnPairInput(loanResult.books().get(0).id(), testBook1.getId()))));
+
+        assertThat(returnResult.books().get(0).book().availableCopies()).isEqualTo(4);
+    }
+
     @Test
     void testReturnBooksAlreadyReturned() {
         // Loan books
@@ -617,6 +636,113 @@ public class LoanServiceIntegrationTest {
         assertThat(finalBook.getAvailableCopies()).isEqualTo(0); // 2 - 2 = 0
     }
 
+    @Test
+    void testConcurrentReturnsSameBook_NoLostUpdates() throws InterruptedException {
+        // Two members return copies of the same book at the same time
+        // Expected: both copies are given back, the atomic increments do not overwrite each other
+        String uniqueEmail2 = "test2-" + System.currentTimeMillis() + "@library.local";
+        var memberDto2 = memberService.createMember(new MemberInput(
+                "Test Member 2", uniqueEmail2, "password123", "456 Second St", "555-5678"));
+
+        var firstLoan = loanService.loanBooks(new LoanInput(testMember.getId(), List.of(testBook1.getId())));
+        var secondLoan = loanService.loanBooks(new LoanInput(memberDto2.id(), List.of(testBook1.getId())));
+        assertThat(bookRepository.findById(testBook1.getId()).get().getAvailableCopies()).isEqualTo(3);
 
-}
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        CountDownLatch doneLatch = new CountDownLatch(2);
+        AtomicInteger successCount = new AtomicInteger(0);
+
+        for (var loan : List.of(firstLoan, secondLoan)) {
+            executor.submit(() -> {
+                try {
+                    startLatch.await();
+                    loanService.returnBooks(new ReturnInput(loan.member().id(), List.of(
+                            new ReturnPairInput(loan.books().get(0).id(), testBook1.getId()))));
+                    successCount.incrementAndGet();
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                } finally {
+                    doneLatch.countDown();
+                }
+            });
+        }
+
+        startLatch.countDown();
+        assertThat(doneLatch.await(30, TimeUnit.SECONDS)).isTrue();
+        executor.shutdown();
+
+        assertThat(successCount.get()).isEqualTo(2);
+        assertThat(bookRepository.findById(testBook1.getId()).get().getAvailableCopies()).isEqualTo(5);
+    }
+
+    @Test
+    void testReturnNeverRaisesAvailableCopiesAboveTotal() {
+        var loanResult = loanService.loanBooks(new LoanInput(testMember.getId(), List.of(testBook2.getId())));
 
+        // Simulate drift: copies were already restored by someone else
+        var book = bookRepository.findById(testBook2.getId()).get();
+        book.setAvailableCopies(book.getTotalCopies());
+        bookRepository.save(book);
+
+        var returnResult = loanService.returnBooks(new ReturnInput(testMember.getId(), List.of(
+                new ReturnPairInput(loanResult.books().get(0).id(), testBook2.getId()))));
+
+        assertThat(returnResult.books().get(0).returnDate()).isNotNull();
+        assertThat(bookRepository.findById(testBook2.getId()).get().getAvailableCopies()).isEqualTo(3);
+    }
+
+    @Test
+    void testBulkImportConcurrentWithLoansKeepsCopyCounts() throws InterruptedException {
+        // Loans running while a CSV import adds copies to the same book must not be overwritten
+        int borrowers = 4;
+        List<Integer> memberIds = new ArrayList<>();
+        for (int i = 0; i < borrowers; i++) {
+            memberIds.add(memberService.createMember(new MemberInput("Borrower " + i,
+                    "import-race-" + i + "-" + System.nanoTime() + "@library.local",
+                    "password123", "Addr", "555")).id());
+        }
+        var file = new MockMultipartFile("file", "books.csv", "text/csv", """
+                Title,Author,ISBN,TotalCopies
+                Book One,Author One,ISBN-001,3
+                """.getBytes());
+
+        ExecutorService executor = Executors.newFixedThreadPool(borrowers + 1);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        CountDownLatch doneLatch = new CountDownLatch(borrowers + 1);
+        AtomicInteger successCount = new AtomicInteger(0);
+
+        executor.submit(() -> {
+            try {
+                startLatch.await();
+                bookService.createMultipleBook(file);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            } finally {
+                doneLatch.countDown();
+            }
+        });
+        for (Integer memberId : memberIds) {
+            executor.submit(() -> {
+                try {
+                    startLatch.await();
+                    loanService.loanBooks(new LoanInput(memberId, List.of(testBook1.getId())));
+                    successCount.incrementAndGet();
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                } finally {
+                    doneLatch.countDown();
+                }
+            });
+        }
+
+        startLatch.countDown();
+        assertThat(doneLatch.await(30, TimeUnit.SECONDS)).isTrue();
+        executor.shutdown();
+
+        assertThat(successCount.get()).isEqualTo(borrowers);
+        var book = bookRepository.findById(testBook1.getId()).get();
+        assertThat(book.getTotalCopies()).isEqualTo(8); // 5 + 3
+        assertThat(book.getAvailableCopies()).isEqualTo(8 - borrowers);
+    }
+}
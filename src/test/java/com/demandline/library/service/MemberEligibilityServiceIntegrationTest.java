@@ -0,0 +1,147 @@
+package com.demandline.library.service;
+
+import com.demandline.library.repository.BookRepository;
+import com.demandline.library.repository.LoanRepository;
+import com.demandline.library.repository.MemberRepository;
+import com.demandline.library.repository.model.BookEntity;
+import com.demandline.library.service.model.MemberEligibility.BookAvailability;
+import com.demandline.library.service.model.input.LoanInput;
+import com.demandline.library.service.model.input.MemberInput;
+import com.demandline.library.service.model.input.ReturnInput;
+import com.demandline.library.service.model.input.ReturnPairInput;
+import com.redis.testcontainers.RedisContainer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@Testcontainers
+public class MemberEligibilityServiceIntegrationTest {
+
+    @Container
+    public static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @Container
+    public static RedisContainer redis = new RedisContainer("redis:8-alpine");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", redis::getFirstMappedPort);
+        registry.add("library.maxBooksPerMember", () -> "2");
+    }
+
+    @Autowired
+    private MemberEligibilityService memberEligibilityService;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    private Integer memberId;
+    private BookEntity available;
+    private BookEntity lastCopy;
+
+    @BeforeEach
+    void setUp() {
+        loanRepository.deleteAll();
+        bookRepository.deleteAll();
+
+        memberId = memberService.createMember(new MemberInput(
+                "Eligible Member", "eligible-" + System.nanoTime() + "@library.local", "pass", "Addr", "555")).id();
+        available = bookRepository.save(BookEntity.builder()
+                .title("Available").author("Author").isbn("ELIG-001").totalCopies(3).availableCopies(3).build());
+        lastCopy = bookRepository.save(BookEntity.builder()
+                .title("Last Copy").author("Author").isbn("ELIG-002").totalCopies(1).availableCopies(1).build());
+    }
+
+    @Test
+    void testMemberWithoutLoansCanBorrowAvailableBooks() {
+        var eligibility = memberEligibilityService.checkEligibility(memberId, List.of(available.getId(), lastCopy.getId()));
+
+        assertThat(eligibility.canBorrow()).isTrue();
+        assertThat(eligibility.reason()).isNull();
+        assertThat(eligibility.active()).isTrue();
+        assertThat(eligibility.activeLoanCount()).isZero();
+        assertThat(eligibility.overdueLoanCount()).isZero();
+        assertThat(eligibility.remainingQuota()).isEqualTo(2);
+        assertThat(eligibility.books()).extracting(BookAvailability::available).containsExactly(true, true);
+    }
+
+    @Test
+    void testUnavailableAndMissingBooksAreReported() {
+        var eligibility = memberEligibilityService.checkEligibility(memberId, List.of(lastCopy.getId(), lastCopy.getId()));
+        assertThat(eligibility.canBorrow()).isFalse();
+        assertThat(eligibility.reason()).isEqualTo("Book not available: Last Copy");
+        assertThat(eligibility.books()).extracting(BookAvailability::available).containsExactly(true, false);
+
+        var missing = memberEligibilityService.checkEligibility(memberId, List.of(-1));
+        assertThat(missing.canBorrow()).isFalse();
+        assertThat(missing.books()).extracting(BookAvailability::found).containsExactly(false);
+
+        var tooMany = memberEligibilityService.checkEligibility(memberId, List.of(available.getId(), available.getId(), available.getId()));
+        assertThat(tooMany.canBorrow()).isFalse();
+        assertThat(tooMany.remainingQuota()).isEqualTo(2);
+    }
+
+    @Test
+    void testLoanAndReturnRefreshCachedStatus() {
+        assertThat(memberEligibilityService.checkEligibility(memberId, List.of()).canBorrow()).isTrue();
+
+        var loan = loanService.loanBooks(new LoanInput(memberId, List.of(available.getId())));
+        var afterLoan = memberEligibilityService.checkEligibility(memberId, List.of(lastCopy.getId()));
+        assertThat(afterLoan.canBorrow()).isFalse();
+        assertThat(afterLoan.activeLoanCount()).isEqualTo(1);
+        assertThat(afterLoan.remainingQuota()).isZero();
+
+        var returnPairs = loan.books().stream()
+                .map(lb -> new ReturnPairInput(lb.id(), lb.book().id()))
+                .toList();
+        loanService.returnBooks(new ReturnInput(memberId, returnPairs));
+        var afterReturn = memberEligibilityService.checkEligibility(memberId, List.of(lastCopy.getId()));
+        assertThat(afterReturn.canBorrow()).isTrue();
+        assertThat(afterReturn.activeLoanCount()).isZero();
+    }
+
+    @Test
+    void testDeactivatedMemberCannotBorrow() {
+        memberService.deleteMember(String.valueOf(memberId));
+
+        var eligibility = memberEligibilityService.checkEligibility(memberId, List.of(available.getId()));
+        assertThat(eligibility.active()).isFalse();
+        assertThat(eligibility.canBorrow()).isFalse();
+        assertThat(eligibility.remainingQuota()).isZero();
+    }
+
+    @Test
+    void testUnknownMemberIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> memberEligibilityService.checkEligibility(-1, List.of(available.getId())));
+    }
+}
@@ -0,0 +1,186 @@
+package com.demandline.library.service;
+
+import com.demandline.library.repository.BookRepository;
+import com.demandline.library.repository.LoanRepository;
+import com.demandline.library.repository.MemberRepository;
+import com.demandline.library.repository.model.BookEntity;
+import com.demandline.library.repository.model.MemberEntity;
+import com.demandline.library.service.model.MemberLoanCounterSummary;
+import com.demandline.library.service.model.input.LoanInput;
+import com.demandline.library.service.model.input.MemberInput;
+import com.demandline.library.service.model.input.ReturnInput;
+import com.demandline.library.service.model.input.ReturnPairInput;
+import com.redis.testcontainers.RedisContainer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@Testcontainers
+public class MemberLoanCounterJobIntegrationTest {
+
+    @Container
+    public static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @Container
+    public static RedisContainer redis = new RedisContainer("redis:8-alpine");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", redis::getFirstMappedPort);
+
+        registry.add("library.members.loanCounters.verifier.enabled", () -> "false");
+        registry.add("library.members.loanCounters.overdueRefreshIntervalMillis", () -> "3600000");
+    }
+
+    @Autowired
+    private MemberLoanCounterJob memberLoanCounterJob;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Integer memberId;
+    private BookEntity book;
+
+    @BeforeEach
+    void setUp() {
+        loanRepository.deleteAll();
+        bookRepository.deleteAll();
+        memberRepository.deleteAll();
+
+        memberId = memberService.createMember(new MemberInput(
+                "Counter Member", "counter-" + System.nanoTime() + "@library.local",
+                "password123", "Addr", "555")).id();
+        book = bookRepository.save(BookEntity.builder()
+                .title("Counter Book").author("Counter Author").isbn("ISBN-CNT-001")
+                .totalCopies(5).availableCopies(5).build());
+    }
+
+    @Test
+    void testLoanAndReturnMaintainActiveLoanCount() {
+        var loan = loanService.loanBooks(new LoanInput(memberId, List.of(book.getId(), book.getId())));
+        assertThat(activeLoanCount()).isEqualTo(2);
+
+        // The counter alone now rejects a second borrow
+        assertThrows(IllegalArgumentException.class,
+                () -> loanService.loanBooks(new LoanInput(memberId, List.of(book.getId()))));
+
+        var returnPairs = loan.books().stream()
+                .map(lb -> new ReturnPairInput(lb.id(), lb.book().id()))
+                .toList();
+        loanService.returnBooks(new ReturnInput(memberId, returnPairs.subList(0, 1)));
+        assertThat(activeLoanCount()).isEqualTo(1);
+        loanService.returnBooks(new ReturnInput(memberId, returnPairs.subList(1, 2)));
+        assertThat(activeLoanCount()).isZero();
+
+        assertThat(memberLoanCounterJob.run(false).driftedMembers()).isZero();
+    }
+
+    @Test
+    void testActiveLoanCounterIsClaimedOnlyOnce() {
+        // A second borrow that read the counter before the first one committed still cannot claim it
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        assertThat(transactionTemplate.<Integer>execute(status -> memberRepository.addActiveLoans(memberId, 1))).isEqualTo(1);
+        assertThat(transactionTemplate.<Integer>execute(status -> memberRepository.addActiveLoans(memberId, 1))).isZero();
+        assertThat(activeLoanCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testOverdueCountIsRefreshedAndRecomputedOnReturn() {
+        var loan = loanService.loanBooks(new LoanInput(memberId, List.of(book.getId())));
+        Integer loanId = loan.books().get(0).id();
+        jdbcTemplate.update("UPDATE loans SET due_date = ? WHERE id = ?", LocalDateTime.now().minusDays(1), loanId);
+        assertThat(overdueCount()).isZero();
+
+        assertThat(memberLoanCounterJob.refreshOverdueCounts()).isEqualTo(1);
+        assertThat(overdueCount()).isEqualTo(1);
+        assertThat(memberLoanCounterJob.refreshOverdueCounts()).isZero();
+
+        loanService.returnBooks(new ReturnInput(memberId, List.of(new ReturnPairInput(loanId, book.getId()))));
+        assertThat(overdueCount()).isZero();
+    }
+
+    @Test
+    void testDriftIsReportedAndRepaired() {
+        LocalDateTime borrowDate = LocalDateTime.now().minusDays(3);
+        jdbcTemplate.update("INSERT INTO loans (member_id, book_id, borrow_date, due_date) VALUES (?, ?, ?, ?)",
+                memberId, book.getId(), borrowDate, borrowDate.plusDays(14));
+
+        MemberLoanCounterSummary report = memberLoanCounterJob.run(false);
+        assertThat(report.driftedMembers()).isEqualTo(1);
+        assertThat(report.driftedLoans()).isEqualTo(1);
+        assertThat(activeLoanCount()).isZero();
+
+        MemberLoanCounterSummary repair = memberLoanCounterJob.run(true);
+        assertThat(repair.repairedMembers()).isEqualTo(1);
+        assertThat(activeLoanCount()).isEqualTo(1);
+        assertThat(memberLoanCounterJob.run(false).driftedMembers()).isZero();
+    }
+
+    @Test
+    void testDriftedLowCounterDoesNotBlockReturn() {
+        // A member saved in this session reads its counters as zero before any refresh
+        assertThat(MemberEntity.builder().build().getActiveLoanCount()).isZero();
+        assertThat(new MemberEntity().getOverdueCount()).isZero();
+
+        LocalDateTime borrowDate = LocalDateTime.now().minusDays(3);
+        Integer loanId = jdbcTemplate.queryForObject(
+                "INSERT INTO loans (member_id, book_id, borrow_date, due_date) VALUES (?, ?, ?, ?) RETURNING id",
+                Integer.class, memberId, book.getId(), borrowDate, borrowDate.plusDays(14));
+        assertThat(memberLoanCounterJob.run(false).driftedMembers()).isEqualTo(1);
+
+        loanService.returnBooks(new ReturnInput(memberId, List.of(new ReturnPairInput(loanId, book.getId()))));
+
+        assertThat(activeLoanCount()).isZero();
+        assertThat(loanRepository.findById(loanId).orElseThrow().getReturnDate()).isNotNull();
+    }
+
+    private int activeLoanCount() {
+        return jdbcTemplate.queryForObject("SELECT active_loan_count FROM members WHERE id = ?", Integer.class, memberId);
+    }
+
+    private int overdueCount() {
+        return jdbcTemplate.queryForObject("SELECT overdue_count FROM members WHERE id = ?", Integer.class, memberId);
+    }
+}
@@ -3,6 +3,7 @@ package com.demandline.library.service;
 import com.demandline.library.repository.MemberRepository;
 import com.demandline.library.repository.RoleRepository;
 import com.demandline.library.repository.UserRepository;
+import com.demandline.library.service.model.Member;
 import com.demandline.library.service.model.filter.MemberFilter;
 import com.demandline.library.service.model.input.MemberInput;
 import com.demandline.library.service.model.input.MemberUpdateInput;
@@ -476,5 +477,58 @@ public class MemberServiceIntegrationTest {
         assertThat(members.stream().anyMatch(m -> m.user().email().equals("active@example.com"))).isTrue();
         assertThat(members.stream().anyMatch(m -> m.user().email().equals("deleted@example.com"))).isFalse();
     }
-}
 
+    @Test
+    void testGetAllMembersUsesProjectionWithoutPassword() {
+        for (int i = 1; i <= 5; i++) {
+            memberService.createMember(new MemberInput(
+                    "Projection " + i, "projection" + i + "@example.com", "pass", "Address", "123"));
+        }
+
+        var filter = new MemberFilter(Optional.of("Projection"), Optional.empty());
+        var all = memberService.getAllMembers(filter, 100, 0);
+        // Offset that is not a multiple of the limit
+        var window = memberService.getAllMembers(filter, 2, 3);
+
+        assertThat(all).hasSize(5);
+        assertThat(all.stream().allMatch(m -> m.user().password() == null)).isTrue();
+        assertThat(all.get(0).user().role().name()).isEqualTo("MEMBER");
+        assertThat(window).extracting(Member::id)
+                .containsExactly(all.get(3).id(), all.get(4).id());
+    }
+
+    @Test
+    void testZeroPageSizeReturnsEmptyPage() {
+        memberService.createMember(new MemberInput("Zero Page", "zero-page@example.com", "pass", "Addr", "1"));
+        var filter = new MemberFilter(Optional.empty(), Optional.empty());
+
+        assertThat(memberService.getAllMembers(filter, 0, 0)).isEmpty();
+        assertThat(memberService.getAllMembers(filter, 0, 20)).isEmpty();
+        assertThat(memberService.getMembersAfter(filter, 0, 0)).isEmpty();
+        assertThrows(IllegalArgumentException.class, () -> memberService.getAllMembers(filter, -1, 0));
+    }
+
+    @Test
+    void testSearchMembersCombinesNameAndEmailWithKeysetPaging() {
+        memberService.createMember(new MemberInput("Keyset Kim", "kim@keyset.org", "pass", "Addr", "1"));
+        memberService.createMember(new MemberInput("Keyset Kai", "kai@other.org", "pass", "Addr", "2"));
+        memberService.createMember(new MemberInput("Keyset Kay", "kay@keyset.org", "pass", "Addr", "3"));
+        memberService.createMember(new MemberInput("Keyset_Lee", "lee@keyset.org", "pass", "Addr", "4"));
+
+        // Name and email filters both apply
+        var filter = new MemberFilter(Optional.of("keyset k"), Optional.of("@KEYSET.org"));
+        var all = memberService.getAllMembers(filter, 100, 0);
+        assertThat(all).extracting(m -> m.user().name()).containsExactly("Keyset Kim", "Keyset Kay");
+
+        var first = memberService.getMembersAfter(filter, 0, 1);
+        var second = memberService.getMembersAfter(filter, first.get(0).id(), 1);
+        var third = memberService.getMembersAfter(filter, second.get(0).id(), 1);
+        assertThat(first).extracting(Member::id).containsExactly(all.get(0).id());
+        assertThat(second).extracting(Member::id).containsExactly(all.get(1).id());
+        assertThat(third).isEmpty();
+
+        // LIKE wildcards in the search term are matched literally
+        var underscore = memberService.getAllMembers(new MemberFilter(Optional.of("keyset_"), Optional.empty()), 100, 0);
+        assertThat(underscore).extracting(m -> m.user().name()).containsExactly("Keyset_Lee");
+    }
+}
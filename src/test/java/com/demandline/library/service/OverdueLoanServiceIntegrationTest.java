@@ -0,0 +1,168 @@
+package com.demandline.library.service;
+
+import com.demandline.library.repository.BookRepository;
+import com.demandline.library.repository.LoanRepository;
+import com.demandline.library.repository.MemberRepository;
+import com.demandline.library.repository.model.BookEntity;
+import com.demandline.library.service.model.LoanBookMember;
+import com.demandline.library.service.model.input.MemberInput;
+import com.demandline.library.service.model.input.ReturnInput;
+import com.demandline.library.service.model.input.ReturnPairInput;
+import com.redis.testcontainers.RedisContainer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Testcontainers
+public class OverdueLoanServiceIntegrationTest {
+
+    @Container
+    public static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @Container
+    public static RedisContainer redis = new RedisContainer("redis:8-alpine");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", redis::getFirstMappedPort);
+
+        registry.add("library.overdue.snapshot.enabled", () -> "true");
+        registry.add("library.overdue.snapshot.chunkSize", () -> "2");
+    }
+
+    @Autowired
+    private OverdueLoanService overdueLoanService;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private BookEntity testBook;
+    private Integer memberId;
+
+    @BeforeEach
+    void setUp() {
+        loanRepository.deleteAll();
+        bookRepository.deleteAll();
+        memberRepository.deleteAll();
+        redisTemplate.delete(List.of("loans:overdue", "loans:overdue:watermark"));
+
+        testBook = bookRepository.save(BookEntity.builder()
+                .title("Overdue Book")
+                .author("Overdue Author")
+                .isbn("ISBN-OVERDUE-001")
+                .totalCopies(10)
+                .availableCopies(5)
+                .build());
+        memberId = memberService.createMember(new MemberInput(
+                "Overdue Member", "overdue-" + System.nanoTime() + "@library.local",
+                "password123", "Addr", "555")).id();
+
+        // Five overdue loans (1, 3, 5, 7, 9 days late) and one not yet due
+        for (int daysLate : new int[] {9, 1, 5, 3, 7}) {
+            insertLoan(LocalDateTime.now().minusDays(daysLate), null);
+        }
+        insertLoan(LocalDateTime.now().plusDays(3), null);
+        insertLoan(LocalDateTime.now().minusDays(20), LocalDateTime.now().minusDays(15));
+    }
+
+    @Test
+    void testOverdueLoansFromDatabaseArePagedOldestFirst() {
+        List<LoanBookMember> firstPage = overdueLoanService.getOverdueLoans(0, 0, 3);
+        List<LoanBookMember> secondPage = overdueLoanService.getOverdueLoans(0, 1, 3);
+
+        assertThat(firstPage).hasSize(3);
+        assertThat(secondPage).hasSize(2);
+        assertThat(firstPage.get(0).dueDate()).isBefore(firstPage.get(1).dueDate());
+        assertThat(secondPage.get(1).dueDate()).isBefore(LocalDateTime.now().minusHours(23));
+        assertThat(firstPage.get(0).member().user().name()).isEqualTo("Overdue Member");
+    }
+
+    @Test
+    void testDaysOverdueThreshold() {
+        assertThat(overdueLoanService.getOverdueLoans(4, 0, 20)).hasSize(3);
+        assertThat(overdueLoanService.getOverdueLoans(30, 0, 20)).isEmpty();
+    }
+
+    @Test
+    void testSnapshotMatchesDatabase() {
+        List<LoanBookMember> fromDatabase = overdueLoanService.getOverdueLoans(2, 0, 20);
+
+        overdueLoanService.refreshSnapshot();
+        assertThat(redisTemplate.opsForZSet().size("loans:overdue")).isEqualTo(5L);
+
+        List<LoanBookMember> fromSnapshot = overdueLoanService.getOverdueLoans(2, 0, 20);
+        assertThat(fromSnapshot).extracting(LoanBookMember::id)
+                .containsExactlyElementsOf(fromDatabase.stream().map(LoanBookMember::id).toList());
+    }
+
+    @Test
+    void testSnapshotRefreshIsIncremental() {
+        overdueLoanService.refreshSnapshot();
+        insertLoan(LocalDateTime.now().minusMinutes(1), null);
+
+        overdueLoanService.refreshSnapshot();
+
+        assertThat(redisTemplate.opsForZSet().size("loans:overdue")).isEqualTo(6L);
+        assertThat(overdueLoanService.getOverdueLoans(0, 0, 20)).hasSize(6);
+    }
+
+    @Test
+    void testReturnedLoanIsRemovedFromSnapshot() {
+        overdueLoanService.refreshSnapshot();
+        LoanBookMember oldest = overdueLoanService.getOverdueLoans(0, 0, 1).get(0);
+
+        loanService.returnBooks(new ReturnInput(memberId,
+                List.of(new ReturnPairInput(oldest.id(), testBook.getId()))));
+
+        assertThat(redisTemplate.opsForZSet().size("loans:overdue")).isEqualTo(4L);
+        assertThat(overdueLoanService.getOverdueLoans(0, 0, 20))
+                .extracting(LoanBookMember::id)
+                .doesNotContain(oldest.id());
+    }
+
+    private void insertLoan(LocalDateTime dueDate, LocalDateTime returnDate) {
+        jdbcTemplate.update("INSERT INTO loans (member_id, book_id, borrow_date, due_date, return_date) " +
+                        "VALUES (?, ?, ?, ?, ?)",
+                memberId, testBook.getId(), dueDate.minusDays(14), dueDate, returnDate);
+    }
+}
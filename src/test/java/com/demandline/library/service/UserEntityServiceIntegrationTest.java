@@ -257,6 +257,9 @@ public class UserEntityServiceIntegrationTest {
 
         // Verify different results
         assertThat(page1.get(0).id()).isNotEqualTo(page2.get(0).id());
+
+        // A page size of 0 is an empty page, not an error
+        assertThat(userService.getAllUsers(true, 0, 0)).isEmpty();
     }
 
     @Test